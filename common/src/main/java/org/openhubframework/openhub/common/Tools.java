@@ -26,10 +26,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 import javax.xml.namespace.QName;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -45,6 +43,8 @@ import org.springframework.core.env.PropertySource;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.util.Assert;
 
+import org.openhubframework.openhub.common.xml.XmlPools;
+
 
 /**
  * Class with common methods for use. For usage look into test ToolsTest class.
@@ -119,14 +119,13 @@ public final class Tools {
      * @param qName the QName
      * @param <T> as data type of object
      * @return XML as string
-     * @see Marshaller
+     * @see javax.xml.bind.Marshaller
      */
     @SuppressWarnings("unchecked")
     public static <T> String marshalToXml(T obj, QName qName) {
         StringWriter stringWriter = new StringWriter();
 
         try {
-            Marshaller marshaller = JAXBContext.newInstance(obj.getClass()).createMarshaller();
             Object element;
             if (qName != null) {
                 element = new JAXBElement<T>(qName, (Class<T>) obj.getClass(), obj);
@@ -134,7 +133,11 @@ public final class Tools {
                 qName = new QName(obj.getClass().getPackage().getName(), obj.getClass().getSimpleName());
                 element = new JAXBElement<T>(qName, (Class<T>) obj.getClass(), obj);
             }
-            marshaller.marshal(element, stringWriter);
+            // marshaller is pooled
+            XmlPools.withMarshaller(obj.getClass(), marshaller -> {
+                marshaller.marshal(element, stringWriter);
+                return null;
+            });
             return stringWriter.toString();
         } catch (JAXBException e) {
             throw new RuntimeException(e);
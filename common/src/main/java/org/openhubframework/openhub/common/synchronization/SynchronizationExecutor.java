@@ -16,13 +16,14 @@
 
 package org.openhubframework.openhub.common.synchronization;
 
-import org.springframework.util.Assert;
-
-import java.util.HashMap;
-import java.util.HashSet;
+import java.time.Duration;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+
+import org.springframework.util.Assert;
 
 /**
  * Executor for {@link SynchronizationBlock} that synchronized more then one threads by one value.
@@ -36,6 +37,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * (like THROTTLING, or ALERT_COUNT).
  * </p>
  * <p>
+ * Each synchronization value has own {@link ReentrantLock lock}, threads with different values (or types)
+ * don't wait for each other. Waiting threads are queued in FIFO order and the lock is handed over to
+ * one of them only (no wake-up of all waiting threads), the lock is not fair (running thread can get the lock
+ * before waiting ones) because of throughput. Locks are created on demand and removed when no thread uses them.
+ * </p>
+ * <p>
  * <b>Example:</b><br>
  * In this example increment for property count is synchronized by value SYNCHRONIZATION_VALUE in domain ALERT.
  * Method has no result.
@@ -68,14 +75,9 @@ public final class SynchronizationExecutor {
     private static SynchronizationExecutor synchronizationExecutor;
 
     /**
-     * Contains all scopes in progress ({@link SynchronizationBlock}) in map by type.
-     */
-    private final Map<String, Set<Object>> scopesInProgress = new HashMap<>();
-
-    /**
-     * Contains all locks for sync value type.
+     * Contains locks of all values in progress (or waiting for progress) by type and value.
      */
-    private final Map<String, Object> locksForSyncValueType = new ConcurrentHashMap<>();
+    private final Map<SyncKey, LockEntry> locks = new ConcurrentHashMap<>();
 
     /**
      * Gets instance by {@link #getInstance()}.
@@ -99,109 +101,86 @@ public final class SynchronizationExecutor {
      * @return return from method {@link SynchronizationBlock#syncBlock()}
      */
     public <T> T execute(SynchronizationBlock syncBlock, String syncValueType, Object syncValue) {
-        Assert.notNull(syncBlock, "syncBlock must not be null");
-        Assert.hasText(syncValueType, "syncValueType must not be empty");
-        Assert.notNull(syncValue, "syncValue must not be null");
-
-        Object lockSyncValueType = getLockForSyncValueType(syncValueType);
-
-        while (isLock(syncValueType, syncValue)) {
-            synchronized (lockSyncValueType) {
-                try {
-                    lockSyncValueType.wait();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new IllegalStateException("Error in wait method in '"
-                            + SynchronizationExecutor.class.getSimpleName() + "'. Error: " + e.getMessage(), e);
-                }
-            }
-        }
-
-        try {
-            return syncBlock.syncBlock();
-        } finally {
-            removeSyncValue(syncValueType, syncValue);
-
-            synchronized (lockSyncValueType) {
-                lockSyncValueType.notifyAll();
-            }
-        }
+        return execute(syncBlock, syncValueType, syncValue, null);
     }
 
     /**
-     * Checks if thread which call this method will be locked.
+     * Execute method {@link SynchronizationBlock#syncBlock()} in synchronization by one value
+     * (attribute syncValue) with maximum time of waiting for the lock.
      *
-     * @param syncValueType synchronization type
-     * @param syncValue     synchrozniation value
-     * @return {@code true} - thread will be locked, {@code false} - otherwise
+     * @param syncBlock     interface with method {@link SynchronizationBlock#syncBlock()} that
+     *                      will be synchronized by value
+     * @param syncValueType type of value (like THROTTLING is synchronized every throttling scopes)
+     * @param syncValue     value by which will be method synchronized (like concrete throttling scope)
+     * @param timeout       maximum time of waiting for the lock, {@code null} - wait until the lock is released
+     * @param <T>           type of return object
+     * @return return from method {@link SynchronizationBlock#syncBlock()}
+     * @throws IllegalStateException when the thread is interrupted or lock wasn't acquired in specified timeout
      */
-    private boolean isLock(String syncValueType, Object syncValue) {
+    public <T> T execute(SynchronizationBlock syncBlock, String syncValueType, Object syncValue,
+            @Nullable Duration timeout) {
+        Assert.notNull(syncBlock, "syncBlock must not be null");
         Assert.hasText(syncValueType, "syncValueType must not be empty");
         Assert.notNull(syncValue, "syncValue must not be null");
 
-        synchronized (scopesInProgress) {
-            Set<Object> valuesInProgress = getValuesInProgressByClass(syncValueType);
-            if (valuesInProgress.contains(syncValue)) {
-                return true;
-            } else {
-                valuesInProgress.add(syncValue);
-                return false;
+        SyncKey key = new SyncKey(syncValueType, syncValue);
+        LockEntry entry = acquireEntry(key);
+
+        try {
+            lock(entry.lock, key, timeout);
+            try {
+                return syncBlock.syncBlock();
+            } finally {
+                entry.lock.unlock();
             }
+        } finally {
+            releaseEntry(key);
         }
     }
 
     /**
-     * Remove synchronization value from scopes in progress.
+     * Gets lock for synchronization value and registers calling thread as its user.
      *
-     * @param syncValueType synchronization type
-     * @param syncValue     synchronization value
+     * @param key synchronization type and value
+     * @return lock entry
      */
-    private void removeSyncValue(String syncValueType, Object syncValue) {
-        Assert.hasText(syncValueType, "syncValueType must not be empty");
-        Assert.notNull(syncValue, "syncValue must not be null");
-
-        synchronized (scopesInProgress) {
-            Set<Object> valuesInProgress = getValuesInProgressByClass(syncValueType);
-            valuesInProgress.remove(syncValue);
-            if (valuesInProgress.isEmpty()) {
-                scopesInProgress.remove(syncValueType);
-            }
-        }
+    private LockEntry acquireEntry(SyncKey key) {
+        return locks.compute(key, (k, entry) -> {
+            LockEntry result = entry == null ? new LockEntry() : entry;
+            result.users++;
+            return result;
+        });
     }
 
     /**
-     * Gets scopes in progress for synchronization type.
+     * Unregisters calling thread from lock for synchronization value, lock without users is removed.
      *
-     * @param syncValueType synchronization type
-     * @return scopes in progress
+     * @param key synchronization type and value
      */
-    private Set<Object> getValuesInProgressByClass(String syncValueType) {
-        Assert.hasText(syncValueType, "syncValueType must not be empty");
-
-        Set<Object> result = scopesInProgress.get(syncValueType);
-        if (result == null) {
-            result = new HashSet<>();
-            scopesInProgress.put(syncValueType, result);
-        }
-        return result;
+    private void releaseEntry(SyncKey key) {
+        locks.computeIfPresent(key, (k, entry) -> --entry.users == 0 ? null : entry);
     }
 
     /**
-     * Get lock for sync value type.
+     * Acquires the lock.
      *
-     * @param syncValueType synchronization value type
-     * @return lock
+     * @param lock    the lock
+     * @param key     synchronization type and value
+     * @param timeout maximum time of waiting for the lock, {@code null} - without timeout
      */
-    private Object getLockForSyncValueType(String syncValueType) {
-        Assert.hasText(syncValueType, "syncValueType must not be empty");
-
-        synchronized (locksForSyncValueType) {
-            Object result = locksForSyncValueType.get(syncValueType);
-            if (result == null) {
-                result = new Object();
-                locksForSyncValueType.put(syncValueType, result);
+    private static void lock(ReentrantLock lock, SyncKey key, @Nullable Duration timeout) {
+        try {
+            if (timeout == null) {
+                lock.lockInterruptibly();
+            } else if (!lock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new IllegalStateException("Lock for value '" + key.value + "' of type '" + key.type
+                        + "' wasn't acquired in " + timeout.toMillis() + " ms in '"
+                        + SynchronizationExecutor.class.getSimpleName() + "'.");
             }
-            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Error in wait method in '"
+                    + SynchronizationExecutor.class.getSimpleName() + "'. Error: " + e.getMessage(), e);
         }
     }
 
@@ -218,4 +197,49 @@ public final class SynchronizationExecutor {
         }
         return synchronizationExecutor;
     }
+
+    //----------------------------------------------- PRIVATE CLASS ----------------------------------------------------
+
+    /**
+     * Synchronization type and value.
+     */
+    private static final class SyncKey {
+
+        private final String type;
+
+        private final Object value;
+
+        private SyncKey(String type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SyncKey)) {
+                return false;
+            }
+            SyncKey other = (SyncKey) obj;
+            return type.equals(other.type) && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + value.hashCode();
+        }
+    }
+
+    /**
+     * Lock with count of threads which use it (holds or waits for it).
+     * Count of users is changed only in atomic operations of the map with locks.
+     */
+    private static final class LockEntry {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private int users;
+    }
 }
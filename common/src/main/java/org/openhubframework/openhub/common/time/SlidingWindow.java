@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.common.time;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Ring of per-second buckets for counting events (e.g. requests) in sliding time window.
+ * Each bucket is one {@code long} value which contains the second (higher bits) and count of events
+ * in this second (lower {@value #COUNT_BITS} bits), so both values are changed atomically.
+ * Buckets are updated by CAS operations only, there is no lock for counting.
+ *
+ * @since 2.4
+ */
+public final class SlidingWindow {
+
+    private static final int COUNT_BITS = 24;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+
+    /**
+     * Creates new window.
+     *
+     * @param size the count of buckets (seconds)
+     */
+    public SlidingWindow(int size) {
+        this.buckets = new AtomicLongArray(size);
+    }
+
+    public int size() {
+        return buckets.length();
+    }
+
+    /**
+     * Adds one event in specified second.
+     *
+     * @param sec the second (epoch seconds)
+     */
+    public void increment(long sec) {
+        int idx = (int) (sec % buckets.length());
+
+        while (true) {
+            long bucket = buckets.get(idx);
+            long bucketSec = bucket >>> COUNT_BITS;
+            long count = bucket & COUNT_MASK;
+
+            long newBucket;
+            if (bucketSec < sec) {
+                // bucket from previous round => reset
+                newBucket = (sec << COUNT_BITS) | 1;
+            } else if (count < COUNT_MASK) {
+                // note: newer second than actual can be there from another thread, count it in anyway
+                newBucket = bucket + 1;
+            } else {
+                // counter is full
+                return;
+            }
+
+            if (buckets.compareAndSet(idx, bucket, newBucket)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sums events for specified interval.
+     *
+     * @param nowSec the last second of the interval (epoch seconds)
+     * @param intervalSec the interval in seconds, at most {@link #size()}
+     * @return count of events
+     */
+    public int sum(long nowSec, int intervalSec) {
+        long fromSec = nowSec - intervalSec;
+        long sum = 0;
+
+        for (int i = 0; i < buckets.length(); i++) {
+            long bucket = buckets.get(i);
+            long bucketSec = bucket >>> COUNT_BITS;
+
+            if (bucketSec > fromSec) {
+                sum += bucket & COUNT_MASK;
+            }
+        }
+
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets copy of all buckets, e.g. for sending to another node.
+     *
+     * @return buckets
+     */
+    public long[] snapshot() {
+        long[] result = new long[buckets.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buckets.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Sums events for specified interval in {@link #snapshot() snapshot of buckets}.
+     *
+     * @param buckets the snapshot of buckets
+     * @param nowSec the last second of the interval (epoch seconds)
+     * @param intervalSec the interval in seconds
+     * @return count of events
+     */
+    public static int sum(long[] buckets, long nowSec, int intervalSec) {
+        long fromSec = nowSec - intervalSec;
+        long sum = 0;
+
+        for (long bucket : buckets) {
+            if ((bucket >>> COUNT_BITS) > fromSec) {
+                sum += bucket & COUNT_MASK;
+            }
+        }
+
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.common.xml;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Thread-safe pool of objects which are expensive to create and which aren't thread-safe
+ * (e.g. JAXB unmarshallers or XSLT transformers).
+ * <p>
+ * Pool never blocks - new object is created when there is no idle object in the pool, returned objects
+ * are kept up to maximum count of idle objects, the others are discarded.
+ *
+ * @param <T> the type of pooled objects
+ * @since 2.4
+ */
+public class ObjectPool<T> {
+
+    private final Callable<T> factory;
+
+    @Nullable
+    private final Consumer<T> resetAction;
+
+    private final int maxIdle;
+
+    private final Queue<T> idleObjects = new ConcurrentLinkedQueue<>();
+
+    // note: size of ConcurrentLinkedQueue isn't constant-time operation
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * Creates new pool.
+     *
+     * @param factory the factory for creating new objects
+     * @param resetAction the action which resets state of the object before returning into the pool
+     * @param maxIdle the maximum count of idle objects in the pool
+     */
+    public ObjectPool(Callable<T> factory, @Nullable Consumer<T> resetAction, int maxIdle) {
+        Assert.notNull(factory, "factory must not be null");
+        Assert.isTrue(maxIdle > 0, "maxIdle must be positive");
+
+        this.factory = factory;
+        this.resetAction = resetAction;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Borrows object from the pool, new object is created if there is no idle object.
+     * Object must be returned by {@link #release(Object)} after use.
+     *
+     * @return object
+     * @throws IllegalStateException when new object can't be created
+     */
+    public T borrow() {
+        borrowCount.increment();
+
+        T obj = idleObjects.poll();
+        if (obj != null) {
+            idleCount.decrementAndGet();
+            hitCount.increment();
+            return obj;
+        }
+
+        try {
+            return factory.call();
+        } catch (Exception ex) {
+            throw new IllegalStateException("Error occurred during creating of pooled object", ex);
+        }
+    }
+
+    /**
+     * Returns object into the pool.
+     *
+     * @param obj the object borrowed from this pool
+     */
+    public void release(T obj) {
+        Assert.notNull(obj, "obj must not be null");
+
+        if (resetAction != null) {
+            resetAction.accept(obj);
+        }
+
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idleObjects.offer(obj);
+        } else {
+            // pool is full, object is discarded
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Executes callback with object from the pool, object is returned into the pool afterwards.
+     *
+     * @param callback the callback
+     * @param <R> the type of result
+     * @param <E> the type of exception thrown by the callback
+     * @return result of the callback
+     * @throws E when callback fails
+     */
+    public <R, E extends Exception> R execute(PooledObjectCallback<T, R, E> callback) throws E {
+        Assert.notNull(callback, "callback must not be null");
+
+        T obj = borrow();
+        try {
+            return callback.doWith(obj);
+        } finally {
+            release(obj);
+        }
+    }
+
+    /**
+     * Gets actual statistics of the pool.
+     *
+     * @return statistics
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(idleCount.get(), borrowCount.sum(), hitCount.sum());
+    }
+
+    /**
+     * Callback which works with pooled object.
+     *
+     * @param <T> the type of pooled object
+     * @param <R> the type of result
+     * @param <E> the type of exception
+     */
+    @FunctionalInterface
+    public interface PooledObjectCallback<T, R, E extends Exception> {
+
+        /**
+         * Works with pooled object, object mustn't be used after return from this method.
+         *
+         * @param obj the pooled object
+         * @return result
+         * @throws E when error occurs
+         */
+        R doWith(T obj) throws E;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.common.xml;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+
+/**
+ * Statistics of one or more {@link ObjectPool object pools}.
+ *
+ * @since 2.4
+ */
+public final class PoolStatistics {
+
+    private final int size;
+
+    private final long borrowCount;
+
+    private final long hitCount;
+
+    public PoolStatistics(int size, long borrowCount, long hitCount) {
+        this.size = size;
+        this.borrowCount = borrowCount;
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Gets count of idle objects in the pool.
+     *
+     * @return pool size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets count of borrowed objects.
+     *
+     * @return borrow count
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Gets count of borrowed objects which were reused from the pool (weren't created).
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets ratio of reused objects to all borrowed objects.
+     *
+     * @return hit rate in interval 0-1, 0 if no object was borrowed
+     */
+    public double getHitRate() {
+        return borrowCount == 0 ? 0 : (double) hitCount / borrowCount;
+    }
+
+    /**
+     * Adds statistics of another pool.
+     *
+     * @param other the statistics of another pool
+     * @return sum of both statistics
+     */
+    public PoolStatistics add(PoolStatistics other) {
+        return new PoolStatistics(size + other.size, borrowCount + other.borrowCount, hitCount + other.hitCount);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+                .append("size", size)
+                .append("borrowCount", borrowCount)
+                .append("hitCount", hitCount)
+                .toString();
+    }
+}
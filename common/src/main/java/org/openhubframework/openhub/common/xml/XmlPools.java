@@ -0,0 +1,219 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.common.xml;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.common.xml.ObjectPool.PooledObjectCallback;
+
+
+/**
+ * Shared thread-safe pools of XML processing objects which can be used across all routes:
+ * <ul>
+ *     <li>{@link JAXBContext} - one instance for each root class (context is thread-safe, but expensive to create)
+ *     <li>{@link Unmarshaller} and {@link Marshaller} - pooled for each root class
+ *     <li>identity {@link Transformer} with secure processing - pooled
+ * </ul>
+ * Pooled objects must be used within callbacks only, unmarshaller's event handler and transformer's settings
+ * are reset when object is returned into the pool. Marshaller's properties aren't reset, they mustn't be
+ * changed by the callback.
+ *
+ * @since 2.4
+ */
+public final class XmlPools {
+
+    /**
+     * Maximum count of idle objects in one pool.
+     */
+    static final int MAX_IDLE = 64;
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> CONTEXTS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, ObjectPool<Unmarshaller>> UNMARSHALLERS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, ObjectPool<Marshaller>> MARSHALLERS = new ConcurrentHashMap<>();
+
+    private static final TransformerFactory TRANSFORMER_FACTORY = createTransformerFactory();
+
+    private static final ObjectPool<Transformer> IDENTITY_TRANSFORMERS =
+            new ObjectPool<>(XmlPools::createIdentityTransformer, Transformer::reset, MAX_IDLE);
+
+    private XmlPools() {
+    }
+
+    /**
+     * Gets shared JAXB context for specified root class.
+     *
+     * @param rootClass the root class of JAXB context
+     * @return JAXB context
+     * @throws IllegalStateException when JAXB context can't be created
+     */
+    public static JAXBContext getJaxbContext(Class<?> rootClass) {
+        Assert.notNull(rootClass, "rootClass must not be null");
+
+        return CONTEXTS.computeIfAbsent(rootClass, clazz -> {
+            try {
+                return JAXBContext.newInstance(clazz);
+            } catch (JAXBException ex) {
+                throw new IllegalStateException("Error occurred during creating of JAXB context for class "
+                        + clazz.getName(), ex);
+            }
+        });
+    }
+
+    /**
+     * Executes callback with pooled unmarshaller for specified root class.
+     *
+     * @param rootClass the root class of JAXB context
+     * @param callback the callback
+     * @param <R> the type of result
+     * @return result of the callback
+     * @throws JAXBException when unmarshalling fails
+     */
+    public static <R> R withUnmarshaller(Class<?> rootClass,
+            PooledObjectCallback<Unmarshaller, R, JAXBException> callback) throws JAXBException {
+        Assert.notNull(rootClass, "rootClass must not be null");
+
+        return UNMARSHALLERS.computeIfAbsent(rootClass, clazz -> new ObjectPool<>(
+                () -> getJaxbContext(clazz).createUnmarshaller(), XmlPools::resetUnmarshaller, MAX_IDLE))
+                .execute(callback);
+    }
+
+    /**
+     * Executes callback with pooled marshaller for specified root class.
+     *
+     * @param rootClass the root class of JAXB context
+     * @param callback the callback
+     * @param <R> the type of result
+     * @return result of the callback
+     * @throws JAXBException when marshalling fails
+     */
+    public static <R> R withMarshaller(Class<?> rootClass,
+            PooledObjectCallback<Marshaller, R, JAXBException> callback) throws JAXBException {
+        Assert.notNull(rootClass, "rootClass must not be null");
+
+        return MARSHALLERS.computeIfAbsent(rootClass, clazz -> new ObjectPool<>(
+                () -> getJaxbContext(clazz).createMarshaller(), null, MAX_IDLE))
+                .execute(callback);
+    }
+
+    /**
+     * Executes callback with pooled identity transformer (with secure processing).
+     *
+     * @param callback the callback
+     * @param <R> the type of result
+     * @return result of the callback
+     * @throws TransformerException when transformation fails
+     */
+    public static <R> R withIdentityTransformer(PooledObjectCallback<Transformer, R, TransformerException> callback)
+            throws TransformerException {
+        return IDENTITY_TRANSFORMERS.execute(callback);
+    }
+
+    /**
+     * Creates new identity transformer handler (with secure processing) for serialization of SAX events.
+     * Handler can be used for one document only, so it isn't pooled.
+     *
+     * @return transformer handler
+     * @throws TransformerConfigurationException when handler can't be created
+     */
+    public static TransformerHandler newIdentityTransformerHandler() throws TransformerConfigurationException {
+        if (!TRANSFORMER_FACTORY.getFeature(SAXTransformerFactory.FEATURE)) {
+            throw new TransformerConfigurationException("Transformer factory doesn't support SAX");
+        }
+
+        // transformer factory isn't thread-safe
+        synchronized (TRANSFORMER_FACTORY) {
+            return ((SAXTransformerFactory) TRANSFORMER_FACTORY).newTransformerHandler();
+        }
+    }
+
+    /**
+     * Gets statistics of all unmarshaller pools.
+     *
+     * @return statistics
+     */
+    public static PoolStatistics getUnmarshallerStatistics() {
+        return sum(UNMARSHALLERS);
+    }
+
+    /**
+     * Gets statistics of all marshaller pools.
+     *
+     * @return statistics
+     */
+    public static PoolStatistics getMarshallerStatistics() {
+        return sum(MARSHALLERS);
+    }
+
+    /**
+     * Gets statistics of identity transformer pool.
+     *
+     * @return statistics
+     */
+    public static PoolStatistics getTransformerStatistics() {
+        return IDENTITY_TRANSFORMERS.getStatistics();
+    }
+
+    private static PoolStatistics sum(ConcurrentMap<Class<?>, ? extends ObjectPool<?>> pools) {
+        PoolStatistics statistics = new PoolStatistics(0, 0, 0);
+        for (ObjectPool<?> pool : pools.values()) {
+            statistics = statistics.add(pool.getStatistics());
+        }
+        return statistics;
+    }
+
+    private static void resetUnmarshaller(Unmarshaller unmarshaller) {
+        try {
+            // null = default event handler
+            unmarshaller.setEventHandler(null);
+        } catch (JAXBException ex) {
+            throw new IllegalStateException("Error occurred during resetting of unmarshaller", ex);
+        }
+    }
+
+    private static TransformerFactory createTransformerFactory() {
+        TransformerFactory factory = TransformerFactory.newInstance();
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (TransformerConfigurationException ex) {
+            throw new IllegalStateException("Error occurred during configuring of transformer factory", ex);
+        }
+        return factory;
+    }
+
+    private static Transformer createIdentityTransformer() throws TransformerConfigurationException {
+        // transformer factory isn't thread-safe
+        synchronized (TRANSFORMER_FACTORY) {
+            return TRANSFORMER_FACTORY.newTransformer();
+        }
+    }
+}
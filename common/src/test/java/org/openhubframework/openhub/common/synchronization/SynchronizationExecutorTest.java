@@ -19,12 +19,14 @@ package org.openhubframework.openhub.common.synchronization;
 import org.junit.Test;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Test for {@link SynchronizationExecutor}.
@@ -172,6 +174,75 @@ public class SynchronizationExecutorTest {
         assertThat(syncTestBlockTwo.getCount("FOUR_SYNC_VALUE"), is(count * threads * 10));
     }
 
+    /**
+     * Test for timeout of waiting for the lock.
+     *
+     * @throws Exception all errors
+     */
+    @Test
+    public void testSynchronizationTimeout() throws Exception {
+        final CountDownLatch lockedLatch = new CountDownLatch(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+
+        Thread holder = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                SynchronizationExecutor.getInstance().execute(new SynchronizationNoResultBlock() {
+
+                    @Override
+                    protected void syncBlockNoResult() {
+                        lockedLatch.countDown();
+                        try {
+                            releaseLatch.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }, SYNC_TEST_TYPE_ONE, "TIMEOUT_SYNC_VALUE");
+            }
+        });
+        holder.start();
+        lockedLatch.await();
+
+        try {
+            SynchronizationExecutor.getInstance().execute(new SynchronizationNoResultBlock() {
+
+                @Override
+                protected void syncBlockNoResult() {
+                    fail("lock must not be acquired");
+                }
+            }, SYNC_TEST_TYPE_ONE, "TIMEOUT_SYNC_VALUE", Duration.ofMillis(100));
+            fail("lock must not be acquired");
+        } catch (IllegalStateException ex) {
+            // everything OK
+        }
+
+        // other value and other type are not locked
+        Integer result = SynchronizationExecutor.getInstance().execute(new SynchronizationBlock() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T syncBlock() {
+                return (T) Integer.valueOf(1);
+            }
+        }, SYNC_TEST_TYPE_TWO, "TIMEOUT_SYNC_VALUE", Duration.ofMillis(100));
+        assertThat(result, is(1));
+
+        releaseLatch.countDown();
+        holder.join();
+
+        result = SynchronizationExecutor.getInstance().execute(new SynchronizationBlock() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T syncBlock() {
+                return (T) Integer.valueOf(2);
+            }
+        }, SYNC_TEST_TYPE_ONE, "TIMEOUT_SYNC_VALUE", Duration.ofMillis(100));
+        assertThat(result, is(2));
+    }
+
     //----------------------------------------------- PRIVATE CLASS ----------------------------------------------------
 
     /**
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openhubframework.openhub.common.time;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+
+/**
+ * Test suite for {@link SlidingWindow}.
+ */
+@RunWith(JUnit4.class)
+public class SlidingWindowTest {
+
+    @Test
+    public void testSum() {
+        SlidingWindow window = new SlidingWindow(3);
+
+        window.increment(100);
+        window.increment(100);
+        window.increment(101);
+        window.increment(102);
+
+        assertThat(window.sum(102, 3), is(4));
+        assertThat(window.sum(102, 2), is(2));
+        assertThat(window.sum(102, 1), is(1));
+
+        // bucket of second 100 is reused
+        window.increment(103);
+
+        assertThat(window.sum(103, 3), is(3));
+        assertThat(window.sum(110, 3), is(0));
+    }
+
+    @Test
+    public void testSnapshot() {
+        SlidingWindow window = new SlidingWindow(3);
+
+        window.increment(100);
+        window.increment(101);
+        window.increment(101);
+
+        long[] snapshot = window.snapshot();
+        assertThat(snapshot.length, is(3));
+
+        // snapshot isn't changed by next events
+        window.increment(102);
+
+        assertThat(SlidingWindow.sum(snapshot, 102, 3), is(3));
+        assertThat(SlidingWindow.sum(snapshot, 102, 1), is(0));
+        assertThat(window.sum(102, 3), is(4));
+    }
+
+    @Test
+    public void testOlderSecond() {
+        SlidingWindow window = new SlidingWindow(3);
+
+        window.increment(103);
+
+        // event of older second (e.g. from slower thread) with the same bucket is counted in the newer second
+        window.increment(100);
+
+        assertThat(window.sum(103, 1), is(2));
+    }
+}
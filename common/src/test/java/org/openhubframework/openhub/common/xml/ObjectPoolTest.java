@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.common.xml;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+
+/**
+ * Test suite for {@link ObjectPool} and {@link XmlPools}.
+ */
+@RunWith(JUnit4.class)
+public class ObjectPoolTest {
+
+    @Test
+    public void testReuse() {
+        AtomicInteger resetCount = new AtomicInteger();
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(StringBuilder::new, sb -> {
+            sb.setLength(0);
+            resetCount.incrementAndGet();
+        }, 1);
+
+        StringBuilder first = pool.borrow();
+        first.append("text");
+        pool.release(first);
+
+        StringBuilder second = pool.borrow();
+        assertThat(second, sameInstance(first));
+        assertThat(second.length(), is(0));
+        assertThat(resetCount.get(), is(1));
+
+        // pool is empty, new object is created
+        StringBuilder third = pool.borrow();
+        assertThat(third, not(sameInstance(second)));
+
+        pool.release(second);
+        // max. one idle object, the other is discarded
+        pool.release(third);
+
+        PoolStatistics statistics = pool.getStatistics();
+        assertThat(statistics.getSize(), is(1));
+        assertThat(statistics.getBorrowCount(), is(3L));
+        assertThat(statistics.getHitCount(), is(1L));
+        assertThat(statistics.getHitRate(), is(1.0 / 3));
+    }
+
+    @Test
+    public void testExecute() {
+        ObjectPool<StringBuilder> pool = new ObjectPool<>(StringBuilder::new, null, 10);
+
+        assertThat(pool.execute(sb -> sb.append("text").toString()), is("text"));
+        assertThat(pool.getStatistics().getSize(), is(1));
+    }
+
+    @Test
+    public void testIdentityTransformer() throws Exception {
+        long borrowCount = XmlPools.getTransformerStatistics().getBorrowCount();
+
+        String xml = XmlPools.withIdentityTransformer(transformer -> {
+            StringWriter writer = new StringWriter();
+            transformer.transform(new StreamSource(new StringReader("<a/>")), new StreamResult(writer));
+            return writer.toString();
+        });
+
+        assertThat(xml.endsWith("<a/>"), is(true));
+        assertThat(XmlPools.getTransformerStatistics().getBorrowCount(), is(borrowCount + 1));
+    }
+}
@@ -17,9 +17,11 @@
 package org.openhubframework.openhub.component.funnel;
 
 import java.util.Map;
+import javax.annotation.Nullable;
 
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.spi.AsyncEventNotifier;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
 import org.openhubframework.openhub.spi.msg.MessageService;
 
 import org.apache.camel.Endpoint;
@@ -55,6 +57,12 @@ public class MsgFunnelComponent extends DefaultComponent {
     @Autowired
     private AsyncEventNotifier asyncEventNotifier;
 
+    /**
+     * Registry of unfinished messages, funnel queries the database for each message if not available.
+     */
+    @Autowired(required = false)
+    private FunnelRegistry funnelRegistry;
+
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
         MsgFunnelEndpoint endpoint = new MsgFunnelEndpoint(uri, this);
@@ -70,6 +78,11 @@ public class MsgFunnelComponent extends DefaultComponent {
         return asyncEventNotifier;
     }
 
+    @Nullable
+    FunnelRegistry getFunnelRegistry() {
+        return funnelRegistry;
+    }
+
     @Override
     protected void doStart() throws Exception {
         super.doStart();
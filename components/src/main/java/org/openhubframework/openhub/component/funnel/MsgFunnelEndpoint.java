@@ -18,6 +18,7 @@ package org.openhubframework.openhub.component.funnel;
 
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.spi.AsyncEventNotifier;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
 import org.openhubframework.openhub.spi.msg.MessageService;
 
 import org.apache.camel.Component;
@@ -97,6 +98,10 @@ public class MsgFunnelEndpoint extends DefaultEndpoint {
         return ((MsgFunnelComponent)getComponent()).getMessageService();
     }
 
+    FunnelRegistry getFunnelRegistry() {
+        return ((MsgFunnelComponent)getComponent()).getFunnelRegistry();
+    }
+
     /**
      * Gets interval (in seconds) that determines how long can be message processing.
      *
@@ -28,6 +28,7 @@ import org.springframework.util.StringUtils;
 import org.openhubframework.openhub.api.asynch.AsynchConstants;
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.common.time.Seconds;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
 
 
 /**
@@ -67,7 +68,21 @@ public class MsgFunnelProducer extends DefaultProducer {
                 endpoint.getMessageService().setFunnelComponentId(msg, funnelCompId);
             }
 
-            if (endpoint.isGuaranteedOrder()) {
+            FunnelRegistry funnelRegistry = endpoint.getFunnelRegistry();
+            if (funnelRegistry != null) {
+                // decision is made by registry of unfinished messages, database is queried for unknown funnel only
+                if (funnelRegistry.tryEnter(msg, funnelCompId, Seconds.of(endpoint.getIdleInterval()).toDuration(),
+                        endpoint.isGuaranteedOrder(), endpoint.isExcludeFailedState())) {
+                    LOG.debug("Message (msg_id = {}, funnel value = '{}') can go through the funnel"
+                            + " => no filtering", msg.getMsgId(), msg.getFunnelValue());
+                } else {
+                    LOG.debug("There is at least one processing message with funnel value '{}',"
+                            + " message {} will be postponed.", msg.getFunnelValue(), msg.toHumanString());
+
+                    postponeMessage(exchange, msg, endpoint);
+                }
+
+            } else if (endpoint.isGuaranteedOrder()) {
                 // By default classic funnel works with running messages (PROCESSING, WAITING, WAITING_FOR_RES) only
                 // and if it's necessary to guarantee processing order then also PARTLY_FAILED, POSTPONED [and FAILED]
                 // messages should be involved
@@ -17,7 +17,14 @@
 package org.openhubframework.openhub.component.funnel;
 
 import static org.apache.camel.component.mock.MockEndpoint.assertIsSatisfied;
-
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -30,6 +37,8 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.openhubframework.openhub.api.asynch.AsynchConstants;
@@ -37,6 +46,8 @@ import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.route.AbstractBasicRoute;
 import org.openhubframework.openhub.component.AbstractComponentsDbTest;
+import org.openhubframework.openhub.core.funnel.FunnelRegistryInMemoryImpl;
+import org.openhubframework.openhub.spi.msg.MessageService;
 import org.openhubframework.openhub.test.data.EntityTypeTestEnum;
 import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
 import org.openhubframework.openhub.test.data.ServiceTestEnum;
@@ -66,6 +77,9 @@ public class MsgFunnelComponentTest extends AbstractComponentsDbTest {
     @EndpointInject(uri = "mock:test")
     private MockEndpoint mock;
 
+    @Autowired
+    private MessageService messageService;
+
     private Message firstMsg;
 
     @Before
@@ -257,4 +271,50 @@ public class MsgFunnelComponentTest extends AbstractComponentsDbTest {
 
         Assert.assertThat(em.find(Message.class, msg.getMsgId()).getState(), CoreMatchers.is(MsgStateEnum.FAILED));
     }
+
+    @Test
+    public void testFunnelRegistry_enterRejectRelease() throws Exception {
+        MessageService registryMessageService = Mockito.mock(MessageService.class, delegatesTo(messageService));
+        FunnelRegistryInMemoryImpl funnelRegistry = new FunnelRegistryInMemoryImpl();
+        setPrivateField(funnelRegistry, "messageService", registryMessageService);
+
+        MsgFunnelComponent component = getCamelContext().getComponent("msg-funnel", MsgFunnelComponent.class);
+        setPrivateField(component, "funnelRegistry", funnelRegistry);
+        try {
+            // the first message enters, unknown funnel is loaded from the database
+            mock.setExpectedMessageCount(1);
+            producer.sendBodyAndHeader(MSG_BODY, AsynchConstants.MSG_HEADER, firstMsg);
+            assertIsSatisfied(mock);
+
+            // the first message is still processing => postpone the second one
+            Message msg = createMessage(FUNNEL_VALUE);
+            em.persist(msg);
+            em.flush();
+
+            mock.reset();
+            mock.setExpectedMessageCount(0);
+            producer.sendBodyAndHeader(MSG_BODY, AsynchConstants.MSG_HEADER, msg);
+            assertIsSatisfied(mock);
+            Assert.assertThat(em.find(Message.class, msg.getMsgId()).getState(),
+                    CoreMatchers.is(MsgStateEnum.POSTPONED));
+
+            // the first message is finished => the second one can go through the funnel
+            firstMsg.setState(MsgStateEnum.OK);
+            funnelRegistry.update(firstMsg);
+
+            msg.setState(MsgStateEnum.PROCESSING);
+            mock.reset();
+            mock.setExpectedMessageCount(1);
+            producer.sendBodyAndHeader(MSG_BODY, AsynchConstants.MSG_HEADER, msg);
+            assertIsSatisfied(mock);
+
+            // decisions about known funnel are made by the registry only
+            verify(registryMessageService, times(1)).getMessagesForGuaranteedOrderForFunnel(
+                    FUNNEL_VALUE, Duration.ofSeconds(50), false, FUNNEL_ID);
+            verify(registryMessageService, never()).getCountProcessingMessagesForFunnel(
+                    anyString(), any(Duration.class), anyString());
+        } finally {
+            setPrivateField(component, "funnelRegistry", null);
+        }
+    }
 }
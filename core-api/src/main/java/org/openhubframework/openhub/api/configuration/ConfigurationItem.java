@@ -17,6 +17,7 @@
 package org.openhubframework.openhub.api.configuration;
 
 import java.io.Serializable;
+import java.util.function.Consumer;
 
 import org.openhubframework.openhub.api.exception.validation.ConfigurationException;
 
@@ -54,4 +55,17 @@ public interface ConfigurationItem<T extends Serializable> {
      * @param newValue for configuration item
      */
     void setValue(T newValue);
+
+    /**
+     * Registers listener which is invoked when value of the configuration item is changed,
+     * e.g. for compiling pattern again. Listener gets new value, {@code null} if item is not found any more.
+     * <p>
+     * Default implementation does nothing, it's for items which value can't be changed.
+     *
+     * @param listener the listener
+     * @since 2.4
+     */
+    default void onChange(Consumer<T> listener) {
+        // value is not changed => listener is never invoked
+    }
 }
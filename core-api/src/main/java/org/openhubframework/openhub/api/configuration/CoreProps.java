@@ -67,6 +67,22 @@ public class CoreProps {
      */
     public static final String ASYNCH_CONFIRMATION_INTERVAL_SEC = PREFIX + "asynch.confirmation.intervalSec";
 
+    /**
+     * Maximum interval (in seconds) between two tries of failed confirmations, interval is doubled with each
+     * failure (starting with {@value #ASYNCH_CONFIRMATION_INTERVAL_SEC}) up to this value.
+     */
+    public static final String ASYNCH_CONFIRMATION_MAX_INTERVAL_SEC = PREFIX + "asynch.confirmation.maxIntervalSec";
+
+    /**
+     * Maximum count of failed confirmations which are locked for next processing in one transaction.
+     */
+    public static final String ASYNCH_CONFIRMATION_BATCH_SIZE = PREFIX + "asynch.confirmation.batchSize";
+
+    /**
+     * Maximum count of confirmations sent concurrently to one target system.
+     */
+    public static final String ASYNCH_CONFIRMATION_PARALLELISM = PREFIX + "asynch.confirmation.parallelism";
+
     /**
      * Skip asynchronous external calls for operation URIs that match the specified RegEx pattern.
      */
@@ -82,6 +98,48 @@ public class CoreProps {
      */
     public static final String ASYNCH_POSTPONED_INTERVAL_WHEN_FAILED_SEC = PREFIX + "asynch.postponedIntervalWhenFailedSec";
 
+    /**
+     * Maximum count of POSTPONED and PARTLY_FAILED messages which are locked for re-processing in one transaction.
+     */
+    public static final String ASYNCH_POLLING_BATCH_SIZE = PREFIX + "asynch.pollingBatchSize";
+
+    /**
+     * True for polling POSTPONED and PARTLY_FAILED messages primarily from own partition of the actual node
+     * (messages are split by message ID among all nodes in the cluster).
+     */
+    public static final String ASYNCH_PARTITIONED_POLLING_ENABLED = PREFIX + "asynch.partitionedPolling.enabled";
+
+    /**
+     * True for dispatching POSTPONED and PARTLY_FAILED messages from in-memory delay queue exactly when they
+     * become eligible for re-processing, polling of the database is then only recovery sweep.
+     */
+    public static final String ASYNCH_DELAY_QUEUE_ENABLED = PREFIX + "asynch.delayQueue.enabled";
+
+    /**
+     * How often (in seconds) to run polling of POSTPONED and PARTLY_FAILED messages (recovery sweep)
+     * when delay queue is enabled, see {@value #ASYNCH_DELAY_QUEUE_ENABLED}.
+     */
+    public static final String ASYNCH_DELAY_QUEUE_RECOVERY_INTERVAL_SEC
+            = PREFIX + "asynch.delayQueue.recoveryIntervalSec";
+
+    /**
+     * Weights of priority levels of queue for asynchronous processing of messages (comma separated,
+     * the first is the lowest priority). The lower processing priority of the message the higher level,
+     * priority 0 belongs to the highest level, priorities higher than count of levels to the lowest level.
+     */
+    public static final String ASYNCH_PRIORITY_QUEUE_LEVEL_WEIGHTS = PREFIX + "asynch.priorityQueue.levelWeights";
+
+    /**
+     * Maximum count of messages in one priority level of queue for asynchronous processing of messages.
+     */
+    public static final String ASYNCH_PRIORITY_QUEUE_LEVEL_CAPACITY = PREFIX + "asynch.priorityQueue.levelCapacity";
+
+    /**
+     * Maximum count of asynchronous message events waiting for one event notifier with asynchronous delivery.
+     * Note: cannot be defined in database, needs to be in properties.
+     */
+    public static final String ASYNCH_EVENT_BUS_CAPACITY = PREFIX + "asynch.eventBus.capacity";
+
     /**
      * Final messages processing enabled or disabled. Note: cannot be defined in database, needs to be in properties.
      */
@@ -103,6 +161,18 @@ public class CoreProps {
      */
     public static final String ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_ENABLED = PREFIX + "asynch.finalMessages.deleteProcessor.enabled";
 
+    /**
+     * True for deleting final messages by set-based bulk statements in chunks instead of deleting message
+     * by message. Note: cannot be defined in database, needs to be in properties.
+     */
+    public static final String ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_BULK = PREFIX + "asynch.finalMessages.deleteProcessor.bulk";
+
+    /**
+     * Maximum count of messages deleted in one transaction when bulk deleting is enabled.
+     */
+    public static final String ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_BULK_CHUNK_SIZE
+            = PREFIX + "asynch.finalMessages.deleteProcessor.bulkChunkSize";
+
     /**
      * Prefix for setting duration to keep messages in final states in the datastore.
      * After this period expires and there is no other action with the message, it will be processed as final (deleted probably).
@@ -160,6 +230,13 @@ public class CoreProps {
      */
     public static final String SERVER_LOCALHOST_URI_CHECK = PREFIX + "server.localhostUri.check";
 
+    /**
+     * True for making context calls and direct calls via HTTP to this localhost application
+     * (see {@value #SERVER_LOCALHOST_URI}), calls are dispatched in-process by default.
+     * Note: cannot be defined in database, needs to be in properties.
+     */
+    public static final String SERVER_LOCALHOST_CALL_HTTP = PREFIX + "server.localhostCall.http";
+
     /**
      * True for disabling throttling at all.
      */
@@ -180,6 +257,33 @@ public class CoreProps {
      */
     public static final String REQUEST_SAVING_ENDPOINT_FILTER = PREFIX + "requestSaving.endpointFilter";
 
+    /**
+     * True for saving requests/responses asynchronously in batches by background writer.
+     * Note: cannot be defined in database, needs to be in properties.
+     */
+    public static final String REQUEST_SAVING_WRITE_BEHIND_ENABLED = PREFIX + "requestSaving.writeBehind.enabled";
+
+    /**
+     * Maximum count of requests/responses waiting for background writer.
+     */
+    public static final String REQUEST_SAVING_WRITE_BEHIND_CAPACITY = PREFIX + "requestSaving.writeBehind.capacity";
+
+    /**
+     * Maximum count of requests/responses saved by background writer in one transaction.
+     */
+    public static final String REQUEST_SAVING_WRITE_BEHIND_BATCH_SIZE = PREFIX + "requestSaving.writeBehind.batchSize";
+
+    /**
+     * What to do with request/response when the queue of background writer is full (BLOCK, DROP, SPILL).
+     */
+    public static final String REQUEST_SAVING_WRITE_BEHIND_OVERFLOW_POLICY
+            = PREFIX + "requestSaving.writeBehind.overflowPolicy";
+
+    /**
+     * Local file for requests/responses which don't fit into the queue of background writer (SPILL policy only).
+     */
+    public static final String REQUEST_SAVING_WRITE_BEHIND_SPILL_FILE = PREFIX + "requestSaving.writeBehind.spillFile";
+
     /**
      * How often to run checking of alerts (in seconds), value -1 no run checking of alerts.
      */
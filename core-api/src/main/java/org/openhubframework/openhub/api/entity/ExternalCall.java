@@ -17,6 +17,7 @@
 package org.openhubframework.openhub.api.entity;
 
 import java.time.Instant;
+import javax.annotation.Nullable;
 import javax.persistence.*;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -47,7 +48,8 @@ public class ExternalCall extends SuperEntity<Long> {
     @Id
     @Column(name = "call_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "openhub_id_sequence")
-    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence", allocationSize=1)
+    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence",
+            allocationSize=OPENHUB_SEQUENCE_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -80,6 +82,9 @@ public class ExternalCall extends SuperEntity<Long> {
     @Column(name = "failed_count", nullable = false)
     private int failedCount = 0;
 
+    @Column(name = "next_attempt_timestamp", nullable = true)
+    private Instant nextAttemptTimestamp;
+
     /**
      * Creates new {@link ExternalCallStateEnum#FAILED failed} confirmation call.
      *
@@ -270,6 +275,24 @@ public class ExternalCall extends SuperEntity<Long> {
         this.failedCount = failedCount;
     }
 
+    /**
+     * Gets timestamp of next attempt of failed confirmation.
+     * This value has sense only when {@link #isConfirmationCall()} is {@code true}.
+     *
+     * @return timestamp or {@code null} if confirmation can be processed after
+     *      {@link org.openhubframework.openhub.api.configuration.CoreProps#ASYNCH_CONFIRMATION_INTERVAL_SEC interval}
+     *      since last update
+     * @since 2.4
+     */
+    @Nullable
+    public Instant getNextAttemptTimestamp() {
+        return nextAttemptTimestamp;
+    }
+
+    public void setNextAttemptTimestamp(@Nullable Instant nextAttemptTimestamp) {
+        this.nextAttemptTimestamp = nextAttemptTimestamp;
+    }
+
     /**
      * Gets {@code true} when external call represents confirmation call.
      *
@@ -296,6 +319,7 @@ public class ExternalCall extends SuperEntity<Long> {
                 .append("creationTimestamp", creationTimestamp)
                 .append("lastUpdateTimestamp", lastUpdateTimestamp)
                 .append("failedCount", failedCount)
+                .append("nextAttemptTimestamp", nextAttemptTimestamp)
                 .toString();
     }
 
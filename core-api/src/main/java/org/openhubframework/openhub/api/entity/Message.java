@@ -47,7 +47,8 @@ public class Message extends SuperEntity<Long> {
     @Id
     @Column(name = "msg_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "openhub_id_sequence")
-    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence", allocationSize=1)
+    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence",
+            allocationSize=OPENHUB_SEQUENCE_ALLOCATION_SIZE)
     private Long msgId;
 
     @Column(name = "msg_timestamp", nullable = false)
@@ -187,6 +188,39 @@ public class Message extends SuperEntity<Long> {
         this.correlationId = correlationId;
     }
 
+    /**
+     * Creates message with basic attributes only - it's used as projection for listing of messages,
+     * large attributes (payload, envelope etc.) are not loaded at all.
+     * <p>
+     * Note: such message isn't managed by persistence context and it mustn't be saved.
+     *
+     * @param msgId the message ID
+     * @param correlationId the correlation ID
+     * @param sourceSystem the source system name
+     * @param receiveTimestamp the timestamp when message was received
+     * @param startProcessTimestamp the timestamp when processing of message started
+     * @param state the message state
+     * @param failedErrorCode the error code
+     * @param service the service name
+     * @param operationName the operation name
+     * @since 2.4
+     */
+    public Message(Long msgId, String correlationId, String sourceSystem, Instant receiveTimestamp,
+            @Nullable Instant startProcessTimestamp, MsgStateEnum state, @Nullable String failedErrorCode,
+            String service, String operationName) {
+        super(null);
+
+        this.msgId = msgId;
+        this.correlationId = correlationId;
+        setSourceSystemInternal(sourceSystem);
+        this.receiveTimestamp = receiveTimestamp;
+        this.startProcessTimestamp = startProcessTimestamp;
+        this.state = state;
+        setFailedErrorCodeInternal(failedErrorCode);
+        setServiceInternal(service);
+        this.operationName = operationName;
+    }
+
     /**
      * Gets unique message ID.
      *
@@ -771,7 +805,7 @@ public class Message extends SuperEntity<Long> {
 
     /**
      * Sets priority of processing this message.
-     * The higher number the higher priority.
+     * The lower number the higher priority (re-processed messages with priority 0 go before new messages).
      *
      * @param processingPriority the priority number
      */
@@ -43,6 +43,8 @@ public class MessageFilter {
     private String serviceName;
     private String operationName;
     private String fulltext;
+    private Instant cursorReceived;
+    private Long cursorId;
 
     public Instant getReceivedFrom() {
         return receivedFrom;
@@ -151,6 +153,39 @@ public class MessageFilter {
         this.fulltext = fulltext;
     }
 
+    /**
+     * Gets receive timestamp of the last message from previous page - only messages received
+     * before it (or with the same timestamp and lower ID) are returned.
+     *
+     * @return receive timestamp of the cursor, {@code null} for the first page
+     * @see #getCursorId()
+     * @since 2.4
+     */
+    @Nullable
+    public Instant getCursorReceived() {
+        return cursorReceived;
+    }
+
+    public void setCursorReceived(Instant cursorReceived) {
+        this.cursorReceived = cursorReceived;
+    }
+
+    /**
+     * Gets ID of the last message from previous page.
+     *
+     * @return message ID of the cursor, {@code null} for the first page
+     * @see #getCursorReceived()
+     * @since 2.4
+     */
+    @Nullable
+    public Long getCursorId() {
+        return cursorId;
+    }
+
+    public void setCursorId(Long cursorId) {
+        this.cursorId = cursorId;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
@@ -166,6 +201,8 @@ public class MessageFilter {
                 .append("serviceName", serviceName)
                 .append("operationName", operationName)
                 .append("fulltext", fulltext)
+                .append("cursorReceived", cursorReceived)
+                .append("cursorId", cursorId)
                 .toString();
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.api.entity;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+
+/**
+ * Partition of {@link Message messages} owned by one {@link Node node} in the cluster.
+ * <p>
+ * Messages are split by hash of {@link Message#getMsgId() message ID} into {@link #getCount() count} partitions,
+ * message belongs to the partition if {@code msgId mod count = index}.
+ *
+ * @since 2.4
+ */
+public final class MessagePartition {
+
+    /**
+     * Partition that contains all messages.
+     */
+    public static final MessagePartition ALL = new MessagePartition(0, 1);
+
+    private final int index;
+
+    private final int count;
+
+    /**
+     * Creates new partition.
+     *
+     * @param index the partition index (zero based)
+     * @param count the count of all partitions
+     */
+    public MessagePartition(int index, int count) {
+        Assert.isTrue(count > 0, "the count must be positive");
+        Assert.isTrue(index >= 0 && index < count, "the index must be between 0 and " + (count - 1));
+
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Gets partition index.
+     *
+     * @return index from interval {@code <0, count)}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets count of all partitions.
+     *
+     * @return count of partitions
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Is this partition whole set of messages?
+     *
+     * @return {@code true} if there is only one partition, otherwise {@code false}
+     */
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    /**
+     * Checks if specified message ID belongs to this partition.
+     *
+     * @param msgId the message ID
+     * @return {@code true} if message belongs to this partition, otherwise {@code false}
+     */
+    public boolean contains(long msgId) {
+        return msgId % count == index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj instanceof MessagePartition) {
+            MessagePartition other = (MessagePartition) obj;
+
+            return new EqualsBuilder()
+                    .append(index, other.index)
+                    .append(count, other.count)
+                    .isEquals();
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(index)
+                .append(count)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("index", index)
+                .append("count", count)
+                .toString();
+    }
+}
@@ -52,7 +52,8 @@ public class Request extends SuperEntity<Long> {
     @Id
     @Column(name = "req_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "openhub_id_sequence")
-    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence", allocationSize=1)
+    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence",
+            allocationSize=OPENHUB_SEQUENCE_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER)
@@ -39,7 +39,8 @@ public class Response extends SuperEntity<Long> {
     @Id
     @Column(name = "res_id")
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "openhub_id_sequence")
-    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence", allocationSize=1)
+    @SequenceGenerator(name="openhub_id_sequence", sequenceName="openhub_sequence",
+            allocationSize=OPENHUB_SEQUENCE_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +39,12 @@ public abstract class SuperEntity<ID extends Serializable> implements Serializab
 
     private static final long serialVersionUID = -3963280994783527490L;
 
+    /**
+     * Allocation size of identifiers from shared sequence {@code openhub_sequence}, it must be equal
+     * to increment of the sequence in the database.
+     */
+    public static final int OPENHUB_SEQUENCE_ALLOCATION_SIZE = 50;
+
     private ID id;
 
     /**
@@ -37,4 +37,43 @@ import org.springframework.stereotype.Component;
 @Component
 public @interface EventNotifier {
 
+    /**
+     * Should asynchronous message events be delivered to the notifier asynchronously?
+     * <p>
+     * If {@code true} then events are put into the queue of the notifier and delivered by its own thread
+     * (or threads, see {@link #lanes()}), so the notifier doesn't delay processing of the message. Events are
+     * delivered in the order in which they were published, see {@link #overflow()} what happens when the queue
+     * is full.
+     * Other events (e.g. Camel exchange events) are always delivered synchronously.
+     *
+     * @return {@code true} for asynchronous delivery, {@code false} (default) for delivery in the thread
+     *      which publishes the event
+     * @since 2.4
+     */
+    boolean asynch() default false;
+
+    /**
+     * What to do with asynchronous message event when the queue of the notifier is full?
+     * Applies to notifiers with {@link #asynch() asynchronous delivery} only.
+     * <p>
+     * Notifiers which depend on all events or on their order (e.g. processing of messages in guaranteed order)
+     * should use {@link EventOverflowPolicy#BLOCK}.
+     *
+     * @return overflow policy, {@link EventOverflowPolicy#DROP} by default
+     * @since 2.4
+     */
+    EventOverflowPolicy overflow() default EventOverflowPolicy.DROP;
+
+    /**
+     * Count of threads (lanes) delivering asynchronous message events to the notifier.
+     * Applies to notifiers with {@link #asynch() asynchronous delivery} only.
+     * <p>
+     * Lane of the event is chosen by the funnel value of the message (or by message ID if there is no funnel value),
+     * so events of one funnel are delivered in the order in which they were published, but events of different
+     * funnels can be delivered concurrently. Capacity of the notifier queue is divided among lanes.
+     *
+     * @return count of lanes, {@code 1} by default (all events are delivered by one thread)
+     * @since 2.4
+     */
+    int lanes() default 1;
 }
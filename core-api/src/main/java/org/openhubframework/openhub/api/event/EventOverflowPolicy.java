@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.api.event;
+
+/**
+ * Enumeration of policies what to do with asynchronous message event when the queue of the event notifier
+ * with asynchronous delivery is full, see {@link EventNotifier#overflow()}.
+ *
+ * @since 2.4
+ */
+public enum EventOverflowPolicy {
+
+    /**
+     * Publishing thread waits until there is free space in the queue, no event is lost and the order of events
+     * is preserved.
+     */
+    BLOCK,
+
+    /**
+     * Event is not delivered, only count of dropped events is increased.
+     */
+    DROP
+}
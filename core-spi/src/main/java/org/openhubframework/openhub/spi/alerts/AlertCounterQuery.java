@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.spi.alerts;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+
+
+/**
+ * Definition of alert count which is evaluated by in-memory counters of asynchronous message events
+ * instead of SQL query, e.g. count of messages which changed state to {@link MsgStateEnum#FAILED FAILED}
+ * in the last 10 minutes.
+ * <p>
+ * Note: state changes (events) are counted, not messages which are in specified state at the moment.
+ * Events are counted by each node separately.
+ *
+ * @since 2.4
+ */
+public class AlertCounterQuery {
+
+    private final MsgStateEnum state;
+
+    private final String sourceSystem;
+
+    private final String service;
+
+    private final String errorCode;
+
+    private final int intervalSec;
+
+    /**
+     * Creates new counter query.
+     *
+     * @param state the new state of the message
+     * @param sourceSystem the source system of the message, {@code null} for any system
+     * @param service the service of the message, {@code null} for any service
+     * @param errorCode the error code of the message, {@code null} for any code
+     * @param intervalSec the interval (in seconds) before now in which events are counted
+     */
+    public AlertCounterQuery(MsgStateEnum state, @Nullable String sourceSystem, @Nullable String service,
+            @Nullable String errorCode, int intervalSec) {
+        Assert.notNull(state, "the state must not be null");
+        Assert.isTrue(intervalSec > 0, "the intervalSec must be positive");
+
+        this.state = state;
+        this.sourceSystem = sourceSystem;
+        this.service = service;
+        this.errorCode = errorCode;
+        this.intervalSec = intervalSec;
+    }
+
+    /**
+     * Gets the new state of the message.
+     *
+     * @return state
+     */
+    public MsgStateEnum getState() {
+        return state;
+    }
+
+    /**
+     * Gets the source system of the message.
+     *
+     * @return source system name, {@code null} for any system
+     */
+    @Nullable
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    /**
+     * Gets the service of the message.
+     *
+     * @return service name, {@code null} for any service
+     */
+    @Nullable
+    public String getService() {
+        return service;
+    }
+
+    /**
+     * Gets the error code of the message.
+     *
+     * @return error code, {@code null} for any code
+     */
+    @Nullable
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * Gets the interval before now in which events are counted.
+     *
+     * @return interval in seconds
+     */
+    public int getIntervalSec() {
+        return intervalSec;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("state", state)
+                .append("sourceSystem", sourceSystem)
+                .append("service", service)
+                .append("errorCode", errorCode)
+                .append("intervalSec", intervalSec)
+                .toString();
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 import org.openhubframework.openhub.api.common.HumanReadable;
 
@@ -40,6 +41,8 @@ public class AlertInfo implements HumanReadable {
 
     private String sql;
 
+    private AlertCounterQuery counterQuery;
+
     private boolean enabled = true;
 
     private String notificationSubject;
@@ -59,12 +62,33 @@ public class AlertInfo implements HumanReadable {
      */
     public AlertInfo(String id, long limit, String sql, boolean enabled, @Nullable String notificationSubject,
             @Nullable String notificationBody) {
-        Assert.hasText(id, "the id must not be empty");
+        this(id, limit, sql, null, enabled, notificationSubject, notificationBody);
+
         Assert.hasText(sql, "the sql must not be empty");
+    }
+
+    /**
+     * Creates new alert which count is evaluated by SQL query or by in-memory counters.
+     *
+     * @param id the alert unique identification
+     * @param limit limit that must be exceeded to activate alert
+     * @param sql SQL query that returns count of items for comparison with limit value
+     * @param counterQuery the definition of count evaluated by in-memory counters (has priority over SQL query)
+     * @param enabled if specified alert is enabled or disabled
+     * @param notificationSubject the (mail, sms) subject
+     * @param notificationBody the (mail, sms) body
+     * @since 2.4
+     */
+    public AlertInfo(String id, long limit, @Nullable String sql, @Nullable AlertCounterQuery counterQuery,
+            boolean enabled, @Nullable String notificationSubject, @Nullable String notificationBody) {
+        Assert.hasText(id, "the id must not be empty");
+        Assert.isTrue(StringUtils.hasText(sql) || counterQuery != null,
+                "the sql or counterQuery must be defined");
 
         this.id = id;
         this.limit = limit;
         this.sql = sql;
+        this.counterQuery = counterQuery;
         this.enabled = enabled;
         this.notificationSubject = notificationSubject;
         this.notificationBody = notificationBody;
@@ -100,12 +124,24 @@ public class AlertInfo implements HumanReadable {
     /**
      * Gets SQL expression.
      *
-     * @return SQL expression
+     * @return SQL expression, {@code null} if count is evaluated by {@link #getCounterQuery() counters} only
      */
+    @Nullable
     public String getSql() {
         return sql;
     }
 
+    /**
+     * Gets definition of count which is evaluated by in-memory counters.
+     *
+     * @return counter query, {@code null} if count is evaluated by {@link #getSql() SQL query}
+     * @since 2.4
+     */
+    @Nullable
+    public AlertCounterQuery getCounterQuery() {
+        return counterQuery;
+    }
+
     /**
      * Is this alert enabled?
      *
@@ -177,6 +213,7 @@ public class AlertInfo implements HumanReadable {
                 .append("id", id)
                 .append("limit", limit)
                 .append("sql", sql)
+                .append("counterQuery", counterQuery)
                 .append("enabled", enabled)
                 .toString();
     }
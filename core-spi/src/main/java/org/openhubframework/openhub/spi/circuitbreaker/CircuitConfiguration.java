@@ -38,6 +38,11 @@ public class CircuitConfiguration implements Serializable {
      * Sleep in millis, after circuit breaker is switched.
      */
     private long sleepInMillis;
+    /**
+     * Maximum count of probe calls admitted after sleep (half-open state),
+     * circuit is closed again when all of them succeed.
+     */
+    private int halfOpenMaxCalls = 1;
 
     public boolean isEnabled() {
         return enabled;
@@ -87,6 +92,14 @@ public class CircuitConfiguration implements Serializable {
         this.sleepInMillis = sleepInMillis;
     }
 
+    public int getHalfOpenMaxCalls() {
+        return halfOpenMaxCalls;
+    }
+
+    public void setHalfOpenMaxCalls(int halfOpenMaxCalls) {
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -96,6 +109,7 @@ public class CircuitConfiguration implements Serializable {
                 .append("windowSizeInMillis", windowSizeInMillis)
                 .append("minimalCountInWindow", minimalCountInWindow)
                 .append("sleepInMillis", sleepInMillis)
+                .append("halfOpenMaxCalls", halfOpenMaxCalls)
                 .toString();
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.spi.funnel;
+
+import java.time.Duration;
+
+import org.openhubframework.openhub.api.entity.Message;
+
+
+/**
+ * Contract for registry of unfinished messages per funnel (funnel component ID and funnel value).
+ * <p>
+ * Registry replaces database queries of funnel component for each message - it's updated when state
+ * of the message changes and it's reconciled with the database from time to time only.
+ *
+ * @since 2.4
+ */
+public interface FunnelRegistry {
+
+    /**
+     * Registers the message in the funnel and decides whether the message can go through the funnel.
+     *
+     * @param msg the message with {@link Message#getFunnelValue() funnel value}
+     * @param funnelCompId the funnel component ID
+     * @param idleInterval how long can be message processing, older messages are not taken into account
+     * @param guaranteedOrder {@code true} if the funnel guarantees order of messages (the oldest message goes first),
+     *                        {@code false} if only one message can be processing
+     * @param excludeFailedState {@code true} if FAILED messages are not taken into account for guaranteed order
+     * @return {@code true} if message can continue, {@code false} if message should be postponed
+     */
+    boolean tryEnter(Message msg, String funnelCompId, Duration idleInterval, boolean guaranteedOrder,
+            boolean excludeFailedState);
+
+    /**
+     * Updates state of the message in the registry, finished messages are removed.
+     * Messages without funnel value or funnel component ID are ignored.
+     *
+     * @param msg the message with actual state
+     */
+    void update(Message msg);
+}
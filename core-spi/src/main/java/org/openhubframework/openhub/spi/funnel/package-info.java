@@ -0,0 +1,4 @@
+/**
+ * Registry of messages which go through funnel.
+ */
+package org.openhubframework.openhub.spi.funnel;
@@ -32,6 +32,7 @@ import org.apache.camel.Properties;
 
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MessageFilter;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.exception.ErrorExtEnum;
 
@@ -148,6 +149,21 @@ public interface MessageService {
      */
     boolean setStateInQueueForLock(Message message);
 
+    /**
+     * Finds messages in state {@link MsgStateEnum#POSTPONED} or {@link MsgStateEnum#PARTLY_FAILED}
+     * and sets state {@link MsgStateEnum#IN_QUEUE} on them under database lock - all in one transaction.
+     * Messages which are locked by another node are skipped.
+     *
+     * @param postponedInterval Interval (in seconds) after that can be postponed message processed again
+     * @param partlyFailedInterval Interval (in seconds) after that can be partly failed message processed again
+     * @param limit the maximum count of messages
+     * @param partition the partition of messages which can be locked, {@link MessagePartition#ALL} for all messages
+     * @return list of messages in {@link MsgStateEnum#IN_QUEUE} state ordered by
+     *          {@link Message#getMsgTimestamp() message timestamp}, empty list if there is no any message
+     */
+    List<Message> setStateInQueueForLock(Duration postponedInterval, Duration partlyFailedInterval, int limit,
+            MessagePartition partition);
+
     /**
      * Set state {@link MsgStateEnum#PROCESSING} on {@link Message} under database lock.
      *
@@ -183,6 +199,19 @@ public interface MessageService {
      */
     List<Message> findMessagesByFilter(MessageFilter messageFilter, long limit);
 
+    /**
+     * Finds list of messages that match with given filter, only basic attributes of messages are loaded
+     * (large attributes as payload or envelope are not available).
+     * Sorted by received timestamp and message ID (newest first), next page of messages can be requested
+     * by setting {@link MessageFilter#getCursorReceived() cursor} to the last message of the previous page.
+     *
+     * @param messageFilter the filter.
+     * @param limit the limit of message count.
+     * @return collection of messages, or {@code empty list} if none were found.
+     * @since 2.4
+     */
+    List<Message> findMessageListItemsByFilter(MessageFilter messageFilter, long limit);
+
     /**
      * Get count of messages in specific state.
      *
@@ -2,6 +2,7 @@ package org.openhubframework.openhub.spi.node;
 
 import java.util.List;
 
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.entity.Node;
 
 /**
@@ -59,4 +60,15 @@ public interface NodeService {
      * @return node for this server instance
      */
     Node getActualNode();
+
+    /**
+     * Gets partition of messages owned by actual node for this application server instance.
+     * <p>
+     * Messages are split among all nodes which {@link Node#isAbleToHandleExistingMessages() handle existing messages},
+     * ownership is rebalanced automatically when any node is added, removed or changes its state.
+     *
+     * @return partition of actual node, {@link MessagePartition#ALL} if actual node is the only one
+     *          or if actual node doesn't handle existing messages
+     */
+    MessagePartition getActualNodePartition();
 }
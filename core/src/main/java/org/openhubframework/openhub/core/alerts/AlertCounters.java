@@ -0,0 +1,395 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.alerts;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ReplicatedMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.common.time.SlidingWindow;
+import org.openhubframework.openhub.core.config.CacheNames;
+import org.openhubframework.openhub.spi.alerts.AlertCounterQuery;
+import org.openhubframework.openhub.spi.alerts.AlertsConfiguration;
+
+
+/**
+ * In-memory counters of asynchronous message events for evaluating alerts defined by {@link AlertCounterQuery}.
+ * <p>
+ * There is one sliding window per combination of (state, source system, service, error code),
+ * size of windows is given by the longest interval of all counter alerts. Events are not counted at all
+ * if there is no counter alert.
+ * <p>
+ * Events are counted on the node where they occurred, but alerts are checked by one node of the cluster only
+ * (see {@link AlertsSchedulerJob}). If Hazelcast is available then each node periodically publishes counts
+ * of its events to the others through {@link ReplicatedMap replicated map} '{@value CacheNames#ALERT_COUNTERS}'
+ * and count of events is the sum of local events and last published counts of other nodes. Only aggregated
+ * counts for intervals of counter alerts are published (not whole windows) and only if they were changed
+ * since the last publishing. Counts of other nodes are late by the publishing period (plus replication delay).
+ * Without Hazelcast only events of the checking node are counted, which is suitable for standalone server only.
+ *
+ * @see AlertCountersEventNotifier
+ * @since 2.4
+ */
+@Component
+public class AlertCounters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AlertCounters.class);
+
+    /**
+     * Period of publishing local counts to other nodes.
+     */
+    static final Duration PUBLISH_PERIOD = Duration.ofSeconds(1);
+
+    private final Map<CounterKey, SlidingWindow> windows = new ConcurrentHashMap<>();
+
+    // last published counts, it's used by publishing thread only
+    private final Map<CounterKey, IntervalCounts> publishedCounts = new HashMap<>();
+
+    @Autowired
+    private AlertsConfiguration alertsConfig;
+
+    @Autowired
+    private ObjectProvider<HazelcastInstance> hazelcastProvider;
+
+    private int windowSize;
+
+    // sorted intervals (in seconds) of counter alerts
+    private int[] intervals = new int[0];
+
+    @Nullable
+    private HazelcastInstance hazelcast;
+
+    @Nullable
+    private ScheduledExecutorService executor;
+
+    /**
+     * Gets size of windows from configured alerts and starts publishing of local counts to other nodes
+     * if there is any counter alert and Hazelcast is available.
+     */
+    @PostConstruct
+    void init() {
+        initWindowSize();
+
+        if (isActive()) {
+            HazelcastInstance hazelcastInstance = hazelcastProvider.getIfAvailable();
+            if (hazelcastInstance != null) {
+                startPublishing(hazelcastInstance);
+            }
+        }
+    }
+
+    /**
+     * Gets size of windows and intervals of counts from configured alerts.
+     */
+    void initWindowSize() {
+        intervals = alertsConfig.getAlerts(false).stream()
+                .filter(alert -> alert.getCounterQuery() != null)
+                .mapToInt(alert -> alert.getCounterQuery().getIntervalSec())
+                .distinct()
+                .sorted()
+                .toArray();
+        windowSize = intervals.length > 0 ? intervals[intervals.length - 1] : 0;
+
+        LOG.debug("Size of windows for alert counters: {} seconds", windowSize);
+    }
+
+    /**
+     * Starts publishing of local counts, events of other nodes are counted as well.
+     *
+     * @param hazelcastInstance the Hazelcast instance
+     */
+    void startPublishing(HazelcastInstance hazelcastInstance) {
+        Assert.notNull(hazelcastInstance, "the hazelcastInstance must not be null");
+
+        this.hazelcast = hazelcastInstance;
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("OpenHub-alertCountersSync-"));
+        this.executor.scheduleWithFixedDelay(this::publishSafely,
+                PUBLISH_PERIOD.toMillis(), PUBLISH_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops publishing of local counts.
+     */
+    @PreDestroy
+    void stopPublishing() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Is there any alert evaluated by counters?
+     *
+     * @return {@code true} if events should be counted, otherwise {@code false}
+     */
+    public boolean isActive() {
+        return windowSize > 0;
+    }
+
+    /**
+     * Adds one event of the message in actual state.
+     *
+     * @param msg the message
+     */
+    public void increment(Message msg) {
+        Assert.notNull(msg, "the msg must not be null");
+
+        if (!isActive()) {
+            return;
+        }
+
+        CounterKey key = new CounterKey(msg.getState(),
+                msg.getSourceSystem() != null ? msg.getSourceSystem().getSystemName() : null,
+                msg.getService() != null ? msg.getService().getServiceName() : null,
+                msg.getFailedErrorCode() != null ? msg.getFailedErrorCode().getErrorCode() : null);
+
+        SlidingWindow window = windows.get(key);
+        if (window == null) {
+            window = windows.computeIfAbsent(key, k -> new SlidingWindow(windowSize));
+        }
+
+        window.increment(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+    }
+
+    /**
+     * Gets count of events which match specified query.
+     *
+     * @param query the counter query
+     * @return count of events
+     */
+    public long count(AlertCounterQuery query) {
+        Assert.notNull(query, "the query must not be null");
+        Assert.isTrue(query.getIntervalSec() <= windowSize, "the interval of query " + query
+                + " exceeds size of windows (" + windowSize + ")");
+
+        long nowSec = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        long count = 0;
+        for (Map.Entry<CounterKey, SlidingWindow> en : windows.entrySet()) {
+            if (en.getKey().matches(query)) {
+                count += en.getValue().sum(nowSec, query.getIntervalSec());
+            }
+        }
+
+        if (hazelcast != null) {
+            String localUuid = hazelcast.getCluster().getLocalMember().getUuid();
+
+            // replicated map has local copy of all entries => no network operation
+            for (Map.Entry<NodeCounterKey, IntervalCounts> en : getMap().entrySet()) {
+                NodeCounterKey key = en.getKey();
+                if (!key.memberUuid.equals(localUuid) && key.counterKey.matches(query)) {
+                    count += en.getValue().getCount(query.getIntervalSec());
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Publishes counts of local events for intervals of counter alerts to other nodes,
+     * only counts changed since the last publishing are published.
+     */
+    void publish() {
+        Assert.state(hazelcast != null, "publishing wasn't started");
+
+        ReplicatedMap<NodeCounterKey, IntervalCounts> map = getMap();
+        String localUuid = hazelcast.getCluster().getLocalMember().getUuid();
+        long nowSec = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        // entry of the node which leaves the cluster expires after whole window,
+        //  entry of live node is changed sooner - counted events drop out of the window
+        long ttlMillis = TimeUnit.SECONDS.toMillis(windowSize) + PUBLISH_PERIOD.toMillis();
+
+        for (Map.Entry<CounterKey, SlidingWindow> en : windows.entrySet()) {
+            SlidingWindow window = en.getValue();
+
+            long[] counts = new long[intervals.length];
+            boolean empty = true;
+            for (int i = 0; i < intervals.length; i++) {
+                counts[i] = window.sum(nowSec, intervals[i]);
+                empty &= counts[i] == 0;
+            }
+
+            IntervalCounts lastCounts = publishedCounts.get(en.getKey());
+            if (lastCounts != null && Arrays.equals(lastCounts.counts, counts)) {
+                continue;
+            }
+
+            NodeCounterKey key = new NodeCounterKey(localUuid, en.getKey());
+            if (empty) {
+                // window without events, no counts to publish
+                if (lastCounts != null) {
+                    map.remove(key);
+                    publishedCounts.remove(en.getKey());
+                }
+            } else {
+                IntervalCounts intervalCounts = new IntervalCounts(intervals, counts);
+                map.put(key, intervalCounts, ttlMillis, TimeUnit.MILLISECONDS);
+                publishedCounts.put(en.getKey(), intervalCounts);
+            }
+        }
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (Exception ex) {
+            LOG.warn("Error occurred during publishing alert counters to the cluster", ex);
+        }
+    }
+
+    private ReplicatedMap<NodeCounterKey, IntervalCounts> getMap() {
+        return hazelcast.getReplicatedMap(CacheNames.ALERT_COUNTERS);
+    }
+
+    /**
+     * Key of published counts of one node.
+     */
+    private static final class NodeCounterKey implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String memberUuid;
+
+        private final CounterKey counterKey;
+
+        private NodeCounterKey(String memberUuid, CounterKey counterKey) {
+            this.memberUuid = memberUuid;
+            this.counterKey = counterKey;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof NodeCounterKey)) {
+                return false;
+            }
+
+            NodeCounterKey other = (NodeCounterKey) obj;
+            return memberUuid.equals(other.memberUuid) && counterKey.equals(other.counterKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * memberUuid.hashCode() + counterKey.hashCode();
+        }
+    }
+
+    /**
+     * Counts of events for intervals of counter alerts.
+     */
+    private static final class IntervalCounts implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] intervals;
+
+        private final long[] counts;
+
+        private IntervalCounts(int[] intervals, long[] counts) {
+            this.intervals = intervals;
+            this.counts = counts;
+        }
+
+        /**
+         * Gets count of events for specified interval.
+         *
+         * @param intervalSec the interval (in seconds)
+         * @return count of events, zero if the interval isn't used by counter alerts of the publishing node
+         */
+        private long getCount(int intervalSec) {
+            int index = Arrays.binarySearch(intervals, intervalSec);
+            return index >= 0 ? counts[index] : 0;
+        }
+    }
+
+    /**
+     * Key of one sliding window.
+     */
+    private static final class CounterKey implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MsgStateEnum state;
+
+        private final String sourceSystem;
+
+        private final String service;
+
+        private final String errorCode;
+
+        private CounterKey(MsgStateEnum state, @Nullable String sourceSystem, @Nullable String service,
+                @Nullable String errorCode) {
+            this.state = state;
+            this.sourceSystem = sourceSystem;
+            this.service = service;
+            this.errorCode = errorCode;
+        }
+
+        private boolean matches(AlertCounterQuery query) {
+            return state == query.getState()
+                    && (query.getSourceSystem() == null || query.getSourceSystem().equals(sourceSystem))
+                    && (query.getService() == null || query.getService().equals(service))
+                    && (query.getErrorCode() == null || query.getErrorCode().equals(errorCode));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CounterKey)) {
+                return false;
+            }
+
+            CounterKey other = (CounterKey) obj;
+            return state == other.state
+                    && Objects.equals(sourceSystem, other.sourceSystem)
+                    && Objects.equals(service, other.service)
+                    && Objects.equals(errorCode, other.errorCode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(state, sourceSystem, service, errorCode);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.alerts;
+
+import java.util.EventObject;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.openhubframework.openhub.api.event.AbstractAsynchEvent;
+import org.openhubframework.openhub.api.event.EventNotifier;
+import org.openhubframework.openhub.api.event.EventNotifierBase;
+
+
+/**
+ * Listens to all asynchronous message events (state transitions of the message)
+ * and updates {@link AlertCounters alert counters}.
+ *
+ * @since 2.4
+ */
+@EventNotifier
+public class AlertCountersEventNotifier extends EventNotifierBase<AbstractAsynchEvent> {
+
+    @Autowired
+    private AlertCounters alertCounters;
+
+    @Override
+    public boolean isEnabled(EventObject event) {
+        return alertCounters.isActive() && super.isEnabled(event);
+    }
+
+    @Override
+    protected void doNotify(AbstractAsynchEvent event) {
+        alertCounters.increment(event.getMessage());
+    }
+}
@@ -24,6 +24,10 @@ import org.openhubframework.openhub.spi.alerts.AlertInfo;
 
 /**
  * Database implementation of {@link AlertsCheckingService} interface.
+ * <p>
+ * Alerts with {@link AlertInfo#getCounterQuery() counter query} are evaluated by in-memory {@link AlertCounters}
+ * without any database access, SQL query is used for other alerts. Note that counters of other nodes in the cluster
+ * are included only if Hazelcast is available, otherwise only events of this node are counted.
  *
  * @author Petr Juza
  * @since 0.4
@@ -34,8 +38,15 @@ public class AlertsCheckingServiceDbImpl extends AbstractAlertsCheckingService {
     @Autowired
     private AlertsDao alertsDao;
 
+    @Autowired
+    private AlertCounters alertCounters;
+
     @Override
     protected long getCount(AlertInfo alert) {
+        if (alert.getCounterQuery() != null) {
+            return alertCounters.count(alert.getCounterQuery());
+        }
+
         return alertsDao.runQuery(alert.getSql());
     }
 }
@@ -29,7 +29,9 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.common.Tools;
+import org.openhubframework.openhub.spi.alerts.AlertCounterQuery;
 import org.openhubframework.openhub.spi.alerts.AlertInfo;
 
 
@@ -56,6 +58,16 @@ public class AlertsPropertiesConfiguration extends AbstractAlertsConfiguration {
 
     public static final String MAIL_BODY_PROP = "mail.body";
 
+    public static final String COUNTER_STATE_PROP = "counter.state";
+
+    public static final String COUNTER_SOURCE_SYSTEM_PROP = "counter.sourceSystem";
+
+    public static final String COUNTER_SERVICE_PROP = "counter.service";
+
+    public static final String COUNTER_ERROR_CODE_PROP = "counter.errorCode";
+
+    public static final String COUNTER_INTERVAL_SEC_PROP = "counter.intervalSec";
+
     private ConfigurableEnvironment env;
 
     /**
@@ -81,6 +93,12 @@ public class AlertsPropertiesConfiguration extends AbstractAlertsConfiguration {
 //        alerts.900.mail.subject=There are %d message(s) in WAITING_FOR_RESPONSE state for more then %d seconds.
 //        alerts.900.mail.body=Alert: notification about WAITING messages
 
+        // example of alert evaluated by in-memory counters (without SQL query)
+//        alerts.901.id=FAILED_MSG_ALERT
+//        alerts.901.limit=10
+//        alerts.901.counter.state=FAILED
+//        alerts.901.counter.intervalSec=600
+
 
         // get relevant properties for alerts
         List<String> propNames = new ArrayList<String>();
@@ -127,9 +145,10 @@ public class AlertsPropertiesConfiguration extends AbstractAlertsConfiguration {
 
             String limit = env.getProperty(propPrefix + LIMIT_PROP);
             String sql = env.getProperty(propPrefix + SQL_PROP);
+            String counterState = env.getProperty(propPrefix + COUNTER_STATE_PROP);
 
-            // check if sql contains count()
-            if (!StringUtils.containsIgnoreCase(sql, "count(")) {
+            // check if sql contains count() - SQL is not used if alert is evaluated by counters
+            if (counterState == null && !StringUtils.containsIgnoreCase(sql, "count(")) {
                 throw new IllegalStateException("Wrong alert's configuration - SQL clause for id '" + id
                         + "' doesn't contain count().");
             }
@@ -143,8 +162,17 @@ public class AlertsPropertiesConfiguration extends AbstractAlertsConfiguration {
 
             // add new alert
             try {
-                AlertInfo alertInfo = new AlertInfo(id, Long.valueOf(limit), sql, BooleanUtils.toBoolean(enabled),
-                        subject, body);
+                AlertCounterQuery counterQuery = null;
+                if (counterState != null) {
+                    counterQuery = new AlertCounterQuery(MsgStateEnum.valueOf(counterState),
+                            env.getProperty(propPrefix + COUNTER_SOURCE_SYSTEM_PROP),
+                            env.getProperty(propPrefix + COUNTER_SERVICE_PROP),
+                            env.getProperty(propPrefix + COUNTER_ERROR_CODE_PROP),
+                            Integer.valueOf(env.getProperty(propPrefix + COUNTER_INTERVAL_SEC_PROP)));
+                }
+
+                AlertInfo alertInfo = new AlertInfo(id, Long.valueOf(limit), sql, counterQuery,
+                        BooleanUtils.toBoolean(enabled), subject, body);
 
                 addAlert(alertInfo);
             } catch (Exception ex) {
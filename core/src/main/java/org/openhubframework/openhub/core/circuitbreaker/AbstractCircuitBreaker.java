@@ -18,8 +18,17 @@ import org.springframework.util.Assert;
  * All the interface methods are implemented, in its minimal variant only method
  * to resolve CircuitState for given circuit is needed to be implemented.
  *
- * There are multiple "hooks" method that can be overriden - onSuccessCall, onCircuitDown,
+ * There are multiple "hooks" method that can be overriden - isCallPermitted, onSuccessCall, onFailedCall,
  * see javadoc directly on each of them.
+ * <p>
+ * Since 2.4 the hooks get configuration of the circuit instead of its name and circuit state is evaluated
+ * in {@link CircuitState} together with each update. Previous hooks {@code onSuccessCall(String)},
+ * {@code onFailedCall(String)}, {@code onCircuitSwitchDown(String)}, {@code removeOldEntries(CircuitConfiguration)}
+ * and {@code shouldBreakCircuit(CircuitState, CircuitConfiguration)} were removed (they aren't called anymore):
+ * override {@link #onSuccessCall(CircuitConfiguration)} or {@link #onFailedCall(CircuitConfiguration)} instead,
+ * switching down is signalled by return value of {@link #onFailedCall(CircuitConfiguration)},
+ * threshold is evaluated by {@link CircuitState#shouldBreakCircuit(CircuitConfiguration)},
+ * old calls are evicted by rolling window of {@link CircuitState}.
  *
  * @author Karel Kovarik
  * @see CircuitState
@@ -43,13 +52,9 @@ public abstract class AbstractCircuitBreaker implements CircuitBreaker {
 
                 if (!(ex instanceof CircuitDownException)) {
                     LOG.trace("Circuit '{}' increase error count.", circuitName);
-                    // failed call handling
-                    onFailedCall(circuitName);
-
-                    // update circuit state and check whether to break circuit or not
-                    final CircuitState circuitState = getCircuitState(circuitName);
-                    if (shouldBreakCircuit(circuitState, circuitConfiguration)) {
-                        onCircuitSwitchDown(circuitName);
+                    // failed call handling, circuit state is evaluated together with the update
+                    if (onFailedCall(circuitConfiguration)) {
+                        LOG.debug("Circuit '{}' is switched down.", circuitName);
                     }
                 } else {
                     // do nothing, as circuit is down
@@ -61,18 +66,11 @@ public abstract class AbstractCircuitBreaker implements CircuitBreaker {
                 // no exception - just update success count
                 try {
                     // success call handling
-                    onSuccessCall(circuitName);
+                    onSuccessCall(circuitConfiguration);
                 } catch (final Exception e) {
-                    LOG.error("Unable to process circuit breaker data (step 1)", e);
+                    LOG.error("Unable to process circuit breaker data", e);
                 }
             }
-
-            // remove old values (if present)
-            try {
-                removeOldEntries(circuitConfiguration);
-            } catch (final Exception e) {
-                LOG.error("Unable to process circuit breaker data (step 2)", e);
-            }
         };
     }
 
@@ -86,14 +84,10 @@ public abstract class AbstractCircuitBreaker implements CircuitBreaker {
                 return;
             }
 
-            final CircuitState circuitState = getCircuitState(circuitConfiguration.getCircuitName());
-            Assert.notNull(circuitState, "the circuitState must not be null");
-
             // if circuit is down, do not continue, throw exception
-            if (circuitState.getLastShortcutTimestamp() + circuitConfiguration.getSleepInMillis() > Instant.now().toEpochMilli()) {
-                LOG.trace("Circuit is down, lastShortcutTimestamp is {}, will try again after {}.",
-                        circuitState.getLastShortcutTimestamp(),
-                        circuitState.getLastShortcutTimestamp() + circuitConfiguration.getSleepInMillis());
+            if (!isCallPermitted(circuitConfiguration)) {
+                LOG.trace("Circuit '{}' is down, will try again after {} ms from switching down.",
+                        circuitConfiguration.getCircuitName(), circuitConfiguration.getSleepInMillis());
                 // do not continue, as circuit is down
                 throw new CircuitDownException("circuit '" + circuitConfiguration.getCircuitName() + "'");
             }
@@ -102,44 +96,6 @@ public abstract class AbstractCircuitBreaker implements CircuitBreaker {
         };
     }
 
-    /**
-     * Logic to resolve if circuit should change it state to down.
-     *
-     * @param circuitState the circuit state.
-     * @param circuitConfiguration the circuit configuration.
-     * @return flag, true if circuit should switch down.
-     */
-    protected boolean shouldBreakCircuit(CircuitState circuitState, CircuitConfiguration circuitConfiguration) {
-        final long windowStart = Instant.now().toEpochMilli() - circuitConfiguration.getWindowSizeInMillis();
-
-        // algorithm to determine whether it should break the circuit
-        final long successCount = circuitState.getSuccessCallList().stream()
-                .filter(it -> it > windowStart)
-                .count();
-        final long failedCount = circuitState.getFailedCallList().stream()
-                .filter(it -> it > windowStart)
-                .count();
-
-        // sum requests in window, if not enough, just continue
-        if (successCount + failedCount < circuitConfiguration.getMinimalCountInWindow()
-                || successCount + failedCount < 1) {
-            LOG.trace("Not enough requests in window, skipping.");
-            return false;
-        }
-
-        final double failedCountPercentage = ((double) failedCount / (successCount + failedCount)) * 100;
-        LOG.trace("FailedCountPercentage {} %, successCount = {}, failedCount = {}",
-                failedCountPercentage, successCount, failedCount);
-        if (failedCountPercentage >= circuitConfiguration.getThresholdPercentage()) {
-            LOG.trace("Threshold triggered with '{}'% request failed, threshold is '{}'",
-                    failedCountPercentage,
-                    circuitConfiguration.getThresholdPercentage());
-            return true;
-        }
-
-        return false;
-    }
-
     /**
      * Get circuit state for circuit identified by its name.
      *
@@ -149,63 +105,50 @@ public abstract class AbstractCircuitBreaker implements CircuitBreaker {
     protected abstract CircuitState getCircuitState(String circuitName);
 
     /**
-     * On each successful exchange in given circuit.
+     * Before each exchange in given circuit, decides whether call can be performed.
+     * Circuit is switched to half-open state after sleep, only limited count of probe calls is permitted then.
      *
-     * @param circuitName the name of circuit.
+     * @param configuration the configuration of circuit.
+     * @return flag, true if call can be performed, false if circuit is down.
+     * @see CircuitState#tryAcquirePermission(CircuitConfiguration, long)
      */
-    protected void onSuccessCall(String circuitName) {
-        final CircuitState circuitState = getCircuitState(circuitName);
-        Assert.notNull(circuitState, "the circuitState must not be null.");
-
-        // insert success event
-        circuitState.getSuccessCallList().add(Instant.now().toEpochMilli());
+    protected boolean isCallPermitted(CircuitConfiguration configuration) {
+        return getNonNullCircuitState(configuration).tryAcquirePermission(configuration, now());
     }
 
     /**
-     * On each failed exchange in given circuit.
-     * Failed means exception is present.
+     * On each successful exchange in given circuit.
      *
-     * @param circuitName the name of circuit.
+     * @param configuration the configuration of circuit.
      */
-    protected void onFailedCall(String circuitName) {
-        final CircuitState circuitState = getCircuitState(circuitName);
-        Assert.notNull(circuitState, "the circuitState must not be null.");
-
-        // insert failed event
-        circuitState.getFailedCallList().add(Instant.now().toEpochMilli());
+    protected void onSuccessCall(CircuitConfiguration configuration) {
+        getNonNullCircuitState(configuration).onSuccessCall(configuration, now());
     }
 
     /**
-     * Invoked once, when circuit state is changed to down.
+     * On each failed exchange in given circuit, circuit is switched down if threshold is exceeded.
+     * Failed means exception is present.
      *
-     * @param circuitName the name of circuit.
+     * @param configuration the configuration of circuit.
+     * @return flag, true if circuit was switched down.
+     * @see CircuitState#onFailedCall(CircuitConfiguration, long)
      */
-    protected void onCircuitSwitchDown(String circuitName) {
-        final CircuitState circuitState = getCircuitState(circuitName);
-        Assert.notNull(circuitState, "the circuitState must not be null.");
-
-        // reset counters
-        circuitState.resetFailedCallList();
-        circuitState.resetSuccessCallList();
-        // set lastShortcutTimestamp
-        circuitState.setLastShortcutTimestamp(Instant.now().toEpochMilli());
+    protected boolean onFailedCall(CircuitConfiguration configuration) {
+        return getNonNullCircuitState(configuration).onFailedCall(configuration, now());
     }
 
     /**
-     * Invoked each time exchange is passed via CircuitBreaker. It is expected to clean
-     * old entries in circuit state.
+     * Gets actual timestamp.
      *
-     * @param configuration the configuration of circuit.
+     * @return timestamp in millis.
      */
-    protected void removeOldEntries(CircuitConfiguration configuration) {
-        Assert.notNull(configuration, "the circuitConfiguration must not be null");
+    protected long now() {
+        return Instant.now().toEpochMilli();
+    }
 
+    private CircuitState getNonNullCircuitState(CircuitConfiguration configuration) {
         final CircuitState circuitState = getCircuitState(configuration.getCircuitName());
         Assert.notNull(circuitState, "the circuitState must not be null.");
-
-        circuitState.getSuccessCallList()
-                .removeIf(it -> it < Instant.now().toEpochMilli() - configuration.getWindowSizeInMillis());
-        circuitState.getFailedCallList()
-                .removeIf(it -> it < Instant.now().toEpochMilli() - configuration.getWindowSizeInMillis());
+        return circuitState;
     }
 }
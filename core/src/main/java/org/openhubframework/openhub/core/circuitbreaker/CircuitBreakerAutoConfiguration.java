@@ -2,6 +2,8 @@ package org.openhubframework.openhub.core.circuitbreaker;
 
 import static org.openhubframework.openhub.common.OpenHubPropertyConstants.PREFIX;
 
+import java.time.Duration;
+
 import com.hazelcast.core.HazelcastInstance;
 import org.openhubframework.openhub.common.AutoConfiguration;
 import org.openhubframework.openhub.spi.circuitbreaker.CircuitBreaker;
@@ -11,6 +13,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.hazelcast.HazelcastAutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 
 /**
  * Circuit breaker AutoConfiguration.
@@ -42,6 +45,11 @@ public class CircuitBreakerAutoConfiguration {
      */
     public static final String CIRCUIT_BREAKER_IMPL = PREFIX + "circuitbreaker.impl";
 
+    /**
+     * Time to live of locally cached status of circuit in Hazelcast implementation (e.g. 1s, 500ms).
+     */
+    public static final String CIRCUIT_BREAKER_STATUS_CACHE_TTL = PREFIX + "circuitbreaker.statusCacheTtl";
+
     /**
      * Fully qualified name of in-memory implementation.
      */
@@ -61,8 +69,11 @@ public class CircuitBreakerAutoConfiguration {
             havingValue = HAZELCAST_CLASS_NAME)
     @ConditionalOnBean(HazelcastInstance.class)
     @Bean
-    public CircuitBreaker circuitBreakerHazelCastImpl() {
-        return new CircuitBreakerHazelcastImpl();
+    public CircuitBreaker circuitBreakerHazelCastImpl(Environment env) {
+        CircuitBreakerHazelcastImpl circuitBreaker = new CircuitBreakerHazelcastImpl();
+        circuitBreaker.setStatusCacheTtl(env.getProperty(CIRCUIT_BREAKER_STATUS_CACHE_TTL, Duration.class,
+                CircuitBreakerHazelcastImpl.DEFAULT_STATUS_CACHE_TTL));
+        return circuitBreaker;
     }
 
     /**
@@ -1,11 +1,15 @@
 package org.openhubframework.openhub.core.circuitbreaker;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.map.EntryProcessor;
-import org.openhubframework.openhub.core.circuitbreaker.hazelcast.CircuitDownEntryProcessor;
+import org.openhubframework.openhub.core.circuitbreaker.hazelcast.CallPermissionEntryProcessor;
+import org.openhubframework.openhub.core.circuitbreaker.hazelcast.CircuitStatusEntryProcessor;
 import org.openhubframework.openhub.core.circuitbreaker.hazelcast.FailedCallEntryProcessor;
-import org.openhubframework.openhub.core.circuitbreaker.hazelcast.RemoveOldCallsEntryProcessor;
 import org.openhubframework.openhub.core.circuitbreaker.hazelcast.SuccessCallEntryProcessor;
 import org.openhubframework.openhub.spi.circuitbreaker.CircuitBreaker;
 import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
@@ -18,7 +22,14 @@ import org.springframework.util.Assert;
  *
  * Each circuit is stored as hazelcast distributed Map. (http://docs.hazelcast.org/docs/2.3/manual/html/ch02s03.html)
  * To cope with possible race conditions, map is updated using {@link IMap#executeOnKey(Object, EntryProcessor)},
- * that should handle it.
+ * that should handle it. Circuit state is evaluated in the same entry processor as it is updated,
+ * so each update of the circuit is one call to the map.
+ *
+ * Status of circuit (closed/open and time of switching down) is cached locally for short time
+ * (see {@link #setStatusCacheTtl(Duration)}), so check of closed circuit is local operation. Only status
+ * is loaded from the map (by read-only entry processor), not whole circuit state. Status is refreshed also
+ * by updates of the circuit from the actual node, switching down by another node is visible after expiration
+ * of cached status at the latest.
  *
  * @author Karel Kovarik
  * @see CircuitBreaker
@@ -32,19 +43,15 @@ public class CircuitBreakerHazelcastImpl extends AbstractCircuitBreaker {
     private static final String HAZELCAST_KEY = "circuitbreaker";
 
     /**
-     * Instance of SuccessCallEntryProcessor.
-     */
-    private static final EntryProcessor<String, CircuitState> SUCCESS_CALL_ENTRY_PROCESSOR = new SuccessCallEntryProcessor();
-
-    /**
-     * Instance of FailedCallEntryProcessor.
+     * Default time to live of locally cached status of circuit.
      */
-    private static final EntryProcessor<String, CircuitState> FAILED_CALL_ENTRY_PROCESSOR = new FailedCallEntryProcessor();
+    public static final Duration DEFAULT_STATUS_CACHE_TTL = Duration.ofSeconds(1);
 
     /**
-     * Instance of CircuitDownEntryProcessor.
+     * Instance of CircuitStatusEntryProcessor.
      */
-    private static final EntryProcessor<String, CircuitState> CIRCUIT_DOWN_ENTRY_PROCESSOR = new CircuitDownEntryProcessor();
+    private static final EntryProcessor<String, CircuitState> STATUS_ENTRY_PROCESSOR
+            = new CircuitStatusEntryProcessor();
 
     /**
      * Hazelcast instance that should be already configured.
@@ -52,6 +59,13 @@ public class CircuitBreakerHazelcastImpl extends AbstractCircuitBreaker {
     @Autowired
     private HazelcastInstance hazelcastInstance;
 
+    /**
+     * Locally cached status of circuits, circuit name is the key.
+     */
+    private final Map<String, CachedStatus> statusCache = new ConcurrentHashMap<>();
+
+    private long statusCacheTtlMillis = DEFAULT_STATUS_CACHE_TTL.toMillis();
+
 
     /**
      * Get global 'circuitbreaker' map from hazelCast.
@@ -66,46 +80,106 @@ public class CircuitBreakerHazelcastImpl extends AbstractCircuitBreaker {
      * Get circuitInfo for circuit identified by name.
      */
     protected CircuitState getCircuitState(String circuitName) {
-        final IMap<String, CircuitState> map = getMap();
-
-        if (!map.containsKey(circuitName)) {
-            // first run for circuit identified by name
-            final CircuitState circuitState = new CircuitState();
-            map.put(circuitName, circuitState);
-        }
+        final CircuitState ret = getMap().get(circuitName);
 
-        final CircuitState ret = map.get(circuitName);
-        Assert.notNull(ret, "the circuitState domain object must not be null");
-        return ret;
+        // first run for circuit identified by name, entry is created by the first update
+        return ret != null ? ret : new CircuitState();
     }
 
-    @Override
-    protected void onSuccessCall(String circuitName) {
-        Assert.hasText(circuitName, "the circuitName must not be empty");
+    /**
+     * Sets how long is status of circuit cached locally.
+     *
+     * @param statusCacheTtl the time to live of cached status, zero means no caching
+     */
+    public void setStatusCacheTtl(Duration statusCacheTtl) {
+        Assert.notNull(statusCacheTtl, "the statusCacheTtl must not be null");
+        Assert.isTrue(!statusCacheTtl.isNegative(), "the statusCacheTtl must not be negative");
 
-        getMap().executeOnKey(circuitName, SUCCESS_CALL_ENTRY_PROCESSOR);
+        this.statusCacheTtlMillis = statusCacheTtl.toMillis();
     }
 
     @Override
-    protected void onCircuitSwitchDown(String circuitName) {
-        Assert.hasText(circuitName, "the circuitName must not be empty");
+    protected boolean isCallPermitted(CircuitConfiguration circuitConfiguration) {
+        Assert.notNull(circuitConfiguration, "the circuitConfiguration must not be null");
 
-        getMap().executeOnKey(circuitName, CIRCUIT_DOWN_ENTRY_PROCESSOR);
+        final String circuitName = circuitConfiguration.getCircuitName();
+        final long now = now();
+        final CircuitStatus circuitStatus = getCircuitStatus(circuitName, now);
+
+        if (circuitStatus.getStatus() == CircuitState.Status.CLOSED) {
+            return true;
+        }
+        if (circuitStatus.getStatus() == CircuitState.Status.OPEN
+                && circuitStatus.getLastShortcutTimestamp() + circuitConfiguration.getSleepInMillis() > now) {
+            return false;
+        }
+
+        // sleep is over or circuit is half-open => probe calls are decided in the map
+        statusCache.remove(circuitName);
+        return (Boolean) getMap().executeOnKey(circuitName,
+                new CallPermissionEntryProcessor(circuitConfiguration, now));
     }
 
     @Override
-    protected void onFailedCall(String circuitName) {
-        Assert.hasText(circuitName, "the circuitName must not be empty");
+    protected void onSuccessCall(CircuitConfiguration circuitConfiguration) {
+        Assert.notNull(circuitConfiguration, "the circuitConfiguration must not be null");
 
-        getMap().executeOnKey(circuitName, FAILED_CALL_ENTRY_PROCESSOR);
+        final long now = now();
+        final CircuitStatus circuitStatus = (CircuitStatus) getMap().executeOnKey(
+                circuitConfiguration.getCircuitName(), new SuccessCallEntryProcessor(circuitConfiguration, now));
+
+        cacheCircuitStatus(circuitConfiguration.getCircuitName(), circuitStatus, now);
     }
 
     @Override
-    protected void removeOldEntries(CircuitConfiguration circuitConfiguration) {
+    protected boolean onFailedCall(CircuitConfiguration circuitConfiguration) {
         Assert.notNull(circuitConfiguration, "the circuitConfiguration must not be null");
 
-        getMap().executeOnKey(
-                circuitConfiguration.getCircuitName(),
-                new RemoveOldCallsEntryProcessor(circuitConfiguration));
+        final long now = now();
+        final boolean switchedDown = (Boolean) getMap().executeOnKey(circuitConfiguration.getCircuitName(),
+                new FailedCallEntryProcessor(circuitConfiguration, now));
+
+        if (switchedDown) {
+            cacheCircuitStatus(circuitConfiguration.getCircuitName(),
+                    new CircuitStatus(CircuitState.Status.OPEN, now), now);
+        }
+        return switchedDown;
+    }
+
+    /**
+     * Gets status of circuit from local cache, expired status is loaded from the map
+     * (only the status, not whole circuit state).
+     */
+    private CircuitStatus getCircuitStatus(String circuitName, long now) {
+        final CachedStatus cached = statusCache.get(circuitName);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.status;
+        }
+
+        final CircuitStatus circuitStatus = (CircuitStatus) getMap().executeOnKey(circuitName,
+                STATUS_ENTRY_PROCESSOR);
+        cacheCircuitStatus(circuitName, circuitStatus, now);
+        return circuitStatus;
+    }
+
+    private void cacheCircuitStatus(String circuitName, CircuitStatus circuitStatus, long now) {
+        if (statusCacheTtlMillis > 0) {
+            statusCache.put(circuitName, new CachedStatus(circuitStatus, now + statusCacheTtlMillis));
+        }
+    }
+
+    /**
+     * Locally cached status of circuit.
+     */
+    private static final class CachedStatus {
+
+        private final CircuitStatus status;
+
+        private final long expiresAt;
+
+        private CachedStatus(CircuitStatus status, long expiresAt) {
+            this.status = status;
+            this.expiresAt = expiresAt;
+        }
     }
 }
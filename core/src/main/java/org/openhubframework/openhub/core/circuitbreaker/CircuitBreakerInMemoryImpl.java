@@ -27,14 +27,10 @@ public class CircuitBreakerInMemoryImpl extends AbstractCircuitBreaker {
 
     @Override
     protected CircuitState getCircuitState(String circuitName) {
-        CircuitState circuitState = circuitBreakerMap.get(circuitName);
-
-        if (null == circuitState) {
-            LOG.trace("Do create circuit {}, as it is invoked for the first time.", circuitName);
-            // probably first run, insert new circuit
-            circuitBreakerMap.put(circuitName, new CircuitState());
-        }
-
-        return circuitBreakerMap.get(circuitName);
+        return circuitBreakerMap.computeIfAbsent(circuitName, name -> {
+            LOG.trace("Do create circuit {}, as it is invoked for the first time.", name);
+            // first run, insert new circuit
+            return new CircuitState();
+        });
     }
 }
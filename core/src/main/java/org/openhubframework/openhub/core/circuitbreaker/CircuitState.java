@@ -1,56 +1,281 @@
 package org.openhubframework.openhub.core.circuitbreaker;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
 
 /**
  * CircuitState domain object, does store circuit state.
+ * <p>
+ * Calls are counted in rolling window of time buckets (success and failed count per bucket in primitive arrays)
+ * together with totals for the whole window, so recording of call and evaluation of threshold
+ * take constant time regardless of count of calls. Window is divided into (at most) {@value #MAX_BUCKET_COUNT}
+ * buckets, calls are counted with precision of one bucket. Lists of call timestamps (and their setters and reset
+ * methods) were removed in 2.4, use {@link #getSuccessCount(CircuitConfiguration, long)}
+ * and {@link #getFailedCount(CircuitConfiguration, long)} instead.
+ * <p>
+ * Circuit is {@link Status#CLOSED closed} (calls are performed) until failed calls in window exceed threshold,
+ * then it is {@link Status#OPEN open} (calls are not performed) for sleep interval. After sleep
+ * it is {@link Status#HALF_OPEN half-open} - limited count of probe calls is admitted, circuit is closed
+ * when all of them succeed or opened again when any of them fails.
+ * <p>
+ * All operations are synchronized, state can be shared between threads.
  *
  * @author Karel Kovarik
  * @since 2.2
  */
 public class CircuitState implements Serializable {
-    static final long serialVersionUID = 1L;
+    static final long serialVersionUID = 2L;
 
+    /**
+     * Maximum count of buckets in rolling window.
+     */
+    static final int MAX_BUCKET_COUNT = 20;
+
+    /**
+     * Status of the circuit.
+     */
+    public enum Status {
+        /**
+         * Calls are performed.
+         */
+        CLOSED,
+        /**
+         * Calls are not performed.
+         */
+        OPEN,
+        /**
+         * Only limited count of probe calls are performed.
+         */
+        HALF_OPEN
+    }
+
+    private Status status = Status.CLOSED;
     private long lastShortcutTimestamp;
-    // chosen plain arrayList for performance reason, even if is not thread-safe,
-    // keep that in mind when working with it
-    private List<Long> successCallList = new ArrayList<>();
-    private List<Long> failedCallList = new ArrayList<>();
 
-    public long getLastShortcutTimestamp() {
+    // half-open state
+    private long halfOpenTimestamp;
+    private int probeCalls;
+    private int probeSuccesses;
+
+    // rolling window, bucket of time slice with ID (timestamp / bucketSizeInMillis) is on index (ID % bucket count)
+    private long bucketSizeInMillis;
+    private long lastBucketId;
+    private int[] successCounts = new int[0];
+    private int[] failedCounts = new int[0];
+    private long successCount;
+    private long failedCount;
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public synchronized long getLastShortcutTimestamp() {
         return lastShortcutTimestamp;
     }
 
-    public void setLastShortcutTimestamp(long lastShortcutTimestamp) {
-        this.lastShortcutTimestamp = lastShortcutTimestamp;
+    /**
+     * Gets actual status of the circuit (without counters).
+     *
+     * @return circuit status.
+     */
+    public synchronized CircuitStatus getCircuitStatus() {
+        return new CircuitStatus(status, lastShortcutTimestamp);
+    }
+
+    /**
+     * Gets count of successful calls in window.
+     *
+     * @param configuration the circuit configuration.
+     * @param timestamp the actual timestamp.
+     * @return count of successful calls.
+     */
+    public synchronized long getSuccessCount(CircuitConfiguration configuration, long timestamp) {
+        roll(configuration, timestamp);
+        return successCount;
     }
 
-    public List<Long> getSuccessCallList() {
-        return successCallList;
+    /**
+     * Gets count of failed calls in window.
+     *
+     * @param configuration the circuit configuration.
+     * @param timestamp the actual timestamp.
+     * @return count of failed calls.
+     */
+    public synchronized long getFailedCount(CircuitConfiguration configuration, long timestamp) {
+        roll(configuration, timestamp);
+        return failedCount;
     }
 
-    public void resetSuccessCallList() {
-        this.successCallList = new ArrayList<>();
+    /**
+     * Decides whether call can be performed, switches circuit to half-open state after sleep.
+     *
+     * @param configuration the circuit configuration.
+     * @param timestamp the actual timestamp.
+     * @return {@code true} if call can be performed, {@code false} if circuit is down.
+     */
+    public synchronized boolean tryAcquirePermission(CircuitConfiguration configuration, long timestamp) {
+        switch (status) {
+            case CLOSED:
+                return true;
+
+            case OPEN:
+                if (lastShortcutTimestamp + configuration.getSleepInMillis() > timestamp) {
+                    return false;
+                }
+                startProbes(timestamp);
+                return true;
+
+            case HALF_OPEN:
+                if (probeCalls < configuration.getHalfOpenMaxCalls()) {
+                    probeCalls++;
+                    return true;
+                }
+                if (halfOpenTimestamp + configuration.getSleepInMillis() <= timestamp) {
+                    // results of probe calls didn't come (e.g. state wasn't updated after call), try it again
+                    startProbes(timestamp);
+                    return true;
+                }
+                return false;
+
+            default:
+                throw new IllegalStateException("Unsupported circuit status " + status);
+        }
     }
 
-    public List<Long> getFailedCallList() {
-        return failedCallList;
+    /**
+     * Records successful call, closes half-open circuit when all probe calls succeed.
+     *
+     * @param configuration the circuit configuration.
+     * @param timestamp the timestamp of call.
+     */
+    public synchronized void onSuccessCall(CircuitConfiguration configuration, long timestamp) {
+        if (status == Status.HALF_OPEN) {
+            probeSuccesses++;
+            if (probeSuccesses >= configuration.getHalfOpenMaxCalls()) {
+                status = Status.CLOSED;
+                resetWindow();
+            }
+            return;
+        }
+
+        roll(configuration, timestamp);
+        successCounts[bucketIndex()]++;
+        successCount++;
     }
 
-    public void resetFailedCallList() {
-        this.failedCallList = new ArrayList<>();
+    /**
+     * Records failed call and switches circuit down if threshold is exceeded or probe call failed.
+     *
+     * @param configuration the circuit configuration.
+     * @param timestamp the timestamp of call.
+     * @return {@code true} if circuit was switched down by this call.
+     */
+    public synchronized boolean onFailedCall(CircuitConfiguration configuration, long timestamp) {
+        switch (status) {
+            case HALF_OPEN:
+                switchDown(timestamp);
+                return true;
+
+            case OPEN:
+                // call started before circuit was switched down
+                return false;
+
+            default:
+                roll(configuration, timestamp);
+                failedCounts[bucketIndex()]++;
+                failedCount++;
+
+                if (shouldBreakCircuit(configuration)) {
+                    switchDown(timestamp);
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    /**
+     * Logic to resolve if circuit should change it state to down.
+     *
+     * @param configuration the circuit configuration.
+     * @return flag, true if circuit should switch down.
+     */
+    protected boolean shouldBreakCircuit(CircuitConfiguration configuration) {
+        // sum requests in window, if not enough, just continue
+        if (successCount + failedCount < configuration.getMinimalCountInWindow()
+                || successCount + failedCount < 1) {
+            return false;
+        }
+
+        final double failedCountPercentage = ((double) failedCount / (successCount + failedCount)) * 100;
+        return failedCountPercentage >= configuration.getThresholdPercentage();
+    }
+
+    private void switchDown(long timestamp) {
+        status = Status.OPEN;
+        lastShortcutTimestamp = timestamp;
+        resetWindow();
+    }
+
+    private void startProbes(long timestamp) {
+        status = Status.HALF_OPEN;
+        halfOpenTimestamp = timestamp;
+        probeCalls = 1;
+        probeSuccesses = 0;
+    }
+
+    private void resetWindow() {
+        // buckets are created again by next roll
+        bucketSizeInMillis = 0;
+        successCount = 0;
+        failedCount = 0;
+    }
+
+    private int bucketIndex() {
+        return (int) (lastBucketId % successCounts.length);
+    }
+
+    /**
+     * Moves window to the actual time - clears buckets which are out of window (at most all buckets).
+     * Buckets are created again when window size is changed.
+     */
+    private void roll(CircuitConfiguration configuration, long timestamp) {
+        final long windowSize = Math.max(1, configuration.getWindowSizeInMillis());
+        final int bucketCount = (int) Math.min(MAX_BUCKET_COUNT, windowSize);
+        final long bucketSize = (windowSize + bucketCount - 1) / bucketCount;
+        final long bucketId = timestamp / bucketSize;
+
+        if (bucketSize != bucketSizeInMillis || successCounts.length != bucketCount) {
+            bucketSizeInMillis = bucketSize;
+            lastBucketId = bucketId;
+            successCounts = new int[bucketCount];
+            failedCounts = new int[bucketCount];
+            successCount = 0;
+            failedCount = 0;
+            return;
+        }
+
+        if (bucketId > lastBucketId) {
+            for (long id = Math.max(lastBucketId + 1, bucketId - bucketCount + 1); id <= bucketId; id++) {
+                int idx = (int) (id % bucketCount);
+                successCount -= successCounts[idx];
+                failedCount -= failedCounts[idx];
+                successCounts[idx] = 0;
+                failedCounts[idx] = 0;
+            }
+            lastBucketId = bucketId;
+        }
+        // note: older timestamp (e.g. from another node) is counted in the last bucket
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return new ToStringBuilder(this)
+                .append("status", status)
                 .append("lastShortcutTimestamp", lastShortcutTimestamp)
-                .append("successCallList", successCallList)
-                .append("failedCallList", failedCallList)
+                .append("successCount", successCount)
+                .append("failedCount", failedCount)
                 .toString();
     }
 }
@@ -0,0 +1,48 @@
+package org.openhubframework.openhub.core.circuitbreaker;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+/**
+ * Immutable status of circuit - small part of {@link CircuitState} which is needed
+ * to decide whether call can be performed.
+ *
+ * @see CircuitState#getCircuitStatus()
+ * @since 2.4
+ */
+public final class CircuitStatus implements Serializable {
+    static final long serialVersionUID = 1L;
+
+    /**
+     * Status of circuit which wasn't used yet.
+     */
+    public static final CircuitStatus CLOSED = new CircuitStatus(CircuitState.Status.CLOSED, 0);
+
+    private final CircuitState.Status status;
+    private final long lastShortcutTimestamp;
+
+    public CircuitStatus(CircuitState.Status status, long lastShortcutTimestamp) {
+        Assert.notNull(status, "the status must not be null");
+
+        this.status = status;
+        this.lastShortcutTimestamp = lastShortcutTimestamp;
+    }
+
+    public CircuitState.Status getStatus() {
+        return status;
+    }
+
+    public long getLastShortcutTimestamp() {
+        return lastShortcutTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("status", status)
+                .append("lastShortcutTimestamp", lastShortcutTimestamp)
+                .toString();
+    }
+}
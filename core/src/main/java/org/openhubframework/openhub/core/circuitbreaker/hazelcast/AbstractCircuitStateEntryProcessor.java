@@ -0,0 +1,45 @@
+package org.openhubframework.openhub.core.circuitbreaker.hazelcast;
+
+import java.util.Map;
+
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.openhubframework.openhub.core.circuitbreaker.CircuitState;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
+import org.springframework.util.Assert;
+
+/**
+ * Parent of EntryProcessors which update {@link CircuitState}.
+ *
+ * Timestamp of the call is resolved by the caller, so the same update is applied on backup entry.
+ *
+ * @see com.hazelcast.map.EntryProcessor
+ * @since 2.4
+ */
+abstract class AbstractCircuitStateEntryProcessor extends AbstractEntryProcessor<String, CircuitState> {
+
+    private final CircuitConfiguration configuration;
+
+    private final long timestamp;
+
+    AbstractCircuitStateEntryProcessor(CircuitConfiguration configuration, long timestamp) {
+        Assert.notNull(configuration, "the configuration must not be null");
+
+        this.configuration = configuration;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets circuit state of the entry, creates new one for the first call of circuit.
+     */
+    protected CircuitState getCircuitState(Map.Entry<String, CircuitState> entry) {
+        return entry.getValue() != null ? entry.getValue() : new CircuitState();
+    }
+
+    protected CircuitConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    protected long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,37 @@
+package org.openhubframework.openhub.core.circuitbreaker.hazelcast;
+
+import java.util.Map;
+
+import org.openhubframework.openhub.core.circuitbreaker.CircuitState;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
+
+/**
+ * EntryProcessor to decide whether call can be performed, see
+ * {@link CircuitState#tryAcquirePermission(CircuitConfiguration, long)}.
+ * Result of processing is {@link Boolean#TRUE} if call can be performed.
+ *
+ * Entry is changed only if circuit isn't closed (probe calls in half-open state).
+ *
+ * @see com.hazelcast.map.EntryProcessor
+ * @since 2.4
+ */
+public class CallPermissionEntryProcessor extends AbstractCircuitStateEntryProcessor {
+
+    public CallPermissionEntryProcessor(CircuitConfiguration configuration, long timestamp) {
+        super(configuration, timestamp);
+    }
+
+    @Override
+    public Object process(Map.Entry<String, CircuitState> entry) {
+        final CircuitState circuitState = entry.getValue();
+        if (circuitState == null || circuitState.getStatus() == CircuitState.Status.CLOSED) {
+            // nothing to change
+            return Boolean.TRUE;
+        }
+
+        final boolean permitted = circuitState.tryAcquirePermission(getConfiguration(), getTimestamp());
+        entry.setValue(circuitState);
+
+        return permitted;
+    }
+}
@@ -0,0 +1,30 @@
+package org.openhubframework.openhub.core.circuitbreaker.hazelcast;
+
+import java.util.Map;
+
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.openhubframework.openhub.core.circuitbreaker.CircuitState;
+import org.openhubframework.openhub.core.circuitbreaker.CircuitStatus;
+
+/**
+ * Read-only EntryProcessor which returns only {@link CircuitStatus status} of the circuit
+ * instead of the whole {@link CircuitState}.
+ *
+ * @see com.hazelcast.map.EntryProcessor
+ * @since 2.4
+ */
+public class CircuitStatusEntryProcessor extends AbstractEntryProcessor<String, CircuitState> implements ReadOnly {
+
+    public CircuitStatusEntryProcessor() {
+        // read-only processor, nothing to apply on backup
+        super(false);
+    }
+
+    @Override
+    public Object process(Map.Entry<String, CircuitState> entry) {
+        final CircuitState circuitState = entry.getValue();
+
+        return circuitState != null ? circuitState.getCircuitStatus() : CircuitStatus.CLOSED;
+    }
+}
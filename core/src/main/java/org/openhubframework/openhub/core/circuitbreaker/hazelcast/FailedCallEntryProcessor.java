@@ -1,27 +1,31 @@
 package org.openhubframework.openhub.core.circuitbreaker.hazelcast;
 
-import java.time.Instant;
 import java.util.Map;
 
-import com.hazelcast.map.AbstractEntryProcessor;
 import org.openhubframework.openhub.core.circuitbreaker.CircuitState;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
 
 /**
- * EntryProcessor for failed call.
+ * EntryProcessor for failed call, switches circuit down if threshold is exceeded.
+ * Result of processing is {@link Boolean#TRUE} if circuit was switched down.
  *
  * @author Karel Kovarik
  * @see com.hazelcast.map.EntryProcessor
  * @since 2.2
  */
-public class FailedCallEntryProcessor extends AbstractEntryProcessor<String, CircuitState> {
+public class FailedCallEntryProcessor extends AbstractCircuitStateEntryProcessor {
+
+    public FailedCallEntryProcessor(CircuitConfiguration configuration, long timestamp) {
+        super(configuration, timestamp);
+    }
 
     @Override
     public Object process(Map.Entry<String, CircuitState> entry) {
-        final CircuitState circuitState = entry.getValue();
+        final CircuitState circuitState = getCircuitState(entry);
         // insert failed event
-        circuitState.getFailedCallList().add(Instant.now().toEpochMilli());
+        final boolean switchedDown = circuitState.onFailedCall(getConfiguration(), getTimestamp());
         entry.setValue(circuitState);
 
-        return null;
+        return switchedDown;
     }
 }
@@ -1,27 +1,32 @@
 package org.openhubframework.openhub.core.circuitbreaker.hazelcast;
 
-import java.time.Instant;
 import java.util.Map;
 
-import com.hazelcast.map.AbstractEntryProcessor;
 import org.openhubframework.openhub.core.circuitbreaker.CircuitState;
+import org.openhubframework.openhub.core.circuitbreaker.CircuitStatus;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
 
 /**
  * EntryProcessor to insert new successful call to the entry.
+ * Result of processing is actual {@link CircuitStatus status} of the circuit (success can close half-open circuit).
  *
  * @author Karel Kovarik
  * @see com.hazelcast.map.EntryProcessor
  * @since 2.2
  */
-public class SuccessCallEntryProcessor extends AbstractEntryProcessor<String, CircuitState> {
+public class SuccessCallEntryProcessor extends AbstractCircuitStateEntryProcessor {
+
+    public SuccessCallEntryProcessor(CircuitConfiguration configuration, long timestamp) {
+        super(configuration, timestamp);
+    }
 
     @Override
     public Object process(Map.Entry<String, CircuitState> entry) {
-        final CircuitState circuitState = entry.getValue();
+        final CircuitState circuitState = getCircuitState(entry);
         // insert success event
-        circuitState.getSuccessCallList().add(Instant.now().toEpochMilli());
+        circuitState.onSuccessCall(getConfiguration(), getTimestamp());
         entry.setValue(circuitState);
 
-        return null;
+        return circuitState.getCircuitStatus();
     }
 }
@@ -119,8 +119,8 @@ public class AsynchInMessageRoute extends AbstractBasicRoute {
                 .validate(header(SERVICE_HEADER).isNotNull())
                 .validate(header(OPERATION_HEADER).isNotNull())
 
-                // extract trace header, trace header is mandatory
-                .process(new TraceHeaderProcessor(true, validatorList))
+                // extract trace header (trace header is mandatory) and capture SOAP envelope
+                .process(new TraceHeaderProcessor(true, validatorList, true))
                 // remove inbound Spring WS SOAP header, so it isn't added to outbound SOAP messages
                 .removeHeader(SpringWebserviceConstants.SPRING_WS_SOAP_HEADER)
 
@@ -19,6 +19,7 @@ package org.openhubframework.openhub.core.common.asynch;
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_EXTERNAL_CALL_SKIP_URI_PATTERN;
 
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
 
 import org.apache.commons.lang3.StringUtils;
@@ -56,16 +57,22 @@ public class ExternalCallServiceImpl implements ExternalCallService {
     @ConfigurableValue(key = ASYNCH_EXTERNAL_CALL_SKIP_URI_PATTERN)
     private ConfigurationItem<String> skipOperationUriList;
 
-    private Pattern uriPattern;
+    private volatile Pattern uriPattern;
 
     @Autowired
     private ExternalCallDao extCallDao;
 
     @PostConstruct
     public void initPattern() {
-        if (StringUtils.isNotEmpty(skipOperationUriList.getValue(null))) {
-            uriPattern = Pattern.compile(skipOperationUriList.getValue());
-        }
+        uriPattern = compilePattern(skipOperationUriList.getValue(null));
+
+        // pattern is compiled only when the property is changed
+        skipOperationUriList.onChange(value -> uriPattern = compilePattern(value));
+    }
+
+    @Nullable
+    private static Pattern compilePattern(@Nullable String regex) {
+        return StringUtils.isNotEmpty(regex) ? Pattern.compile(regex) : null;
     }
 
     @Override
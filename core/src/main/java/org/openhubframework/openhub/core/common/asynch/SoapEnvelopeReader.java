@@ -0,0 +1,374 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.JAXBIntrospector;
+import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.UnmarshallerHandler;
+import javax.xml.bind.ValidationEventHandler;
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.TransformerHandler;
+
+import org.springframework.util.Assert;
+import org.springframework.xml.transform.StringResult;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.NamespaceSupport;
+
+import org.openhubframework.openhub.api.asynch.model.ObjectFactory;
+import org.openhubframework.openhub.api.asynch.model.TraceHeader;
+import org.openhubframework.openhub.common.xml.XmlPools;
+import org.openhubframework.openhub.core.common.ws.HeaderAndPayloadValidatingInterceptor;
+
+
+/**
+ * Reader of SOAP envelope which serializes the envelope to string and unmarshals trace header from SOAP header
+ * in one pass over the envelope. Events of the whole envelope are sent to the serializer and events of trace header
+ * element are sent to JAXB unmarshaller at the same time, there is no other walk through the envelope.
+ *
+ * @since 2.4
+ */
+final class SoapEnvelopeReader {
+
+    private SoapEnvelopeReader() {
+    }
+
+    /**
+     * Reads SOAP envelope.
+     *
+     * @param envelope the SOAP envelope
+     * @param traceHeaderName the name of trace header element
+     * @param eventHandler the handler of unmarshalling events
+     * @return serialized envelope and trace header
+     * @throws JAXBException when trace header can't be unmarshalled
+     */
+    static Result read(Source envelope, QName traceHeaderName, ValidationEventHandler eventHandler)
+            throws JAXBException {
+        Assert.notNull(envelope, "envelope must not be null");
+        Assert.notNull(traceHeaderName, "traceHeaderName must not be null");
+        Assert.notNull(eventHandler, "eventHandler must not be null");
+
+        final StringResult envelopeResult = new StringResult();
+        final TransformerHandler serializer;
+        try {
+            serializer = XmlPools.newIdentityTransformerHandler();
+        } catch (TransformerConfigurationException ex) {
+            throw new IllegalStateException("Error occurred during creating of XML serializer", ex);
+        }
+        serializer.setResult(envelopeResult);
+
+        // object factory defines trace header element
+        return XmlPools.withUnmarshaller(ObjectFactory.class, unmarshaller -> {
+            unmarshaller.setEventHandler(eventHandler);
+
+            TeeHandler tee = new TeeHandler(serializer, unmarshaller.getUnmarshallerHandler(), traceHeaderName);
+            SAXResult result = new SAXResult(tee);
+            result.setLexicalHandler(tee);
+
+            try {
+                XmlPools.withIdentityTransformer(transformer -> {
+                    transformer.transform(envelope, result);
+                    return null;
+                });
+            } catch (TransformerException ex) {
+                throw toJaxbException(ex);
+            }
+
+            return new Result(envelopeResult.toString(), tee.getTraceHeader());
+        });
+    }
+
+    private static JAXBException toJaxbException(TransformerException ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+            if (cause instanceof JAXBException) {
+                return (JAXBException) cause;
+            }
+        }
+
+        return new UnmarshalException(cause);
+    }
+
+    /**
+     * Result of reading of SOAP envelope.
+     */
+    static final class Result {
+
+        private final String envelope;
+
+        @Nullable
+        private final TraceHeader traceHeader;
+
+        private Result(String envelope, @Nullable TraceHeader traceHeader) {
+            this.envelope = envelope;
+            this.traceHeader = traceHeader;
+        }
+
+        /**
+         * Gets serialized SOAP envelope.
+         *
+         * @return envelope
+         */
+        String getEnvelope() {
+            return envelope;
+        }
+
+        /**
+         * Gets trace header.
+         *
+         * @return trace header, {@code null} if there is no trace header element in the envelope
+         */
+        @Nullable
+        TraceHeader getTraceHeader() {
+            return traceHeader;
+        }
+    }
+
+    /**
+     * Handler which sends all events to the serializer and events of trace header element to the unmarshaller.
+     */
+    private static final class TeeHandler implements ContentHandler, LexicalHandler {
+
+        private static final QName JAXB_ELM = HeaderAndPayloadValidatingInterceptor.TRACE_HEADER_ELM;
+
+        private final TransformerHandler serializer;
+
+        private final UnmarshallerHandler unmarshallerHandler;
+
+        private final QName traceHeaderName;
+
+        private final NamespaceSupport namespaces = new NamespaceSupport();
+
+        private final List<String> forwardedPrefixes = new ArrayList<>();
+
+        private boolean contextPushed;
+
+        /**
+         * Depth in trace header element, 0 = outside of the element.
+         */
+        private int depth;
+
+        private boolean found;
+
+        @Nullable
+        private TraceHeader traceHeader;
+
+        private TeeHandler(TransformerHandler serializer, UnmarshallerHandler unmarshallerHandler,
+                QName traceHeaderName) {
+            this.serializer = serializer;
+            this.unmarshallerHandler = unmarshallerHandler;
+            this.traceHeaderName = traceHeaderName;
+        }
+
+        @Nullable
+        private TraceHeader getTraceHeader() {
+            return traceHeader;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator) {
+            serializer.setDocumentLocator(locator);
+        }
+
+        @Override
+        public void startDocument() throws SAXException {
+            serializer.startDocument();
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            serializer.endDocument();
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            serializer.startPrefixMapping(prefix, uri);
+
+            if (depth > 0) {
+                unmarshallerHandler.startPrefixMapping(prefix, uri);
+            }
+
+            if (!contextPushed) {
+                namespaces.pushContext();
+                contextPushed = true;
+            }
+            namespaces.declarePrefix(prefix, uri);
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) throws SAXException {
+            serializer.endPrefixMapping(prefix);
+
+            if (depth > 0) {
+                unmarshallerHandler.endPrefixMapping(prefix);
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+            serializer.startElement(uri, localName, qName, atts);
+
+            if (!contextPushed) {
+                namespaces.pushContext();
+            }
+            contextPushed = false;
+
+            if (depth > 0) {
+                depth++;
+                unmarshallerHandler.startElement(uri, localName, qName, atts);
+
+            } else if (!found && traceHeaderName.getNamespaceURI().equals(uri)
+                    && traceHeaderName.getLocalPart().equals(localName)) {
+                found = true;
+                depth = 1;
+
+                // unmarshaller needs all namespaces which are in scope of trace header element
+                unmarshallerHandler.startDocument();
+                Enumeration<?> prefixes = namespaces.getPrefixes();
+                while (prefixes.hasMoreElements()) {
+                    forwardPrefix((String) prefixes.nextElement());
+                }
+                forwardPrefix(XMLConstants.DEFAULT_NS_PREFIX);
+
+                // trace header is always unmarshalled as element declared in object factory
+                unmarshallerHandler.startElement(JAXB_ELM.getNamespaceURI(), JAXB_ELM.getLocalPart(),
+                        JAXB_ELM.getLocalPart(), atts);
+            }
+        }
+
+        private void forwardPrefix(String prefix) throws SAXException {
+            String uri = namespaces.getURI(prefix);
+            if (uri != null && !XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                unmarshallerHandler.startPrefixMapping(prefix, uri);
+                forwardedPrefixes.add(prefix);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            serializer.endElement(uri, localName, qName);
+
+            if (depth > 1) {
+                unmarshallerHandler.endElement(uri, localName, qName);
+                depth--;
+
+            } else if (depth == 1) {
+                unmarshallerHandler.endElement(JAXB_ELM.getNamespaceURI(), JAXB_ELM.getLocalPart(),
+                        JAXB_ELM.getLocalPart());
+                depth = 0;
+
+                for (String prefix : forwardedPrefixes) {
+                    unmarshallerHandler.endPrefixMapping(prefix);
+                }
+                unmarshallerHandler.endDocument();
+
+                try {
+                    Object value = JAXBIntrospector.getValue(unmarshallerHandler.getResult());
+                    if (!(value instanceof TraceHeader)) {
+                        throw new SAXException("unexpected content of trace header element: " + value);
+                    }
+                    traceHeader = (TraceHeader) value;
+                } catch (JAXBException ex) {
+                    throw new SAXException(ex);
+                }
+            }
+
+            namespaces.popContext();
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            serializer.characters(ch, start, length);
+
+            if (depth > 0) {
+                unmarshallerHandler.characters(ch, start, length);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            serializer.ignorableWhitespace(ch, start, length);
+
+            if (depth > 0) {
+                unmarshallerHandler.ignorableWhitespace(ch, start, length);
+            }
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) throws SAXException {
+            serializer.processingInstruction(target, data);
+
+            if (depth > 0) {
+                unmarshallerHandler.processingInstruction(target, data);
+            }
+        }
+
+        @Override
+        public void skippedEntity(String name) throws SAXException {
+            serializer.skippedEntity(name);
+        }
+
+        @Override
+        public void startDTD(String name, String publicId, String systemId) throws SAXException {
+            serializer.startDTD(name, publicId, systemId);
+        }
+
+        @Override
+        public void endDTD() throws SAXException {
+            serializer.endDTD();
+        }
+
+        @Override
+        public void startEntity(String name) throws SAXException {
+            serializer.startEntity(name);
+        }
+
+        @Override
+        public void endEntity(String name) throws SAXException {
+            serializer.endEntity(name);
+        }
+
+        @Override
+        public void startCDATA() throws SAXException {
+            serializer.startCDATA();
+        }
+
+        @Override
+        public void endCDATA() throws SAXException {
+            serializer.endCDATA();
+        }
+
+        @Override
+        public void comment(char[] ch, int start, int length) throws SAXException {
+            serializer.comment(ch, start, length);
+        }
+    }
+}
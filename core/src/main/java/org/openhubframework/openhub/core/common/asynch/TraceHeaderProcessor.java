@@ -24,18 +24,22 @@ import javax.xml.transform.Source;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import org.apache.camel.component.spring.ws.SpringWebserviceMessage;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 import org.springframework.ws.soap.SoapHeaderElement;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
 
+import org.openhubframework.openhub.api.asynch.model.ObjectFactory;
 import org.openhubframework.openhub.api.asynch.model.TraceHeader;
 import org.openhubframework.openhub.api.asynch.model.TraceIdentifier;
 import org.openhubframework.openhub.api.common.ExchangeConstants;
 import org.openhubframework.openhub.api.exception.InternalErrorEnum;
 import org.openhubframework.openhub.api.exception.validation.ValidationException;
+import org.openhubframework.openhub.common.xml.XmlPools;
 import org.openhubframework.openhub.core.common.validator.TraceIdentifierValidator;
 
 
@@ -60,7 +64,13 @@ public class TraceHeaderProcessor implements Processor {
 
     public static final String TRACE_HEADER_ELM = "traceHeader";
 
-    private final JAXBContext jaxb2;
+    /**
+     * Exchange property that holds original SOAP envelope as string, it's captured together with trace header.
+     *
+     * @see #TraceHeaderProcessor(boolean, List, boolean)
+     */
+    public static final String SOAP_ENVELOPE_PROP = "ASYNCH_SOAP_ENVELOPE";
+
     private final ValidationEventHandler validationEventHandler = getValidationEventHandler();
 
     /**
@@ -68,6 +78,11 @@ public class TraceHeaderProcessor implements Processor {
      */
     private final boolean mandatoryHeader;
 
+    /**
+     * {@code true} when original SOAP envelope should be captured together with trace header.
+     */
+    private final boolean captureEnvelope;
+
     /**
      * collection of trace identifier validators
      */
@@ -82,9 +97,31 @@ public class TraceHeaderProcessor implements Processor {
      */
     public TraceHeaderProcessor(boolean mandatoryHeader, @Nullable List<TraceIdentifierValidator> validatorList) throws
             JAXBException {
-        jaxb2 = JAXBContext.newInstance(TraceHeader.class);
+        this(mandatoryHeader, validatorList, false);
+    }
+
+    /**
+     * Creates immutable Trace Header processor.
+     * <p>
+     * If {@code captureEnvelope} is {@code true} and trace header is in SOAP header of Spring web service message
+     * then whole SOAP envelope is serialized to string (exchange property {@link #SOAP_ENVELOPE_PROP})
+     * and trace header is unmarshalled in one pass over the envelope.
+     *
+     * @param mandatoryHeader if trace header is mandatory
+     * @param validatorList   the collection of trace identifier validators
+     * @param captureEnvelope if original SOAP envelope should be captured
+     * @throws JAXBException if an error was encountered while creating the <tt>JAXBContext</tt>
+     */
+    public TraceHeaderProcessor(boolean mandatoryHeader, @Nullable List<TraceIdentifierValidator> validatorList,
+            boolean captureEnvelope) throws JAXBException {
+        // shared JAXB contexts are created in advance
+        XmlPools.getJaxbContext(TraceHeader.class);
+        if (captureEnvelope) {
+            XmlPools.getJaxbContext(ObjectFactory.class);
+        }
         this.mandatoryHeader = mandatoryHeader;
         this.validatorList = validatorList;
+        this.captureEnvelope = captureEnvelope;
     }
 
     @Override
@@ -96,7 +133,12 @@ public class TraceHeaderProcessor implements Processor {
 
         SoapHeaderElement traceHeaderElm = exchange.getIn().getHeader(TRACE_HEADER_ELM, SoapHeaderElement.class);
         if (traceHeaderElm != null) {
-            setFromTraceHeader(exchange, traceHeaderElm.getSource(), false);
+            if (captureEnvelope && exchange.getIn() instanceof SpringWebserviceMessage
+                    && ((SpringWebserviceMessage) exchange.getIn()).getWebServiceMessage() instanceof SaajSoapMessage) {
+                setFromEnvelope(exchange, traceHeaderElm);
+            } else {
+                setFromTraceHeader(exchange, traceHeaderElm.getSource(), false);
+            }
             return;
         }
 
@@ -116,16 +158,34 @@ public class TraceHeaderProcessor implements Processor {
         }
     }
 
+    private void setFromEnvelope(Exchange exchange, SoapHeaderElement traceHeaderElm) throws JAXBException {
+        SpringWebserviceMessage inMsg = (SpringWebserviceMessage) exchange.getIn();
+        Source envelopeSource = ((SaajSoapMessage) inMsg.getWebServiceMessage()).getEnvelope().getSource();
+
+        // envelope serialization and trace header unmarshalling in one pass
+        SoapEnvelopeReader.Result result = SoapEnvelopeReader.read(envelopeSource, traceHeaderElm.getName(),
+                validationEventHandler);
+        exchange.setProperty(SOAP_ENVELOPE_PROP, result.getEnvelope());
+
+        validateTraceHeader(exchange, result.getTraceHeader());
+    }
+
     private void setFromTraceHeader(Exchange exchange, Source traceHeaderElmSource, boolean headerInBody) throws JAXBException {
-        // unmarshal
-        Unmarshaller unmarshaller = jaxb2.createUnmarshaller();
-        if (!headerInBody) {
-            // if there is trace header in the body then error events are thrown because there are other elements
-            //  in the body
-            unmarshaller.setEventHandler(validationEventHandler);
-        }
+        // unmarshal (unmarshaller is pooled)
+        TraceHeader traceHeader = XmlPools.withUnmarshaller(TraceHeader.class, unmarshaller -> {
+            if (!headerInBody) {
+                // if there is trace header in the body then error events are thrown because there are other elements
+                //  in the body
+                unmarshaller.setEventHandler(validationEventHandler);
+            }
+
+            return unmarshaller.unmarshal(traceHeaderElmSource, TraceHeader.class).getValue();
+        });
+
+        validateTraceHeader(exchange, traceHeader);
+    }
 
-        TraceHeader traceHeader = unmarshaller.unmarshal(traceHeaderElmSource, TraceHeader.class).getValue();
+    private void validateTraceHeader(Exchange exchange, @Nullable TraceHeader traceHeader) {
         if (traceHeader == null) {
             if (isMandatoryHeader()) {
                 throw new ValidationException(InternalErrorEnum.E105, "there is no trace header");
@@ -16,13 +16,34 @@
 
 package org.openhubframework.openhub.core.common.asynch.confirm;
 
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_CONFIRMATION_BATCH_SIZE;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_CONFIRMATION_PARALLELISM;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
 import org.apache.camel.ProducerTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import org.openhubframework.openhub.api.asynch.AsynchConstants;
+import org.openhubframework.openhub.api.configuration.ConfigurableValue;
+import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.exception.LockFailureException;
 
@@ -31,23 +52,48 @@ import org.openhubframework.openhub.api.exception.LockFailureException;
  * Reads confirmations (=external calls) from DB and sends them for next processing.
  * Execution will stop when there is no further confirmation for processing.
  * <p>
+ * Confirmations are locked in batches and sent concurrently - each target (source system of the message)
+ * gets at most configured count of confirmations at the same time. Every target system is served independently:
+ * next confirmations are locked as soon as some target system has free capacity (confirmations of systems
+ * without free capacity are skipped), so one slow system doesn't hold back confirmations for other systems.
+ * <p>
  * This executor is invoked by {@link JobStarterForConfirmationPooling}.
  *
  * @author Petr Juza
  */
 @Service
-public class ConfirmationPollExecutor implements Runnable {
+public class ConfirmationPollExecutor implements Runnable, DisposableBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConfirmationPollExecutor.class);
 
     private static final int LOCK_FAILURE_LIMIT = 5;
 
+    /**
+     * Maximum time (in seconds) of waiting for sent confirmation before trying to lock next confirmations again.
+     */
+    private static final int COMPLETION_WAIT_SEC = 1;
+
     @Autowired
     private ConfirmationPool confirmationPool;
 
     @Autowired
     private ProducerTemplate producerTemplate;
 
+    /**
+     * Maximum count of failed confirmations which are locked for next processing in one transaction.
+     */
+    @ConfigurableValue(key = ASYNCH_CONFIRMATION_BATCH_SIZE)
+    private ConfigurationItem<Integer> batchSize;
+
+    /**
+     * Maximum count of confirmations sent concurrently to one target system.
+     */
+    @ConfigurableValue(key = ASYNCH_CONFIRMATION_PARALLELISM)
+    private ConfigurationItem<Integer> parallelism;
+
+    private final ExecutorService executor
+            = Executors.newCachedThreadPool(new CustomizableThreadFactory("OpenHub-confirmation-"));
+
     // note: this is because of setting different target URI for tests
     private String targetURI = AsynchConstants.URI_CONFIRM_MESSAGE;
 
@@ -55,22 +101,42 @@ public class ConfirmationPollExecutor implements Runnable {
     public void run() {
         LOG.debug("Confirmation pooling starts ...");
 
+        // target systems of confirmations of this run
+        Map<String, SystemConfirmations> systems = new HashMap<>();
+        // signals that some confirmation was sent (=target system has free capacity again)
+        Semaphore completions = new Semaphore(0);
+
         // is there confirmation for processing?
-        ExternalCall extCall = null;
         int lockFailureCount = 0;
         while (true) {
             try {
-                extCall = confirmationPool.getNextConfirmation();
-                if (extCall != null) {
-                    // sends confirmation for next processing
-                    producerTemplate.sendBody(targetURI, extCall);
+                completions.drainPermits();
+
+                int maxParallelism = Math.max(1, parallelism.getValue());
+                Set<String> busySystems = systems.entrySet().stream()
+                        .filter(entry -> entry.getValue().getPendingCount() >= maxParallelism)
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+
+                List<ExternalCall> extCalls = confirmationPool.getNextConfirmations(batchSize.getValue(),
+                        busySystems);
+                if (!extCalls.isEmpty()) {
+                    // sends confirmations for next processing
+                    for (ExternalCall extCall : extCalls) {
+                        systems.computeIfAbsent(extCall.getMessage().getSourceSystem().getSystemName(),
+                                systemName -> new SystemConfirmations(maxParallelism, completions))
+                                .add(extCall);
+                    }
+                } else if (systems.values().stream().anyMatch(system -> system.getPendingCount() > 0)) {
+                    // some confirmations are being sent => wait for free capacity and try it again
+                    completions.tryAcquire(COMPLETION_WAIT_SEC, TimeUnit.SECONDS);
                 } else {
                     //there is no new confirmation for processing
                     //  => finish this executor and try it again after some time
                     break;
                 }
             } catch (LockFailureException ex) {
-                // try again to acquire next message with lock
+                // try again to acquire next confirmations with lock
                 lockFailureCount++;
 
                 if (lockFailureCount > LOCK_FAILURE_LIMIT) {
@@ -78,12 +144,88 @@ public class ConfirmationPollExecutor implements Runnable {
                             + LOCK_FAILURE_LIMIT + ").");
                     break;
                 }
+            } catch (InterruptedException ex) {
+                LOG.warn("Confirmation pooling was interrupted.");
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RejectedExecutionException ex) {
+                LOG.warn("Confirmation pooling was stopped.");
+                break;
             } catch (Exception ex) {
-                LOG.error("Error occurred while getting confirmations "
-                        + (extCall != null ? extCall.toHumanString() : ""), ex);
+                LOG.error("Error occurred while getting confirmations", ex);
             }
         }
 
         LOG.debug("Confirmation pooling finished.");
     }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Confirmations for one target system, they are sent by at most configured count of threads at the same time.
+     */
+    private final class SystemConfirmations {
+
+        private final Queue<ExternalCall> calls = new ConcurrentLinkedQueue<>();
+
+        // count of confirmations waiting in the queue or being sent
+        private final AtomicInteger pendingCount = new AtomicInteger();
+
+        // one permit for each thread sending confirmations to the system
+        private final Semaphore senders;
+
+        private final Semaphore completions;
+
+        private SystemConfirmations(int maxParallelism, Semaphore completions) {
+            this.senders = new Semaphore(maxParallelism);
+            this.completions = completions;
+        }
+
+        private int getPendingCount() {
+            return pendingCount.get();
+        }
+
+        private void add(ExternalCall extCall) {
+            pendingCount.incrementAndGet();
+            calls.add(extCall);
+            dispatch();
+        }
+
+        private void dispatch() {
+            // starts new sender if there is a confirmation and free capacity
+            while (!calls.isEmpty() && senders.tryAcquire()) {
+                try {
+                    executor.execute(this::send);
+                } catch (RejectedExecutionException ex) {
+                    senders.release();
+                    throw ex;
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                ExternalCall extCall;
+                while ((extCall = calls.poll()) != null) {
+                    try {
+                        // sends confirmation for next processing
+                        producerTemplate.sendBody(targetURI, extCall);
+                    } catch (Exception ex) {
+                        LOG.error("Error occurred while sending confirmation " + extCall.toHumanString(), ex);
+                    } finally {
+                        pendingCount.decrementAndGet();
+                        completions.release();
+                    }
+                }
+            } finally {
+                senders.release();
+            }
+
+            // confirmation could be added after the last poll, but before the permit was released
+            dispatch();
+        }
+    }
 }
@@ -16,7 +16,8 @@
 
 package org.openhubframework.openhub.core.common.asynch.confirm;
 
-import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
 
 import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.entity.ExternalCallStateEnum;
@@ -25,18 +26,22 @@ import org.openhubframework.openhub.api.exception.LockFailureException;
 
 /**
  * Pools confirmations (=external calls) in the {@link ExternalCallStateEnum#FAILED} state.
- * If there is this confirmation available then try to get and lock it for further processing.
+ * If there are these confirmations available then try to get and lock them for further processing.
  *
  * @author Petr Juza
  */
 public interface ConfirmationPool {
 
     /**
-     * Gets confirmation for next processing.
+     * Gets confirmations for next processing - all confirmations are locked at once,
+     * confirmations locked by another node are skipped.
      *
-     * @return external call or {@code null} if not available any confirmation
-     * @throws LockFailureException if found a confirmation ({@link ExternalCall}), but failed to get a lock
+     * @param limit the maximum count of confirmations
+     * @param excludedSystems names of source systems of messages whose confirmations are skipped
+     *                        (e.g. the system hasn't free capacity now)
+     * @return list of external calls ordered by creation timestamp, empty list if not available any confirmation
+     * @throws LockFailureException if found confirmations, but failed to get a lock for some of them
+     * @since 2.4
      */
-    @Nullable
-    ExternalCall getNextConfirmation();
+    List<ExternalCall> getNextConfirmations(int limit, Collection<String> excludedSystems);
 }
@@ -18,7 +18,8 @@ package org.openhubframework.openhub.core.common.asynch.confirm;
 
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_CONFIRMATION_INTERVAL_SEC;
 
-import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,14 +32,13 @@ import org.openhubframework.openhub.api.configuration.ConfigurableValue;
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.entity.ExternalCallStateEnum;
-import org.openhubframework.openhub.api.exception.LockFailureException;
 import org.openhubframework.openhub.common.time.Seconds;
 import org.openhubframework.openhub.core.common.dao.ExternalCallDao;
 
 
 /**
  * Polls confirmations in the {@link ExternalCallStateEnum#FAILED} state.
- * If there is this confirmation available then try to get and lock it for further processing.
+ * If there are these confirmations available then try to get and lock them for further processing.
 
  * @author Petr Juza
  */
@@ -56,31 +56,16 @@ public class ConfirmationPoolDbImpl implements ConfirmationPool {
     @ConfigurableValue(key = ASYNCH_CONFIRMATION_INTERVAL_SEC)
     private ConfigurationItem<Seconds> interval;
 
-    @Nullable
     @Override
     @Transactional
-    public ExternalCall getNextConfirmation() {
-        // -- is there next confirmation for processing?
-        final ExternalCall extCall = extCallDao.findConfirmation(interval.getValue().toDuration());
+    public List<ExternalCall> getNextConfirmations(int limit, Collection<String> excludedSystems) {
+        Assert.isTrue(limit > 0, "the limit must be positive");
+        Assert.notNull(excludedSystems, "the excludedSystems must not be null");
 
-        if (extCall == null) {
-            LOG.debug("There is no FAILED confirmation for processing.");
-            return null;
-        }
+        List<ExternalCall> extCalls = extCallDao.lockConfirmations(interval.getValue().toDuration(), limit,
+                excludedSystems);
 
-        // try to get lock for the confirmation
-        return lockConfirmation(extCall);
-    }
-
-    private ExternalCall lockConfirmation(final ExternalCall extCall) {
-        Assert.notNull(extCall, "the extCall must not be null");
-
-        try {
-            ExternalCall lockedCall = extCallDao.lockConfirmation(extCall);
-            LOG.debug("Success in getting lock for confirmation " + lockedCall.toHumanString());
-            return lockedCall;
-        } catch (Exception ex) {
-            throw new LockFailureException("Not success in getting lock for confirmation " + extCall.toHumanString(), ex);
-        }
+        LOG.debug("Success in getting lock for {} confirmation(s).", extCalls.size());
+        return extCalls;
     }
 }
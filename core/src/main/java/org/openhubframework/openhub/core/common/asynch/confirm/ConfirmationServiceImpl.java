@@ -17,6 +17,11 @@
 package org.openhubframework.openhub.core.common.asynch.confirm;
 
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_CONFIRMATION_FAILED_LIMIT;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_CONFIRMATION_INTERVAL_SEC;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_CONFIRMATION_MAX_INTERVAL_SEC;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +36,7 @@ import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.entity.ExternalCallStateEnum;
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.common.time.Seconds;
 import org.openhubframework.openhub.core.common.dao.ExternalCallDao;
 
 
@@ -50,6 +56,18 @@ public class ConfirmationServiceImpl implements ConfirmationService {
     @ConfigurableValue(key = ASYNCH_CONFIRMATION_FAILED_LIMIT)
     private ConfigurationItem<Integer> failedCountLimit;
 
+    /**
+     * Interval (in seconds) between the first and the second try of failed confirmation.
+     */
+    @ConfigurableValue(key = ASYNCH_CONFIRMATION_INTERVAL_SEC)
+    private ConfigurationItem<Seconds> interval;
+
+    /**
+     * Maximum interval (in seconds) between two tries of failed confirmation.
+     */
+    @ConfigurableValue(key = ASYNCH_CONFIRMATION_MAX_INTERVAL_SEC)
+    private ConfigurationItem<Seconds> maxInterval;
+
     @Autowired
     private ExternalCallDao extCallDao;
 
@@ -61,6 +79,7 @@ public class ConfirmationServiceImpl implements ConfirmationService {
                 "the msg must in state OK or FAILED, but state is " + msg.getState());
 
         ExternalCall extCall = ExternalCall.createFailedConfirmation(msg);
+        extCall.setNextAttemptTimestamp(getNextAttemptTimestamp(extCall.getFailedCount()));
 
         extCallDao.insert(extCall);
 
@@ -103,9 +122,33 @@ public class ConfirmationServiceImpl implements ConfirmationService {
         }
 
         extCall.setState(state);
+        extCall.setNextAttemptTimestamp(state == ExternalCallStateEnum.FAILED
+                ? getNextAttemptTimestamp(failedCount) : null);
 
         extCallDao.update(extCall);
 
         LOG.debug("Confirmation call " + extCall.toHumanString() + " changed state to " + state);
     }
+
+    /**
+     * Gets time of next attempt of failed confirmation. Interval is doubled with each failure up to max. interval
+     * (exponential backoff) and only half of it is fixed, the other half is random (jitter) - confirmations
+     * which failed at the same time (e.g. target system was not available) are not tried again at the same time.
+     *
+     * @param failedCount the count of failed tries
+     * @return timestamp of next attempt
+     */
+    Instant getNextAttemptTimestamp(int failedCount) {
+        long intervalMillis = interval.getValue().toDuration().toMillis();
+        long maxIntervalMillis = Math.max(intervalMillis, maxInterval.getValue().toDuration().toMillis());
+
+        // note: shift is limited to avoid overflow
+        int exponent = Math.min(Math.max(failedCount - 1, 0), 30);
+        long delayMillis = intervalMillis > (maxIntervalMillis >> exponent)
+                ? maxIntervalMillis
+                : intervalMillis << exponent;
+
+        long jitterMillis = ThreadLocalRandom.current().nextLong(delayMillis / 2 + 1);
+        return Instant.now().plusMillis(delayMillis - delayMillis / 2 + jitterMillis);
+    }
 }
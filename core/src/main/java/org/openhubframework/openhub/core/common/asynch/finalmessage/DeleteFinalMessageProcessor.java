@@ -16,8 +16,11 @@
 
 package org.openhubframework.openhub.core.common.asynch.finalmessage;
 
+import java.time.Instant;
+
 import org.openhubframework.openhub.api.asynch.finalmessage.FinalMessageProcessor;
 import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.entity.Request;
 import org.openhubframework.openhub.core.common.dao.ExternalCallDao;
 import org.openhubframework.openhub.core.common.dao.RequestResponseDao;
@@ -25,11 +28,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.TransactionStatus;
 
 /**
  * FinalMessageProcessor implementation that does delete given message from datastore.
  *
  * It does delete message and all related entities as well.
+ * Messages can be also deleted in bulk, see {@link #deleteMessages(MsgStateEnum, Instant, long, long)}.
  *
  * @author Karel Kovarik
  * @since 2.1
@@ -70,6 +75,25 @@ public class DeleteFinalMessageProcessor extends AbstractFinalMessageProcessor {
         LOG.debug("Message [{}] deleted.", message.getId());
     }
 
+    /**
+     * Deletes messages in given final state, which were lastly changed before given time and which are
+     * in given ID range, by set-based bulk statements. Related entities are deleted as well.
+     *
+     * @param state the message state
+     * @param lastChangeTo the last change time (inclusive)
+     * @param fromMsgId the lowest message ID (inclusive)
+     * @param toMsgId the highest message ID (inclusive)
+     * @return count of deleted messages
+     * @since 2.4
+     */
+    public int deleteMessages(MsgStateEnum state, Instant lastChangeTo, long fromMsgId, long toMsgId) {
+        final int count = transactionTemplate.execute((TransactionStatus status) ->
+                getMessageDao().deleteFinalMessages(state, lastChangeTo, fromMsgId, toMsgId));
+
+        LOG.debug("{} messages in state [{}] with ID from [{}] to [{}] deleted.", count, state, fromMsgId, toMsgId);
+        return count;
+    }
+
     @Override
     public int getOrder() {
         return ORDER;
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 import org.openhubframework.openhub.api.asynch.finalmessage.FinalMessageProcessor;
 import org.openhubframework.openhub.api.asynch.finalmessage.FinalMessagesProcessingService;
@@ -36,11 +37,13 @@ import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MessageFilter;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.core.common.asynch.LogContextHelper;
+import org.openhubframework.openhub.core.common.dao.MessageDao;
 import org.openhubframework.openhub.core.configuration.ConfigurationService;
 import org.openhubframework.openhub.spi.msg.MessageService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -58,21 +61,42 @@ import org.springframework.util.Assert;
  * Note: there is technical limit on how many messages for each state are processed at most.
  * ({@link CoreProps#ASYNCH_FINAL_MESSAGES_ITERATION_MESSAGE_LIMIT}).
  *
+ * If bulk deleting is enabled ({@link CoreProps#ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_BULK}) and
+ * {@link DeleteFinalMessageProcessor} is registered, then messages are deleted in chunks by ID range
+ * ({@link CoreProps#ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_BULK_CHUNK_SIZE}), each chunk in new transaction.
+ * Other processors are still invoked message by message before the chunk is deleted, message which fails
+ * in any processor is not deleted.
+ *
  * @author Karel Kovarik
  * @since 2.1
  */
 public class FinalMessagesProcessingServiceImpl implements FinalMessagesProcessingService {
     private static final Logger LOG = LoggerFactory.getLogger(FinalMessagesProcessingServiceImpl.class);
 
+    /**
+     * Default maximum count of messages deleted in one transaction when bulk deleting is enabled.
+     */
+    public static final int DEFAULT_BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     protected MessageService messageService;
 
+    @Autowired
+    protected MessageDao messageDao;
+
     @Autowired
     protected ConfigurationService configurationService;
 
     @ConfigurableValue(key = CoreProps.ASYNCH_FINAL_MESSAGES_ITERATION_MESSAGE_LIMIT)
     protected ConfigurationItem<Long> messagesTechnicalLimit;
 
+    @Value("${" + CoreProps.ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_BULK + ":false}")
+    protected boolean bulkDelete;
+
+    @Value("${" + CoreProps.ASYNCH_FINAL_MESSAGES_DELETE_PROCESSOR_BULK_CHUNK_SIZE + ":"
+            + DEFAULT_BULK_CHUNK_SIZE + "}")
+    protected int bulkChunkSize;
+
     // processors
     @Autowired(required = false)
     protected List<FinalMessageProcessor> finalMessageProcessorList = new ArrayList<>();
@@ -117,32 +141,152 @@ public class FinalMessagesProcessingServiceImpl implements FinalMessagesProcessi
     public void processMessages() {
         Assert.notNull(finalMessageStatesConfig, "finalMessageStatesConfig must not be null");
 
+        final DeleteFinalMessageProcessor bulkDeleteProcessor = getBulkDeleteProcessor();
+
         for (Map.Entry<MsgStateEnum, String> msgStateEntry : finalMessageStatesConfig.entrySet()) {
+            if (bulkDeleteProcessor != null) {
+                processMessagesInBulk(msgStateEntry.getKey(), bulkDeleteProcessor);
+                continue;
+            }
+
             // find messages
             final List<Message> messageList = findMessagesForProcessing(msgStateEntry.getKey());
             LOG.trace("Will process '{}' messages in state '{}'.", messageList.size(), msgStateEntry.getKey());
 
             for (Message message : messageList) {
-                // set log context
-                LogContextHelper.setLogContextParams(message, null);
-                try {
-                    // execute in new transaction
-                    transactionTemplate.execute((TransactionStatus status) -> {
-                        // invoke all the processors
-                        for (FinalMessageProcessor finalMessageProcessor : finalMessageProcessorList) {
-                            finalMessageProcessor.processMessage(message);
-                        }
-                       return null; // callback without result
-                    });
-
-                } catch (Exception ex) {
-                    // continue with another message if handling of one fails.
-                    LOG.error("Failed to process message : {}, will continue with next.", message, ex);
+                processMessage(message, finalMessageProcessorList);
+            }
+        }
+    }
+
+    /**
+     * Process messages in given state in chunks, each chunk is deleted by set-based bulk statements
+     * after the message by message invocation of other processors.
+     *
+     * @param msgState the state.
+     * @param deleteProcessor the processor for bulk deleting.
+     */
+    protected void processMessagesInBulk(MsgStateEnum msgState, DeleteFinalMessageProcessor deleteProcessor) {
+        long saveTimeInSeconds = getSaveTimeInSeconds(msgState);
+
+        if (saveTimeInSeconds < 0) {
+            LOG.trace("Messages in state [{}] will be skipped, as configured to be kept indefinitely.", msgState);
+            return;
+        }
+
+        final Instant lastChangeTo = Instant.now().minusSeconds(saveTimeInSeconds);
+        final List<FinalMessageProcessor> processors = finalMessageProcessorList.stream()
+                .filter(processor -> processor != deleteProcessor)
+                .collect(Collectors.toList());
+
+        final long limit = messagesTechnicalLimit.getValue();
+        long remaining = limit;
+        long fromMsgId = 0;
+        int deleted = 0;
+
+        while (remaining > 0) {
+            final List<Long> msgIds = messageDao.findFinalMessageIds(msgState, lastChangeTo, fromMsgId,
+                    (int) Math.min(bulkChunkSize, remaining));
+            if (msgIds.isEmpty()) {
+                break;
+            }
+            remaining -= msgIds.size();
+            LOG.trace("Will process chunk of '{}' messages in state '{}'.", msgIds.size(), msgState);
+
+            // ID range is split by messages which failed in other processors, these messages are not deleted
+            long rangeFromMsgId = fromMsgId + 1;
+            for (Long msgId : msgIds) {
+                if (!processors.isEmpty() && !processMessage(msgId, processors)) {
+                    deleted += deleteMessages(deleteProcessor, msgState, lastChangeTo, rangeFromMsgId, msgId - 1);
+                    rangeFromMsgId = msgId + 1;
                 }
-                // clear MDC context
-                LogContextHelper.removeLogContextParams();
             }
+
+            fromMsgId = msgIds.get(msgIds.size() - 1);
+            deleted += deleteMessages(deleteProcessor, msgState, lastChangeTo, rangeFromMsgId, fromMsgId);
         }
+
+        LOG.debug("Deleted '{}' messages in state '{}'.", deleted, msgState);
+
+        if (remaining == 0) {
+            LOG.info("Reached limit for one iteration of job {}, probably there are other messages eligible" +
+                    "to be processed. Will be processed in the next iteration.", limit);
+        }
+    }
+
+    /**
+     * Process one message by given processors in new transaction.
+     *
+     * @param message the message.
+     * @param processors the processors.
+     * @return {@code true} if message was processed successfully, otherwise {@code false}
+     */
+    protected boolean processMessage(Message message, List<FinalMessageProcessor> processors) {
+        // set log context
+        LogContextHelper.setLogContextParams(message, null);
+        try {
+            // execute in new transaction
+            transactionTemplate.execute((TransactionStatus status) -> {
+                // invoke all the processors
+                for (FinalMessageProcessor finalMessageProcessor : processors) {
+                    finalMessageProcessor.processMessage(message);
+                }
+               return null; // callback without result
+            });
+            return true;
+
+        } catch (Exception ex) {
+            // continue with another message if handling of one fails.
+            LOG.error("Failed to process message : {}, will continue with next.", message, ex);
+            return false;
+        } finally {
+            // clear MDC context
+            LogContextHelper.removeLogContextParams();
+        }
+    }
+
+    private boolean processMessage(Long msgId, List<FinalMessageProcessor> processors) {
+        final Message message = messageService.findMessageById(msgId);
+        if (message == null) {
+            LOG.debug("Message [{}] was not found, probably it was deleted in the meantime.", msgId);
+            return false;
+        }
+
+        return processMessage(message, processors);
+    }
+
+    private int deleteMessages(DeleteFinalMessageProcessor deleteProcessor, MsgStateEnum msgState,
+            Instant lastChangeTo, long fromMsgId, long toMsgId) {
+        if (fromMsgId > toMsgId) {
+            return 0;
+        }
+
+        try {
+            return deleteProcessor.deleteMessages(msgState, lastChangeTo, fromMsgId, toMsgId);
+        } catch (Exception ex) {
+            // continue with another chunk if deleting of one fails.
+            LOG.error("Failed to delete messages in state [{}] with ID from [{}] to [{}], will continue with next.",
+                    msgState, fromMsgId, toMsgId, ex);
+            return 0;
+        }
+    }
+
+    /**
+     * Get processor for deleting messages in bulk.
+     *
+     * @return the processor or {@code null} if bulk deleting is not enabled or the processor is not registered.
+     */
+    @Nullable
+    protected DeleteFinalMessageProcessor getBulkDeleteProcessor() {
+        if (!bulkDelete) {
+            return null;
+        }
+
+        return finalMessageProcessorList.stream()
+                .filter(DeleteFinalMessageProcessor.class::isInstance)
+                .map(DeleteFinalMessageProcessor.class::cast)
+                .findFirst()
+                .orElse(null);
     }
 
     /**
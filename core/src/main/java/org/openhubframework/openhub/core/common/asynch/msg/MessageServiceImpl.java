@@ -28,8 +28,10 @@ import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.openhubframework.openhub.api.entity.MessageFilter;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
@@ -37,6 +39,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
@@ -44,6 +48,8 @@ import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.entity.Node;
 import org.openhubframework.openhub.api.exception.ErrorExtEnum;
+import org.openhubframework.openhub.api.exception.LockFailureException;
+import org.openhubframework.openhub.core.common.asynch.queue.RepeatableMessagesDispatcher;
 import org.openhubframework.openhub.core.common.dao.MessageDao;
 import org.openhubframework.openhub.core.common.exception.ExceptionTranslator;
 import org.openhubframework.openhub.spi.msg.MessageService;
@@ -68,6 +74,9 @@ public class MessageServiceImpl implements MessageService {
     @Autowired
     private MessageDao messageDao;
 
+    @Autowired
+    private ObjectProvider<RepeatableMessagesDispatcher> repeatableMessagesDispatcher;
+
     @Autowired
     public MessageServiceImpl(PlatformTransactionManager transactionManager) {
         Assert.notNull(transactionManager, "the transactionManager must not be null");
@@ -128,6 +137,10 @@ public class MessageServiceImpl implements MessageService {
 
         // check parent message with HARD binding - if any
         if (msg.existHardParent()) {
+            // child messages can be processed in parallel - parent message is locked first, so the last finished
+            //  child message sees states of all other child messages
+            Message parentMsg = messageDao.getMessageForUpdate(msg.getParentMsgId());
+
             List<Message> childMessages = messageDao.findChildMessages(msg);
 
             // are all child messages processed?
@@ -140,12 +153,9 @@ public class MessageServiceImpl implements MessageService {
                 }
             }
 
-            if (finishedOK) {
-                // mark parent message as successfully processed only if parent message is in waiting state
-                Message parentMsg = messageDao.getMessage(msg.getParentMsgId());
-                if (parentMsg.getState().equals(MsgStateEnum.WAITING)) {
-                    setStateOk(parentMsg, null);
-                }
+            // mark parent message as successfully processed only if parent message is in waiting state
+            if (finishedOK && parentMsg.getState().equals(MsgStateEnum.WAITING)) {
+                setStateOk(parentMsg, null);
             }
         }
     }
@@ -228,6 +238,7 @@ public class MessageServiceImpl implements MessageService {
         msg.setLastUpdateTimestamp(Instant.now());
 
         messageDao.update(msg);
+        scheduleForReprocessing(msg);
 
         LOG.debug("State of the message " + msg.toHumanString() + " was changed to " + MsgStateEnum.PARTLY_FAILED
                 + ", but WITHOUT increasing error counter");
@@ -242,6 +253,7 @@ public class MessageServiceImpl implements MessageService {
 
         msg.setState(MsgStateEnum.PARTLY_FAILED);
         updateErrorMessage(msg, ex, errCode, customData, props);
+        scheduleForReprocessing(msg);
 
         LOG.debug("State of the message " + msg.toHumanString() + " was changed to "
                 + MsgStateEnum.PARTLY_FAILED + " (failed count = " + msg.getFailedCount() + ")");
@@ -270,8 +282,8 @@ public class MessageServiceImpl implements MessageService {
         Assert.notNull(msg, "msg must not be null");
         Assert.isTrue(msg.existHardParent(), "only parent message with HARD binding can be affected");
 
-        // mark parent message as failed too
-        Message parentMsg = messageDao.getMessage(msg.getParentMsgId());
+        // mark parent message as failed too (lock it, other child messages can be finished in parallel)
+        Message parentMsg = messageDao.getMessageForUpdate(msg.getParentMsgId());
 
         parentMsg.setState(MsgStateEnum.FAILED);
         parentMsg.setLastUpdateTimestamp(Instant.now());
@@ -349,6 +361,34 @@ public class MessageServiceImpl implements MessageService {
         return result;
     }
 
+    @Override
+    public List<Message> setStateInQueueForLock(final Duration postponedInterval, final Duration partlyFailedInterval,
+            final int limit, final MessagePartition partition) {
+        Assert.notNull(postponedInterval, "postponed interval must not be null");
+        Assert.notNull(partlyFailedInterval, "partly failed interval must not be null");
+        Assert.isTrue(limit > 0, "limit must be positive");
+        Assert.notNull(partition, "partition must not be null");
+
+        final Node actualNode = nodeService.getActualNode();
+        List<Message> messages;
+        try {
+            messages = transactionTemplate.execute(new TransactionCallback<List<Message>>() {
+                @Override
+                public List<Message> doInTransaction(final TransactionStatus transactionStatus) {
+                    return messageDao.updateMessagesInQueueUnderLock(postponedInterval, partlyFailedInterval, limit,
+                            partition, actualNode);
+                }
+            });
+        } catch (DataAccessException ex) {
+            throw new LockFailureException("Failed to lock messages for re-processing", ex);
+        }
+
+        LOG.debug("Successfully locked {} message(s) for changed state: {} in node: {} (partition: {})",
+                messages.size(), MsgStateEnum.IN_QUEUE, actualNode.toHumanString(), partition);
+
+        return messages;
+    }
+
     @Override
     public boolean setStateProcessingForLock(final Message message) {
         Assert.notNull(message, "message must not be null");
@@ -391,6 +431,30 @@ public class MessageServiceImpl implements MessageService {
         return messageDao.findEagerMessage(msgId);
     }
 
+    /**
+     * Schedules message for re-processing by {@link RepeatableMessagesDispatcher} (if available)
+     * after the transaction commits.
+     *
+     * @param msg the message in state {@link MsgStateEnum#POSTPONED} or {@link MsgStateEnum#PARTLY_FAILED}
+     */
+    private void scheduleForReprocessing(final Message msg) {
+        final RepeatableMessagesDispatcher dispatcher = repeatableMessagesDispatcher.getIfAvailable();
+        if (dispatcher == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.schedule(msg);
+                }
+            });
+        } else {
+            dispatcher.schedule(msg);
+        }
+    }
+
     private void updateErrorMessage(Message msg, Exception ex, @Nullable ErrorExtEnum errCode,
             @Nullable String customData, Map<String, Object> props) {
 
@@ -431,6 +495,13 @@ public class MessageServiceImpl implements MessageService {
         return messageDao.findMessagesByFilter(messageFilter, limit);
     }
 
+    @Override
+    public List<Message> findMessageListItemsByFilter(final MessageFilter messageFilter, long limit) {
+        Assert.notNull(messageFilter, "the messageFilter must not be null");
+
+        return messageDao.findMessageListItemsByFilter(messageFilter, limit);
+    }
+
     @Override
     public int getCountMessages(MsgStateEnum state, Duration interval) {
         Assert.notNull(state, "the state must not be null");
@@ -477,6 +548,7 @@ public class MessageServiceImpl implements MessageService {
         msg.setLastUpdateTimestamp(Instant.now());
 
         messageDao.update(msg);
+        scheduleForReprocessing(msg);
 
         LOG.debug("State of the message " + msg.toHumanString() + " was changed to " + MsgStateEnum.POSTPONED);
     }
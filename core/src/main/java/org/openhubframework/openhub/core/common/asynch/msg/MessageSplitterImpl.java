@@ -17,8 +17,12 @@
 package org.openhubframework.openhub.core.common.asynch.msg;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.Body;
 import org.apache.camel.Handler;
@@ -42,6 +46,12 @@ import org.openhubframework.openhub.spi.msg.MessageService;
 
 /**
  * Implementation of {@link MsgSplitter} interface.
+ * <p>
+ * Child messages are processed one by one by default. If parallelism is greater than one then child messages
+ * of one parent message are processed in parallel, at most {@code parallelism} child messages are processed
+ * at the same time. Child messages with the same funnel value can be processed in the order in which they were
+ * split (one after another), see {@link #MessageSplitterImpl(MessageService, ModelCamelContext,
+ * MessageSplitterCallback, int, boolean)}.
  *
  * @author Petr Juza
  */
@@ -58,7 +68,22 @@ public final class MessageSplitterImpl implements MsgSplitter {
     private final MessageSplitterCallback splitterCallback;
 
     /**
-     * Creates new message splitter.
+     * Max. count of child messages of one parent message which are processed at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * {@code true} if child messages with the same funnel value are processed in the original order.
+     */
+    private final boolean preserveFunnelOrder;
+
+    /**
+     * Executor for processing child messages in parallel, {@code null} if parallelism is one.
+     */
+    private final ExecutorService childExecutor;
+
+    /**
+     * Creates new message splitter, child messages are processed one by one.
      *
      * @param messageService the message service
      * @param camelCtx the Camel context
@@ -66,15 +91,37 @@ public final class MessageSplitterImpl implements MsgSplitter {
      */
     public MessageSplitterImpl(MessageService messageService, ModelCamelContext camelCtx,
             MessageSplitterCallback splitterCallback) {
+        this(messageService, camelCtx, splitterCallback, 1, true);
+    }
+
+    /**
+     * Creates new message splitter.
+     *
+     * @param messageService the message service
+     * @param camelCtx the Camel context
+     * @param splitterCallback the callback for getting split messages
+     * @param parallelism the max. count of child messages of one parent message processed at the same time
+     * @param preserveFunnelOrder {@code true} if child messages with the same funnel value should be processed
+     *                            one after another in the original order
+     * @since 2.4
+     */
+    public MessageSplitterImpl(MessageService messageService, ModelCamelContext camelCtx,
+            MessageSplitterCallback splitterCallback, int parallelism, boolean preserveFunnelOrder) {
 
         Assert.notNull(messageService, "the messageService must not be null");
         Assert.notNull(camelCtx, "the camelCtx must not be null");
         Assert.notNull(splitterCallback, "the splitterCallback must not be null");
+        Assert.isTrue(parallelism > 0, "the parallelism must be positive");
 
         this.camelCtx = camelCtx;
         this.messageService = messageService;
         this.splitterCallback = splitterCallback;
+        this.parallelism = parallelism;
+        this.preserveFunnelOrder = preserveFunnelOrder;
         this.executor = camelCtx.getExecutorServiceManager().newThreadPool(this, "MessageSplitter", 1, 3);
+        this.childExecutor = parallelism > 1
+                ? camelCtx.getExecutorServiceManager().newFixedThreadPool(this, "MessageSplitterChild", parallelism)
+                : null;
     }
 
     @Override
@@ -111,35 +158,134 @@ public final class MessageSplitterImpl implements MsgSplitter {
 
         final ProducerTemplate msgProducer = camelCtx.createProducerTemplate();
 
-        try {
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    processChildMessages(parentMsg, messages, msgProducer);
+                } finally {
+                    try {
+                        msgProducer.stop();
+                    } catch (Exception ex) {
+                        LOG.error("error occurred during stopping producerTemplate", ex);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Processes child messages and waits for all of them.
+     * <p>
+     * Child messages are divided into sequences which are processed in parallel - child messages in one sequence
+     * are processed one after another (child messages with the same funnel value if funnel order is preserved).
+     */
+    private void processChildMessages(Message parentMsg, List<Message> messages, ProducerTemplate msgProducer) {
+        final ChildResults results = new ChildResults();
+
+        if (childExecutor == null) {
             // process messages separately one by one
-            executor.submit(new Runnable() {
-                @Override
-                public void run() {
-                    for (Message msg : messages) {
-                        LOG.debug("Message " + msg.toHumanString() + " will be processed ...");
-
-                        if (!messageService.setStateInQueueForLock(msg)) {
-                            throw new LockFailureException("Failed to lock message for change state to '"
-                                    + MsgStateEnum.IN_QUEUE + "': " + msg.toHumanString());
-                        }
+            processSequence(messages, msgProducer, results);
 
-                        // send to process (wait for reply and then process next child message); it's new exchange
-                        msgProducer.requestBody(AsynchMessageRoute.URI_SYNC_MSG, msg);
+        } else {
+            // bounded window of child messages in progress
+            final Semaphore inProgress = new Semaphore(parallelism);
+            final List<List<Message>> sequences = getSequences(messages);
 
-                        LOG.debug("Message " + msg.toHumanString() + " was successfully processed.");
-                    }
-                }
-            });
-        } finally {
-            if (msgProducer != null) {
+            for (final List<Message> sequence : sequences) {
+                inProgress.acquireUninterruptibly();
                 try {
-                    msgProducer.stop();
-                } catch (Exception ex) {
-                    LOG.error("error occurred during stopping producerTemplate", ex);
+                    childExecutor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                processSequence(sequence, msgProducer, results);
+                            } finally {
+                                inProgress.release();
+                            }
+                        }
+                    });
+                } catch (RuntimeException ex) {
+                    inProgress.release();
+                    throw ex;
                 }
             }
+
+            // wait for all child messages
+            inProgress.acquireUninterruptibly(parallelism);
+            inProgress.release(parallelism);
+        }
+
+        LOG.debug("Child messages of the parent message " + parentMsg.toHumanString() + " were processed: "
+                + results.getOkCount() + " OK, " + results.getFailedCount() + " failed");
+    }
+
+    private List<List<Message>> getSequences(List<Message> messages) {
+        List<List<Message>> sequences = new ArrayList<List<Message>>();
+        Map<String, List<Message>> funnelSequences = new LinkedHashMap<String, List<Message>>();
+
+        for (Message msg : messages) {
+            if (preserveFunnelOrder && msg.getFunnelValue() != null) {
+                List<Message> sequence = funnelSequences.get(msg.getFunnelValue());
+                if (sequence == null) {
+                    sequence = new ArrayList<Message>();
+                    funnelSequences.put(msg.getFunnelValue(), sequence);
+                    sequences.add(sequence);
+                }
+                sequence.add(msg);
+            } else {
+                List<Message> sequence = new ArrayList<Message>(1);
+                sequence.add(msg);
+                sequences.add(sequence);
+            }
+        }
+
+        return sequences;
+    }
+
+    private void processSequence(List<Message> sequence, ProducerTemplate msgProducer, ChildResults results) {
+        for (Message msg : sequence) {
+            try {
+                processChildMessage(msg, msgProducer);
+                results.okCount.incrementAndGet();
+            } catch (RuntimeException ex) {
+                // state of child message (and parent message) is changed by asynch. route, other child messages
+                //  are processed further
+                results.failedCount.incrementAndGet();
+                LOG.error("Message " + msg.toHumanString() + " wasn't successfully processed.", ex);
+            }
         }
     }
 
+    private void processChildMessage(Message msg, ProducerTemplate msgProducer) {
+        LOG.debug("Message " + msg.toHumanString() + " will be processed ...");
+
+        if (!messageService.setStateInQueueForLock(msg)) {
+            throw new LockFailureException("Failed to lock message for change state to '"
+                    + MsgStateEnum.IN_QUEUE + "': " + msg.toHumanString());
+        }
+
+        // send to process (wait for reply and then process next child message); it's new exchange
+        msgProducer.requestBody(AsynchMessageRoute.URI_SYNC_MSG, msg);
+
+        LOG.debug("Message " + msg.toHumanString() + " was successfully processed.");
+    }
+
+    /**
+     * Aggregated results of processing of child messages.
+     */
+    private static final class ChildResults {
+
+        private final AtomicInteger okCount = new AtomicInteger();
+
+        private final AtomicInteger failedCount = new AtomicInteger();
+
+        private int getOkCount() {
+            return okCount.get();
+        }
+
+        private int getFailedCount() {
+            return failedCount.get();
+        }
+    }
 }
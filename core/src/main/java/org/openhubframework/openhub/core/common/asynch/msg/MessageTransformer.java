@@ -18,10 +18,7 @@ package org.openhubframework.openhub.core.common.asynch.msg;
 
 import java.time.Instant;
 import javax.annotation.Nullable;
-import javax.xml.XMLConstants;
 import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 
 import org.apache.camel.Body;
 import org.apache.camel.Exchange;
@@ -38,6 +35,7 @@ import org.openhubframework.openhub.api.asynch.AsynchConstants;
 import org.openhubframework.openhub.api.asynch.model.TraceHeader;
 import org.openhubframework.openhub.api.asynch.model.TraceIdentifier;
 import org.openhubframework.openhub.api.entity.*;
+import org.openhubframework.openhub.common.xml.XmlPools;
 import org.openhubframework.openhub.core.common.asynch.AsynchInMessageRoute;
 import org.openhubframework.openhub.core.common.asynch.TraceHeaderProcessor;
 
@@ -146,23 +144,26 @@ public final class MessageTransformer {
      */
     @Nullable
     public static String getSOAPEnvelope(Exchange exchange) {
+        // envelope could be already captured together with trace header
+        String envelope = exchange.getProperty(TraceHeaderProcessor.SOAP_ENVELOPE_PROP, String.class);
+        if (envelope != null) {
+            return envelope;
+        }
+
         if (! (exchange.getIn() instanceof SpringWebserviceMessage)) {
             return null;
         }
 
         try {
-            final TransformerFactory tranFactory = TransformerFactory.newInstance();
-            tranFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-            Transformer aTransformer = tranFactory.newTransformer();
-
             SpringWebserviceMessage inMsg = (SpringWebserviceMessage) exchange.getIn();
             Source source = ((SaajSoapMessage) inMsg.getWebServiceMessage()).getEnvelope().getSource();
 
-            StringResult strRes = new StringResult();
-            aTransformer.transform(source, strRes);
-
-            return strRes.toString();
+            // identity transformer is pooled
+            return XmlPools.withIdentityTransformer(transformer -> {
+                StringResult strRes = new StringResult();
+                transformer.transform(source, strRes);
+                return strRes.toString();
+            });
         } catch (Exception ex) {
             throw new IllegalStateException("Error occurred during conversion SOAP envelope to string", ex);
         }
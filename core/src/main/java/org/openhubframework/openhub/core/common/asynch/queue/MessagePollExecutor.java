@@ -16,6 +16,7 @@
 
 package org.openhubframework.openhub.core.common.asynch.queue;
 
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_POLLING_BATCH_SIZE;
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_POSTPONED_INTERVAL_WHEN_FAILED_SEC;
 
 import java.time.Instant;
@@ -35,6 +36,7 @@ import org.springframework.util.Assert;
 import org.openhubframework.openhub.api.asynch.AsynchConstants;
 import org.openhubframework.openhub.api.configuration.ConfigurableValue;
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
+import org.openhubframework.openhub.api.configuration.CoreProps;
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.exception.IntegrationException;
 import org.openhubframework.openhub.api.exception.InternalErrorEnum;
@@ -48,6 +50,7 @@ import org.openhubframework.openhub.spi.msg.MessageService;
 
 /**
  * Reads messages from DB and sends them for next processing.
+ * Messages are read and locked in batches, see {@link CoreProps#ASYNCH_POLLING_BATCH_SIZE}.
  * Execution will stop when there is no further message for processing.
  * <p>
  * This executor is invoked by {@link JobStarterForMessagePooling}.
@@ -63,6 +66,8 @@ public class MessagePollExecutor implements Runnable {
 
     private static final long GUARANTEED_ORDER_MESSAGES_LIMIT = 2L;
 
+    private static final int DEFAULT_POLLING_BATCH_SIZE = 50;
+
     @Autowired
     private MessagesPool messagesPool;
 
@@ -78,6 +83,12 @@ public class MessagePollExecutor implements Runnable {
     @ConfigurableValue(key = ASYNCH_POSTPONED_INTERVAL_WHEN_FAILED_SEC)
     private ConfigurationItem<Seconds> postponedIntervalWhenFailed;
 
+    /**
+     * Maximum count of messages which are locked for re-processing in one transaction.
+     */
+    @ConfigurableValue(key = ASYNCH_POLLING_BATCH_SIZE)
+    private ConfigurationItem<Integer> pollingBatchSize;
+
     // note: this is because of setting different target URI for tests
     private String targetURI = AsynchMessageRoute.URI_ASYNC_PROCESSING_MSG;
 
@@ -85,24 +96,24 @@ public class MessagePollExecutor implements Runnable {
     public void run() {
         LOG.debug("Message pooling starts ...");
 
-        // is there message for processing?
-        Message msg = null;
+        // are there messages for processing?
         int lockFailureCount = 0;
         while (true) {
             try {
-                msg = messagesPool.getNextMessage();
-
-                if (msg != null) {
-                    LogContextHelper.setLogContextParams(msg, null);
+                List<Message> messages = messagesPool.getNextMessages(
+                        pollingBatchSize.getValue(DEFAULT_POLLING_BATCH_SIZE));
 
-                    startMessageProcessing(msg);
-                } else {
+                if (messages.isEmpty()) {
                     //there is no new message for processing
                     //  => finish this executor and try it again after some time
                     break;
                 }
+
+                for (Message msg : messages) {
+                    startMessageProcessingSafely(msg);
+                }
             } catch (LockFailureException ex) {
-                // try again to acquire next message with lock
+                // try again to acquire next messages with lock
                 lockFailureCount++;
 
                 if (lockFailureCount > LOCK_FAILURE_LIMIT) {
@@ -111,14 +122,23 @@ public class MessagePollExecutor implements Runnable {
                     break;
                 }
             } catch (Exception ex) {
-                LOG.error("Error occurred during getting message "
-                        + (msg != null ? msg.toHumanString() : ""), ex);
+                LOG.error("Error occurred during getting messages", ex);
             }
         }
 
         LOG.debug("Message pooling finished.");
     }
 
+    void startMessageProcessingSafely(Message msg) {
+        try {
+            LogContextHelper.setLogContextParams(msg, null);
+
+            startMessageProcessing(msg);
+        } catch (Exception ex) {
+            LOG.error("Error occurred during getting message " + msg.toHumanString(), ex);
+        }
+    }
+
     void startMessageProcessing(Message msg) {
         Assert.notNull(msg, "the msg must not be null");
 
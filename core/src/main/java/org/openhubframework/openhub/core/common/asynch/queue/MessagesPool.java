@@ -16,6 +16,7 @@
 
 package org.openhubframework.openhub.core.common.asynch.queue;
 
+import java.util.List;
 import javax.annotation.Nullable;
 
 import org.openhubframework.openhub.api.entity.Message;
@@ -38,4 +39,15 @@ public interface MessagesPool {
     @Nullable
     Message getNextMessage();
 
+    /**
+     * Gets messages for next processing - all messages are locked in one transaction.
+     * <p>
+     * If partitioned polling is enabled then messages from own partition of actual node are preferred,
+     * messages from other partitions are returned only if own partition is empty.
+     *
+     * @param batchSize the maximum count of messages
+     * @return list of messages or empty list if not available any message
+     */
+    List<Message> getNextMessages(int batchSize);
+
 }
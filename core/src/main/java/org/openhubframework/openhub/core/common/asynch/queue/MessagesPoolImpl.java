@@ -16,22 +16,27 @@
 
 package org.openhubframework.openhub.core.common.asynch.queue;
 
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_PARTITIONED_POLLING_ENABLED;
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_PARTLY_FAILED_INTERVAL_SEC;
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_POSTPONED_INTERVAL_SEC;
 
+import java.util.List;
 import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
 import org.openhubframework.openhub.api.configuration.ConfigurableValue;
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.exception.LockFailureException;
 import org.openhubframework.openhub.common.time.Seconds;
 import org.openhubframework.openhub.spi.msg.MessageService;
+import org.openhubframework.openhub.spi.node.NodeService;
 
 
 /**
@@ -47,6 +52,9 @@ public class MessagesPoolImpl implements MessagesPool {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private NodeService nodeService;
+
     /**
      * Interval (in seconds) between two tries of partly failed messages.
      */
@@ -59,7 +67,14 @@ public class MessagesPoolImpl implements MessagesPool {
     @ConfigurableValue(key = ASYNCH_POSTPONED_INTERVAL_SEC)
     private ConfigurationItem<Seconds> postponedInterval;
 
+    /**
+     * Poll messages primarily from own partition of actual node.
+     */
+    @ConfigurableValue(key = ASYNCH_PARTITIONED_POLLING_ENABLED)
+    private ConfigurationItem<Boolean> partitionedPolling;
+
     @Nullable
+    @Override
     public Message getNextMessage() {
         // is there next message for processing?
 
@@ -80,6 +95,37 @@ public class MessagesPoolImpl implements MessagesPool {
         return msg;
     }
 
+    @Override
+    public List<Message> getNextMessages(int batchSize) {
+        Assert.isTrue(batchSize > 0, "the batchSize must be positive");
+
+        MessagePartition partition = MessagePartition.ALL;
+        if (partitionedPolling.getValue(Boolean.FALSE)) {
+            partition = nodeService.getActualNodePartition();
+        }
+
+        // find and lock next messages for processing - firstly from own partition
+        List<Message> messages = lockMessages(batchSize, partition);
+
+        if (messages.isEmpty() && !partition.isAll()) {
+            // own partition is empty => help with partitions of other nodes (e.g. of the node which is down)
+            LOG.debug("No message found in partition {}, try all partitions.", partition);
+
+            messages = lockMessages(batchSize, MessagePartition.ALL);
+        }
+
+        if (messages.isEmpty()) {
+            LOG.debug("No POSTPONED and PARTLY_FAILED message found for re-processing.");
+        }
+
+        return messages;
+    }
+
+    private List<Message> lockMessages(int batchSize, MessagePartition partition) {
+        return messageService.setStateInQueueForLock(postponedInterval.getValue().toDuration(),
+                partlyFailedInterval.getValue().toDuration(), batchSize, partition);
+    }
+
     @Nullable
     private Message findPostponedOrPartlyFailedMessage() {
         return messageService.findPostponedOrPartlyFailedMessage(postponedInterval.getValue().toDuration(),
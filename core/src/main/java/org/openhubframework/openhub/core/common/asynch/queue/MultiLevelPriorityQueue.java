@@ -0,0 +1,423 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+import org.apache.camel.Exchange;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.entity.Message;
+
+
+/**
+ * Bounded blocking queue of exchanges with {@link Message messages} which has one lock-free queue
+ * per priority level.
+ * <p>
+ * Level of exchange is given by {@link Message#getProcessingPriority() processing priority} of the message
+ * in the same order as in the previous priority queue (the lower number the sooner the exchange is taken,
+ * e.g. re-processed messages with priority 0 go before new messages): with {@code n} levels priority {@code p}
+ * goes to level {@code n - 1 - p}, negative priorities go to the highest level and priorities higher than
+ * count of levels go to the lowest level. Exchanges without message go to the lowest level.
+ * Order within one level is FIFO.
+ * <p>
+ * Levels are taken by weighted round-robin: in one round level {@code i} is asked for
+ * {@code weights[i]} exchanges (higher levels first), empty level gives its turn to next non-empty level
+ * with the highest priority. Lower levels therefore can't starve - level with weight {@code w} gets at least
+ * {@code w} of {@code sum(weights)} exchanges when it's not empty.
+ * <p>
+ * Each level has own capacity. Waiting for exchanges and for free capacity is done by semaphores,
+ * there is no global lock for the whole queue. Each level provides its {@link LevelStatistics statistics}
+ * (depth, count of exchanges and time which exchanges spent in the queue).
+ * <p>
+ * Class is thread-safe.
+ *
+ * @since 2.4
+ * @see MultiLevelPriorityQueueFactory
+ */
+public class MultiLevelPriorityQueue extends AbstractQueue<Exchange> implements BlockingQueue<Exchange> {
+
+    private final Level[] levels;
+
+    /**
+     * Sequence of levels for weighted round-robin, higher levels first.
+     */
+    private final int[] schedule;
+
+    private final AtomicInteger scheduleCursor = new AtomicInteger();
+
+    /**
+     * Count of exchanges which can be taken from the queue.
+     */
+    private final Semaphore available = new Semaphore(0);
+
+    /**
+     * Creates new queue.
+     *
+     * @param weights the weights of levels, index is the level (0 is the lowest priority)
+     * @param levelCapacity the maximum count of exchanges in one level
+     */
+    public MultiLevelPriorityQueue(int[] weights, int levelCapacity) {
+        Assert.isTrue(weights != null && weights.length > 0, "weights must not be empty");
+        Assert.isTrue(levelCapacity > 0, "levelCapacity must be positive");
+
+        List<Integer> scheduleList = new ArrayList<>();
+        this.levels = new Level[weights.length];
+        for (int i = weights.length - 1; i >= 0; i--) {
+            Assert.isTrue(weights[i] > 0, "weights must be positive");
+
+            levels[i] = new Level(levelCapacity);
+            for (int j = 0; j < weights[i]; j++) {
+                scheduleList.add(i);
+            }
+        }
+
+        this.schedule = scheduleList.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gets level of the exchange.
+     *
+     * @param exchange the exchange
+     * @return level index
+     */
+    int getLevel(Exchange exchange) {
+        Object body = exchange.getIn().getBody();
+        if (!(body instanceof Message)) {
+            return 0;
+        }
+
+        int priority = ((Message) body).getProcessingPriority();
+        return levels.length - 1 - Math.max(0, Math.min(priority, levels.length - 1));
+    }
+
+    @Override
+    public boolean offer(Exchange exchange) {
+        Assert.notNull(exchange, "exchange must not be null");
+
+        Level level = levels[getLevel(exchange)];
+        if (!level.capacity.tryAcquire()) {
+            return false;
+        }
+
+        enqueue(level, exchange);
+        return true;
+    }
+
+    @Override
+    public boolean offer(Exchange exchange, long timeout, TimeUnit unit) throws InterruptedException {
+        Assert.notNull(exchange, "exchange must not be null");
+
+        Level level = levels[getLevel(exchange)];
+        if (!level.capacity.tryAcquire(timeout, unit)) {
+            return false;
+        }
+
+        enqueue(level, exchange);
+        return true;
+    }
+
+    @Override
+    public void put(Exchange exchange) throws InterruptedException {
+        Assert.notNull(exchange, "exchange must not be null");
+
+        Level level = levels[getLevel(exchange)];
+        level.capacity.acquire();
+
+        enqueue(level, exchange);
+    }
+
+    @Override
+    @Nullable
+    public Exchange poll() {
+        return available.tryAcquire() ? dequeue() : null;
+    }
+
+    @Override
+    @Nullable
+    public Exchange poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return available.tryAcquire(timeout, unit) ? dequeue() : null;
+    }
+
+    @Override
+    public Exchange take() throws InterruptedException {
+        available.acquire();
+        return dequeue();
+    }
+
+    @Override
+    @Nullable
+    public Exchange peek() {
+        for (int i = levels.length - 1; i >= 0; i--) {
+            Entry entry = levels[i].queue.peek();
+            if (entry != null) {
+                return entry.exchange;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return available.availablePermits();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        long remaining = 0;
+        for (Level level : levels) {
+            remaining += level.capacity.availablePermits();
+        }
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Exchange> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Exchange> collection, int maxElements) {
+        Assert.notNull(collection, "collection must not be null");
+        Assert.isTrue(collection != this, "queue can't be drained to itself");
+
+        int count = 0;
+        Exchange exchange;
+        while (count < maxElements && (exchange = poll()) != null) {
+            collection.add(exchange);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets snapshot of exchanges in the queue, higher levels first. Iterator doesn't support removing.
+     */
+    @Override
+    public Iterator<Exchange> iterator() {
+        List<Exchange> exchanges = new ArrayList<>();
+        for (int i = levels.length - 1; i >= 0; i--) {
+            for (Entry entry : levels[i].queue) {
+                exchanges.add(entry.exchange);
+            }
+        }
+
+        return Collections.unmodifiableList(exchanges).iterator();
+    }
+
+    /**
+     * Gets statistics of all levels.
+     *
+     * @return statistics, index is the level
+     */
+    public List<LevelStatistics> getStatistics() {
+        List<LevelStatistics> result = new ArrayList<>(levels.length);
+        for (int i = 0; i < levels.length; i++) {
+            result.add(levels[i].getStatistics(i));
+        }
+        return result;
+    }
+
+    private void enqueue(Level level, Exchange exchange) {
+        level.queue.add(new Entry(exchange));
+        level.enqueued.increment();
+
+        // exchange is visible for consumers after it's in the level queue
+        available.release();
+    }
+
+    /**
+     * Takes exchange from the queue, the caller must have acquired permit from {@link #available}
+     * so there is at least one exchange reserved for it.
+     */
+    private Exchange dequeue() {
+        while (true) {
+            int start = schedule[Math.floorMod(scheduleCursor.getAndIncrement(), schedule.length)];
+
+            Entry entry = levels[start].queue.poll();
+            if (entry != null) {
+                return levels[start].taken(entry);
+            }
+
+            // level is empty => the highest non-empty level
+            for (int i = levels.length - 1; i >= 0; i--) {
+                entry = levels[i].queue.poll();
+                if (entry != null) {
+                    return levels[i].taken(entry);
+                }
+            }
+
+            // reserved exchange was taken by another consumer from different level, its exchange is on the way
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Exchange with time of inserting into the queue.
+     */
+    private static final class Entry {
+
+        private final Exchange exchange;
+
+        private final long enqueuedNanos = System.nanoTime();
+
+        private Entry(Exchange exchange) {
+            this.exchange = exchange;
+        }
+    }
+
+    /**
+     * One priority level.
+     */
+    private static final class Level {
+
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+
+        private final Semaphore capacity;
+
+        private final LongAdder enqueued = new LongAdder();
+
+        private final LongAdder dequeued = new LongAdder();
+
+        private final LongAdder totalWaitNanos = new LongAdder();
+
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private Level(int capacity) {
+            this.capacity = new Semaphore(capacity);
+        }
+
+        private Exchange taken(Entry entry) {
+            capacity.release();
+
+            long waitNanos = System.nanoTime() - entry.enqueuedNanos;
+            dequeued.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+            return entry.exchange;
+        }
+
+        private LevelStatistics getStatistics(int level) {
+            long enqueuedCount = enqueued.sum();
+            long dequeuedCount = dequeued.sum();
+            long totalWait = totalWaitNanos.sum();
+
+            return new LevelStatistics(level, (int) Math.max(0, enqueuedCount - dequeuedCount),
+                    enqueuedCount, dequeuedCount,
+                    dequeuedCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWait / dequeuedCount),
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        }
+    }
+
+    /**
+     * Statistics of one priority level.
+     */
+    public static final class LevelStatistics {
+
+        private final int level;
+
+        private final int depth;
+
+        private final long enqueuedCount;
+
+        private final long dequeuedCount;
+
+        private final long averageWaitMillis;
+
+        private final long maxWaitMillis;
+
+        LevelStatistics(int level, int depth, long enqueuedCount, long dequeuedCount, long averageWaitMillis,
+                long maxWaitMillis) {
+            this.level = level;
+            this.depth = depth;
+            this.enqueuedCount = enqueuedCount;
+            this.dequeuedCount = dequeuedCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        /**
+         * Gets level (0 is the lowest priority).
+         */
+        public int getLevel() {
+            return level;
+        }
+
+        /**
+         * Gets actual count of exchanges in the level.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets count of exchanges inserted into the level.
+         */
+        public long getEnqueuedCount() {
+            return enqueuedCount;
+        }
+
+        /**
+         * Gets count of exchanges taken from the level.
+         */
+        public long getDequeuedCount() {
+            return dequeuedCount;
+        }
+
+        /**
+         * Gets average time (in millis) which taken exchanges spent in the level.
+         */
+        public long getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        /**
+         * Gets maximum time (in millis) which taken exchange spent in the level.
+         */
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this)
+                    .append("level", level)
+                    .append("depth", depth)
+                    .append("enqueuedCount", enqueuedCount)
+                    .append("dequeuedCount", dequeuedCount)
+                    .append("averageWaitMillis", averageWaitMillis)
+                    .append("maxWaitMillis", maxWaitMillis)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.seda.BlockingQueueFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+
+/**
+ * Factory of {@link MultiLevelPriorityQueue} for SEDA endpoints (parameter {@code queueFactory}).
+ * <p>
+ * Statistics of levels of all created queues are exported to JMX.
+ *
+ * @since 2.4
+ */
+@ManagedResource(objectName = "org.openhubframework.openhub.core.monitoring:name=PriorityQueues",
+        description = "Priority levels of asynchronous processing queues")
+public class MultiLevelPriorityQueueFactory implements BlockingQueueFactory<Exchange> {
+
+    /**
+     * Default weights of levels - re-processed messages (priority 0, the highest level) have four times more turns
+     * than new ones (priority 10, the lowest level).
+     */
+    public static final int[] DEFAULT_WEIGHTS = new int[] {1, 2, 4};
+
+    /**
+     * Default maximum count of exchanges in one level.
+     */
+    public static final int DEFAULT_LEVEL_CAPACITY = 10_000;
+
+    private final int[] weights;
+
+    private final int levelCapacity;
+
+    private final List<MultiLevelPriorityQueue> queues = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates new factory.
+     *
+     * @param weights the weights of levels, index is the level (0 is the lowest priority)
+     * @param levelCapacity the maximum count of exchanges in one level (size of SEDA endpoint can lower it only)
+     */
+    public MultiLevelPriorityQueueFactory(int[] weights, int levelCapacity) {
+        Assert.isTrue(weights != null && weights.length > 0, "weights must not be empty");
+        Assert.isTrue(levelCapacity > 0, "levelCapacity must be positive");
+
+        this.weights = weights.clone();
+        this.levelCapacity = levelCapacity;
+    }
+
+    @Override
+    public BlockingQueue<Exchange> create() {
+        return create(levelCapacity);
+    }
+
+    @Override
+    public BlockingQueue<Exchange> create(int capacity) {
+        MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(weights, Math.min(capacity, levelCapacity));
+        queues.add(queue);
+        return queue;
+    }
+
+    /**
+     * Gets created queues.
+     *
+     * @return queues
+     */
+    public List<MultiLevelPriorityQueue> getQueues() {
+        return Collections.unmodifiableList(queues);
+    }
+
+    @ManagedAttribute(description = "Statistics of priority levels of all queues (depth, count and wait time)")
+    public String[] getLevelStatistics() {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < queues.size(); i++) {
+            for (MultiLevelPriorityQueue.LevelStatistics stats : queues.get(i).getStatistics()) {
+                result.add("queue " + i + ": " + stats);
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+}
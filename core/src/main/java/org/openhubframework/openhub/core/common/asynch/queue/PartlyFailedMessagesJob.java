@@ -18,6 +18,9 @@ package org.openhubframework.openhub.core.common.asynch.queue;
 
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_PARTLY_FAILED_REPEAT_TIME_SEC;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
@@ -39,6 +42,11 @@ import org.openhubframework.openhub.spi.node.NodeService;
  * Repeat interval for this job is load from configuration {@value CoreProps#ASYNCH_PARTLY_FAILED_REPEAT_TIME_SEC}.
  * Job running concurrent in all nodes in cluster at the same time.
  * </p>
+ * <p>
+ * If messages are dispatched from the delay queue (see {@link RepeatableMessagesDispatcher}) then the job is only
+ * recovery sweep and polling of the database is run once per
+ * {@value CoreProps#ASYNCH_DELAY_QUEUE_RECOVERY_INTERVAL_SEC}.
+ * </p>
  *
  * @author Petr Juza
  * @see JobStarterForMessagePooling#start()
@@ -48,6 +56,8 @@ import org.openhubframework.openhub.spi.node.NodeService;
 @Component
 public class PartlyFailedMessagesJob {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PartlyFailedMessagesJob.class);
+
     private static final String JOB_NAME = "partlyFailedPool";
 
     @Autowired
@@ -56,6 +66,9 @@ public class PartlyFailedMessagesJob {
     @Autowired
     private JobStarterForMessagePooling jobStarterForMessagePooling;
 
+    @Autowired
+    private ObjectProvider<RepeatableMessagesDispatcher> repeatableMessagesDispatcher;
+
     /**
      * Invoke job for process {@link MsgStateEnum#PARTLY_FAILED} messages
      *
@@ -65,8 +78,16 @@ public class PartlyFailedMessagesJob {
             simpleTriggers = @QuartzSimpleTrigger(repeatIntervalProperty = ASYNCH_PARTLY_FAILED_REPEAT_TIME_SEC,
                     intervalPropertyUnit = SimpleTriggerPropertyUnit.SECONDS))
     public final void invokeJob() throws Exception {
-        if (nodeService.getActualNode().isAbleToHandleExistingMessages()) {
-            jobStarterForMessagePooling.start();
+        if (!nodeService.getActualNode().isAbleToHandleExistingMessages()) {
+            return;
+        }
+
+        RepeatableMessagesDispatcher dispatcher = repeatableMessagesDispatcher.getIfAvailable();
+        if (dispatcher != null && !dispatcher.isRecoverySweepDue()) {
+            LOG.debug("Messages are dispatched from the delay queue, recovery sweep isn't due yet.");
+            return;
         }
+
+        jobStarterForMessagePooling.start();
     }
 }
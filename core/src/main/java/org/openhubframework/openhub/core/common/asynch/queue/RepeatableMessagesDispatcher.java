@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_DELAY_QUEUE_ENABLED;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_DELAY_QUEUE_RECOVERY_INTERVAL_SEC;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_PARTLY_FAILED_INTERVAL_SEC;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_POSTPONED_INTERVAL_SEC;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.configuration.ConfigurableValue;
+import org.openhubframework.openhub.api.configuration.ConfigurationItem;
+import org.openhubframework.openhub.api.configuration.CoreProps;
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.common.Profiles;
+import org.openhubframework.openhub.common.time.Seconds;
+import org.openhubframework.openhub.spi.msg.MessageService;
+import org.openhubframework.openhub.spi.node.NodeService;
+
+
+/**
+ * Dispatches {@link MsgStateEnum#POSTPONED} and {@link MsgStateEnum#PARTLY_FAILED} messages for next processing
+ * exactly when they become eligible for re-processing (see {@link CoreProps#ASYNCH_POSTPONED_INTERVAL_SEC}
+ * and {@link CoreProps#ASYNCH_PARTLY_FAILED_INTERVAL_SEC}).
+ * <p>
+ * Messages are {@link #schedule(Message) scheduled} into in-memory {@link TimingWheel} after the change of their
+ * state is committed, the wheel is checked by one internal thread. Messages which are not in the wheel
+ * (e.g. after restart of the node or when the wheel is full) are still found by {@link PartlyFailedMessagesJob}.
+ * The job is only recovery sweep when this dispatcher is enabled (see {@link CoreProps#ASYNCH_DELAY_QUEUE_ENABLED}),
+ * polling of the database is run once per {@link CoreProps#ASYNCH_DELAY_QUEUE_RECOVERY_INTERVAL_SEC recovery
+ * interval} only, see {@link #isRecoverySweepDue()}.
+ *
+ * @since 2.4
+ * @see MessagePollExecutor
+ */
+@Profile(Profiles.PROD)
+@Service
+public class RepeatableMessagesDispatcher implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RepeatableMessagesDispatcher.class);
+
+    private static final Duration TICK_DURATION = Duration.ofMillis(500);
+
+    private static final int SLOT_COUNT = 512;
+
+    private static final int MAX_SIZE = 100000;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private NodeService nodeService;
+
+    @Autowired
+    private MessagePollExecutor messagePollExecutor;
+
+    /**
+     * Interval (in seconds) between two tries of partly failed messages.
+     */
+    @ConfigurableValue(key = ASYNCH_PARTLY_FAILED_INTERVAL_SEC)
+    private ConfigurationItem<Seconds> partlyFailedInterval;
+
+    /**
+     * Interval (in seconds) after that can be postponed message processed again.
+     */
+    @ConfigurableValue(key = ASYNCH_POSTPONED_INTERVAL_SEC)
+    private ConfigurationItem<Seconds> postponedInterval;
+
+    /**
+     * Dispatching of messages from the delay queue enabled or disabled.
+     */
+    @ConfigurableValue(key = ASYNCH_DELAY_QUEUE_ENABLED)
+    private ConfigurationItem<Boolean> enabled;
+
+    /**
+     * Interval (in seconds) between two recovery sweeps (polling of the database).
+     */
+    @ConfigurableValue(key = ASYNCH_DELAY_QUEUE_RECOVERY_INTERVAL_SEC)
+    private ConfigurationItem<Seconds> recoveryInterval;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(TICK_DURATION, SLOT_COUNT, MAX_SIZE, Instant.now());
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Time of the last recovery sweep, {@code null} if there was no sweep yet.
+     */
+    @Nullable
+    private Instant lastSweepTime;
+
+    /**
+     * Schedules message for next processing after the interval for its state elapses.
+     * Message which is already scheduled is rescheduled.
+     *
+     * @param msg the message in state {@link MsgStateEnum#POSTPONED} or {@link MsgStateEnum#PARTLY_FAILED}
+     */
+    public void schedule(Message msg) {
+        Assert.notNull(msg, "the msg must not be null");
+
+        if (!isActive()) {
+            return;
+        }
+
+        Instant eligibleTime = getEligibleTime(msg);
+        if (eligibleTime == null) {
+            LOG.debug("Message {} can't be scheduled in state {}.", msg.toHumanString(), msg.getState());
+            return;
+        }
+
+        if (wheel.add(msg.getMsgId(), eligibleTime)) {
+            LOG.debug("Message {} was scheduled for re-processing at {}.", msg.toHumanString(), eligibleTime);
+        } else {
+            LOG.debug("Delay queue is full, message {} will be found by polling of the database.",
+                    msg.toHumanString());
+        }
+    }
+
+    /**
+     * Is dispatching of messages from the delay queue active?
+     *
+     * @return {@code true} if the dispatcher is running and enabled
+     */
+    public boolean isActive() {
+        return isRunning() && enabled.getValue(Boolean.FALSE);
+    }
+
+    /**
+     * Checks if polling of the database for POSTPONED and PARTLY_FAILED messages should be run.
+     * Polling is always run if the dispatcher isn't {@link #isActive() active}, otherwise polling is only
+     * recovery sweep for messages which aren't in the delay queue and it's run once per recovery interval.
+     *
+     * @return {@code true} if polling should be run now
+     */
+    public synchronized boolean isRecoverySweepDue() {
+        if (!isActive()) {
+            return true;
+        }
+
+        Instant now = Instant.now();
+        if (lastSweepTime != null
+                && now.isBefore(lastSweepTime.plus(recoveryInterval.getValue().toDuration()))) {
+            return false;
+        }
+
+        lastSweepTime = now;
+        return true;
+    }
+
+    /**
+     * Dispatches all messages which are eligible for re-processing.
+     */
+    void dispatchEligibleMessages() {
+        List<Long> msgIds = wheel.advance(Instant.now());
+
+        if (msgIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!nodeService.getActualNode().isAbleToHandleExistingMessages()) {
+                return;
+            }
+        } catch (Exception ex) {
+            LOG.error("Error occurred during getting actual node, messages will be found by polling", ex);
+            return;
+        }
+
+        for (Long msgId : msgIds) {
+            try {
+                dispatchMessage(msgId);
+            } catch (Exception ex) {
+                LOG.error("Error occurred during dispatching message (msg_id = " + msgId + ")", ex);
+            }
+        }
+    }
+
+    private void dispatchMessage(Long msgId) {
+        // state of the message could be changed in the meantime (e.g. by polling in another node)
+        Message msg = messageService.findMessageById(msgId);
+        if (msg == null) {
+            return;
+        }
+
+        Instant eligibleTime = getEligibleTime(msg);
+        if (eligibleTime == null) {
+            LOG.debug("Message {} is in state {} => skipped.", msg.toHumanString(), msg.getState());
+            return;
+
+        } else if (eligibleTime.isAfter(Instant.now())) {
+            // message was updated in the meantime
+            wheel.add(msgId, eligibleTime);
+            return;
+        }
+
+        if (messageService.setStateInQueueForLock(msg)) {
+            messagePollExecutor.startMessageProcessingSafely(msg);
+        }
+    }
+
+    /**
+     * Gets time when specified message can be processed again.
+     *
+     * @param msg the message
+     * @return eligible time or {@code null} if message is not in state for re-processing
+     */
+    @Nullable
+    private Instant getEligibleTime(Message msg) {
+        Duration interval;
+        if (msg.getState() == MsgStateEnum.POSTPONED) {
+            interval = postponedInterval.getValue().toDuration();
+        } else if (msg.getState() == MsgStateEnum.PARTLY_FAILED) {
+            interval = partlyFailedInterval.getValue().toDuration();
+        } else {
+            return null;
+        }
+
+        return msg.getLastUpdateTimestamp().plus(interval);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("OpenHub-delayQueue-"));
+            executor.scheduleWithFixedDelay(this::dispatchEligibleMessages,
+                    TICK_DURATION.toMillis(), TICK_DURATION.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+}
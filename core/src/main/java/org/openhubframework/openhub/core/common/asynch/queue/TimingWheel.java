@@ -0,0 +1,180 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Hashed timing wheel - time-ordered delay structure for items which should be released at specified time.
+ * <p>
+ * Time is split into ticks, each tick is mapped to one slot of the wheel (tick mod count of slots).
+ * Adding of item and releasing of expired items of one tick are O(1) operations, items with deadline
+ * longer than one revolution of the wheel stay in the slot until their tick comes.
+ * Each item can be in the wheel only once, adding of existing item reschedules it.
+ * <p>
+ * Class is thread-safe.
+ *
+ * @param <T> type of items
+ * @since 2.4
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final List<Set<T>> slots;
+
+    private final int maxSize;
+
+    /**
+     * Deadline ticks of all items in the wheel.
+     */
+    private final Map<T, Long> deadlines = new HashMap<>();
+
+    /**
+     * Last tick which was already released.
+     */
+    private long currentTick;
+
+    /**
+     * Creates new timing wheel.
+     *
+     * @param tickDuration the duration of one tick
+     * @param slotCount the count of slots in the wheel
+     * @param maxSize the maximum count of items in the wheel
+     * @param startTime the start time of the wheel
+     */
+    public TimingWheel(Duration tickDuration, int slotCount, int maxSize, Instant startTime) {
+        Assert.notNull(tickDuration, "the tickDuration must not be null");
+        Assert.isTrue(tickDuration.toMillis() > 0, "the tickDuration must be at least one millisecond");
+        Assert.isTrue(slotCount > 0, "the slotCount must be positive");
+        Assert.isTrue(maxSize > 0, "the maxSize must be positive");
+        Assert.notNull(startTime, "the startTime must not be null");
+
+        this.tickMillis = tickDuration.toMillis();
+        this.maxSize = maxSize;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+        this.currentTick = toTick(startTime);
+    }
+
+    /**
+     * Adds item into the wheel, item which is already in the wheel is rescheduled.
+     * Items with deadline in the past are released by next call of {@link #advance(Instant)}.
+     *
+     * @param item the item
+     * @param deadline the time when item should be released
+     * @return {@code true} if item was added, {@code false} if the wheel is full
+     */
+    public synchronized boolean add(T item, Instant deadline) {
+        Assert.notNull(item, "the item must not be null");
+        Assert.notNull(deadline, "the deadline must not be null");
+
+        Long oldTick = deadlines.remove(item);
+        if (oldTick != null) {
+            getSlot(oldTick).remove(item);
+        } else if (deadlines.size() >= maxSize) {
+            return false;
+        }
+
+        // item can't be released in already released tick
+        long tick = Math.max(toTick(deadline), currentTick + 1);
+
+        deadlines.put(item, tick);
+        getSlot(tick).add(item);
+
+        return true;
+    }
+
+    /**
+     * Removes item from the wheel.
+     *
+     * @param item the item
+     * @return {@code true} if item was in the wheel, otherwise {@code false}
+     */
+    public synchronized boolean remove(T item) {
+        Assert.notNull(item, "the item must not be null");
+
+        Long tick = deadlines.remove(item);
+        if (tick != null) {
+            getSlot(tick).remove(item);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the wheel to specified time and releases all items with deadline before this time.
+     *
+     * @param now the actual time
+     * @return list of released items, empty list if there is no expired item
+     */
+    public synchronized List<T> advance(Instant now) {
+        Assert.notNull(now, "the now must not be null");
+
+        List<T> expired = new ArrayList<>();
+
+        long nowTick = toTick(now);
+        // there is no need to go through the wheel more times than once
+        long fromTick = Math.max(currentTick + 1, nowTick - slots.size() + 1);
+
+        for (long tick = fromTick; tick <= nowTick && !deadlines.isEmpty(); tick++) {
+            Iterator<T> it = getSlot(tick).iterator();
+            while (it.hasNext()) {
+                T item = it.next();
+                if (deadlines.get(item) <= nowTick) {
+                    it.remove();
+                    deadlines.remove(item);
+                    expired.add(item);
+                }
+            }
+        }
+
+        currentTick = Math.max(currentTick, nowTick);
+
+        return expired;
+    }
+
+    /**
+     * Gets count of items in the wheel.
+     *
+     * @return count of items
+     */
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    private long toTick(Instant time) {
+        return time.toEpochMilli() / tickMillis;
+    }
+
+    private Set<T> getSlot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.repair;
+
+import static org.openhubframework.openhub.common.OpenHubPropertyConstants.PREFIX;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.hazelcast.HazelcastAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import org.openhubframework.openhub.common.AutoConfiguration;
+import org.openhubframework.openhub.spi.node.NodeService;
+
+
+/**
+ * AutoConfiguration of repairing of processing messages when node leaves the cluster.
+ *
+ * It's available for Hazelcast cluster only and it must be enabled via property
+ * {@value RepairDeadNodeAutoConfiguration#REPAIR_DEAD_NODE_ENABLED}, processing messages are repaired
+ * by the repair job otherwise.
+ *
+ * @see RepairDeadNodeListener
+ * @since 2.4
+ */
+@AutoConfiguration
+@AutoConfigureAfter({
+        HazelcastAutoConfiguration.class
+})
+@ConditionalOnProperty(
+        name = RepairDeadNodeAutoConfiguration.REPAIR_DEAD_NODE_ENABLED,
+        havingValue = "true",
+        matchIfMissing = false)
+public class RepairDeadNodeAutoConfiguration {
+
+    /**
+     * Enable or disable repairing of processing messages when node leaves the cluster (disabled by default).
+     */
+    public static final String REPAIR_DEAD_NODE_ENABLED = PREFIX + "asynch.repairDeadNode.enabled";
+
+    @ConditionalOnBean(HazelcastInstance.class)
+    @Bean
+    public RepairDeadNodeListener repairDeadNodeListener(HazelcastInstance hazelcastInstance,
+            NodeService nodeService, RepairMessageService repairMessageService) {
+        return new RepairDeadNodeListener(hazelcastInstance, nodeService, repairMessageService);
+    }
+}
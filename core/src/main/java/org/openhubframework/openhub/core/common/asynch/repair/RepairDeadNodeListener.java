@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.repair;
+
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_REPAIR_REPEAT_TIME_SEC;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.MembershipAdapter;
+import com.hazelcast.core.MembershipEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.configuration.ConfigurableValue;
+import org.openhubframework.openhub.api.configuration.ConfigurationItem;
+import org.openhubframework.openhub.common.time.Seconds;
+import org.openhubframework.openhub.spi.node.NodeService;
+
+
+/**
+ * Listener of Hazelcast cluster membership which repairs processing messages of the node
+ * when the node leaves the cluster, only messages of this node are repaired.
+ * <p>
+ * Each member publishes ID of its node as member attribute {@value #NODE_ID_ATTRIBUTE},
+ * messages of the removed member are repaired by the oldest member of the cluster only.
+ * Member can leave the cluster also because of network partition (split-brain) and it can still finish
+ * its messages, so messages are repaired after repair interval
+ * ({@value org.openhubframework.openhub.api.configuration.CoreProps#ASYNCH_REPAIR_REPEAT_TIME_SEC}),
+ * the same as by the repair job.
+ * <p>
+ * Member which is stopped cleanly (its processing is finished) marks itself by attribute
+ * {@value #NODE_STOPPED_ATTRIBUTE} before it leaves the cluster, its messages are not repaired.
+ *
+ * @see RepairMessageService#repairProcessingMessages(Long)
+ * @since 2.4
+ */
+public class RepairDeadNodeListener extends MembershipAdapter implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RepairDeadNodeListener.class);
+
+    /**
+     * Name of member attribute with ID of the node.
+     */
+    public static final String NODE_ID_ATTRIBUTE = "ohf.nodeId";
+
+    /**
+     * Name of member attribute which says that the node was stopped cleanly.
+     */
+    public static final String NODE_STOPPED_ATTRIBUTE = "ohf.nodeStopped";
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final NodeService nodeService;
+
+    private final RepairMessageService repairMessageService;
+
+    private final ScheduledExecutorService executor
+            = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("OpenHub-repairDeadNode-"));
+
+    /**
+     * How often to run repair process (in seconds), messages of removed member are repaired after this time.
+     */
+    @ConfigurableValue(key = ASYNCH_REPAIR_REPEAT_TIME_SEC)
+    private ConfigurationItem<Seconds> repeatInterval;
+
+    private String registrationId;
+
+    public RepairDeadNodeListener(HazelcastInstance hazelcastInstance, NodeService nodeService,
+            RepairMessageService repairMessageService) {
+        Assert.notNull(hazelcastInstance, "the hazelcastInstance must not be null");
+        Assert.notNull(nodeService, "the nodeService must not be null");
+        Assert.notNull(repairMessageService, "the repairMessageService must not be null");
+
+        this.hazelcastInstance = hazelcastInstance;
+        this.nodeService = nodeService;
+        this.repairMessageService = repairMessageService;
+    }
+
+    // actual node is available when configuration (incl. database) is ready
+    @EventListener
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Long nodeId = nodeService.getActualNode().getNodeId();
+
+        hazelcastInstance.getCluster().getLocalMember().setStringAttribute(NODE_ID_ATTRIBUTE, String.valueOf(nodeId));
+        registrationId = hazelcastInstance.getCluster().addMembershipListener(this);
+
+        LOG.debug("Node {} is registered for repairing of processing messages when any node leaves the cluster.",
+                nodeId);
+    }
+
+    @Override
+    public void memberRemoved(MembershipEvent event) {
+        final String nodeId = event.getMember().getStringAttribute(NODE_ID_ATTRIBUTE);
+        if (nodeId == null) {
+            LOG.debug("Removed member {} has no node ID, nothing to repair.", event.getMember());
+            return;
+        }
+
+        if (Boolean.TRUE.equals(event.getMember().getBooleanAttribute(NODE_STOPPED_ATTRIBUTE))) {
+            LOG.debug("Node {} was stopped cleanly, nothing to repair.", nodeId);
+            return;
+        }
+
+        // members are ordered by age, the oldest one is responsible for repairing
+        Member oldestMember = event.getMembers().iterator().next();
+        if (!oldestMember.localMember()) {
+            return;
+        }
+
+        final Duration delay = repeatInterval.getValue().toDuration();
+        LOG.info("Node {} left the cluster, its processing messages will be repaired after {} seconds.",
+                nodeId, delay.getSeconds());
+
+        // note: membership events are delivered by Hazelcast event thread, it mustn't be blocked
+        executor.schedule(() -> {
+            try {
+                repairMessageService.repairProcessingMessages(Long.valueOf(nodeId));
+            } catch (Exception ex) {
+                LOG.error("Failed to repair processing messages of node " + nodeId
+                        + ", they will be repaired by the repair job.", ex);
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Marks the node as stopped cleanly - beans are destroyed after Camel context is stopped, so processing
+     * of messages is finished (messages which weren't finished in time are repaired by the repair job).
+     */
+    @Override
+    public void destroy() {
+        if (hazelcastInstance.getLifecycleService().isRunning()) {
+            hazelcastInstance.getCluster().getLocalMember().setBooleanAttribute(NODE_STOPPED_ATTRIBUTE, true);
+
+            if (registrationId != null) {
+                hazelcastInstance.getCluster().removeMembershipListener(registrationId);
+            }
+        }
+        executor.shutdownNow();
+    }
+}
@@ -35,4 +35,14 @@ public interface RepairMessageService {
      * Finds messages in state {@link MsgStateEnum#PROCESSING} and repairs them.
      */
     void repairProcessingMessages();
+
+    /**
+     * Repairs messages in state {@link MsgStateEnum#PROCESSING} of specified node, it's supposed to be used
+     * when the node is not alive. Messages are repaired after the same time as by {@link #repairProcessingMessages()}
+     * because the node can still finish processing of them (e.g. after short network partition).
+     *
+     * @param nodeId the node ID
+     * @since 2.4
+     */
+    void repairProcessingMessages(Long nodeId);
 }
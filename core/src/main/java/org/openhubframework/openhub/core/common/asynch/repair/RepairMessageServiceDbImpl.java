@@ -16,12 +16,13 @@
 
 package org.openhubframework.openhub.core.common.asynch.repair;
 
-import static java.lang.Math.min;
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_COUNT_PARTLY_FAILS_BEFORE_FAILED;
 import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_REPAIR_REPEAT_TIME_SEC;
 
-import java.time.Instant;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.ExchangePattern;
@@ -34,7 +35,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
-import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
@@ -42,7 +42,6 @@ import org.openhubframework.openhub.api.asynch.AsynchConstants;
 import org.openhubframework.openhub.api.configuration.ConfigurableValue;
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 import org.openhubframework.openhub.api.entity.Message;
-import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.exception.IntegrationException;
 import org.openhubframework.openhub.api.exception.InternalErrorEnum;
 import org.openhubframework.openhub.common.time.Seconds;
@@ -58,7 +57,10 @@ public class RepairMessageServiceDbImpl implements RepairMessageService {
 
     private static final Logger LOG = LoggerFactory.getLogger(RepairMessageServiceDbImpl.class);
 
-    private static final int BATCH_SIZE = 10;
+    /**
+     * Maximum count of messages repaired in one transaction.
+     */
+    private static final int CHUNK_SIZE = 1000;
 
     private TransactionTemplate transactionTemplate;
 
@@ -89,73 +91,94 @@ public class RepairMessageServiceDbImpl implements RepairMessageService {
 
     @Override
     public void repairProcessingMessages() {
-        // find messages in PROCESSING state
-        List<Message> messages = findProcessingMessages();
-
-        LOG.debug("Found {} message(s) for repairing ...", messages.size());
-
-        // repair messages in batches
-        int batchStartIncl = 0;
-        int batchEndExcl;
-        while (batchStartIncl < messages.size()) {
-            batchEndExcl = min(batchStartIncl + BATCH_SIZE, messages.size());
-            updateMessagesInDB(messages.subList(batchStartIncl, batchEndExcl));
-            batchStartIncl = batchEndExcl;
-        }
+        repairProcessingMessages(repeatInterval.getValue().toDuration(), null);
     }
 
-    private List<Message> findProcessingMessages() {
-        return transactionTemplate.execute(new TransactionCallback<List<Message>>() {
-            @Override
-            @SuppressWarnings("unchecked")
-            public List<Message> doInTransaction(TransactionStatus status) {
-                return messageDao.findProcessingMessages(repeatInterval.getValue().toDuration());
-            }
-        });
+    @Override
+    public void repairProcessingMessages(Long nodeId) {
+        Assert.notNull(nodeId, "the nodeId must not be null");
+
+        // node can still finish its exchanges (e.g. short network partition) => the same interval as for all nodes
+        repairProcessingMessages(repeatInterval.getValue().toDuration(), nodeId);
     }
 
     /**
-     * Updates bulk of messages in DB.
+     * Repairs processing messages in chunks, each chunk is updated by one statement in new transaction.
+     * Messages which exceeded max. count of failures are redirected to processing of failed message
+     * after the transaction is committed.
      *
-     * @param messages the messages for update
+     * @param interval interval after that processing messages are probably in dead-lock
+     * @param nodeId the node which processes messages, {@code null} for all nodes
      */
-    private void updateMessagesInDB(final List<Message> messages) {
-        final Instant currDate = Instant.now();
-
-        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
-            @Override
-            protected void doInTransactionWithoutResult(TransactionStatus status) {
-                for (final Message msg : messages) {
-                    // checks if failed count exceeds limit for failing
-                    if (msg.getFailedCount() >= countPartlyFailsBeforeFailed.getValue()) {
-                        LOG.warn("The message " + msg.toHumanString() + " was in PROCESSING state and exceeded "
-                                + "max. count of failures. Message is redirected to processing of failed message.");
-
-                        // redirect to "FAILED" route
-                        producerTemplate.send(AsynchConstants.URI_ERROR_FATAL, ExchangePattern.InOnly, new Processor() {
-                            @Override
-                            public void process(Exchange exchange) throws Exception {
-                                IntegrationException ex = new IntegrationException(InternalErrorEnum.E116);
-                                exchange.setProperty(Exchange.EXCEPTION_CAUGHT, ex);
-
-                                exchange.getIn().setHeader(AsynchConstants.MSG_HEADER, msg);
-                            }
-                        });
-
-                    } else {
-                        msg.setLastUpdateTimestamp(currDate);
-                        msg.setState(MsgStateEnum.PARTLY_FAILED);
-                        // note: increase count of failures because if message stays in PROCESSING state it's almost sure
-                        //  because of any error
-                        msg.setFailedCount(msg.getFailedCount() + 1);
-
-                        messageDao.update(msg);
-
-                        LOG.warn("The message " + msg.toHumanString() + " was in PROCESSING state "
-                                + "and changed to PARTLY_FAILED.", msg.getMsgId(), msg.getCorrelationId());
+    private void repairProcessingMessages(final Duration interval, @Nullable final Long nodeId) {
+        long fromMsgId = 0;
+
+        while (true) {
+            final long chunkFromMsgId = fromMsgId;
+            final List<Message> failedMessages = new ArrayList<>();
+
+            final List<Long> msgIds = transactionTemplate.execute(new TransactionCallback<List<Long>>() {
+                @Override
+                public List<Long> doInTransaction(TransactionStatus status) {
+                    List<Long> ids = messageDao.findProcessingMessageIds(interval, nodeId, chunkFromMsgId,
+                            CHUNK_SIZE);
+
+                    if (!ids.isEmpty()) {
+                        // note: increase count of failures because if message stays in PROCESSING state
+                        //  it's almost sure because of any error
+                        int updated = messageDao.updateProcessingMessagesToPartlyFailed(ids,
+                                countPartlyFailsBeforeFailed.getValue());
+
+                        if (updated > 0) {
+                            LOG.warn("{} message(s) were in PROCESSING state and changed to PARTLY_FAILED.",
+                                    updated);
+                        }
+
+                        // messages which are still processing exceeded max. count of failures
+                        failedMessages.addAll(messageDao.findProcessingMessages(ids));
                     }
+                    return ids;
                 }
+            });
+
+            LOG.debug("Found {} message(s) for repairing ...", msgIds.size());
+
+            if (msgIds.isEmpty()) {
+                break;
+            }
+
+            for (Message msg : failedMessages) {
+                redirectToFailed(msg);
             }
-        });
+
+            fromMsgId = msgIds.get(msgIds.size() - 1);
+        }
+    }
+
+    /**
+     * Redirects message to processing of failed message.
+     *
+     * @param msg the message which exceeded max. count of failures
+     */
+    private void redirectToFailed(final Message msg) {
+        LOG.warn("The message " + msg.toHumanString() + " was in PROCESSING state and exceeded "
+                + "max. count of failures. Message is redirected to processing of failed message.");
+
+        try {
+            // redirect to "FAILED" route
+            producerTemplate.send(AsynchConstants.URI_ERROR_FATAL, ExchangePattern.InOnly, new Processor() {
+                @Override
+                public void process(Exchange exchange) throws Exception {
+                    IntegrationException ex = new IntegrationException(InternalErrorEnum.E116);
+                    exchange.setProperty(Exchange.EXCEPTION_CAUGHT, ex);
+
+                    exchange.getIn().setHeader(AsynchConstants.MSG_HEADER, msg);
+                }
+            });
+        } catch (Exception ex) {
+            // continue with another message, message will be repaired again next time
+            LOG.error("Failed to redirect the message " + msg.toHumanString()
+                    + " to processing of failed message.", ex);
+        }
     }
 }
@@ -66,4 +66,12 @@ public abstract class AbstractContextCall implements ContextCall {
      */
     protected abstract void callTargetMethod(String callId, Class<?> targetType, String methodName);
 
+    /**
+     * Gets registry with parameters and responses of the calls.
+     *
+     * @return call registry
+     */
+    protected ContextCallRegistry getCallRegistry() {
+        return callRegistry;
+    }
 }
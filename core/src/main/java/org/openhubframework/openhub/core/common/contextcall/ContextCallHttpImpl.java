@@ -16,6 +16,7 @@
 
 package org.openhubframework.openhub.core.common.contextcall;
 
+import static org.openhubframework.openhub.api.configuration.CoreProps.SERVER_LOCALHOST_CALL_HTTP;
 import static org.openhubframework.openhub.api.configuration.CoreProps.SERVER_LOCALHOST_URI;
 import static org.openhubframework.openhub.api.route.RouteConstants.HTTP_URI_PREFIX;
 
@@ -25,6 +26,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -34,10 +36,14 @@ import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 
 /**
  * Implementation of {@link ContextCall} interface with HTTP client that calls {@link ContextCallRoute}.
+ * <p>
+ * Implementation is used instead of {@link ContextCallInProcessImpl} if property
+ * {@value org.openhubframework.openhub.api.configuration.CoreProps#SERVER_LOCALHOST_CALL_HTTP} is enabled.
  *
  * @author Petr Juza
  */
 @Service
+@ConditionalOnProperty(value = SERVER_LOCALHOST_CALL_HTTP)
 public class ContextCallHttpImpl extends AbstractContextCall {
 
     /**
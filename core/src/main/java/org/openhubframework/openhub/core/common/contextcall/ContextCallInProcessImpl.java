@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.contextcall;
+
+import static org.openhubframework.openhub.api.configuration.CoreProps.SERVER_LOCALHOST_CALL_HTTP;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+
+/**
+ * Implementation of {@link ContextCall} interface that invokes target method directly in the calling thread,
+ * without HTTP round-trip to {@link ContextCallRoute} of this application.
+ * <p>
+ * Note: target method is invoked in the calling thread, it means that it participates
+ * in the transaction of the caller (if any).
+ * Calls via HTTP can be enabled by property
+ * {@value org.openhubframework.openhub.api.configuration.CoreProps#SERVER_LOCALHOST_CALL_HTTP},
+ * {@link ContextCallHttpImpl} is used then.
+ *
+ * @since 2.4
+ */
+@Service
+@ConditionalOnProperty(value = SERVER_LOCALHOST_CALL_HTTP, havingValue = "false", matchIfMissing = true)
+public class ContextCallInProcessImpl extends AbstractContextCall {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    protected void callTargetMethod(String callId, Class<?> targetType, String methodName) {
+        Assert.hasText(callId, "callId must not be empty");
+        Assert.notNull(targetType, "targetType must not be null");
+        Assert.hasText(methodName, "methodName must not be empty");
+
+        try {
+            ReflectionCallUtils.makeCall(callId, getCallRegistry(), applicationContext);
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException("error occurs during calling target method '" + methodName
+                    + "' of service type '" + targetType.getSimpleName() + "'", ex);
+        }
+    }
+}
@@ -21,8 +21,6 @@ import static org.openhubframework.openhub.api.route.RouteConstants.CAMEL_SERVLE
 import org.apache.camel.Handler;
 import org.apache.camel.Header;
 import org.apache.camel.LoggingLevel;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.Assert;
 
@@ -39,8 +37,6 @@ import org.openhubframework.openhub.api.route.CamelConfiguration;
 @CamelConfiguration
 public class ContextCallRoute extends AbstractBasicRoute {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ContextCallRoute.class);
-
     static final String SERVLET_URL = "contextCall";
     static final String CALL_ID_HEADER = "callId";
 
@@ -70,14 +66,6 @@ public class ContextCallRoute extends AbstractBasicRoute {
     public void makeCall(@Header(CALL_ID_HEADER) String callId) {
         Assert.hasText(callId, "the callId must not be empty");
 
-        // get params
-        ContextCallParams params = callRegistry.getParams(callId);
-
-        Object res = ReflectionCallUtils.invokeMethod(params, getApplicationContext());
-
-        // save response
-        callRegistry.addResponse(callId, res);
-
-        LOG.debug("Response of the call ID '" + callId + "' was saved: " + res);
+        ReflectionCallUtils.makeCall(callId, callRegistry, getApplicationContext());
     }
 }
@@ -20,6 +20,8 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.util.ReflectionUtils;
 
@@ -31,9 +33,30 @@ import org.springframework.util.ReflectionUtils;
  */
 final class ReflectionCallUtils {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ReflectionCallUtils.class);
+
     private ReflectionCallUtils() {
     }
 
+    /**
+     * Makes call - gets call parameters from registry, invokes target method and saves response into registry.
+     *
+     * @param callId the unique call ID
+     * @param callRegistry the registry with parameters and responses of the calls
+     * @param beanFactory the Spring bean factory
+     */
+    static void makeCall(String callId, ContextCallRegistry callRegistry, BeanFactory beanFactory) {
+        // get params
+        ContextCallParams params = callRegistry.getParams(callId);
+
+        Object res = invokeMethod(params, beanFactory);
+
+        // save response
+        callRegistry.addResponse(callId, res);
+
+        LOG.debug("Response of the call ID '" + callId + "' was saved: " + res);
+    }
+
     /**
      * Invokes target method.
      *
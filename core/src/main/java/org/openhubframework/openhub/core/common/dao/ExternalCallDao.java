@@ -17,6 +17,7 @@
 package org.openhubframework.openhub.core.common.dao;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nullable;
 import javax.persistence.PersistenceException;
@@ -74,22 +75,21 @@ public interface ExternalCallDao {
     void lockExternalCall(ExternalCall extCall) throws PersistenceException;
 
     /**
-     * Finds ONE confirmation in state {@link ExternalCallStateEnum#FAILED}.
+     * Finds confirmations in state {@link ExternalCallStateEnum#FAILED} which are due for next attempt
+     * and updates them into state {@link ExternalCallStateEnum#PROCESSING} in one step
+     * - gets lock for all found confirmations, confirmations locked by another transaction are skipped.
      *
-     * @param interval Interval (in seconds) between two tries of failed confirmations.
-     * @return external call or {@code null} if there is no any confirmation
+     * @param interval Interval (in seconds) between two tries of failed confirmations,
+     *                 it's used for confirmations without time of next attempt only
+     * @param limit the maximum count of confirmations
+     * @param excludedSystems names of source systems of messages whose confirmations are skipped
+     * @return list of confirmations in {@link ExternalCallStateEnum#PROCESSING} state ordered by
+     *          {@link ExternalCall#getCreationTimestamp() creation timestamp}, empty list if there is no any one
+     * @throws org.openhubframework.openhub.api.exception.LockFailureException if some confirmation was changed
+     *          by another transaction in the meantime
+     * @since 2.4
      */
-    @Nullable
-    ExternalCall findConfirmation(Duration interval);
-
-    /**
-     * Updates confirmation (set state to PROCESSING) - gets lock for this confirmation.
-     *
-     * @param extCall the external call
-     * @return the locked external call, if lock is successful; throws an exception, if the lock failed
-     * @throws PersistenceException e.g., if the lock fails
-     */
-    ExternalCall lockConfirmation(ExternalCall extCall);
+    List<ExternalCall> lockConfirmations(Duration interval, int limit, Collection<String> excludedSystems);
 
     /**
      * Finds "processing" external calls in specified interval.
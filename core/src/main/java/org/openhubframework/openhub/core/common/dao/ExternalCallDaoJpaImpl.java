@@ -18,10 +18,14 @@ package org.openhubframework.openhub.core.common.dao;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.persistence.*;
 
+import org.hibernate.LockOptions;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +33,8 @@ import org.springframework.util.Assert;
 
 import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.entity.ExternalCallStateEnum;
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.exception.LockFailureException;
 import org.openhubframework.openhub.api.exception.MultipleDataFoundException;
 
 
@@ -43,6 +49,24 @@ public class ExternalCallDaoJpaImpl implements ExternalCallDao {
 
     private static final int MAX_MESSAGES_IN_ONE_QUERY = 50;
 
+    /**
+     * JPA query hint for lock timeout, value {@link LockOptions#SKIP_LOCKED} means that locked rows are skipped.
+     */
+    private static final String LOCK_TIMEOUT_HINT = "javax.persistence.lock.timeout";
+
+    // confirmation without time of next attempt (created before backoff was introduced) is due after interval
+    private static final String FIND_DUE_CONFIRMATIONS_SQL = "SELECT c "
+            + "FROM " + ExternalCall.class.getName() + " c "
+            + "WHERE c.operationName = :operationName"
+            + "     AND c.state = :state"
+            + "     AND (c.nextAttemptTimestamp <= :currDate"
+            + "         OR (c.nextAttemptTimestamp IS NULL AND c.lastUpdateTimestamp < :lastUpdateTimestamp))";
+
+    // confirmations for systems without free capacity are skipped, they stay FAILED for other nodes
+    private static final String EXCLUDE_SYSTEMS_SQL = " AND NOT EXISTS (SELECT m.msgId "
+            + "         FROM " + Message.class.getName() + " m "
+            + "         WHERE m.msgId = c.msgId AND m.sourceSystemInternal IN (:excludedSystems))";
+
     @PersistenceContext(unitName = DbConst.UNIT_NAME)
     private EntityManager em;
 
@@ -104,44 +128,53 @@ public class ExternalCallDaoJpaImpl implements ExternalCallDao {
     }
 
     @Override
-    @Nullable
-    @SuppressWarnings("unchecked")
-    public ExternalCall findConfirmation(Duration interval) {
-        // find confirmation that was lastly processed before specified interval
-        Instant lastUpdateLimit = Instant.now().minus(interval);
-
-        String jSql = "SELECT c "
-                + "FROM " + ExternalCall.class.getName() + " c "
-                + "WHERE c.operationName = :operationName"
-                + "     AND c.state = :state"
-                + "     AND c.lastUpdateTimestamp < :lastUpdateTimestamp"
-                + " ORDER BY c.creationTimestamp";
-
-        TypedQuery<ExternalCall> q = em.createQuery(jSql, ExternalCall.class);
-        q.setParameter("operationName", ExternalCall.CONFIRM_OPERATION);
-        q.setParameter("state", ExternalCallStateEnum.FAILED);
-        q.setParameter("lastUpdateTimestamp", lastUpdateLimit);
-        q.setMaxResults(1);
+    public List<ExternalCall> lockConfirmations(Duration interval, int limit, Collection<String> excludedSystems) {
+        Assert.notNull(interval, "interval must not be null");
+        Assert.isTrue(limit > 0, "limit must be positive");
+        Assert.notNull(excludedSystems, "excludedSystems must not be null");
+
+        // find and lock confirmations, rows locked by other nodes are skipped (SELECT ... FOR UPDATE SKIP LOCKED)
+        TypedQuery<ExternalCall> q = createDueConfirmationsQuery(interval, Instant.now(), excludedSystems);
+        q.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        q.setHint(LOCK_TIMEOUT_HINT, LockOptions.SKIP_LOCKED);
+        q.setMaxResults(limit);
         List<ExternalCall> extCalls = q.getResultList();
 
         if (extCalls.isEmpty()) {
-            return null;
-        } else {
-            return extCalls.get(0);
+            return Collections.emptyList();
         }
-    }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public ExternalCall lockConfirmation(final ExternalCall extCall) {
-        Assert.notNull(extCall, "the extCall must not be null");
-        Assert.isTrue(extCall.getState() != ExternalCallStateEnum.PROCESSING,
-                "the extCall must not be locked in a processing state");
-        Assert.isTrue(em.contains(extCall), "the extCall must be attached");
+        List<Long> callIds = extCalls.stream()
+                .map(ExternalCall::getId)
+                .collect(Collectors.toList());
+
+        // change state of all confirmations to PROCESSING by one statement,
+        //  VERSIONED increments version (=last update timestamp) as update of each entity would do
+        int updated = em.createQuery("UPDATE VERSIONED " + ExternalCall.class.getName() + " c "
+                + "SET c.state = :processingState "
+                + "WHERE c.id IN (:callIds)"
+                + "     AND c.state = :failedState")
+                .setParameter("processingState", ExternalCallStateEnum.PROCESSING)
+                .setParameter("callIds", callIds)
+                .setParameter("failedState", ExternalCallStateEnum.FAILED)
+                .executeUpdate();
+
+        if (updated != callIds.size()) {
+            // database doesn't support SKIP LOCKED and some confirmation was changed in the meantime
+            throw new LockFailureException("Failed to lock " + (callIds.size() - updated) + " of " + callIds.size()
+                    + " confirmations for next processing.");
+        }
 
-        em.lock(extCall, LockModeType.PESSIMISTIC_WRITE);
-        extCall.setState(ExternalCallStateEnum.PROCESSING);
-        return extCall;
+        // bulk update bypasses persistence context => found entities are stale, load confirmations again
+        extCalls.forEach(em::detach);
+
+        return em.createQuery("SELECT c "
+                + "FROM " + ExternalCall.class.getName() + " c "
+                + "     JOIN FETCH c.message "
+                + "WHERE c.id IN (:callIds)"
+                + " ORDER BY c.creationTimestamp", ExternalCall.class)
+                .setParameter("callIds", callIds)
+                .getResultList();
     }
 
     @Override
@@ -158,4 +191,21 @@ public class ExternalCallDaoJpaImpl implements ExternalCallDao {
         q.setMaxResults(MAX_MESSAGES_IN_ONE_QUERY);
         return q.getResultList();
     }
+
+    private TypedQuery<ExternalCall> createDueConfirmationsQuery(Duration interval, Instant currDate,
+            Collection<String> excludedSystems) {
+        String jSql = FIND_DUE_CONFIRMATIONS_SQL
+                + (excludedSystems.isEmpty() ? "" : EXCLUDE_SYSTEMS_SQL)
+                + " ORDER BY c.creationTimestamp";
+
+        TypedQuery<ExternalCall> q = em.createQuery(jSql, ExternalCall.class);
+        q.setParameter("operationName", ExternalCall.CONFIRM_OPERATION);
+        q.setParameter("state", ExternalCallStateEnum.FAILED);
+        q.setParameter("currDate", currDate);
+        q.setParameter("lastUpdateTimestamp", currDate.minus(interval));
+        if (!excludedSystems.isEmpty()) {
+            q.setParameter("excludedSystems", excludedSystems);
+        }
+        return q;
+    }
 }
@@ -17,12 +17,15 @@
 package org.openhubframework.openhub.core.common.dao;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nullable;
 
 import org.openhubframework.openhub.api.entity.ExternalSystemExtEnum;
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MessageFilter;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.entity.Node;
 
@@ -55,6 +58,33 @@ public interface MessageDao {
      */
     void delete(Message msg);
 
+    /**
+     * Finds IDs of messages in specified (final) state which were lastly changed before specified time.
+     *
+     * @param state the message state
+     * @param lastChangeTo the last change time (inclusive)
+     * @param fromMsgId only messages with greater ID are returned
+     * @param limit the limit of message count
+     * @return list of message IDs in ascending order
+     * @since 2.4
+     */
+    List<Long> findFinalMessageIds(MsgStateEnum state, Instant lastChangeTo, long fromMsgId, int limit);
+
+    /**
+     * Deletes messages in specified (final) state which were lastly changed before specified time
+     * and which are in specified ID range. Related responses, requests and external calls are deleted as well.
+     * <p>
+     * Bulk statements are used, entities are not loaded into the persistence context.
+     *
+     * @param state the message state
+     * @param lastChangeTo the last change time (inclusive)
+     * @param fromMsgId the lowest message ID (inclusive)
+     * @param toMsgId the highest message ID (inclusive)
+     * @return count of deleted messages
+     * @since 2.4
+     */
+    int deleteFinalMessages(MsgStateEnum state, Instant lastChangeTo, long fromMsgId, long toMsgId);
+
     /**
      * Finds message by its ID.
      *
@@ -81,6 +111,15 @@ public interface MessageDao {
      */
     Message getMessage(Long msgId);
 
+    /**
+     * Gets message by its ID and locks it for update (SELECT ... FOR UPDATE).
+     *
+     * @param msgId the message ID
+     * @return message
+     * @since 2.4
+     */
+    Message getMessageForUpdate(Long msgId);
+
     /**
      * Finds all child messages of specified parent message.
      *
@@ -155,6 +194,22 @@ public interface MessageDao {
      */
     boolean updateMessageInQueueUnderLock(Message msg, Node processingNode);
 
+    /**
+     * Finds messages in state {@link MsgStateEnum#POSTPONED} or {@link MsgStateEnum#PARTLY_FAILED}
+     * and updates them into state {@link MsgStateEnum#IN_QUEUE} (set start timestamp in queue) in one step
+     * - gets lock for all found messages, messages locked by another transaction are skipped.
+     *
+     * @param postponedInterval Interval (in seconds) after that can be postponed message processed again
+     * @param partlyFailedInterval Interval (in seconds) after that can be partly failed message processed again
+     * @param limit the maximum count of messages
+     * @param partition the partition of messages which can be locked, {@link MessagePartition#ALL} for all messages
+     * @param processingNode node that process messages
+     * @return list of messages in {@link MsgStateEnum#IN_QUEUE} state ordered by
+     *          {@link Message#getMsgTimestamp() message timestamp}, empty list if there is no any message
+     */
+    List<Message> updateMessagesInQueueUnderLock(Duration postponedInterval, Duration partlyFailedInterval,
+            int limit, MessagePartition partition, Node processingNode);
+
     /**
      * Finds processing messages to repair process.
      *
@@ -163,6 +218,39 @@ public interface MessageDao {
      */
     List<Message> findProcessingMessages(Duration interval);
 
+    /**
+     * Finds IDs of processing messages to repair process.
+     *
+     * @param interval Interval after that processing messages are probably in dead-lock
+     * @param nodeId the node which processes messages, {@code null} for all nodes
+     * @param fromMsgId only messages with greater ID are returned
+     * @param limit the limit of message count
+     * @return list of message IDs in ascending order
+     * @since 2.4
+     */
+    List<Long> findProcessingMessageIds(Duration interval, @Nullable Long nodeId, long fromMsgId, int limit);
+
+    /**
+     * Finds messages with specified IDs which are still processing.
+     *
+     * @param msgIds the message IDs
+     * @return list of messages
+     * @since 2.4
+     */
+    List<Message> findProcessingMessages(Collection<Long> msgIds);
+
+    /**
+     * Updates processing messages with specified IDs into state {@link MsgStateEnum#PARTLY_FAILED}
+     * and increases their failed count by one statement. Messages which exceeded specified failed count
+     * are not updated.
+     *
+     * @param msgIds the message IDs
+     * @param maxFailedCount the count of failures, messages with this or greater failed count are not updated
+     * @return count of updated messages
+     * @since 2.4
+     */
+    int updateProcessingMessagesToPartlyFailed(Collection<Long> msgIds, int maxFailedCount);
+
     /**
      * Gets count of messages in specified state
      *
@@ -232,6 +320,18 @@ public interface MessageDao {
      */
     List<Message> findMessagesByFilter(MessageFilter messageFilter, long limit);
 
+    /**
+     * Finds messages by multiple fields, hold together in MessageFilter, only basic attributes of messages
+     * are loaded (see projection constructor of {@link Message}).
+     * Messages are sorted by received timestamp and ID (newest first), next page is defined by
+     * {@link MessageFilter#getCursorReceived() cursor} in the filter.
+     *
+     * @param messageFilter the filter.
+     * @param limit the limit of messages.
+     * @return list of messages (not managed by persistence context).
+     */
+    List<Message> findMessageListItemsByFilter(MessageFilter messageFilter, long limit);
+
     /**
      * Finds one message with specified funnel value for guaranteed processing order of whole routes.
      *
@@ -21,28 +21,37 @@ import static org.springframework.util.StringUtils.hasText;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.hibernate.LockOptions;
 import org.openhubframework.openhub.api.entity.MessageFilter;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.entity.ExternalSystemExtEnum;
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.entity.Node;
+import org.openhubframework.openhub.api.entity.Request;
+import org.openhubframework.openhub.api.entity.Response;
+import org.openhubframework.openhub.api.exception.LockFailureException;
 import org.openhubframework.openhub.api.exception.NoDataFoundException;
 
 
@@ -56,6 +65,144 @@ public class MessageDaoJpaImpl implements MessageDao {
 
     public static final int MAX_MESSAGES_IN_ONE_QUERY = 50;
 
+    /**
+     * JPA query hint for lock timeout, value {@link LockOptions#SKIP_LOCKED} means that locked rows are skipped.
+     */
+    private static final String LOCK_TIMEOUT_HINT = "javax.persistence.lock.timeout";
+
+    /**
+     * States of messages which are processing in the funnel.
+     */
+    private static final List<MsgStateEnum> FUNNEL_PROCESSING_STATES = Collections.unmodifiableList(Arrays.asList(
+            MsgStateEnum.PROCESSING, MsgStateEnum.IN_QUEUE, MsgStateEnum.NEW, MsgStateEnum.WAITING,
+            MsgStateEnum.WAITING_FOR_RES));
+
+    /**
+     * States of messages which are in guaranteed order with the exception of {@link MsgStateEnum#FAILED}.
+     */
+    private static final List<MsgStateEnum> GUARANTEED_ORDER_STATES_WITHOUT_FAILED = Collections.unmodifiableList(
+            Arrays.asList(MsgStateEnum.PROCESSING, MsgStateEnum.IN_QUEUE, MsgStateEnum.NEW, MsgStateEnum.WAITING,
+                    MsgStateEnum.PARTLY_FAILED, MsgStateEnum.POSTPONED, MsgStateEnum.WAITING_FOR_RES));
+
+    /**
+     * States of messages which are in guaranteed order.
+     */
+    private static final List<MsgStateEnum> GUARANTEED_ORDER_STATES = Collections.unmodifiableList(
+            Stream.concat(GUARANTEED_ORDER_STATES_WITHOUT_FAILED.stream(), Stream.of(MsgStateEnum.FAILED))
+                    .collect(Collectors.toList()));
+
+    /**
+     * States of messages which can be repaired when processing takes too long.
+     */
+    private static final List<MsgStateEnum> REPAIRABLE_PROCESSING_STATES = Collections.unmodifiableList(
+            Arrays.asList(MsgStateEnum.PROCESSING, MsgStateEnum.NEW, MsgStateEnum.IN_QUEUE));
+
+    // note: all values are bound as parameters => the query strings are constant and the query plans are cached
+    //  by Hibernate and by the database regardless of count of distinct funnel values
+
+    private static final String FIND_MESSAGE_BY_STATE_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state = :state"
+            + "     AND m.lastUpdateTimestamp < :lastTime"
+            + " ORDER BY m.msgTimestamp";
+
+    private static final String FIND_POSTPONED_OR_PARTLY_FAILED_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE (m.state = :postponedState"
+            + "        AND m.lastUpdateTimestamp < :lastTimePostponed)"
+            + "   OR (m.state = :partlyFailedState"
+            + "        AND m.lastUpdateTimestamp < :lastTimePartlyFailed)"
+            + " ORDER BY m.msgTimestamp";
+
+    private static final String FIND_PROCESSING_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state IN (:states)"
+            + "     AND m.startProcessTimestamp < :startTime";
+
+    private static final String FIND_PROCESSING_IDS_SQL = "SELECT m.msgId "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state IN (:states)"
+            + "     AND m.startProcessTimestamp < :startTime"
+            + "     AND m.msgId > :fromMsgId";
+
+    private static final String FIND_PROCESSING_BY_IDS_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.msgId IN (:msgIds)"
+            + "     AND m.state IN (:states)";
+
+    private static final String UPDATE_PROCESSING_TO_PARTLY_FAILED_SQL = "UPDATE " + Message.class.getName() + " m "
+            + "SET m.state = :partlyFailedState, m.failedCount = m.failedCount + 1,"
+            + "     m.lastUpdateTimestamp = :currDate "
+            + "WHERE m.msgId IN (:msgIds)"
+            + "     AND m.state IN (:states)"
+            + "     AND m.failedCount < :maxFailedCount";
+
+    private static final String COUNT_BY_STATE_SQL = "SELECT COUNT(m) "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state = :state";
+
+    private static final String COUNT_PROCESSING_FOR_FUNNEL_SQL = "SELECT COUNT(m) "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state IN (:states)"
+            + "      AND m.funnelValue = :funnelValue"
+            + "      AND m.startProcessTimestamp >= :startTime";
+
+    private static final String GUARANTEED_ORDER_FOR_ROUTE_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state IN (:states)"
+            + "      AND m.funnelValue = :funnelValue"
+            + "      AND m.guaranteedOrder is true";
+
+    private static final String GUARANTEED_ORDER_FOR_FUNNEL_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state IN (:states)"
+            + "      AND m.funnelValue = :funnelValue"
+            + "      AND m.funnelComponentId = :funnelCompId"
+            + "      AND m.startProcessTimestamp >= :startTime"
+            + " ORDER BY m.msgTimestamp";
+
+    private static final String FIND_POSTPONED_FOR_FUNNEL_SQL = "SELECT m "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state = :state"
+            + "      AND m.funnelValue = :funnelValue"
+            + "      AND m.guaranteedOrder is true"
+            + " ORDER BY m.msgTimestamp";
+
+    private static final String FIND_FINAL_MESSAGE_IDS_SQL = "SELECT m.msgId "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.state = :state"
+            + "      AND m.lastUpdateTimestamp <= :lastTime"
+            + "      AND m.msgId > :fromMsgId"
+            + " ORDER BY m.msgId";
+
+    // note: subquery is evaluated by the database, it's used by all bulk delete statements of final messages
+    private static final String FINAL_MESSAGE_IDS_SUBQUERY = "SELECT fm.msgId "
+            + "FROM " + Message.class.getName() + " fm "
+            + "WHERE fm.state = :state"
+            + "      AND fm.lastUpdateTimestamp <= :lastTime"
+            + "      AND fm.msgId BETWEEN :fromMsgId AND :toMsgId";
+
+    private static final String DELETE_FINAL_RESPONSES_BY_REQUEST_SQL = "DELETE "
+            + "FROM " + Response.class.getName() + " res "
+            + "WHERE res.request.id IN (SELECT req.id FROM " + Request.class.getName() + " req "
+            + "      WHERE req.msgId IN (" + FINAL_MESSAGE_IDS_SUBQUERY + "))";
+
+    private static final String DELETE_FINAL_RESPONSES_SQL = "DELETE "
+            + "FROM " + Response.class.getName() + " res "
+            + "WHERE res.message.msgId IN (" + FINAL_MESSAGE_IDS_SUBQUERY + ")";
+
+    private static final String DELETE_FINAL_REQUESTS_SQL = "DELETE "
+            + "FROM " + Request.class.getName() + " req "
+            + "WHERE req.msgId IN (" + FINAL_MESSAGE_IDS_SUBQUERY + ")";
+
+    private static final String DELETE_FINAL_EXTERNAL_CALLS_SQL = "DELETE "
+            + "FROM " + ExternalCall.class.getName() + " c "
+            + "WHERE c.msgId IN (" + FINAL_MESSAGE_IDS_SUBQUERY + ")";
+
+    private static final String DELETE_FINAL_MESSAGES_SQL = "DELETE "
+            + "FROM " + Message.class.getName() + " m "
+            + "WHERE m.msgId IN (" + FINAL_MESSAGE_IDS_SUBQUERY + ")";
+
     @PersistenceContext(unitName = DbConst.UNIT_NAME)
     private EntityManager em;
 
@@ -79,6 +226,48 @@ public class MessageDaoJpaImpl implements MessageDao {
         em.remove(em.contains(msg) ? msg : em.merge(msg));
     }
 
+    @Override
+    public List<Long> findFinalMessageIds(MsgStateEnum state, Instant lastChangeTo, long fromMsgId, int limit) {
+        Assert.notNull(state, "the state must not be null");
+        Assert.isTrue(MsgStateEnum.isFinal(state), "the state must be final");
+        Assert.notNull(lastChangeTo, "the lastChangeTo must not be null");
+
+        TypedQuery<Long> q = em.createQuery(FIND_FINAL_MESSAGE_IDS_SQL, Long.class);
+        q.setParameter("state", state);
+        q.setParameter("lastTime", lastChangeTo);
+        q.setParameter("fromMsgId", fromMsgId);
+        q.setMaxResults(limit);
+
+        return q.getResultList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int deleteFinalMessages(MsgStateEnum state, Instant lastChangeTo, long fromMsgId, long toMsgId) {
+        Assert.notNull(state, "the state must not be null");
+        Assert.isTrue(MsgStateEnum.isFinal(state), "the state must be final");
+        Assert.notNull(lastChangeTo, "the lastChangeTo must not be null");
+
+        // order of statements follows foreign keys: response -> request -> message, external_call -> message
+        executeFinalMessagesDelete(DELETE_FINAL_RESPONSES_BY_REQUEST_SQL, state, lastChangeTo, fromMsgId, toMsgId);
+        executeFinalMessagesDelete(DELETE_FINAL_RESPONSES_SQL, state, lastChangeTo, fromMsgId, toMsgId);
+        executeFinalMessagesDelete(DELETE_FINAL_REQUESTS_SQL, state, lastChangeTo, fromMsgId, toMsgId);
+        executeFinalMessagesDelete(DELETE_FINAL_EXTERNAL_CALLS_SQL, state, lastChangeTo, fromMsgId, toMsgId);
+
+        return executeFinalMessagesDelete(DELETE_FINAL_MESSAGES_SQL, state, lastChangeTo, fromMsgId, toMsgId);
+    }
+
+    private int executeFinalMessagesDelete(String jSql, MsgStateEnum state, Instant lastChangeTo, long fromMsgId,
+            long toMsgId) {
+        Query q = em.createQuery(jSql);
+        q.setParameter("state", state);
+        q.setParameter("lastTime", lastChangeTo);
+        q.setParameter("fromMsgId", fromMsgId);
+        q.setParameter("toMsgId", toMsgId);
+
+        return q.executeUpdate();
+    }
+
     @Override
     @Nullable
     public Message findMessage(Long msgId) {
@@ -114,6 +303,19 @@ public class MessageDaoJpaImpl implements MessageDao {
         return msg;
     }
 
+    @Override
+    public Message getMessageForUpdate(Long msgId) {
+        Assert.notNull(msgId, "the msgId must not be null");
+
+        // note: message which isn't in persistence context yet is loaded by SELECT ... FOR UPDATE
+        Message msg = em.find(Message.class, msgId, LockModeType.PESSIMISTIC_WRITE);
+        if (msg == null) {
+            throw new NoDataFoundException("no message with id: " + msgId);
+        }
+
+        return msg;
+    }
+
     @Override
     public List<Message> findChildMessages(Message msg) {
         TypedQuery<Message> q = em.createQuery(
@@ -167,13 +369,8 @@ public class MessageDaoJpaImpl implements MessageDao {
     @Nullable
     public Message findPartlyFailedMessage(Duration interval) {
         // find message that was lastly processed before specified interval
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE m.state = '" + MsgStateEnum.PARTLY_FAILED + "'"
-                + "     AND m.lastUpdateTimestamp < :lastTime"
-                + " ORDER BY m.msgTimestamp";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(FIND_MESSAGE_BY_STATE_SQL, Message.class);
+        q.setParameter("state", MsgStateEnum.PARTLY_FAILED);
         q.setParameter("lastTime", Instant.now().minus(interval));
         q.setMaxResults(1);
         List<Message> messages = q.getResultList();
@@ -189,13 +386,8 @@ public class MessageDaoJpaImpl implements MessageDao {
     @Nullable
     public Message findPostponedMessage(Duration interval) {
         // find message that was lastly processed before specified interval
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE m.state = '" + MsgStateEnum.POSTPONED + "'"
-                + "     AND m.lastUpdateTimestamp < :lastTime"
-                + " ORDER BY m.msgTimestamp";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(FIND_MESSAGE_BY_STATE_SQL, Message.class);
+        q.setParameter("state", MsgStateEnum.POSTPONED);
         q.setParameter("lastTime", Instant.now().minus(interval));
         q.setMaxResults(1);
         List<Message> messages = q.getResultList();
@@ -211,16 +403,9 @@ public class MessageDaoJpaImpl implements MessageDao {
     @Override
     public Message findPostponedOrPartlyFailedMessage(Duration postponedInterval, Duration partlyFailedInterval) {
         // find message that was lastly processed before specified intervals
-
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE (m.state = '" + MsgStateEnum.POSTPONED + "'"
-                + "        AND m.lastUpdateTimestamp < :lastTimePostponed)"
-                + "   OR (m.state = '" + MsgStateEnum.PARTLY_FAILED + "'"
-                + "        AND m.lastUpdateTimestamp < :lastTimePartlyFailed)"
-                + " ORDER BY m.msgTimestamp";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(FIND_POSTPONED_OR_PARTLY_FAILED_SQL, Message.class);
+        q.setParameter("postponedState", MsgStateEnum.POSTPONED);
+        q.setParameter("partlyFailedState", MsgStateEnum.PARTLY_FAILED);
         q.setParameter("lastTimePostponed", Instant.now().minus(postponedInterval));
         q.setParameter("lastTimePartlyFailed", Instant.now().minus(partlyFailedInterval));
         q.setMaxResults(1);
@@ -279,6 +464,86 @@ public class MessageDaoJpaImpl implements MessageDao {
         return result;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Message> updateMessagesInQueueUnderLock(Duration postponedInterval, Duration partlyFailedInterval,
+            int limit, MessagePartition partition, Node processingNode) {
+        Assert.notNull(postponedInterval, "postponedInterval must not be null");
+        Assert.notNull(partlyFailedInterval, "partlyFailedInterval must not be null");
+        Assert.isTrue(limit > 0, "limit must be positive");
+        Assert.notNull(partition, "partition must not be null");
+        Assert.notNull(processingNode, "processingNode must not be null");
+
+        // find and lock messages, rows locked by other nodes are skipped (SELECT ... FOR UPDATE SKIP LOCKED)
+        String jSql = "SELECT m "
+                + "FROM " + Message.class.getName() + " m "
+                + "WHERE ((m.state = :postponedState"
+                + "        AND m.lastUpdateTimestamp < :lastTimePostponed)"
+                + "   OR (m.state = :partlyFailedState"
+                + "        AND m.lastUpdateTimestamp < :lastTimePartlyFailed))";
+
+        if (!partition.isAll()) {
+            jSql += " AND MOD(m.msgId, :partitionCount) = :partitionIndex";
+        }
+
+        jSql += " ORDER BY m.msgTimestamp";
+
+        Instant currDate = Instant.now();
+
+        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        q.setParameter("postponedState", MsgStateEnum.POSTPONED);
+        q.setParameter("lastTimePostponed", currDate.minus(postponedInterval));
+        q.setParameter("partlyFailedState", MsgStateEnum.PARTLY_FAILED);
+        q.setParameter("lastTimePartlyFailed", currDate.minus(partlyFailedInterval));
+        if (!partition.isAll()) {
+            q.setParameter("partitionCount", partition.getCount());
+            q.setParameter("partitionIndex", partition.getIndex());
+        }
+        q.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        q.setHint(LOCK_TIMEOUT_HINT, LockOptions.SKIP_LOCKED);
+        q.setMaxResults(limit);
+        List<Message> messages = q.getResultList();
+
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> msgIds = messages.stream()
+                .map(Message::getMsgId)
+                .collect(Collectors.toList());
+
+        // change state of all messages to IN_QUEUE by one statement
+        int updated = em.createQuery("UPDATE " + Message.class.getName() + " m "
+                + "SET m.state = :inQueueState, m.startInQueueTimestamp = :currDate,"
+                + "     m.lastUpdateTimestamp = :currDate, m.nodeId = :nodeId "
+                + "WHERE m.msgId IN (:msgIds)"
+                + "     AND m.state IN (:states)")
+                .setParameter("inQueueState", MsgStateEnum.IN_QUEUE)
+                .setParameter("currDate", currDate)
+                .setParameter("nodeId", processingNode.getNodeId())
+                .setParameter("msgIds", msgIds)
+                .setParameter("states", Arrays.asList(MsgStateEnum.POSTPONED, MsgStateEnum.PARTLY_FAILED))
+                .executeUpdate();
+
+        if (updated != msgIds.size()) {
+            // database doesn't support SKIP LOCKED and some message was changed in the meantime
+            throw new LockFailureException("Failed to lock " + (msgIds.size() - updated) + " of " + msgIds.size()
+                    + " messages for re-processing.");
+        }
+
+        // bulk update bypasses persistence context => synchronize found messages with DB state
+        for (Message msg : messages) {
+            em.detach(msg);
+
+            msg.setState(MsgStateEnum.IN_QUEUE);
+            msg.setStartInQueueTimestamp(currDate);
+            msg.setLastUpdateTimestamp(currDate);
+            msg.setNodeId(processingNode.getNodeId());
+        }
+
+        return messages;
+    }
+
     /**
      * Finds message by id and states under database lock.
      *
@@ -319,26 +584,79 @@ public class MessageDaoJpaImpl implements MessageDao {
     public List<Message> findProcessingMessages(Duration interval) {
         Assert.notNull(interval, "interval must not be null");
 
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE (m.state = '" + MsgStateEnum.PROCESSING
-                + "' OR m.state = '" + MsgStateEnum.NEW
-                + "' OR m.state = '" + MsgStateEnum.IN_QUEUE + "')"
-                + "     AND m.startProcessTimestamp < :startTime";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(FIND_PROCESSING_SQL, Message.class);
+        q.setParameter("states", REPAIRABLE_PROCESSING_STATES);
         q.setParameter("startTime", Instant.now().minus(interval));
         q.setMaxResults(MAX_MESSAGES_IN_ONE_QUERY);
         return q.getResultList();
     }
 
+    @Override
+    public List<Long> findProcessingMessageIds(Duration interval, @Nullable Long nodeId, long fromMsgId,
+            int limit) {
+        Assert.notNull(interval, "interval must not be null");
+
+        String jSql = FIND_PROCESSING_IDS_SQL;
+        if (nodeId != null) {
+            jSql += " AND m.nodeId = :nodeId";
+        }
+        jSql += " ORDER BY m.msgId";
+
+        TypedQuery<Long> q = em.createQuery(jSql, Long.class);
+        q.setParameter("states", REPAIRABLE_PROCESSING_STATES);
+        q.setParameter("startTime", Instant.now().minus(interval));
+        q.setParameter("fromMsgId", fromMsgId);
+        if (nodeId != null) {
+            q.setParameter("nodeId", nodeId);
+        }
+        q.setMaxResults(limit);
+        return q.getResultList();
+    }
+
+    @Override
+    public List<Message> findProcessingMessages(Collection<Long> msgIds) {
+        Assert.notNull(msgIds, "msgIds must not be null");
+
+        if (msgIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        TypedQuery<Message> q = em.createQuery(FIND_PROCESSING_BY_IDS_SQL, Message.class);
+        q.setParameter("msgIds", msgIds);
+        q.setParameter("states", REPAIRABLE_PROCESSING_STATES);
+        return q.getResultList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int updateProcessingMessagesToPartlyFailed(Collection<Long> msgIds, int maxFailedCount) {
+        Assert.notNull(msgIds, "msgIds must not be null");
+
+        if (msgIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = em.createQuery(UPDATE_PROCESSING_TO_PARTLY_FAILED_SQL)
+                .setParameter("partlyFailedState", MsgStateEnum.PARTLY_FAILED)
+                .setParameter("currDate", Instant.now())
+                .setParameter("msgIds", msgIds)
+                .setParameter("states", REPAIRABLE_PROCESSING_STATES)
+                .setParameter("maxFailedCount", maxFailedCount)
+                .executeUpdate();
+
+        // bulk update bypasses persistence context => loaded messages could be stale
+        em.clear();
+
+        return updated;
+    }
+
     @Override
     public int getCountMessages(MsgStateEnum state, @Nullable Duration interval) {
+        Assert.notNull(state, "state must not be null");
+
         Instant lastUpdateTime = null;
 
-        String jSql = "SELECT COUNT(m) "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE m.state = '" + state.name() + "'";
+        String jSql = COUNT_BY_STATE_SQL;
 
         if (interval != null) {
             lastUpdateTime = Instant.now().minus(interval);
@@ -346,6 +664,7 @@ public class MessageDaoJpaImpl implements MessageDao {
         }
 
         TypedQuery<Number> q = em.createQuery(jSql, Number.class);
+        q.setParameter("state", state);
         if (lastUpdateTime != null) {
             q.setParameter("lastUpdateTime", lastUpdateTime);
         }
@@ -357,17 +676,9 @@ public class MessageDaoJpaImpl implements MessageDao {
     public int getCountProcessingMessagesForFunnel(String funnelValue, Duration idleInterval, String funnelCompId) {
         Assert.notNull(idleInterval, "idleInterval must not be null");
 
-        String jSql = "SELECT COUNT(m) "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE (m.state = '" + MsgStateEnum.PROCESSING + "' "
-                + "         OR m.state = '" + MsgStateEnum.IN_QUEUE + "'"
-                + "         OR m.state = '" + MsgStateEnum.NEW + "'"
-                + "         OR m.state = '" + MsgStateEnum.WAITING + "'"
-                + "         OR m.state = '" + MsgStateEnum.WAITING_FOR_RES + "')"
-                + "      AND m.funnelValue = '" + funnelValue + "'"
-                + "      AND m.startProcessTimestamp >= :startTime";
-
-        TypedQuery<Number> q = em.createQuery(jSql, Number.class);
+        TypedQuery<Number> q = em.createQuery(COUNT_PROCESSING_FOR_FUNNEL_SQL, Number.class);
+        q.setParameter("states", FUNNEL_PROCESSING_STATES);
+        q.setParameter("funnelValue", funnelValue);
         q.setParameter("startTime", Instant.now().minus(idleInterval));
 
         return q.getSingleResult().intValue();
@@ -376,50 +687,20 @@ public class MessageDaoJpaImpl implements MessageDao {
     @Override
     public List<Message> getMessagesForGuaranteedOrderForRoute(String funnelValue, boolean excludeFailedState) {
         //TODO (juza) limit select to specific number of items + add msgId DESC to sorting (parent vs. child)
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE (m.state = '" + MsgStateEnum.PROCESSING + "' "
-                + "         OR m.state = '" + MsgStateEnum.IN_QUEUE + "'"
-                + "         OR m.state = '" + MsgStateEnum.NEW + "'"
-                + "         OR m.state = '" + MsgStateEnum.WAITING + "'"
-                + "         OR m.state = '" + MsgStateEnum.PARTLY_FAILED + "'"
-                + "         OR m.state = '" + MsgStateEnum.POSTPONED + "'";
-
-        if (!excludeFailedState) {
-            jSql += "         OR m.state = '" + MsgStateEnum.FAILED + "'";
-        }
-
-        jSql += "         OR m.state = '" + MsgStateEnum.WAITING_FOR_RES + "')"
-                + "      AND m.funnelValue = '" + funnelValue + "'"
-                + "      AND m.guaranteedOrder is true"
-                + " ORDER BY m.msgTimestamp";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(GUARANTEED_ORDER_FOR_ROUTE_SQL + " ORDER BY m.msgTimestamp",
+                Message.class);
+        q.setParameter("states", getGuaranteedOrderStates(excludeFailedState));
+        q.setParameter("funnelValue", funnelValue);
 
         return q.getResultList();
     }
 
     @Override
     public List<Message> getMessagesForGuaranteedOrderForRoute(String funnelValue, boolean excludeFailedState, long limit) {
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE (m.state = '" + MsgStateEnum.PROCESSING + "' "
-                + "         OR m.state = '" + MsgStateEnum.IN_QUEUE + "'"
-                + "         OR m.state = '" + MsgStateEnum.NEW + "'"
-                + "         OR m.state = '" + MsgStateEnum.WAITING + "'"
-                + "         OR m.state = '" + MsgStateEnum.PARTLY_FAILED + "'"
-                + "         OR m.state = '" + MsgStateEnum.POSTPONED + "'";
-
-        if (!excludeFailedState) {
-            jSql += "         OR m.state = '" + MsgStateEnum.FAILED + "'";
-        }
-
-        jSql += "         OR m.state = '" + MsgStateEnum.WAITING_FOR_RES + "')"
-                + "      AND m.funnelValue = '" + funnelValue + "'"
-                + "      AND m.guaranteedOrder is true"
-                + " ORDER BY m.msgTimestamp, m.msgId DESC";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(GUARANTEED_ORDER_FOR_ROUTE_SQL
+                + " ORDER BY m.msgTimestamp, m.msgId DESC", Message.class);
+        q.setParameter("states", getGuaranteedOrderStates(excludeFailedState));
+        q.setParameter("funnelValue", funnelValue);
         q.setMaxResults((int) limit);
 
         return q.getResultList();
@@ -430,28 +711,12 @@ public class MessageDaoJpaImpl implements MessageDao {
             boolean excludeFailedState, String funnelCompId) {
         Assert.notNull(idleInterval, "idleInterval must not be null");
 
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE (m.state = '" + MsgStateEnum.PROCESSING + "' "
-                + "         OR m.state = '" + MsgStateEnum.IN_QUEUE + "'"
-                + "         OR m.state = '" + MsgStateEnum.NEW + "'"
-                + "         OR m.state = '" + MsgStateEnum.WAITING + "'"
-                + "         OR m.state = '" + MsgStateEnum.PARTLY_FAILED + "'"
-                + "         OR m.state = '" + MsgStateEnum.POSTPONED + "'";
-
-        if (!excludeFailedState) {
-            jSql += "         OR m.state = '" + MsgStateEnum.FAILED + "'";
-        }
-
-        jSql += "         OR m.state = '" + MsgStateEnum.WAITING_FOR_RES + "')"
-                + "      AND m.funnelValue = '" + funnelValue + "'"
-                + "      AND m.funnelComponentId = '" + funnelCompId + "'"
-                + "      AND m.startProcessTimestamp >= :startTime"
-                + " ORDER BY m.msgTimestamp";
-
         //TODO (juza) limit select to specific number of items + add msgId DESC to sorting (parent vs. child)
 
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(GUARANTEED_ORDER_FOR_FUNNEL_SQL, Message.class);
+        q.setParameter("states", getGuaranteedOrderStates(excludeFailedState));
+        q.setParameter("funnelValue", funnelValue);
+        q.setParameter("funnelCompId", funnelCompId);
         q.setParameter("startTime", Instant.now().minus(idleInterval));
 
         return q.getResultList();
@@ -462,7 +727,22 @@ public class MessageDaoJpaImpl implements MessageDao {
         Assert.notNull(filter, "the messageFilter must not be null");
         verifyMessageFilter(filter);
 
-        String jSql = "SELECT m "
+        return findByFilter("SELECT m ", filter, limit);
+    }
+
+    @Override
+    public List<Message> findMessageListItemsByFilter(final MessageFilter filter, long limit) {
+        Assert.notNull(filter, "the messageFilter must not be null");
+        verifyMessageFilter(filter);
+
+        // projection only, large columns (payload, envelope) are not loaded at all
+        return findByFilter("SELECT NEW " + Message.class.getName() + "(m.msgId, m.correlationId, "
+                + "m.sourceSystemInternal, m.receiveTimestamp, m.startProcessTimestamp, m.state, "
+                + "m.failedErrorCodeInternal, m.serviceInternal, m.operationName) ", filter, limit);
+    }
+
+    private List<Message> findByFilter(String select, MessageFilter filter, long limit) {
+        String jSql = select
                 + "         FROM " +  Message.class.getName() + " m " +
                 "           WHERE ";
 
@@ -506,9 +786,17 @@ public class MessageDaoJpaImpl implements MessageDao {
             conditions.add(findMessagesByFilterFulltextSql("fulltext"));
         }
 
+        // keyset pagination
+        if (null != filter.getCursorReceived()) {
+            Assert.notNull(filter.getCursorId(), "the cursorId must not be null when cursorReceived is set");
+
+            conditions.add("(m.receiveTimestamp < :cursorReceived "
+                    + "OR (m.receiveTimestamp = :cursorReceived AND m.msgId < :cursorId))");
+        }
+
         // add conditions
         jSql += conditions.toString();
-        jSql += "           ORDER BY m.receiveTimestamp DESC";
+        jSql += "           ORDER BY m.receiveTimestamp DESC, m.msgId DESC";
 
         TypedQuery<Message> q = em.createQuery(jSql, Message.class);
         if (null != filter.getReceivedFrom()) {
@@ -548,6 +836,10 @@ public class MessageDaoJpaImpl implements MessageDao {
         if (hasText(filter.getFulltext())) {
             q.setParameter("fulltext", "%" + filter.getFulltext() + "%");
         }
+        if (null != filter.getCursorReceived()) {
+            q.setParameter("cursorReceived", filter.getCursorReceived());
+            q.setParameter("cursorId", filter.getCursorId());
+        }
         q.setMaxResults((int) limit);
 
         return q.getResultList();
@@ -558,14 +850,9 @@ public class MessageDaoJpaImpl implements MessageDao {
     public Message findPostponedMessage(String funnelValue) {
         Assert.notNull(funnelValue, "the funnelValue must not be null");
 
-        String jSql = "SELECT m "
-                + "FROM " + Message.class.getName() + " m "
-                + "WHERE m.state = '" + MsgStateEnum.POSTPONED + "'"
-                + "      AND m.funnelValue = '" + funnelValue + "'"
-                + "      AND m.guaranteedOrder is true"
-                + " ORDER BY m.msgTimestamp";
-
-        TypedQuery<Message> q = em.createQuery(jSql, Message.class);
+        TypedQuery<Message> q = em.createQuery(FIND_POSTPONED_FOR_FUNNEL_SQL, Message.class);
+        q.setParameter("state", MsgStateEnum.POSTPONED);
+        q.setParameter("funnelValue", funnelValue);
         q.setMaxResults(1);
         List<Message> messages = q.getResultList();
 
@@ -587,6 +874,10 @@ public class MessageDaoJpaImpl implements MessageDao {
         return "m.envelope like :" + placeholder;
     }
 
+    private static List<MsgStateEnum> getGuaranteedOrderStates(boolean excludeFailedState) {
+        return excludeFailedState ? GUARANTEED_ORDER_STATES_WITHOUT_FAILED : GUARANTEED_ORDER_STATES;
+    }
+
     private static void verifyMessageFilter(MessageFilter messageFilter) {
         // verify at least one field in filled, otherwise it does not make sense
         Assert.isTrue(
@@ -16,6 +16,7 @@
 
 package org.openhubframework.openhub.core.common.directcall;
 
+import static org.openhubframework.openhub.api.configuration.CoreProps.SERVER_LOCALHOST_CALL_HTTP;
 import static org.openhubframework.openhub.api.configuration.CoreProps.SERVER_LOCALHOST_URI;
 import static org.openhubframework.openhub.api.route.RouteConstants.HTTP_URI_PREFIX;
 
@@ -29,6 +30,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -38,11 +40,15 @@ import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 
 /**
  * Implementation of {@link DirectCall} interface with HTTP client that calls {@link DirectCallWsRoute}.
+ * <p>
+ * Implementation is used instead of {@link DirectCallInProcessImpl} if property
+ * {@value org.openhubframework.openhub.api.configuration.CoreProps#SERVER_LOCALHOST_CALL_HTTP} is enabled.
  *
  * @author Petr Juza
  * @see DirectCallWsRoute
  */
 @Service
+@ConditionalOnProperty(value = SERVER_LOCALHOST_CALL_HTTP)
 public class DirectCallHttpImpl implements DirectCall {
 
     /**
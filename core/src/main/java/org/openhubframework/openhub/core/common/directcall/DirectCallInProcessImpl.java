@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.directcall;
+
+import static org.openhubframework.openhub.api.configuration.CoreProps.SERVER_LOCALHOST_CALL_HTTP;
+
+import java.io.IOException;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ProducerTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+
+/**
+ * Implementation of {@link DirectCall} interface that calls {@link DirectCallWsRoute} in-process
+ * (via {@value DirectCallWsRoute#IN_PROCESS_URI} endpoint), without HTTP round-trip to this application.
+ * <p>
+ * Calls via HTTP can be enabled by property
+ * {@value org.openhubframework.openhub.api.configuration.CoreProps#SERVER_LOCALHOST_CALL_HTTP},
+ * {@link DirectCallHttpImpl} is used then.
+ *
+ * @since 2.4
+ * @see DirectCallWsRoute
+ */
+@Service
+@ConditionalOnProperty(value = SERVER_LOCALHOST_CALL_HTTP, havingValue = "false", matchIfMissing = true)
+public class DirectCallInProcessImpl implements DirectCall {
+
+    @Autowired
+    private ProducerTemplate producerTemplate;
+
+    @Override
+    public String makeCall(String callId) throws IOException {
+        Assert.hasText(callId, "callId must not be empty");
+
+        try {
+            return producerTemplate.requestBodyAndHeader(DirectCallWsRoute.IN_PROCESS_URI, null,
+                    DirectCallWsRoute.CALL_ID_HEADER, callId, String.class);
+        } catch (CamelExecutionException ex) {
+            // the same contract as HTTP call - error of the call is propagated as IOException
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.camel.Handler;
 import org.apache.camel.Header;
 import org.apache.camel.LoggingLevel;
 import org.apache.camel.component.spring.ws.SpringWebserviceConstants;
+import org.apache.camel.model.RouteDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,7 +35,8 @@ import org.openhubframework.openhub.api.route.CamelConfiguration;
 
 /**
  * Route that can directly call specified web service URI via specified WS sender.
- * Route expects HTTP GET call with unique call identifier to {@link DirectCallRegistry}.
+ * Route expects HTTP GET call with unique call identifier to {@link DirectCallRegistry},
+ * the same call can be made in-process via {@value #IN_PROCESS_URI} endpoint.
  *
  * @author Petr Juza
  */
@@ -46,17 +48,27 @@ public class DirectCallWsRoute extends AbstractBasicRoute {
     static final String SERVLET_URL = "directWS";
     static final String CALL_ID_HEADER = "callId";
 
+    static final String IN_PROCESS_URI = "direct:directCall";
+
     static final String ROUTE_ID_DIRECT_CALL = "directCall" + EXTERNAL_ROUTE_SUFFIX;
+    static final String ROUTE_ID_DIRECT_CALL_IN_PROCESS = "directCall" + ROUTE_SUFFIX;
     static final String ROUTING_SLIP_ID = "routingSlip";
+    static final String ROUTING_SLIP_IN_PROCESS_ID = "routingSlipInProcess";
 
     @Autowired
     private DirectCallRegistry callRegistry;
 
     @Override
     protected void doConfigure() throws Exception {
-        from("servlet:///" + SERVLET_URL + "?servletName=" + CAMEL_SERVLET)
-            .routeId(ROUTE_ID_DIRECT_CALL)
+        configureCall(from("servlet:///" + SERVLET_URL + "?servletName=" + CAMEL_SERVLET)
+            .routeId(ROUTE_ID_DIRECT_CALL), ROUTING_SLIP_ID);
+
+        configureCall(from(IN_PROCESS_URI)
+            .routeId(ROUTE_ID_DIRECT_CALL_IN_PROCESS), ROUTING_SLIP_IN_PROCESS_ID);
+    }
 
+    private void configureCall(RouteDefinition route, String routingSlipId) {
+        route
             .validate(header(CALL_ID_HEADER).isNotNull())
 
             .log(LoggingLevel.DEBUG, "Incoming direct WS call with ID: ${headers." + CALL_ID_HEADER + "} ")
@@ -67,7 +79,7 @@ public class DirectCallWsRoute extends AbstractBasicRoute {
 
             .convertBodyTo(String.class, "UTF-8")
 
-            .routingSlip(method(this, "getWsUri")).id(ROUTING_SLIP_ID)
+            .routingSlip(method(this, "getWsUri")).id(routingSlipId)
 
             .bean(this, "removeCallParams");
     }
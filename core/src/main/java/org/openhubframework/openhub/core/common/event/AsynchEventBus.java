@@ -0,0 +1,384 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.event;
+
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_EVENT_BUS_CAPACITY;
+
+import java.util.EventObject;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.spi.EventNotifier;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.event.AbstractAsynchEvent;
+import org.openhubframework.openhub.api.event.EventOverflowPolicy;
+
+
+/**
+ * Bus for delivering asynchronous message events (see {@link AsynchEventHelper}) to event notifiers
+ * with asynchronous delivery ({@link org.openhubframework.openhub.api.event.EventNotifier#asynch()}).
+ * <p>
+ * Each such notifier has its own bounded queue and one thread which delivers events from the queue,
+ * so a slow notifier delays neither message processing nor other notifiers. Events are delivered
+ * in the order in which they were published (e.g. events of one funnel in the order of committed state changes).
+ * Notifier can have more delivery lanes (see {@link org.openhubframework.openhub.api.event.EventNotifier#lanes()}),
+ * each lane with own queue and thread - events of one message funnel (or of one message without funnel)
+ * are always delivered by the same lane, so their order is kept.
+ * When the queue is full then the event is dropped or the publishing thread waits for free space,
+ * see {@link org.openhubframework.openhub.api.event.EventNotifier#overflow()}.
+ * <p>
+ * Events are delivered synchronously when the bus isn't running (start-up or shutdown of the application),
+ * queues are created only while the bus is running.
+ * Count of waiting (lag) and dropped events per notifier are available via JMX.
+ *
+ * @since 2.4
+ */
+@Service
+@ManagedResource(objectName = "org.openhubframework.openhub.core.common.event:name=AsynchEventBus",
+        description = "Asynchronous delivery of message events to event notifiers")
+public class AsynchEventBus implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsynchEventBus.class);
+
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    private static final long STOP_TIMEOUT_SEC = 10;
+
+    private final int capacity;
+
+    private final ConcurrentMap<EventNotifier, Boolean> asynchNotifiers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<EventNotifier, NotifierQueue> queues = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    /**
+     * Creates new event bus.
+     *
+     * @param env the environment
+     */
+    @Autowired
+    public AsynchEventBus(Environment env) {
+        this(env.getProperty(ASYNCH_EVENT_BUS_CAPACITY, Integer.class, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates new event bus.
+     *
+     * @param capacity the maximum count of events waiting for one notifier (divided among its lanes)
+     */
+    public AsynchEventBus(int capacity) {
+        Assert.isTrue(capacity > 0, "the capacity must be positive");
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Should events be delivered to the specified notifier asynchronously?
+     *
+     * @param notifier the event notifier
+     * @return {@code true} if notifier is annotated by
+     *      {@link org.openhubframework.openhub.api.event.EventNotifier @EventNotifier(asynch = true)}
+     */
+    public boolean isAsynch(EventNotifier notifier) {
+        Assert.notNull(notifier, "the notifier must not be null");
+
+        return asynchNotifiers.computeIfAbsent(notifier, key -> {
+            org.openhubframework.openhub.api.event.EventNotifier annotation = findAnnotation(key);
+            return annotation != null && annotation.asynch();
+        });
+    }
+
+    /**
+     * Gets policy what to do with event when the queue of the specified notifier is full.
+     *
+     * @param notifier the event notifier
+     * @return {@link org.openhubframework.openhub.api.event.EventNotifier#overflow()} of the notifier,
+     *      {@link EventOverflowPolicy#DROP} if notifier isn't annotated
+     */
+    EventOverflowPolicy getOverflowPolicy(EventNotifier notifier) {
+        Assert.notNull(notifier, "the notifier must not be null");
+
+        org.openhubframework.openhub.api.event.EventNotifier annotation = findAnnotation(notifier);
+        return annotation != null ? annotation.overflow() : EventOverflowPolicy.DROP;
+    }
+
+    /**
+     * Gets count of lanes (threads) delivering events to the specified notifier.
+     *
+     * @param notifier the event notifier
+     * @return {@link org.openhubframework.openhub.api.event.EventNotifier#lanes()} of the notifier,
+     *      {@code 1} if notifier isn't annotated
+     */
+    int getLanes(EventNotifier notifier) {
+        Assert.notNull(notifier, "the notifier must not be null");
+
+        org.openhubframework.openhub.api.event.EventNotifier annotation = findAnnotation(notifier);
+        return annotation != null ? Math.max(1, annotation.lanes()) : 1;
+    }
+
+    @Nullable
+    private static org.openhubframework.openhub.api.event.EventNotifier findAnnotation(EventNotifier notifier) {
+        return AnnotationUtils.findAnnotation(ClassUtils.getUserClass(notifier),
+                org.openhubframework.openhub.api.event.EventNotifier.class);
+    }
+
+    /**
+     * Publishes event for asynchronous delivery to the specified notifier.
+     *
+     * @param notifier the event notifier
+     * @param event the event
+     */
+    public void publish(EventNotifier notifier, EventObject event) {
+        Assert.notNull(notifier, "the notifier must not be null");
+        Assert.notNull(event, "the event must not be null");
+
+        NotifierQueue queue = queues.get(notifier);
+        if (queue == null) {
+            queue = createQueue(notifier);
+        }
+
+        if (queue == null) {
+            // bus isn't running => deliver directly
+            AsynchEventHelper.doNotifyEvent(notifier, event);
+            return;
+        }
+
+        queue.offer(event);
+    }
+
+    /**
+     * Creates queue for the notifier, synchronized with {@link #stop()} - queue created while the bus is running
+     * is always stopped.
+     *
+     * @return queue, {@code null} if the bus isn't running
+     */
+    @Nullable
+    private synchronized NotifierQueue createQueue(EventNotifier notifier) {
+        if (!running) {
+            return null;
+        }
+
+        return queues.computeIfAbsent(notifier, NotifierQueue::new);
+    }
+
+    @ManagedAttribute(description = "Count of events waiting in the queue per event notifier")
+    public Map<String, Integer> getLags() {
+        Map<String, Integer> lags = new TreeMap<>();
+        for (NotifierQueue queue : queues.values()) {
+            lags.put(queue.name, queue.getLag());
+        }
+        return lags;
+    }
+
+    @ManagedAttribute(description = "Count of events dropped because of full queue per event notifier")
+    public Map<String, Long> getDroppedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (NotifierQueue queue : queues.values()) {
+            counts.put(queue.name, queue.droppedCount.get());
+        }
+        return counts;
+    }
+
+    @ManagedAttribute(description = "Count of delivered events per event notifier")
+    public Map<String, Long> getDeliveredCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (NotifierQueue queue : queues.values()) {
+            counts.put(queue.name, queue.deliveredCount.get());
+        }
+        return counts;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!running) {
+            running = true;
+            AsynchEventHelper.setEventBus(this);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (running) {
+            AsynchEventHelper.setEventBus(null);
+            running = false;
+
+            // waiting events are still delivered
+            for (NotifierQueue queue : queues.values()) {
+                queue.shutdown();
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STOP_TIMEOUT_SEC);
+            for (NotifierQueue queue : queues.values()) {
+                try {
+                    if (!queue.awaitTermination(deadline)) {
+                        LOG.warn("Delivery of events to {} wasn't stopped in {} seconds, {} events weren't delivered.",
+                                queue.name, STOP_TIMEOUT_SEC, queue.getLag());
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            queues.clear();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queue of events for one event notifier, events are delivered by one thread per lane.
+     */
+    private final class NotifierQueue {
+
+        private final EventNotifier notifier;
+
+        private final String name;
+
+        private final EventOverflowPolicy overflow;
+
+        private final ThreadPoolExecutor[] executors;
+
+        private final AtomicLong deliveredCount = new AtomicLong();
+
+        private final AtomicLong droppedCount = new AtomicLong();
+
+        private NotifierQueue(EventNotifier notifier) {
+            this.notifier = notifier;
+            this.name = ClassUtils.getUserClass(notifier).getName();
+            this.overflow = getOverflowPolicy(notifier);
+
+            int lanes = getLanes(notifier);
+            int laneCapacity = Math.max(1, capacity / lanes);
+
+            this.executors = new ThreadPoolExecutor[lanes];
+            for (int i = 0; i < lanes; i++) {
+                CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("OpenHub-event-"
+                        + ClassUtils.getShortName(name) + "-" + (lanes > 1 ? i + "-" : ""));
+                // thread mustn't prevent JVM from exit, waiting events are delivered when the bus is stopped
+                threadFactory.setDaemon(true);
+
+                executors[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(laneCapacity), threadFactory);
+            }
+        }
+
+        /**
+         * Gets lane for the event - events of one funnel (or one message without funnel) use the same lane.
+         */
+        private ThreadPoolExecutor getExecutor(EventObject event) {
+            if (executors.length == 1 || !(event instanceof AbstractAsynchEvent)) {
+                return executors[0];
+            }
+
+            Message msg = ((AbstractAsynchEvent) event).getMessage();
+            int hash = msg.getFunnelValue() != null
+                    ? msg.getFunnelValue().hashCode()
+                    : Objects.hashCode(msg.getMsgId());
+            return executors[Math.floorMod(hash, executors.length)];
+        }
+
+        private int getLag() {
+            int lag = 0;
+            for (ThreadPoolExecutor executor : executors) {
+                lag += executor.getQueue().size();
+            }
+            return lag;
+        }
+
+        private void shutdown() {
+            for (ThreadPoolExecutor executor : executors) {
+                executor.shutdown();
+            }
+        }
+
+        private boolean awaitTermination(long deadlineNanos) throws InterruptedException {
+            boolean terminated = true;
+            for (ThreadPoolExecutor executor : executors) {
+                terminated &= executor.awaitTermination(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            return terminated;
+        }
+
+        private void offer(EventObject event) {
+            ThreadPoolExecutor executor = getExecutor(event);
+            Runnable task = () -> {
+                AsynchEventHelper.doNotifyEvent(notifier, event);
+                deliveredCount.incrementAndGet();
+            };
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                if (executor.isShutdown()) {
+                    // bus was stopped in the meantime
+                    AsynchEventHelper.doNotifyEvent(notifier, event);
+                    return;
+                }
+
+                if (overflow == EventOverflowPolicy.BLOCK) {
+                    offerAndWait(executor, task, event);
+                } else {
+                    droppedCount.incrementAndGet();
+                    LOG.debug("The queue of {} is full, event {} is dropped.", name, event);
+                }
+            }
+        }
+
+        private void offerAndWait(ThreadPoolExecutor executor, Runnable task, EventObject event) {
+            try {
+                // delivery thread is running because the queue is full
+                executor.getQueue().put(task);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                droppedCount.incrementAndGet();
+                LOG.warn("Interrupted while waiting for free space in the queue of {}, event {} is dropped.",
+                        name, event);
+                return;
+            }
+
+            // bus was stopped in the meantime and delivery thread could finish before the event was queued
+            if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                AsynchEventHelper.doNotifyEvent(notifier, event);
+            }
+        }
+    }
+}
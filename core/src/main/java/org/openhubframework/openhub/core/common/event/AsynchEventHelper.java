@@ -18,6 +18,7 @@ package org.openhubframework.openhub.core.common.event;
 
 import java.util.EventObject;
 import java.util.List;
+import javax.annotation.Nullable;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
@@ -33,6 +34,10 @@ import org.openhubframework.openhub.api.event.AbstractAsynchEvent;
 
 /**
  * Helper class for easily sending event notifications in a single line of code.
+ * <p>
+ * One event instance is created for each notification and it's shared by all event notifiers.
+ * Event notifiers with asynchronous delivery get events via {@link AsynchEventBus}, other notifiers are notified
+ * synchronously in the calling thread.
  *
  * @author Petr Juza
  */
@@ -42,9 +47,24 @@ public final class AsynchEventHelper {
 
     private static final AsynchEventFactory factory = new DefaultAsynchEventFactory();
 
+    /**
+     * Bus for asynchronous delivery of events, {@code null} if the bus isn't running.
+     */
+    @Nullable
+    private static volatile AsynchEventBus eventBus;
+
     private AsynchEventHelper() {
     }
 
+    /**
+     * Sets event bus for asynchronous delivery of events.
+     *
+     * @param bus the event bus, {@code null} for synchronous delivery to all notifiers
+     */
+    static void setEventBus(@Nullable AsynchEventBus bus) {
+        eventBus = bus;
+    }
+
     public static void notifyMsgCompleted(Exchange exchange) {
         notifyMsg(exchange, new EventNotifierCallback() {
             @Override
@@ -169,19 +189,36 @@ public final class AsynchEventHelper {
             return;
         }
 
+        AsynchEventBus bus = eventBus;
+        EventObject event = null;
         for (EventNotifier notifier : notifiers) {
             if (callback.ignore(notifier)) {
                 continue;
             }
 
-            // we want to have new event instance for all notifiers
-            EventObject event = callback.createEvent(exchange);
+            // event is created once and shared by all notifiers
+            if (event == null) {
+                event = callback.createEvent(exchange);
+            }
 
-            doNotifyEvent(notifier, event);
+            if (bus != null && bus.isAsynch(notifier)) {
+                // filter events in advance, so they don't occupy the queue of the notifier
+                if (notifier.isEnabled(event)) {
+                    bus.publish(notifier, event);
+                }
+            } else {
+                doNotifyEvent(notifier, event);
+            }
         }
     }
 
-    private static void doNotifyEvent(EventNotifier notifier, EventObject event) {
+    /**
+     * Notifies event notifier about the event if notifier is started and enabled for the event.
+     *
+     * @param notifier the event notifier
+     * @param event the event
+     */
+    static void doNotifyEvent(EventNotifier notifier, EventObject event) {
         // only notify if notifier is started
         boolean started = true;
         if (notifier instanceof StatefulService) {
@@ -29,9 +29,28 @@ public final class CacheNames {
      */
     public static final String THROTTLING = "throttling";
 
+    /**
+     * Replicated map with throttling counters of all nodes in the cluster.
+     */
+    public static final String THROTTLING_BUCKETS = "throttling_buckets";
+
+    /**
+     * Replicated map with alert counters of all nodes in the cluster.
+     */
+    public static final String ALERT_COUNTERS = "alert_counters";
+
+    /**
+     * Distributed map with unfinished messages of funnels.
+     */
+    public static final String FUNNELS = "funnels";
+
     /**
      * Distributed map for caching configuration parameters.
+     *
+     * @deprecated configuration parameters are cached locally by
+     *      {@link org.openhubframework.openhub.core.configuration.CachedConfigurationService}
      */
+    @Deprecated
     public static final String CONFIG_PARAMS = "config_params";
 
     private CacheNames() {
@@ -19,10 +19,8 @@ package org.openhubframework.openhub.core.config;
 import javax.persistence.EntityManagerFactory;
 
 import org.apache.camel.CamelContext;
-import org.apache.camel.Exchange;
 import org.apache.camel.builder.LoggingErrorHandlerBuilder;
 import org.apache.camel.component.jpa.JpaComponent;
-import org.apache.camel.component.seda.PriorityBlockingQueueFactory;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.processor.interceptor.DefaultTraceFormatter;
 import org.apache.camel.processor.interceptor.Tracer;
@@ -33,12 +31,14 @@ import org.apache.camel.spring.boot.CamelContextConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import org.openhubframework.openhub.api.asynch.AsynchConstants;
+import org.openhubframework.openhub.api.configuration.CoreProps;
 import org.openhubframework.openhub.common.Profiles;
 import org.openhubframework.openhub.core.common.asynch.confirm.DelegateConfirmationCallback;
-import org.openhubframework.openhub.core.common.asynch.msg.MsgPriorityComparator;
+import org.openhubframework.openhub.core.common.asynch.queue.MultiLevelPriorityQueueFactory;
 import org.openhubframework.openhub.core.common.camel.ApplicationContextsRegistry;
 
 
@@ -105,11 +105,16 @@ public class CamelConfig {
         return jpaComponent;
     }
 
+    /**
+     * Configures factory of priority queues for asynchronous processing of messages.
+     */
     @Bean(name = AsynchConstants.PRIORITY_QUEUE_FACTORY)
-    public PriorityBlockingQueueFactory priorityQueueFactory() {
-        PriorityBlockingQueueFactory<Exchange> queueFactory = new PriorityBlockingQueueFactory<>();
-        queueFactory.setComparator(new MsgPriorityComparator());
-        return queueFactory;
+    public MultiLevelPriorityQueueFactory priorityQueueFactory(Environment env) {
+        return new MultiLevelPriorityQueueFactory(
+                env.getProperty(CoreProps.ASYNCH_PRIORITY_QUEUE_LEVEL_WEIGHTS, int[].class,
+                        MultiLevelPriorityQueueFactory.DEFAULT_WEIGHTS),
+                env.getProperty(CoreProps.ASYNCH_PRIORITY_QUEUE_LEVEL_CAPACITY, Integer.class,
+                        MultiLevelPriorityQueueFactory.DEFAULT_LEVEL_CAPACITY));
     }
 
     /**
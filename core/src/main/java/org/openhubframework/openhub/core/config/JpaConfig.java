@@ -17,12 +17,16 @@
 package org.openhubframework.openhub.core.config;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
 import org.openhubframework.openhub.common.AutoConfiguration;
 import org.openhubframework.openhub.core.config.datasource.OpenHubDatabaseConfiguration;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +41,7 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 
 import org.openhubframework.openhub.api.configuration.DbConfigurationParam;
 import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.SuperEntity;
 import org.openhubframework.openhub.core.common.dao.DbConst;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.ClassUtils;
@@ -74,9 +79,30 @@ public class JpaConfig {
                         DbConfigurationParam.class)
                 )
                 .persistenceUnit(DbConst.UNIT_NAME)
+                .properties(getHibernateProperties())
                 .build();
     }
 
+    /**
+     * Gets Hibernate properties for identifiers allocation and JDBC batching.
+     * <p>
+     * Identifiers from {@code openhub_sequence} are allocated by pooled-lo optimizer
+     * (see {@link SuperEntity#OPENHUB_SEQUENCE_ALLOCATION_SIZE}), so new entities don't need database round-trip
+     * for each identifier and inserts can be sent in JDBC batches.
+     */
+    private Map<String, Object> getHibernateProperties() {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER,
+                StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+
+        if (jpaConfigurationProperties.getBatchSize() > 0) {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, jpaConfigurationProperties.getBatchSize());
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+        }
+        return properties;
+    }
+
     /**
      * Primary transactionManager implementation, instance of JpaTransactionManager.
      * Can be enabled or disabled by property. By default, it is disabled.
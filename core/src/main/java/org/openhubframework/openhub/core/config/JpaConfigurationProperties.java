@@ -31,6 +31,11 @@ public class JpaConfigurationProperties {
      */
     private List<String> additionalPackages = new ArrayList<>();
 
+    /**
+     * Count of statements sent to the database in one JDBC batch, zero or negative value disables batching.
+     */
+    private int batchSize = 50;
+
     public List<String> getAdditionalPackages() {
         return additionalPackages;
     }
@@ -39,9 +44,18 @@ public class JpaConfigurationProperties {
         this.additionalPackages = additionalPackages;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     @Override public String toString() {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
                 .append("additionalPackages", additionalPackages)
+                .append("batchSize", batchSize)
                 .toString()
                 ;
     }
@@ -16,17 +16,21 @@
 
 package org.openhubframework.openhub.core.configuration;
 
+import static org.openhubframework.openhub.common.OpenHubPropertyConstants.PREFIX;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.Environment;
 
 import org.openhubframework.openhub.api.configuration.ConfigurableValue;
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
+import org.openhubframework.openhub.api.configuration.DbConfigurationParamService;
 import org.openhubframework.openhub.common.AutoConfiguration;
-import org.openhubframework.openhub.core.config.CacheNames;
 
 
 /**
@@ -45,6 +49,13 @@ import org.openhubframework.openhub.core.config.CacheNames;
 @AutoConfiguration
 public class AutoConfigurationItemProperties {
 
+    /**
+     * How often to check changes of configuration parameters in the database (in seconds), 0 for no checking.
+     */
+    public static final String CONFIGURATION_REFRESH_INTERVAL_SEC = PREFIX + "configuration.refreshIntervalSec";
+
+    static final long DEFAULT_REFRESH_INTERVAL_SEC = 30;
+
     /**
      * Create {@link BeanPostProcessor} that catch fields with {@link ConfigurableValue} and process them with value.
      *
@@ -57,26 +68,21 @@ public class AutoConfigurationItemProperties {
 
     /**
      * Creates default {@link ConfigurationService} implementation that use {@link Environment} to operate
-     * with configuration parameters.
+     * with configuration parameters, values are cached in the snapshot which is refreshed when parameters
+     * in the database are changed.
      *
      * @param environment that represents
+     * @param paramService the service for checking changes of configuration parameters in the database
      * @return default {@link ConfigurationService} implementation as proxy of {@link Environment}
+     * @see CachedConfigurationService
      */
     @Bean
     @ConditionalOnMissingBean
-    public ConfigurationService configurationService(final Environment environment) {
-        return new ConfigurationService() {
-
-            @Override
-            @Cacheable(CacheNames.CONFIG_PARAMS)
-            public <T> T getValue(Class<T> clazz, String key) {
-                return environment.getProperty(key, clazz);
-            }
+    public ConfigurationService configurationService(final Environment environment,
+            ObjectProvider<DbConfigurationParamService> paramService) {
+        Duration refreshPeriod = Duration.ofSeconds(environment.getProperty(CONFIGURATION_REFRESH_INTERVAL_SEC,
+                Long.class, DEFAULT_REFRESH_INTERVAL_SEC));
 
-            @Override
-            public <T> void setValue(Class<T> clazz, String key, Object newValue) {
-                throw new UnsupportedOperationException("Not supported yet.");
-            }
-        };
+        return new CachedConfigurationService(environment, paramService.getIfAvailable(), refreshPeriod);
     }
 }
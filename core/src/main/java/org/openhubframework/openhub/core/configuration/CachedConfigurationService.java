@@ -0,0 +1,311 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.configuration;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.configuration.DbConfigurationParam;
+import org.openhubframework.openhub.api.configuration.DbConfigurationParamService;
+
+
+/**
+ * Implementation of {@link ConfigurationService} that holds already converted values of configuration items
+ * in immutable snapshot - getting value of configuration item is one volatile read without any conversion
+ * or database access.
+ * <p>
+ * Value is read from {@link Environment} when it's requested for the first time, then it's kept in the snapshot.
+ * Whole snapshot is reloaded from {@link Environment} and atomically replaced when:
+ * <ul>
+ *     <li>application context is refreshed (external DB configuration is available)
+ *     <li>configuration parameter is changed on this node (see {@link DbConfigurationParamChangedEvent})
+ *     <li>configuration parameters in the database were changed by another node - parameters are polled
+ *          periodically and compared with the last known state
+ * </ul>
+ * Value is {@link #setValue(Class, String, Object) changed} in the database by {@link DbConfigurationParamService}.
+ * Version of configuration is increased and {@link #addChangeListener(Runnable) listeners} are notified
+ * when any value in the snapshot is changed.
+ *
+ * @since 2.4
+ */
+public class CachedConfigurationService implements ConfigurationService, ApplicationListener<ContextRefreshedEvent>,
+        Ordered, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachedConfigurationService.class);
+
+    /**
+     * Placeholder for values which are not defined, they are cached as well.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private final Environment environment;
+
+    @Nullable
+    private final DbConfigurationParamService paramService;
+
+    @Nullable
+    private final ScheduledExecutorService executor;
+
+    private final AtomicReference<Map<ValueKey, Object>> snapshot = new AtomicReference<>(Collections.emptyMap());
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Last known values of configuration parameters in the database.
+     */
+    private volatile Map<String, String> dbParams;
+
+    /**
+     * Creates new configuration service.
+     *
+     * @param environment the environment with configuration parameters
+     * @param paramService the service for checking changes of configuration parameters in the database,
+     *                     {@code null} if database configuration is not available
+     * @param refreshPeriod the period of checking changes in the database, zero for no checking
+     */
+    public CachedConfigurationService(Environment environment, @Nullable DbConfigurationParamService paramService,
+            Duration refreshPeriod) {
+        Assert.notNull(environment, "environment must not be null");
+        Assert.notNull(refreshPeriod, "refreshPeriod must not be null");
+
+        this.environment = environment;
+        this.paramService = paramService;
+
+        if (paramService != null && refreshPeriod.toMillis() > 0) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("OpenHub-configurationRefresh-"));
+            this.executor.scheduleWithFixedDelay(this::checkDbParamsSafely,
+                    refreshPeriod.toMillis(), refreshPeriod.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public <T> T getValue(Class<T> clazz, String key) {
+        ValueKey valueKey = new ValueKey(clazz, key);
+
+        Map<ValueKey, Object> values = snapshot.get();
+        Object value = values.get(valueKey);
+        while (value == null) {
+            // first request for this value => add it to the snapshot (copy-on-write)
+            Object loadedValue = loadValue(valueKey);
+
+            Map<ValueKey, Object> newValues = new HashMap<>(values);
+            newValues.put(valueKey, loadedValue);
+            if (snapshot.compareAndSet(values, Collections.unmodifiableMap(newValues))) {
+                value = loadedValue;
+            } else {
+                // snapshot was replaced (e.g. refreshed) in the meantime, loaded value can be stale
+                values = snapshot.get();
+                value = values.get(valueKey);
+            }
+        }
+
+        return value == NULL_VALUE ? null : clazz.cast(value);
+    }
+
+    /**
+     * Sets new current value of configuration parameter in the database,
+     * the snapshot is refreshed after commit of the change.
+     *
+     * @throws UnsupportedOperationException if database configuration is not available
+     * @throws org.openhubframework.openhub.api.exception.validation.ConfigurationException if there is no such parameter
+     *      in the database or the value can't be converted to data type of the parameter
+     */
+    @Override
+    public <T> void setValue(Class<T> clazz, String key, Object newValue) {
+        Assert.hasText(key, "key must not be empty");
+
+        if (paramService == null) {
+            throw new UnsupportedOperationException("Configuration parameters can't be changed without database "
+                    + "configuration.");
+        }
+
+        DbConfigurationParam param = paramService.getParameter(key);
+        param.setCurrentValueAsObject(newValue);
+        paramService.update(param);
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void addChangeListener(Runnable listener) {
+        Assert.notNull(listener, "listener must not be null");
+
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Reloads all values of configuration items and replaces the snapshot.
+     */
+    public void refresh() {
+        Map<ValueKey, Object> values;
+        Map<ValueKey, Object> newValues;
+        do {
+            values = snapshot.get();
+
+            newValues = new HashMap<>(values.size());
+            for (ValueKey valueKey : values.keySet()) {
+                newValues.put(valueKey, loadValue(valueKey));
+            }
+        } while (!snapshot.compareAndSet(values, Collections.unmodifiableMap(newValues)));
+
+        LOG.debug("Configuration snapshot was refreshed ({} items).", newValues.size());
+
+        if (!newValues.equals(values)) {
+            // note: version must be increased after the snapshot is replaced
+            version.incrementAndGet();
+
+            for (Runnable listener : changeListeners) {
+                try {
+                    listener.run();
+                } catch (Exception ex) {
+                    LOG.error("Listener of configuration changes ended with exception.", ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // external DB configuration must be already registered
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        dbParams = findDbParams();
+        refresh();
+    }
+
+    /**
+     * Refreshes the snapshot when configuration parameter was changed on this node (after commit).
+     *
+     * @param event the event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParamChanged(DbConfigurationParamChangedEvent event) {
+        LOG.debug("Configuration parameter '{}' was changed.", event.getCode());
+
+        // note: change is detected by polling as well, the snapshot is refreshed once again then
+        refresh();
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private Object loadValue(ValueKey valueKey) {
+        Object value = environment.getProperty(valueKey.key, valueKey.clazz);
+        return value != null ? value : NULL_VALUE;
+    }
+
+    private void checkDbParamsSafely() {
+        try {
+            Map<String, String> actualParams = findDbParams();
+            if (!Objects.equals(actualParams, dbParams)) {
+                LOG.debug("Configuration parameters in the database were changed.");
+
+                dbParams = actualParams;
+                refresh();
+            }
+        } catch (Exception ex) {
+            LOG.error("Error occurred while checking changes of configuration parameters", ex);
+        }
+    }
+
+    @Nullable
+    private Map<String, String> findDbParams() {
+        if (paramService == null) {
+            return null;
+        }
+
+        Map<String, String> params = new HashMap<>();
+        for (DbConfigurationParam param : paramService.findAllParameters()) {
+            params.put(param.getCode(), param.getValue());
+        }
+        return params;
+    }
+
+    /**
+     * Key of the value in the snapshot - one configuration item can be requested with different types.
+     */
+    private static final class ValueKey {
+
+        private final Class<?> clazz;
+
+        private final String key;
+
+        private ValueKey(Class<?> clazz, String key) {
+            Assert.notNull(clazz, "clazz must not be null");
+            Assert.notNull(key, "key must not be null");
+
+            this.clazz = clazz;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ValueKey)) {
+                return false;
+            }
+
+            ValueKey other = (ValueKey) obj;
+            return key.equals(other.key) && clazz.equals(other.clazz);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + clazz.hashCode();
+        }
+    }
+}
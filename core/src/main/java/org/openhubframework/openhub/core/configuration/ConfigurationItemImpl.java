@@ -17,6 +17,14 @@
 package org.openhubframework.openhub.core.configuration;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 import org.openhubframework.openhub.api.exception.validation.ConfigurationException;
@@ -24,6 +32,10 @@ import org.openhubframework.openhub.api.exception.validation.ConfigurationExcept
 
 /**
  * Default implementation of {@link ConfigurationItem}.
+ * <p>
+ * Value is memoized while {@link ConfigurationService#getVersion() version of configuration} is the same,
+ * {@link #onChange(Consumer) listeners} are invoked when configuration is changed and value of this item
+ * is different.
  *
  * @param <T> represents type of a configuration item (allowed types are determined by configuration service)
  * @author Tomas Hanus
@@ -31,10 +43,26 @@ import org.openhubframework.openhub.api.exception.validation.ConfigurationExcept
  */
 public class ConfigurationItemImpl<T extends Serializable> implements ConfigurationItem<T> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigurationItemImpl.class);
+
     private final ConfigurationService configurationService;
     private final Class<T> clazz;
     private final String key;
 
+    private final List<Consumer<T>> changeListeners = new ArrayList<>();
+
+    /**
+     * Memoized value with version of configuration.
+     */
+    @Nullable
+    private volatile VersionedValue<T> memoizedValue;
+
+    /**
+     * Value which listeners were notified about.
+     */
+    @Nullable
+    private T lastNotifiedValue;
+
     /**
      * Default all-args constructor to create {@link ConfigurationItem wrapper}.
      *
@@ -52,7 +80,7 @@ public class ConfigurationItemImpl<T extends Serializable> implements Configurat
 
     @Override
     public T getValue() throws ConfigurationException {
-        T value = configurationService.getValue(clazz, key);
+        T value = findValue();
         if (value == null) {
             throw new ConfigurationException(String.format("Required configuration item with key [%s] not found.", key), key);
         }
@@ -62,7 +90,7 @@ public class ConfigurationItemImpl<T extends Serializable> implements Configurat
 
     @Override
     public T getValue(T defaultValue) {
-        T value = configurationService.getValue(clazz, key);
+        T value = findValue();
         if (value == null) {
             value = defaultValue;
         }
@@ -75,9 +103,68 @@ public class ConfigurationItemImpl<T extends Serializable> implements Configurat
         configurationService.setValue(clazz, this.key, newValue);
     }
 
+    @Override
+    public void onChange(Consumer<T> listener) {
+        synchronized (changeListeners) {
+            if (changeListeners.isEmpty()) {
+                lastNotifiedValue = configurationService.getValue(clazz, key);
+                configurationService.addChangeListener(this::checkChange);
+            }
+
+            changeListeners.add(listener);
+        }
+    }
+
+    @Nullable
+    private T findValue() {
+        long version = configurationService.getVersion();
+        if (version < 0) {
+            // changes are not tracked => nothing to memoize
+            return configurationService.getValue(clazz, key);
+        }
+
+        VersionedValue<T> memoized = memoizedValue;
+        if (memoized == null || memoized.version != version) {
+            // note: version is got before value, value can be newer than version but not older
+            memoized = new VersionedValue<>(version, configurationService.getValue(clazz, key));
+            memoizedValue = memoized;
+        }
+
+        return memoized.value;
+    }
+
+    private void checkChange() {
+        synchronized (changeListeners) {
+            T value = configurationService.getValue(clazz, key);
+            if (Objects.equals(value, lastNotifiedValue)) {
+                return;
+            }
+
+            LOG.debug("Value of configuration item '{}' was changed to '{}'.", key, value);
+
+            lastNotifiedValue = value;
+            for (Consumer<T> listener : changeListeners) {
+                listener.accept(value);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         // value cannot be null because of internal behaviour of getValue() method
         return getValue().toString();
     }
+
+    private static final class VersionedValue<T> {
+
+        private final long version;
+
+        @Nullable
+        private final T value;
+
+        private VersionedValue(long version, @Nullable T value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
 }
@@ -47,4 +47,29 @@ public interface ConfigurationService {
      * @param newValue to be saved
      */
     <T> void setValue(Class<T> clazz, String key, Object newValue);
+
+    /**
+     * Gets version of configuration values, version is increased whenever any value is changed.
+     * Values of configuration items can be memoized while version is the same.
+     *
+     * @return version of configuration values, negative value if changes are not tracked (values mustn't be
+     *      memoized then)
+     * @since 2.4
+     */
+    default long getVersion() {
+        return -1;
+    }
+
+    /**
+     * Adds listener which is invoked whenever any configuration value is changed.
+     * <p>
+     * Default implementation does nothing, it's for services which don't track changes - listener is never invoked
+     * and listeners of configuration items aren't notified either.
+     *
+     * @param listener the listener
+     * @since 2.4
+     */
+    default void addChangeListener(Runnable listener) {
+        // changes are not tracked => nothing to notify
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.configuration;
+
+import org.springframework.context.ApplicationEvent;
+
+import org.openhubframework.openhub.api.configuration.DbConfigurationParam;
+
+
+/**
+ * Event published when {@link DbConfigurationParam configuration parameter} was changed.
+ *
+ * @since 2.4
+ */
+public class DbConfigurationParamChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 4378154102265318754L;
+
+    private final String code;
+
+    /**
+     * Creates new event.
+     *
+     * @param source the object on which the event initially occurred
+     * @param code the code of changed parameter
+     */
+    public DbConfigurationParamChangedEvent(Object source, String code) {
+        super(source);
+
+        this.code = code;
+    }
+
+    /**
+     * Gets code of changed parameter.
+     *
+     * @return code
+     */
+    public String getCode() {
+        return code;
+    }
+}
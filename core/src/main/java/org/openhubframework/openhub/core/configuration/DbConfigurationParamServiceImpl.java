@@ -22,6 +22,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -51,6 +52,9 @@ public class DbConfigurationParamServiceImpl implements DbConfigurationParamServ
     @Autowired
     private ConversionService conversionService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public void update(DbConfigurationParam parameter) {
         Constraints.notNull(parameter, "the parameter must not be null");
@@ -60,6 +64,8 @@ public class DbConfigurationParamServiceImpl implements DbConfigurationParamServ
 
         paramDao.update(parameter);
 
+        eventPublisher.publishEvent(new DbConfigurationParamChangedEvent(this, parameter.getCode()));
+
         LOG.debug("Parameter (code = {}) changed: {}", parameter.getCode(), parameter);
     }
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.funnel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
+import org.openhubframework.openhub.spi.msg.MessageService;
+
+
+/**
+ * Base {@link FunnelRegistry} implementation, funnel is stored as {@link FunnelEntries} under the key
+ * composed from funnel component ID and funnel value.
+ * <p>
+ * Funnel which is not known yet (or which was loaded before {@link #setReconcileInterval(Duration) reconcile
+ * interval}) is loaded from the database, other decisions are made in memory only.
+ *
+ * @see FunnelEntries
+ * @since 2.4
+ */
+public abstract class AbstractFunnelRegistry implements FunnelRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractFunnelRegistry.class);
+
+    /**
+     * Default interval of reconciliation of funnel with the database.
+     */
+    public static final Duration DEFAULT_RECONCILE_INTERVAL = Duration.ofMinutes(1);
+
+    @Autowired
+    private MessageService messageService;
+
+    private long reconcileIntervalMillis = DEFAULT_RECONCILE_INTERVAL.toMillis();
+
+    @Override
+    public boolean tryEnter(Message msg, String funnelCompId, Duration idleInterval, boolean guaranteedOrder,
+            boolean excludeFailedState) {
+        Assert.notNull(msg, "msg must not be null");
+        Assert.hasText(msg.getFunnelValue(), "funnelValue must not be empty");
+        Assert.hasText(funnelCompId, "funnelCompId must not be empty");
+        Assert.notNull(idleInterval, "idleInterval must not be null");
+
+        final String key = getKey(funnelCompId, msg.getFunnelValue());
+        final FunnelMessage funnelMsg = FunnelMessage.of(msg);
+        final long now = now();
+        final long startTime = now - idleInterval.toMillis();
+
+        Boolean result = tryEnter(key, funnelMsg, startTime, guaranteedOrder, excludeFailedState,
+                now - reconcileIntervalMillis);
+
+        if (result == null) {
+            LOG.debug("Funnel '{}' isn't known or it's reconciled too long ago => loading messages from database",
+                    key);
+
+            // all unfinished messages of the funnel are loaded, so it can be used for both funnel variants
+            List<FunnelMessage> messages = messageService.getMessagesForGuaranteedOrderForFunnel(
+                    msg.getFunnelValue(), idleInterval, false, funnelCompId).stream()
+                    .map(FunnelMessage::of)
+                    .collect(Collectors.toList());
+
+            result = reconcileAndTryEnter(key, new FunnelEntries(messages, now), funnelMsg, startTime,
+                    guaranteedOrder, excludeFailedState);
+        }
+
+        return result;
+    }
+
+    @Override
+    public void update(Message msg) {
+        Assert.notNull(msg, "msg must not be null");
+
+        if (msg.getMsgId() == null || StringUtils.isEmpty(msg.getFunnelValue())
+                || StringUtils.isEmpty(msg.getFunnelComponentId())) {
+            return;
+        }
+
+        update(getKey(msg.getFunnelComponentId(), msg.getFunnelValue()), FunnelMessage.of(msg));
+    }
+
+    /**
+     * Registers the message in the funnel and decides whether the message can go through the funnel.
+     *
+     * @param key the funnel key
+     * @param msg the entering message
+     * @param startTime the start time, older messages are not taken into account
+     * @param guaranteedOrder {@code true} if the funnel guarantees order of messages
+     * @param excludeFailedState {@code true} if FAILED messages are not taken into account for guaranteed order
+     * @param reconcileBefore funnel loaded before this time must be reconciled
+     * @return {@code true} if message can continue, {@code false} if message should be postponed,
+     *      {@code null} if funnel isn't known or it must be reconciled
+     * @see FunnelEntries#tryEnter(FunnelMessage, long, boolean, boolean)
+     */
+    protected abstract Boolean tryEnter(String key, FunnelMessage msg, long startTime, boolean guaranteedOrder,
+            boolean excludeFailedState, long reconcileBefore);
+
+    /**
+     * Replaces the funnel with entries loaded from the database, then registers the message in the funnel
+     * and decides whether the message can go through the funnel.
+     *
+     * @param key the funnel key
+     * @param entries the entries loaded from the database
+     * @param msg the entering message
+     * @param startTime the start time, older messages are not taken into account
+     * @param guaranteedOrder {@code true} if the funnel guarantees order of messages
+     * @param excludeFailedState {@code true} if FAILED messages are not taken into account for guaranteed order
+     * @return {@code true} if message can continue, {@code false} if message should be postponed
+     */
+    protected abstract boolean reconcileAndTryEnter(String key, FunnelEntries entries, FunnelMessage msg,
+            long startTime, boolean guaranteedOrder, boolean excludeFailedState);
+
+    /**
+     * Updates state of the message in known funnel, empty funnel is removed.
+     *
+     * @param key the funnel key
+     * @param msg the message with actual state
+     * @see FunnelEntries#update(FunnelMessage)
+     */
+    protected abstract void update(String key, FunnelMessage msg);
+
+    /**
+     * Sets interval of reconciliation of funnel with the database.
+     *
+     * @param reconcileInterval the interval
+     */
+    public void setReconcileInterval(Duration reconcileInterval) {
+        Assert.notNull(reconcileInterval, "the reconcileInterval must not be null");
+        Assert.isTrue(!reconcileInterval.isNegative(), "the reconcileInterval must not be negative");
+
+        this.reconcileIntervalMillis = reconcileInterval.toMillis();
+    }
+
+    /**
+     * Gets actual timestamp.
+     *
+     * @return timestamp in millis.
+     */
+    protected long now() {
+        return Instant.now().toEpochMilli();
+    }
+
+    private static String getKey(String funnelCompId, String funnelValue) {
+        return funnelCompId + ":" + funnelValue;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.funnel;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+
+
+/**
+ * Unfinished messages of one funnel (funnel component ID and funnel value), ordered by message timestamp.
+ * <p>
+ * Entries are not thread-safe, callers are responsible for exclusive access (map entry processing).
+ *
+ * @since 2.4
+ */
+public final class FunnelEntries implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * States of running messages, only these messages block the funnel without guaranteed order.
+     */
+    private static final Set<MsgStateEnum> PROCESSING_STATES = Collections.unmodifiableSet(EnumSet.of(
+            MsgStateEnum.PROCESSING, MsgStateEnum.IN_QUEUE, MsgStateEnum.NEW, MsgStateEnum.WAITING,
+            MsgStateEnum.WAITING_FOR_RES));
+
+    /**
+     * States of messages which are in guaranteed order with the exception of {@link MsgStateEnum#FAILED}.
+     */
+    private static final Set<MsgStateEnum> GUARANTEED_ORDER_STATES_WITHOUT_FAILED = Collections.unmodifiableSet(
+            EnumSet.of(MsgStateEnum.PROCESSING, MsgStateEnum.IN_QUEUE, MsgStateEnum.NEW, MsgStateEnum.WAITING,
+                    MsgStateEnum.PARTLY_FAILED, MsgStateEnum.POSTPONED, MsgStateEnum.WAITING_FOR_RES));
+
+    private final TreeSet<FunnelMessage> messages;
+
+    /**
+     * Time of loading entries from the database in millis.
+     */
+    private final long reconcileTimestamp;
+
+    /**
+     * Creates new entries.
+     *
+     * @param messages the unfinished messages of the funnel
+     * @param reconcileTimestamp the time of loading messages from the database
+     */
+    public FunnelEntries(Collection<FunnelMessage> messages, long reconcileTimestamp) {
+        Assert.notNull(messages, "messages must not be null");
+
+        this.messages = new TreeSet<>(messages);
+        this.reconcileTimestamp = reconcileTimestamp;
+    }
+
+    /**
+     * Registers the message in the funnel and decides whether the message can go through the funnel.
+     * Messages which started processing before specified start time are removed from the funnel.
+     *
+     * @param msg the entering message
+     * @param startTime the start time, older messages are not taken into account
+     * @param guaranteedOrder {@code true} if the oldest message goes first,
+     *                        {@code false} if only one message can be processing
+     * @param excludeFailedState {@code true} if FAILED messages are not taken into account for guaranteed order
+     * @return {@code true} if message can continue, {@code false} if message should be postponed
+     */
+    public boolean tryEnter(FunnelMessage msg, long startTime, boolean guaranteedOrder, boolean excludeFailedState) {
+        Assert.notNull(msg, "msg must not be null");
+
+        messages.removeIf(m -> m.getMsgId() == msg.getMsgId() || m.getStartProcessTimestamp() < startTime);
+        messages.add(msg);
+
+        if (guaranteedOrder) {
+            // is specified message first one for processing?
+            for (FunnelMessage m : messages) {
+                if (GUARANTEED_ORDER_STATES_WITHOUT_FAILED.contains(m.getState())
+                        || (!excludeFailedState && m.getState() == MsgStateEnum.FAILED)) {
+                    return m.getMsgId() == msg.getMsgId();
+                }
+            }
+            return true;
+        } else {
+            // note: one processing message is this message
+            return messages.stream()
+                    .filter(m -> PROCESSING_STATES.contains(m.getState()))
+                    .count() <= 1;
+        }
+    }
+
+    /**
+     * Updates state of the message, finished messages are removed.
+     *
+     * @param msg the message with actual state
+     */
+    public void update(FunnelMessage msg) {
+        Assert.notNull(msg, "msg must not be null");
+
+        messages.removeIf(m -> m.getMsgId() == msg.getMsgId());
+        if (GUARANTEED_ORDER_STATES_WITHOUT_FAILED.contains(msg.getState())
+                || msg.getState() == MsgStateEnum.FAILED) {
+            messages.add(msg);
+        }
+    }
+
+    /**
+     * Returns {@code true} if entries were loaded from the database before specified time.
+     *
+     * @param timestamp the time in millis
+     * @return {@code true} if entries should be reconciled
+     */
+    public boolean isReconciledBefore(long timestamp) {
+        return reconcileTimestamp < timestamp;
+    }
+
+    public boolean isEmpty() {
+        return messages.isEmpty();
+    }
+
+    /**
+     * Gets messages of the funnel ordered by message timestamp.
+     *
+     * @return copy of messages
+     */
+    public List<FunnelMessage> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("messages", messages)
+                .append("reconcileTimestamp", reconcileTimestamp)
+                .toString();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.funnel;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+
+
+/**
+ * Snapshot of message in {@link FunnelEntries funnel} - message ID, state and timestamps only.
+ * <p>
+ * Messages are ordered by {@link Message#getMsgTimestamp() message timestamp} and message ID.
+ *
+ * @since 2.4
+ */
+public final class FunnelMessage implements Serializable, Comparable<FunnelMessage> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long msgId;
+
+    private final long msgTimestamp;
+
+    private final MsgStateEnum state;
+
+    /**
+     * Start of processing in millis, {@link Long#MIN_VALUE} if message wasn't processed yet.
+     */
+    private final long startProcessTimestamp;
+
+    public FunnelMessage(long msgId, long msgTimestamp, MsgStateEnum state, long startProcessTimestamp) {
+        Assert.notNull(state, "state must not be null");
+
+        this.msgId = msgId;
+        this.msgTimestamp = msgTimestamp;
+        this.state = state;
+        this.startProcessTimestamp = startProcessTimestamp;
+    }
+
+    /**
+     * Creates snapshot of the message.
+     *
+     * @param msg the persisted message
+     * @return snapshot
+     */
+    public static FunnelMessage of(Message msg) {
+        Assert.notNull(msg, "msg must not be null");
+        Assert.notNull(msg.getMsgId(), "msg must be persisted");
+
+        return new FunnelMessage(msg.getMsgId(),
+                msg.getMsgTimestamp() != null ? msg.getMsgTimestamp().toEpochMilli() : 0,
+                msg.getState(),
+                msg.getStartProcessTimestamp() != null ? msg.getStartProcessTimestamp().toEpochMilli()
+                        : Long.MIN_VALUE);
+    }
+
+    public long getMsgId() {
+        return msgId;
+    }
+
+    public long getMsgTimestamp() {
+        return msgTimestamp;
+    }
+
+    public MsgStateEnum getState() {
+        return state;
+    }
+
+    public long getStartProcessTimestamp() {
+        return startProcessTimestamp;
+    }
+
+    @Override
+    public int compareTo(FunnelMessage other) {
+        int result = Long.compare(msgTimestamp, other.msgTimestamp);
+        return result != 0 ? result : Long.compare(msgId, other.msgId);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FunnelMessage)) {
+            return false;
+        }
+        FunnelMessage other = (FunnelMessage) obj;
+        return msgId == other.msgId && msgTimestamp == other.msgTimestamp;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(msgId);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("msgId", msgId)
+                .append("msgTimestamp", msgTimestamp)
+                .append("state", state)
+                .append("startProcessTimestamp", startProcessTimestamp)
+                .toString();
+    }
+}
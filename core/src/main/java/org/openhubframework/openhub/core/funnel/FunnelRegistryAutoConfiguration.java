@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.funnel;
+
+import static org.openhubframework.openhub.common.OpenHubPropertyConstants.PREFIX;
+
+import java.time.Duration;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.hazelcast.HazelcastAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import org.openhubframework.openhub.common.AutoConfiguration;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
+
+
+/**
+ * Funnel registry AutoConfiguration.
+ *
+ * Can be enabled or disabled altogether via property {@value FunnelRegistryAutoConfiguration#FUNNEL_REGISTRY_ENABLED},
+ * msg-funnel component queries the database for each message if registry is disabled.
+ *
+ * If enabled it does setup implementation of FunnelRegistry interface.
+ * Either in-memory (default), or Hazelcast-based, based on configuration properties.
+ *
+ * @since 2.4
+ */
+@AutoConfiguration
+@AutoConfigureAfter({
+        HazelcastAutoConfiguration.class
+})
+@ConditionalOnProperty(
+        name = FunnelRegistryAutoConfiguration.FUNNEL_REGISTRY_ENABLED,
+        havingValue = "true")
+public class FunnelRegistryAutoConfiguration {
+
+    /**
+     * Enable or disable funnel registry at all.
+     */
+    public static final String FUNNEL_REGISTRY_ENABLED = PREFIX + "funnel.registry.enabled";
+
+    /**
+     * Implementation of FunnelRegistry to wire.
+     */
+    public static final String FUNNEL_REGISTRY_IMPL = PREFIX + "funnel.registry.impl";
+
+    /**
+     * Interval of reconciliation of funnel with the database (e.g. 1m, 30s).
+     */
+    public static final String FUNNEL_REGISTRY_RECONCILE_INTERVAL = PREFIX + "funnel.registry.reconcileInterval";
+
+    /**
+     * Fully qualified name of in-memory implementation.
+     */
+    private static final String IN_MEMORY_CLASS_NAME
+            = "org.openhubframework.openhub.core.funnel.FunnelRegistryInMemoryImpl";
+
+    /**
+     * Fully qualified name of Hazelcast based implementation.
+     */
+    private static final String HAZELCAST_CLASS_NAME
+            = "org.openhubframework.openhub.core.funnel.FunnelRegistryHazelcastImpl";
+
+    /**
+     * Hazelcast based implementation.
+     */
+    @ConditionalOnProperty(name = FUNNEL_REGISTRY_IMPL,
+            havingValue = HAZELCAST_CLASS_NAME)
+    @ConditionalOnBean(HazelcastInstance.class)
+    @Bean
+    public FunnelRegistry funnelRegistryHazelcastImpl(Environment env) {
+        FunnelRegistryHazelcastImpl funnelRegistry = new FunnelRegistryHazelcastImpl();
+        funnelRegistry.setReconcileInterval(getReconcileInterval(env));
+        return funnelRegistry;
+    }
+
+    /**
+     * Default implementation is in-memory.
+     */
+    @ConditionalOnMissingBean(FunnelRegistry.class)
+    @ConditionalOnProperty(name = FUNNEL_REGISTRY_IMPL,
+            havingValue = IN_MEMORY_CLASS_NAME,
+            matchIfMissing = true)
+    @Bean
+    public FunnelRegistry funnelRegistryInMemoryImpl(Environment env) {
+        FunnelRegistryInMemoryImpl funnelRegistry = new FunnelRegistryInMemoryImpl();
+        funnelRegistry.setReconcileInterval(getReconcileInterval(env));
+        return funnelRegistry;
+    }
+
+    /**
+     * Updates funnel registry by asynchronous message events.
+     */
+    @ConditionalOnBean(FunnelRegistry.class)
+    @Bean
+    public FunnelRegistryEventNotifier funnelRegistryEventNotifier(FunnelRegistry funnelRegistry) {
+        return new FunnelRegistryEventNotifier(funnelRegistry);
+    }
+
+    private static Duration getReconcileInterval(Environment env) {
+        return env.getProperty(FUNNEL_REGISTRY_RECONCILE_INTERVAL, Duration.class,
+                AbstractFunnelRegistry.DEFAULT_RECONCILE_INTERVAL);
+    }
+}
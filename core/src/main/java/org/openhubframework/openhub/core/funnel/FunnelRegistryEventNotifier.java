@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.funnel;
+
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.event.AbstractAsynchEvent;
+import org.openhubframework.openhub.api.event.EventNotifierBase;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
+
+
+/**
+ * Listens to all asynchronous message events (state transitions of the message)
+ * and updates state of the message in {@link FunnelRegistry}.
+ *
+ * @see FunnelRegistry#update(org.openhubframework.openhub.api.entity.Message)
+ * @since 2.4
+ */
+public class FunnelRegistryEventNotifier extends EventNotifierBase<AbstractAsynchEvent> {
+
+    private final FunnelRegistry funnelRegistry;
+
+    public FunnelRegistryEventNotifier(FunnelRegistry funnelRegistry) {
+        Assert.notNull(funnelRegistry, "the funnelRegistry must not be null");
+
+        this.funnelRegistry = funnelRegistry;
+    }
+
+    @Override
+    protected void doNotify(AbstractAsynchEvent event) {
+        funnelRegistry.update(event.getMessage());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.funnel;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.EntryProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.core.config.CacheNames;
+import org.openhubframework.openhub.core.funnel.hazelcast.ReconcileEntryProcessor;
+import org.openhubframework.openhub.core.funnel.hazelcast.TryEnterEntryProcessor;
+import org.openhubframework.openhub.core.funnel.hazelcast.UpdateEntryProcessor;
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
+
+
+/**
+ * Implementation of {@link FunnelRegistry}, that uses Hazelcast distributed map {@link CacheNames#FUNNELS}.
+ * It is supposed to be used for cluster.
+ * <p>
+ * Funnel entries are updated by {@link IMap#executeOnKey(Object, EntryProcessor)}, so registration of the message
+ * and decision about the message is one call to the map.
+ *
+ * @see FunnelRegistry
+ * @since 2.4
+ */
+public class FunnelRegistryHazelcastImpl extends AbstractFunnelRegistry {
+
+    /**
+     * Hazelcast instance that should be already configured.
+     */
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    private IMap<String, FunnelEntries> getMap() {
+        final IMap<String, FunnelEntries> ret = hazelcastInstance.getMap(CacheNames.FUNNELS);
+        Assert.notNull(ret, "the map was not found in hazelcast");
+        return ret;
+    }
+
+    @Override
+    protected Boolean tryEnter(String key, FunnelMessage msg, long startTime, boolean guaranteedOrder,
+            boolean excludeFailedState, long reconcileBefore) {
+        return (Boolean) getMap().executeOnKey(key,
+                new TryEnterEntryProcessor(msg, startTime, guaranteedOrder, excludeFailedState, reconcileBefore));
+    }
+
+    @Override
+    protected boolean reconcileAndTryEnter(String key, FunnelEntries entries, FunnelMessage msg, long startTime,
+            boolean guaranteedOrder, boolean excludeFailedState) {
+        return (Boolean) getMap().executeOnKey(key,
+                new ReconcileEntryProcessor(entries, msg, startTime, guaranteedOrder, excludeFailedState));
+    }
+
+    @Override
+    protected void update(String key, FunnelMessage msg) {
+        getMap().executeOnKey(key, new UpdateEntryProcessor(msg));
+    }
+}
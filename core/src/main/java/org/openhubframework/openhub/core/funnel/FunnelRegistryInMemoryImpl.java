@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.funnel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openhubframework.openhub.spi.funnel.FunnelRegistry;
+
+
+/**
+ * Implementation of {@link FunnelRegistry}, that uses in-memory storage.
+ * It is supposed to be used for standalone server only.
+ * <p>
+ * Funnel entries are updated atomically by {@link Map#compute(Object, java.util.function.BiFunction)}.
+ *
+ * @see FunnelRegistry
+ * @since 2.4
+ */
+public class FunnelRegistryInMemoryImpl extends AbstractFunnelRegistry {
+
+    private final Map<String, FunnelEntries> funnels = new ConcurrentHashMap<>();
+
+    @Override
+    protected Boolean tryEnter(String key, FunnelMessage msg, long startTime, boolean guaranteedOrder,
+            boolean excludeFailedState, long reconcileBefore) {
+        final AtomicReference<Boolean> result = new AtomicReference<>();
+
+        funnels.computeIfPresent(key, (k, entries) -> {
+            if (!entries.isReconciledBefore(reconcileBefore)) {
+                result.set(entries.tryEnter(msg, startTime, guaranteedOrder, excludeFailedState));
+            }
+            return entries;
+        });
+
+        return result.get();
+    }
+
+    @Override
+    protected boolean reconcileAndTryEnter(String key, FunnelEntries entries, FunnelMessage msg, long startTime,
+            boolean guaranteedOrder, boolean excludeFailedState) {
+        final AtomicReference<Boolean> result = new AtomicReference<>();
+
+        funnels.compute(key, (k, oldEntries) -> {
+            result.set(entries.tryEnter(msg, startTime, guaranteedOrder, excludeFailedState));
+            return entries;
+        });
+
+        return result.get();
+    }
+
+    @Override
+    protected void update(String key, FunnelMessage msg) {
+        funnels.computeIfPresent(key, (k, entries) -> {
+            entries.update(msg);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+}
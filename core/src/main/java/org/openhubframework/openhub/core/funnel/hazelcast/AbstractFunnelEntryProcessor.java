@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.funnel.hazelcast;
+
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.core.funnel.FunnelEntries;
+import org.openhubframework.openhub.core.funnel.FunnelMessage;
+
+
+/**
+ * Parent of EntryProcessors which register message in {@link FunnelEntries funnel}.
+ *
+ * Start time of the funnel is resolved by the caller, so the same update is applied on backup entry.
+ *
+ * @see com.hazelcast.map.EntryProcessor
+ * @since 2.4
+ */
+abstract class AbstractFunnelEntryProcessor extends AbstractEntryProcessor<String, FunnelEntries> {
+
+    private final FunnelMessage msg;
+
+    private final long startTime;
+
+    private final boolean guaranteedOrder;
+
+    private final boolean excludeFailedState;
+
+    AbstractFunnelEntryProcessor(FunnelMessage msg, long startTime, boolean guaranteedOrder,
+            boolean excludeFailedState) {
+        Assert.notNull(msg, "the msg must not be null");
+
+        this.msg = msg;
+        this.startTime = startTime;
+        this.guaranteedOrder = guaranteedOrder;
+        this.excludeFailedState = excludeFailedState;
+    }
+
+    /**
+     * Registers the message in the funnel and decides whether the message can go through the funnel.
+     *
+     * @see FunnelEntries#tryEnter(FunnelMessage, long, boolean, boolean)
+     */
+    protected boolean tryEnter(FunnelEntries entries) {
+        return entries.tryEnter(msg, startTime, guaranteedOrder, excludeFailedState);
+    }
+}
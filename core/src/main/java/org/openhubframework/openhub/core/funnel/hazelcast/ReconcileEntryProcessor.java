@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.funnel.hazelcast;
+
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.core.funnel.FunnelEntries;
+import org.openhubframework.openhub.core.funnel.FunnelMessage;
+
+
+/**
+ * EntryProcessor to replace the funnel with entries loaded from the database and to register message in it.
+ * Result of processing is {@link Boolean#TRUE} if message can continue, {@link Boolean#FALSE} if message should be
+ * postponed.
+ *
+ * @see com.hazelcast.map.EntryProcessor
+ * @since 2.4
+ */
+public class ReconcileEntryProcessor extends AbstractFunnelEntryProcessor {
+
+    private final FunnelEntries entries;
+
+    public ReconcileEntryProcessor(FunnelEntries entries, FunnelMessage msg, long startTime, boolean guaranteedOrder,
+            boolean excludeFailedState) {
+        super(msg, startTime, guaranteedOrder, excludeFailedState);
+
+        Assert.notNull(entries, "the entries must not be null");
+
+        this.entries = entries;
+    }
+
+    @Override
+    public Object process(Map.Entry<String, FunnelEntries> entry) {
+        final boolean result = tryEnter(entries);
+        entry.setValue(entries);
+
+        return result;
+    }
+}
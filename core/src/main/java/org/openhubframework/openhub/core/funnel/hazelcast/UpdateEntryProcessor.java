@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.funnel.hazelcast;
+
+import java.util.Map;
+
+import com.hazelcast.map.AbstractEntryProcessor;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.core.funnel.FunnelEntries;
+import org.openhubframework.openhub.core.funnel.FunnelMessage;
+
+
+/**
+ * EntryProcessor to update state of the message in the known funnel, empty funnel is removed.
+ *
+ * @see com.hazelcast.map.EntryProcessor
+ * @since 2.4
+ */
+public class UpdateEntryProcessor extends AbstractEntryProcessor<String, FunnelEntries> {
+
+    private final FunnelMessage msg;
+
+    public UpdateEntryProcessor(FunnelMessage msg) {
+        Assert.notNull(msg, "the msg must not be null");
+
+        this.msg = msg;
+    }
+
+    @Override
+    public Object process(Map.Entry<String, FunnelEntries> entry) {
+        final FunnelEntries entries = entry.getValue();
+        if (entries == null) {
+            return null;
+        }
+
+        entries.update(msg);
+        // null value removes the entry
+        entry.setValue(entries.isEmpty() ? null : entries);
+
+        return null;
+    }
+}
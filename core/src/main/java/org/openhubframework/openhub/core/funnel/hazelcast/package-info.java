@@ -0,0 +1,4 @@
+/**
+ * Hazelcast entry processors for funnel registry.
+ */
+package org.openhubframework.openhub.core.funnel.hazelcast;
@@ -0,0 +1,4 @@
+/**
+ * Registry of messages which go through funnel (in-memory and Hazelcast implementation).
+ */
+package org.openhubframework.openhub.core.funnel;
@@ -23,6 +23,7 @@ import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.event.CompletedGuaranteedOrderMsgAsynchEvent;
 import org.openhubframework.openhub.api.event.EventNotifier;
 import org.openhubframework.openhub.api.event.EventNotifierBase;
+import org.openhubframework.openhub.api.event.EventOverflowPolicy;
 import org.openhubframework.openhub.api.exception.LockFailureException;
 import org.openhubframework.openhub.spi.msg.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,12 +36,21 @@ import org.springframework.context.event.EventListener;
  * Listens to successfully completed message event {@link CompletedGuaranteedOrderMsgAsynchEvent}.
  * <p></p>
  * The following message in order is found using the funnel value and sent for next processing.
+ * Events are delivered asynchronously, so looking for the following message doesn't delay processing
+ * of the completed message. Events of different funnels are delivered concurrently by {@value #LANES} threads,
+ * events of one funnel are delivered by one thread in the order of publishing. No event can be lost,
+ * so publishing waits when the queue of events is full.
  *
  * @author Michal Sabol
  */
-@EventNotifier
+@EventNotifier(asynch = true, overflow = EventOverflowPolicy.BLOCK, lanes = GuaranteedOrderMsgEventNotifier.LANES)
 public class GuaranteedOrderMsgEventNotifier extends EventNotifierBase<CompletedGuaranteedOrderMsgAsynchEvent> {
 
+    /**
+     * Count of threads delivering events to this notifier.
+     */
+    static final int LANES = 4;
+
     @Autowired
     private MessageService messageService;
 
@@ -56,7 +66,8 @@ public class GuaranteedOrderMsgEventNotifier extends EventNotifierBase<Completed
 
     @Override
     protected void doNotify(CompletedGuaranteedOrderMsgAsynchEvent event) {
-        final Message message = event.getExchange().getIn().getHeader(AsynchConstants.MSG_HEADER, Message.class);
+        // note: exchange can be already changed by further processing
+        final Message message = event.getMessage();
 
         final Message nextMessage = messageService.findPostponedMessage(message.getFunnelValue());
 
@@ -79,4 +79,11 @@ public class MessageAdminOperations {
 
         repairMessageService.repairProcessingMessages();
     }
+
+    @ManagedOperation(description = "Starts repairing processing messages of the node which is not alive.")
+    public void repairProcessingMessagesOfNode(long nodeId) throws Exception {
+        LOG.debug("Starts repairing processing messages of node (id = " + nodeId + ") by JMX ...");
+
+        repairMessageService.repairProcessingMessages(nodeId);
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.monitoring;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import org.openhubframework.openhub.common.xml.XmlPools;
+
+
+/**
+ * JMX exporter of statistics of shared pools of XML processing objects.
+ *
+ * @see XmlPools
+ * @since 2.4
+ */
+@Service
+@ManagedResource(objectName = "org.openhubframework.openhub.core.monitoring:name=XmlPools",
+        description = "Pools of JAXB marshallers/unmarshallers and XML transformers")
+public class XmlPoolsStatistics {
+
+    @ManagedAttribute(description = "Count of idle unmarshallers in all pools")
+    public int getUnmarshallerPoolSize() {
+        return XmlPools.getUnmarshallerStatistics().getSize();
+    }
+
+    @ManagedAttribute(description = "Ratio of reused unmarshallers to all borrowed unmarshallers")
+    public double getUnmarshallerHitRate() {
+        return XmlPools.getUnmarshallerStatistics().getHitRate();
+    }
+
+    @ManagedAttribute(description = "Count of idle marshallers in all pools")
+    public int getMarshallerPoolSize() {
+        return XmlPools.getMarshallerStatistics().getSize();
+    }
+
+    @ManagedAttribute(description = "Ratio of reused marshallers to all borrowed marshallers")
+    public double getMarshallerHitRate() {
+        return XmlPools.getMarshallerStatistics().getHitRate();
+    }
+
+    @ManagedAttribute(description = "Count of idle identity transformers in the pool")
+    public int getTransformerPoolSize() {
+        return XmlPools.getTransformerStatistics().getSize();
+    }
+
+    @ManagedAttribute(description = "Ratio of reused identity transformers to all borrowed transformers")
+    public double getTransformerHitRate() {
+        return XmlPools.getTransformerStatistics().getHitRate();
+    }
+}
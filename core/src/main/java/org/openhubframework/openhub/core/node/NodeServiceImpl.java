@@ -1,6 +1,7 @@
 package org.openhubframework.openhub.core.node;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -17,6 +18,7 @@ import org.springframework.util.Assert;
 import org.openhubframework.openhub.api.configuration.ConfigurableValue;
 import org.openhubframework.openhub.api.configuration.ConfigurationItem;
 import org.openhubframework.openhub.api.configuration.CoreProps;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.entity.MutableNode;
 import org.openhubframework.openhub.api.entity.Node;
 import org.openhubframework.openhub.api.exception.validation.ConfigurationException;
@@ -120,6 +122,27 @@ public class NodeServiceImpl implements NodeService, ConfCheck {
         return actualNode;
     }
 
+    @Override
+    public MessagePartition getActualNodePartition() {
+        Long actualNodeId = getActualNode().getNodeId();
+
+        // nodes are sorted by ID to have the same order of partitions on all nodes
+        List<Long> nodeIds = nodeDao.getAllNodes().stream()
+                .filter(Node::isAbleToHandleExistingMessages)
+                .map(Node::getNodeId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        int index = nodeIds.indexOf(actualNodeId);
+        if (index < 0) {
+            LOG.debug("Actual node {} doesn't handle existing messages, it has no own partition.",
+                    getActualNode().toHumanString());
+            return MessagePartition.ALL;
+        }
+
+        return new MessagePartition(index, nodeIds.size());
+    }
+
     @Override
     public synchronized void check() throws ConfigurationException {
         //test if configuration value exist
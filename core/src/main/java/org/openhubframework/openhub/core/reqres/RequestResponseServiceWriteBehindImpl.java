@@ -0,0 +1,445 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.reqres;
+
+import static org.openhubframework.openhub.api.configuration.CoreProps.REQUEST_SAVING_WRITE_BEHIND_BATCH_SIZE;
+import static org.openhubframework.openhub.api.configuration.CoreProps.REQUEST_SAVING_WRITE_BEHIND_CAPACITY;
+import static org.openhubframework.openhub.api.configuration.CoreProps.REQUEST_SAVING_WRITE_BEHIND_ENABLED;
+import static org.openhubframework.openhub.api.configuration.CoreProps.REQUEST_SAVING_WRITE_BEHIND_OVERFLOW_POLICY;
+import static org.openhubframework.openhub.api.configuration.CoreProps.REQUEST_SAVING_WRITE_BEHIND_SPILL_FILE;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.Request;
+import org.openhubframework.openhub.api.entity.Response;
+import org.openhubframework.openhub.api.entity.SuperEntity;
+import org.openhubframework.openhub.core.common.dao.RequestResponseDao;
+
+
+/**
+ * Write-behind implementation of {@link RequestResponseService} interface.
+ * <p>
+ * Requests/responses are put into bounded queue and saved by one background writer in batches
+ * (one transaction per batch), so saving doesn't delay the thread which calls external system.
+ * Request is always saved before its response because the queue keeps the order of records.
+ * When the queue is full then {@link WriteBehindOverflowPolicy overflow policy} is applied.
+ * When the writer isn't running, records are saved directly in new transaction, so error of saving
+ * doesn't affect transaction of the caller.
+ * <p>
+ * Implementation is used instead of {@link RequestResponseServiceDefaultImpl} if property
+ * {@value org.openhubframework.openhub.api.configuration.CoreProps#REQUEST_SAVING_WRITE_BEHIND_ENABLED} is enabled.
+ * Queue depth and counts of written, failed, dropped and spilled records are available via JMX.
+ *
+ * @since 2.4
+ */
+@Primary
+@Service
+@ConditionalOnProperty(value = REQUEST_SAVING_WRITE_BEHIND_ENABLED)
+@ManagedResource(objectName = "org.openhubframework.openhub.core.reqres:name=RequestResponseWriteBehind",
+        description = "Write-behind saving of requests/responses")
+public class RequestResponseServiceWriteBehindImpl implements RequestResponseService, SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestResponseServiceWriteBehindImpl.class);
+
+    private static final int DEFAULT_CAPACITY = 10000;
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * How long the writer waits when the queue is empty, also timeout of waiting for free space in the queue
+     * before state of the writer is checked again.
+     */
+    private static final long WAIT_MILLIS = 50;
+
+    private static final long STOP_TIMEOUT_SEC = 10;
+
+    @Autowired
+    private RequestResponseDao requestResponseDao;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<SuperEntity<Long>> queue;
+
+    private final int batchSize;
+
+    private final WriteBehindOverflowPolicy overflowPolicy;
+
+    private final Path spillFile;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong spilledCount = new AtomicLong();
+
+    /**
+     * Records taken from the queue which are being saved by the writer.
+     */
+    private volatile List<SuperEntity<Long>> writingRecords = Collections.emptyList();
+
+    /**
+     * Lock for taking records from the queue to {@link #writingRecords} and for searching in both of them,
+     * so the record is always found in one of them.
+     */
+    private final Object recordsLock = new Object();
+
+    private ExecutorService executor;
+
+    private volatile boolean running;
+
+    @Autowired
+    public RequestResponseServiceWriteBehindImpl(PlatformTransactionManager transactionManager, Environment env) {
+        Assert.notNull(transactionManager, "the transactionManager must not be null");
+        Assert.notNull(env, "the env must not be null");
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(
+                env.getProperty(REQUEST_SAVING_WRITE_BEHIND_CAPACITY, Integer.class, DEFAULT_CAPACITY));
+        this.batchSize = env.getProperty(REQUEST_SAVING_WRITE_BEHIND_BATCH_SIZE, Integer.class, DEFAULT_BATCH_SIZE);
+        this.overflowPolicy = env.getProperty(REQUEST_SAVING_WRITE_BEHIND_OVERFLOW_POLICY,
+                WriteBehindOverflowPolicy.class, WriteBehindOverflowPolicy.DROP);
+        this.spillFile = Paths.get(env.getProperty(REQUEST_SAVING_WRITE_BEHIND_SPILL_FILE,
+                Paths.get(System.getProperty("java.io.tmpdir"), "openhub_reqres_spill.log").toString()));
+
+        Assert.isTrue(batchSize > 0, "the batchSize must be positive");
+    }
+
+    @Override
+    public void insertRequest(Request request) {
+        Assert.notNull(request, "the request must not be null");
+
+        enqueue(request);
+    }
+
+    @Override
+    public void insertResponse(Response response) {
+        Assert.notNull(response, "the response must not be null");
+
+        enqueue(response);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Requests which weren't saved yet (waiting in the queue or being saved by the writer) are searched first,
+     * the newest one is returned.
+     */
+    @Nullable
+    @Override
+    @Transactional
+    public Request findLastRequest(String uri, String responseJoinId) {
+        Request req;
+        synchronized (recordsLock) {
+            req = findLastRequest(queue, uri, responseJoinId);
+            if (req == null) {
+                req = findLastRequest(writingRecords, uri, responseJoinId);
+            }
+        }
+
+        return req != null ? req : requestResponseDao.findLastRequest(uri, responseJoinId);
+    }
+
+    @Nullable
+    private static Request findLastRequest(Iterable<SuperEntity<Long>> records, String uri, String responseJoinId) {
+        Request last = null;
+        // records are in order of insertion
+        for (SuperEntity<Long> record : records) {
+            if (record instanceof Request) {
+                Request req = (Request) record;
+                if (uri.equals(req.getUri()) && responseJoinId.equals(req.getResponseJoinId())) {
+                    last = req;
+                }
+            }
+        }
+        return last;
+    }
+
+    @Override
+    @Transactional
+    public List<Request> findByCriteria(Instant from, Instant to, String subUri, String subRequest) {
+        return requestResponseDao.findByCriteria(from, to, subUri, subRequest);
+    }
+
+    private void enqueue(SuperEntity<Long> record) {
+        if (!running) {
+            // writer isn't running (start-up or shutdown of the application) => save directly
+            writeRecord(record);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    while (!queue.offer(record, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (!running) {
+                            // writer was stopped, nobody takes records from the queue
+                            writeRecord(record);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    droppedCount.incrementAndGet();
+                    LOG.warn("Interrupted while waiting for free space in the queue, record {} is dropped.",
+                            record.toHumanString());
+                    return;
+                }
+                break;
+
+            case SPILL:
+                if (!queue.offer(record)) {
+                    spill(record);
+                    return;
+                }
+                break;
+
+            default:
+                if (!queue.offer(record)) {
+                    droppedCount.incrementAndGet();
+                    LOG.debug("The queue is full, record {} is dropped.", record.toHumanString());
+                    return;
+                }
+        }
+
+        // writer was stopped meanwhile and the rest of the queue could be saved already => save directly
+        // (if the writer didn't take it)
+        if (!running && queue.remove(record)) {
+            writeRecord(record);
+        }
+    }
+
+    /**
+     * Takes records from the queue and saves them in batches until the writer is stopped,
+     * then the rest of the queue is saved.
+     */
+    private void drainQueue() {
+        final List<SuperEntity<Long>> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (running) {
+                if (!writeNextBatch(batch)) {
+                    Thread.sleep(WAIT_MILLIS);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        while (writeNextBatch(batch)) {
+            // the rest of the queue
+        }
+    }
+
+    /**
+     * Takes next batch from the queue and saves it.
+     *
+     * @param batch the empty list for records of the batch
+     * @return {@code true} if some records were taken, {@code false} if the queue is empty
+     */
+    private boolean writeNextBatch(List<SuperEntity<Long>> batch) {
+        synchronized (recordsLock) {
+            if (queue.drainTo(batch, batchSize) == 0) {
+                return false;
+            }
+            // records are still searchable during saving
+            writingRecords = new ArrayList<>(batch);
+        }
+
+        writeBatch(batch);
+        // records are saved (committed), they are found in the database now
+        writingRecords = Collections.emptyList();
+        batch.clear();
+        return true;
+    }
+
+    private void writeBatch(List<SuperEntity<Long>> batch) {
+        try {
+            transactionTemplate.execute(status -> {
+                batch.forEach(this::insert);
+                return null;
+            });
+            writtenCount.addAndGet(batch.size());
+
+        } catch (Exception ex) {
+            LOG.warn("Batch of " + batch.size() + " requests/responses wasn't saved, records will be saved one by one",
+                    ex);
+
+            // identifiers were assigned in rolled back transaction
+            batch.forEach(record -> record.setId(null));
+            batch.forEach(this::writeRecord);
+        }
+    }
+
+    private void writeRecord(SuperEntity<Long> record) {
+        try {
+            transactionTemplate.execute(status -> {
+                insert(record);
+                return null;
+            });
+            writtenCount.incrementAndGet();
+
+        } catch (Exception ex) {
+            record.setId(null);
+            failedCount.incrementAndGet();
+            LOG.error("Record " + record.toHumanString() + " wasn't saved.", ex);
+        }
+    }
+
+    private void insert(SuperEntity<Long> record) {
+        if (record instanceof Request) {
+            requestResponseDao.insertRequest((Request) record);
+        } else {
+            Response response = (Response) record;
+            if (response.getRequest() != null && response.getRequest().isNew()) {
+                LOG.warn("Request of response {} wasn't saved, response is saved without request.",
+                        response.toHumanString());
+                response.setRequest(null);
+            }
+            requestResponseDao.insertResponse(response);
+        }
+    }
+
+    /**
+     * Appends record to the spill file, one line per record (tab separated, line breaks in content are escaped).
+     */
+    private synchronized void spill(SuperEntity<Long> record) {
+        final String line;
+        if (record instanceof Request) {
+            Request req = (Request) record;
+            line = String.join("\t", "REQUEST", String.valueOf(req.getReqTimestamp()), req.getUri(),
+                    req.getResponseJoinId(), getMsgId(req.getMessage()), escape(req.getRequest()));
+        } else {
+            Response res = (Response) record;
+            line = String.join("\t", "RESPONSE", String.valueOf(res.getResTimestamp()),
+                    res.getRequest() != null ? res.getRequest().getUri() : "",
+                    res.getRequest() != null ? res.getRequest().getResponseJoinId() : "",
+                    getMsgId(res.getMessage()), escape(res.isFailed() ? res.getFailedReason() : res.getResponse()));
+        }
+
+        try {
+            Files.write(spillFile, (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilledCount.incrementAndGet();
+        } catch (IOException ex) {
+            droppedCount.incrementAndGet();
+            LOG.error("Record " + record.toHumanString() + " wasn't written to spill file " + spillFile, ex);
+        }
+    }
+
+    private static String getMsgId(@Nullable Message msg) {
+        return msg != null ? String.valueOf(msg.getMsgId()) : "";
+    }
+
+    private static String escape(@Nullable String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+    }
+
+    @ManagedAttribute(description = "Count of requests/responses waiting in the queue")
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @ManagedAttribute(description = "Count of saved requests/responses")
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    @ManagedAttribute(description = "Count of requests/responses which weren't saved because of error")
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @ManagedAttribute(description = "Count of requests/responses dropped because of full queue")
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @ManagedAttribute(description = "Count of requests/responses written to spill file because of full queue")
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executor == null) {
+            running = true;
+            executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("OpenHub-reqresWriter-"));
+            executor.execute(this::drainQueue);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor != null) {
+            running = false;
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(STOP_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                    LOG.warn("Writer wasn't stopped in {} seconds, {} requests/responses weren't saved.",
+                            STOP_TIMEOUT_SEC, queue.size());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -22,6 +22,7 @@ import static org.openhubframework.openhub.api.configuration.CoreProps.REQUEST_S
 import java.util.EventObject;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.management.event.ExchangeSendingEvent;
@@ -60,6 +61,11 @@ public class RequestSendingEventNotifier extends EventNotifierBase<ExchangeSendi
      */
     static final String SAVE_REQ_HEADER = "SAVE_REQ_HEADER";
 
+    /**
+     * Exchange property name for saving request for next use, property isn't affected by changes of headers.
+     */
+    static final String SAVE_REQ_PROPERTY = "SAVE_REQ_PROPERTY";
+
     /**
      * True for enabling saving requests/responses for filtered endpoints URI.
      */
@@ -72,17 +78,23 @@ public class RequestSendingEventNotifier extends EventNotifierBase<ExchangeSendi
     @ConfigurableValue(key = REQUEST_SAVING_ENDPOINT_FILTER)
     private ConfigurationItem<String> endpointFilter;
 
-    private Pattern endpointFilterPattern;
+    private volatile Pattern endpointFilterPattern;
 
     /**
      * After all the db properties are set, set pattern for endpointFilter.
      */
     @EventListener
     public void onApplicationEvent(ApplicationReadyEvent event) {
-        if (StringUtils.hasText(endpointFilter.getValue(null))) {
-            endpointFilterPattern = Pattern.compile(endpointFilter.getValue());
-            LOG.debug("Initialized RequestSendingEventNotifier: enabled [{}], filterPattern [{}].", enable, endpointFilterPattern);
-        }
+        initPattern(endpointFilter.getValue(null));
+
+        // pattern is compiled only when the property is changed
+        endpointFilter.onChange(this::initPattern);
+    }
+
+    private void initPattern(@Nullable String filter) {
+        endpointFilterPattern = StringUtils.hasText(filter) ? Pattern.compile(filter) : null;
+        LOG.debug("Initialized RequestSendingEventNotifier: enabled [{}], filterPattern [{}].",
+                enable, endpointFilterPattern);
     }
 
     @Autowired
@@ -112,6 +124,7 @@ public class RequestSendingEventNotifier extends EventNotifierBase<ExchangeSendi
 
                 // add to exchange for later use when response arrives
                 event.getExchange().getIn().setHeader(SAVE_REQ_HEADER, req);
+                event.getExchange().setProperty(SAVE_REQ_PROPERTY, req);
             } catch (Exception ex) {
                 LOG.error("Request didn't saved.", ex);
             }
@@ -23,10 +23,7 @@ import java.io.StringWriter;
 import java.util.EventObject;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
-import javax.xml.XMLConstants;
-import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 
 import org.apache.camel.Endpoint;
@@ -50,6 +47,7 @@ import org.openhubframework.openhub.api.entity.Request;
 import org.openhubframework.openhub.api.entity.Response;
 import org.openhubframework.openhub.api.event.EventNotifier;
 import org.openhubframework.openhub.api.event.EventNotifierBase;
+import org.openhubframework.openhub.common.xml.XmlPools;
 
 
 /**
@@ -77,17 +75,23 @@ public class ResponseReceiveEventNotifier extends EventNotifierBase<ExchangeSent
     @ConfigurableValue(key = REQUEST_SAVING_ENDPOINT_FILTER)
     private ConfigurationItem<String> endpointFilter;
 
-    private Pattern endpointFilterPattern;
+    private volatile Pattern endpointFilterPattern;
 
     /**
      * After all the db properties are set, set pattern for endpointFilter.
      */
     @EventListener
     public void onApplicationEvent(ApplicationReadyEvent applicationReadyEvent) {
-        if (StringUtils.isNotEmpty(endpointFilter.getValue(null))) {
-            endpointFilterPattern = Pattern.compile(endpointFilter.getValue());
-            LOG.debug("Initialized ResponseReceiveEventNotifier: enabled [{}], filterPattern [{}].", enable, endpointFilterPattern);
-        }
+        initPattern(endpointFilter.getValue(null));
+
+        // pattern is compiled only when the property is changed
+        endpointFilter.onChange(this::initPattern);
+    }
+
+    private void initPattern(@Nullable String filter) {
+        endpointFilterPattern = StringUtils.isNotEmpty(filter) ? Pattern.compile(filter) : null;
+        LOG.debug("Initialized ResponseReceiveEventNotifier: enabled [{}], filterPattern [{}].",
+                enable, endpointFilterPattern);
     }
 
     @Autowired
@@ -158,8 +162,17 @@ public class ResponseReceiveEventNotifier extends EventNotifierBase<ExchangeSent
      *  (e.g. for synchronous request where exchange is changed) and even so it's good to save response
      */
     private @Nullable Request getRequest(Exchange exchange, Endpoint endpoint) {
-        // try exchange header
-        Request req = exchange.getIn().getHeader(RequestSendingEventNotifier.SAVE_REQ_HEADER, Request.class);
+        // try exchange property, request can be still waiting for saving (write-behind)
+        Request req = exchange.getProperty(RequestSendingEventNotifier.SAVE_REQ_PROPERTY, Request.class);
+        if (req != null && !endpoint.getEndpointUri().equals(req.getUri())) {
+            // request to another endpoint
+            req = null;
+        }
+
+        if (req == null) {
+            // try exchange header
+            req = exchange.getIn().getHeader(RequestSendingEventNotifier.SAVE_REQ_HEADER, Request.class);
+        }
 
         if (req == null) {
             LOG.debug("There is no request in exchange header '" + RequestSendingEventNotifier.SAVE_REQ_HEADER + "'");
@@ -206,16 +219,13 @@ public class ResponseReceiveEventNotifier extends EventNotifierBase<ExchangeSent
             StringWriter writer = new StringWriter();
 
             try {
-                // An identity transformer
+                // An identity transformer (pooled)
                 if (ex.getSoapFault() != null && ex.getSoapFault().getSource() != null) {
-                    final TransformerFactory factory = TransformerFactory.newInstance();
-                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-
-                    Transformer transformer = factory.newTransformer();
-                    StreamResult result = new StreamResult(writer);
-                    transformer.transform(ex.getSoapFault().getSource(), result);
-                    StringBuffer sb = writer.getBuffer();
-                    exceptionString = sb.toString();
+                    exceptionString = XmlPools.withIdentityTransformer(transformer -> {
+                        StreamResult result = new StreamResult(writer);
+                        transformer.transform(ex.getSoapFault().getSource(), result);
+                        return writer.getBuffer().toString();
+                    });
                 }
             } catch (TransformerException e) {
                 LOG.warn("Error occurs during transformation SOAP Fault to XML representation", e);
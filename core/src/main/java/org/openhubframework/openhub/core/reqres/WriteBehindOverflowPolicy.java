@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.reqres;
+
+/**
+ * Enumeration of policies what to do with request/response when the queue
+ * of {@link RequestResponseServiceWriteBehindImpl background writer} is full.
+ *
+ * @since 2.4
+ */
+public enum WriteBehindOverflowPolicy {
+
+    /**
+     * Calling thread waits until there is free space in the queue.
+     */
+    BLOCK,
+
+    /**
+     * Request/response is not saved, only count of dropped records is increased.
+     */
+    DROP,
+
+    /**
+     * Request/response is appended to local file instead of the database.
+     */
+    SPILL
+}
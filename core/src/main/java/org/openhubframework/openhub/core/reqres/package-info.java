@@ -7,6 +7,7 @@
  * <p>
  * Requests/responses are saved into database, {@link org.openhubframework.openhub.core.reqres.RequestResponseService} defines contract
  * - {@link org.openhubframework.openhub.core.reqres.RequestResponseServiceDefaultImpl default implementation} save them directly to DB 
- * in synchronous manner.
+ * in synchronous manner, {@link org.openhubframework.openhub.core.reqres.RequestResponseServiceWriteBehindImpl
+ * write-behind implementation} saves them asynchronously in batches by background writer.
  */
 package org.openhubframework.openhub.core.reqres;
\ No newline at end of file
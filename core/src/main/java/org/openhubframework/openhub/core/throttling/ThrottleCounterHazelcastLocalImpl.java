@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.throttling;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.ReplicatedMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import org.openhubframework.openhub.common.time.SlidingWindow;
+import org.openhubframework.openhub.core.config.CacheNames;
+import org.openhubframework.openhub.spi.throttling.ThrottleCounter;
+import org.openhubframework.openhub.spi.throttling.ThrottleScope;
+
+
+/**
+ * Cluster implementation of {@link ThrottleCounter} interface where each node counts requests locally
+ * (see {@link ThrottleCounterSlidingWindowImpl}) and periodically publishes its per-second buckets
+ * to the others through Hazelcast's {@link ReplicatedMap replicated map} '{@value CacheNames#THROTTLING_BUCKETS}'.
+ * <p>
+ * Counting is local operation only (no network hop), count of requests is sum of local requests
+ * and last published requests of other nodes. Requests of other nodes from the last synchronization period
+ * (plus replication delay) are not counted, so the synchronization period determines the error of cluster-wide
+ * limit - at most {@code (count of nodes - 1) * rate of requests per node * sync period}.
+ *
+ * @since 2.4
+ * @see ThrottleCounterHazelcastImpl
+ */
+public class ThrottleCounterHazelcastLocalImpl extends ThrottleCounterSlidingWindowImpl implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThrottleCounterHazelcastLocalImpl.class);
+
+    /**
+     * Default period of publishing local counters.
+     */
+    public static final Duration DEFAULT_SYNC_PERIOD = Duration.ofSeconds(1);
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final HazelcastInstance hazelcast;
+
+    private final Duration syncPeriod;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates new counter and starts publishing of local counters.
+     *
+     * @param hazelcast the Hazelcast instance
+     * @param syncPeriod the period of publishing local counters to other nodes
+     */
+    public ThrottleCounterHazelcastLocalImpl(HazelcastInstance hazelcast, Duration syncPeriod) {
+        Assert.notNull(hazelcast, "hazelcast must not be null");
+        Assert.notNull(syncPeriod, "syncPeriod must not be null");
+        Assert.isTrue(syncPeriod.toMillis() > 0, "syncPeriod must be positive");
+
+        this.hazelcast = hazelcast;
+        this.syncPeriod = syncPeriod;
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("OpenHub-throttlingSync-"));
+        this.executor.scheduleWithFixedDelay(this::publishSafely,
+                syncPeriod.toMillis(), syncPeriod.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected int doCount(ThrottleScope throttleScope, int intervalSec) {
+        int count = super.doCount(throttleScope, intervalSec);
+
+        long nowSec = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        ReplicatedMap<String, long[]> map = getMap();
+        Member localMember = hazelcast.getCluster().getLocalMember();
+
+        // replicated map has local copy of all entries => no network operation
+        for (Member member : hazelcast.getCluster().getMembers()) {
+            if (!member.equals(localMember)) {
+                long[] buckets = map.get(getKey(member, throttleScope));
+                if (buckets != null) {
+                    count += SlidingWindow.sum(buckets, nowSec, intervalSec);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Publishes local counters to other nodes.
+     */
+    void publish() {
+        ReplicatedMap<String, long[]> map = getMap();
+        Member localMember = hazelcast.getCluster().getLocalMember();
+        long nowSec = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        for (Map.Entry<ThrottleScope, SlidingWindow> en : getWindows().entrySet()) {
+            SlidingWindow window = en.getValue();
+
+            // skip scopes without requests, published values expire
+            if (window.sum(nowSec, window.size()) > 0) {
+                // entry of the node which leaves the cluster expires after whole window
+                long ttlMillis = TimeUnit.SECONDS.toMillis(window.size()) + syncPeriod.toMillis();
+
+                map.put(getKey(localMember, en.getKey()), window.snapshot(), ttlMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (Exception ex) {
+            LOG.warn("Error occurred during publishing throttling counters to the cluster", ex);
+        }
+    }
+
+    private ReplicatedMap<String, long[]> getMap() {
+        return hazelcast.getReplicatedMap(CacheNames.THROTTLING_BUCKETS);
+    }
+
+    private static String getKey(Member member, ThrottleScope throttleScope) {
+        return member.getUuid() + KEY_SEPARATOR + throttleScope.getSourceSystem()
+                + KEY_SEPARATOR + throttleScope.getServiceName();
+    }
+
+    @Override
+    @Nullable
+    String getCacheInfo() {
+        return super.getCacheInfo() + "Throttling Hazelcast replicated map statistics dump:\n"
+                + getMap().getReplicatedMapStats().toString();
+    }
+
+    /**
+     * Stops publishing of local counters.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
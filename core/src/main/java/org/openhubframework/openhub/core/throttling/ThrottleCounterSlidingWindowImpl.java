@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.throttling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import org.openhubframework.openhub.common.time.SlidingWindow;
+import org.openhubframework.openhub.spi.throttling.ThrottleCounter;
+import org.openhubframework.openhub.spi.throttling.ThrottleScope;
+
+
+/**
+ * In-memory implementation of {@link ThrottleCounter} interface with sliding window of per-second buckets.
+ * <p>
+ * Each throttle scope has fixed-size ring of buckets (one bucket per second of the interval),
+ * memory is constant per scope regardless of count of requests. Buckets are updated by CAS operations only,
+ * there is no lock for counting.
+ * Requests are counted with precision of one second, request is counted in interval if it came
+ * in the same second as the end of the interval or in one of previous {@code interval - 1} seconds.
+ * <p>
+ * Fast and enough-solution for one server solution but it's not sufficient for cluster environment.
+ *
+ * @since 2.4
+ * @see ThrottleCounterMemoryImpl
+ */
+public class ThrottleCounterSlidingWindowImpl extends AbstractThrottleCounter {
+
+    /**
+     * Sliding windows per throttling scope.
+     */
+    private final Map<ThrottleScope, SlidingWindow> windows = new ConcurrentHashMap<>();
+
+    @Override
+    protected int doCount(ThrottleScope throttleScope, int intervalSec) {
+        SlidingWindow window = windows.get(throttleScope);
+
+        if (window == null || window.size() < intervalSec) {
+            // new scope or longer interval (e.g. changed configuration) => new window, history is not preserved
+            window = windows.compute(throttleScope, (scope, actual) ->
+                    actual == null || actual.size() < intervalSec ? new SlidingWindow(intervalSec) : actual);
+        }
+
+        long nowSec = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        window.increment(nowSec);
+
+        return window.sum(nowSec, intervalSec);
+    }
+
+    /**
+     * Gets sliding windows of all throttle scopes.
+     *
+     * @return windows by throttle scope
+     */
+    Map<ThrottleScope, SlidingWindow> getWindows() {
+        return windows;
+    }
+
+    @Override
+    @Nullable
+    String getCacheInfo() {
+        long nowSec = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        StringBuilder dump = new StringBuilder();
+        dump.append("Throttling sliding window dump:\n");
+
+        for (Map.Entry<ThrottleScope, SlidingWindow> en : windows.entrySet()) {
+            dump.append("sourceSystem=");
+            dump.append(en.getKey().getSourceSystem());
+            dump.append(", serviceName=");
+            dump.append(en.getKey().getServiceName());
+            dump.append(": ");
+            dump.append(en.getValue().sum(nowSec, en.getValue().size()));
+            dump.append("\n");
+        }
+
+        return dump.toString();
+    }
+}
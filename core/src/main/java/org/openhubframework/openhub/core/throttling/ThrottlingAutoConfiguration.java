@@ -16,6 +16,8 @@
 
 package org.openhubframework.openhub.core.throttling;
 
+import java.time.Duration;
+
 import com.hazelcast.core.HazelcastInstance;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
@@ -48,9 +50,15 @@ public class ThrottlingAutoConfiguration {
     private static final String IN_MEMORY_CLASS_NAME
             = "org.openhubframework.openhub.core.throttling.ThrottleCounterMemoryImpl";
 
+    private static final String SLIDING_WINDOW_CLASS_NAME
+            = "org.openhubframework.openhub.core.throttling.ThrottleCounterSlidingWindowImpl";
+
     private static final String HAZELCAST_CLASS_NAME
             = "org.openhubframework.openhub.core.throttling.ThrottleCounterHazelcastImpl";
 
+    private static final String HAZELCAST_LOCAL_CLASS_NAME
+            = "org.openhubframework.openhub.core.throttling.ThrottleCounterHazelcastLocalImpl";
+
     @AutoConfiguration
     @ConditionalOnProperty(name = COUNTER_IMPL_PROPERTY, matchIfMissing = true, havingValue = IN_MEMORY_CLASS_NAME)
     public static class InMemoryConfiguration {
@@ -61,6 +69,16 @@ public class ThrottlingAutoConfiguration {
    		}
    	}
 
+    @AutoConfiguration
+    @ConditionalOnProperty(name = COUNTER_IMPL_PROPERTY, havingValue = SLIDING_WINDOW_CLASS_NAME)
+    public static class SlidingWindowConfiguration {
+
+        @Bean
+        public ThrottleCounterSlidingWindowImpl slidingWindowThrottlingCounter() {
+            return new ThrottleCounterSlidingWindowImpl();
+        }
+    }
+
     @AutoConfiguration
     @ConditionalOnClass(HazelcastInstance.class)
     @AutoConfigureAfter({HazelcastAutoConfiguration.class, CacheAutoConfiguration.class})
@@ -72,4 +90,22 @@ public class ThrottlingAutoConfiguration {
    		    return new ThrottleCounterHazelcastImpl(hazelcast);
    		}
    	}
+
+    @AutoConfiguration
+    @ConditionalOnClass(HazelcastInstance.class)
+    @AutoConfigureAfter({HazelcastAutoConfiguration.class, CacheAutoConfiguration.class})
+    @ConditionalOnProperty(name = COUNTER_IMPL_PROPERTY, havingValue = HAZELCAST_LOCAL_CLASS_NAME)
+    public static class HazelcastLocalConfiguration {
+
+        @Bean
+        public ThrottleCounterHazelcastLocalImpl hazelcastLocalThrottlingCounter(HazelcastInstance hazelcast,
+                ThrottlingProperties properties) {
+            Duration syncPeriod = ThrottleCounterHazelcastLocalImpl.DEFAULT_SYNC_PERIOD;
+            if (properties.getCounter() != null && properties.getCounter().getSyncPeriod() != null) {
+                syncPeriod = properties.getCounter().getSyncPeriod();
+            }
+
+            return new ThrottleCounterHazelcastLocalImpl(hazelcast, syncPeriod);
+        }
+    }
 }
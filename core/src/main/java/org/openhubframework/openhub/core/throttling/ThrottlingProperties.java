@@ -16,6 +16,8 @@
 
 package org.openhubframework.openhub.core.throttling;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import org.openhubframework.openhub.common.OpenHubPropertyConstants;
@@ -50,6 +52,11 @@ public class ThrottlingProperties {
          */
         private Class impl;
 
+        /**
+         * the period of synchronization of local counters with other nodes in the cluster
+         */
+        private Duration syncPeriod;
+
         public Class getImpl() {
             return impl;
         }
@@ -57,5 +64,13 @@ public class ThrottlingProperties {
         public void setImpl(Class impl) {
             this.impl = impl;
         }
+
+        public Duration getSyncPeriod() {
+            return syncPeriod;
+        }
+
+        public void setSyncPeriod(Duration syncPeriod) {
+            this.syncPeriod = syncPeriod;
+        }
     }
 }
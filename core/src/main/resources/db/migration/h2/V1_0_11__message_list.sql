@@ -0,0 +1,2 @@
+-- keyset pagination of messages list (newest first)
+CREATE INDEX msg_receive_timestamp_idx ON message (receive_timestamp, msg_id);
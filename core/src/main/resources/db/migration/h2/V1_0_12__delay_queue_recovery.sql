@@ -0,0 +1,3 @@
+-- How often (in seconds) to run polling of POSTPONED and PARTLY_FAILED messages when delay queue is enabled
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.delayQueue.recoveryIntervalSec', 'core.async', 300, 300, 'INT', true, null);
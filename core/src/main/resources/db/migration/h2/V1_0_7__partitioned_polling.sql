@@ -0,0 +1,3 @@
+-- true for polling POSTPONED and PARTLY_FAILED messages primarily from own partition of the actual node
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.partitionedPolling.enabled', 'core.async', 'false', 'false', 'BOOLEAN', true, null);
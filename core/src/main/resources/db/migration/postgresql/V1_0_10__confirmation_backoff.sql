@@ -0,0 +1,16 @@
+-- time of next attempt of failed confirmation (exponential backoff with jitter)
+ALTER TABLE external_call ADD COLUMN next_attempt_timestamp TIMESTAMP NULL;
+
+CREATE INDEX ext_call_next_attempt_idx ON external_call (operation_name, state, next_attempt_timestamp);
+
+-- Maximum interval (in seconds) between two tries of failed confirmations (interval is doubled with each failure)
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.confirmation.maxIntervalSec', 'core.async', 3600, 3600, 'INT', true, null);
+
+-- Maximum count of failed confirmations which are locked for next processing in one transaction
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.confirmation.batchSize', 'core.async', 50, 50, 'INT', true, null);
+
+-- Maximum count of confirmations sent concurrently to one target system
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.confirmation.parallelism', 'core.async', 4, 4, 'INT', true, null);
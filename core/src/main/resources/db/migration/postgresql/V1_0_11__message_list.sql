@@ -0,0 +1,14 @@
+-- keyset pagination of messages list (newest first)
+CREATE INDEX msg_receive_timestamp_idx ON message (receive_timestamp, msg_id);
+
+-- trigram index for fulltext searching in envelopes (LIKE '%text%' can use index then),
+--  extension pg_trgm requires appropriate privileges, searching without index works as well
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+    CREATE INDEX msg_envelope_trgm_idx ON message USING gin (envelope gin_trgm_ops);
+EXCEPTION
+    WHEN insufficient_privilege OR undefined_file THEN
+        RAISE NOTICE 'Extension pg_trgm is not available, fulltext searching in envelopes will not use index.';
+END
+$$;
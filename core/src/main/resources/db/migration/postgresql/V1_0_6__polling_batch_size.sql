@@ -0,0 +1,3 @@
+-- Maximum count of POSTPONED and PARTLY_FAILED messages which are locked for re-processing in one transaction
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.pollingBatchSize', 'core.async', 50, 50, 'INT', true, null);
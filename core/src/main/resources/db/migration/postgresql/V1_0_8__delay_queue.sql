@@ -0,0 +1,3 @@
+-- true for dispatching POSTPONED and PARTLY_FAILED messages from in-memory delay queue when they become eligible
+INSERT INTO configuration_item (code, category_code, current_value, default_value, data_type, mandatory, validation)
+    VALUES('ohf.asynch.delayQueue.enabled', 'core.async', 'true', 'true', 'BOOLEAN', true, null);
@@ -0,0 +1,3 @@
+-- identifiers of message, request, response and external_call are allocated in blocks (pooled-lo optimizer),
+--  increment must be equal to SuperEntity.OPENHUB_SEQUENCE_ALLOCATION_SIZE
+alter sequence openhub_sequence increment by 50;
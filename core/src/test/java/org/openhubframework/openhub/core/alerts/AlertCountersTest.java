@@ -0,0 +1,186 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.alerts;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.core.Cluster;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.ReplicatedMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.core.config.CacheNames;
+import org.openhubframework.openhub.spi.alerts.AlertCounterQuery;
+import org.openhubframework.openhub.spi.alerts.AlertInfo;
+import org.openhubframework.openhub.spi.alerts.AlertsConfiguration;
+import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
+import org.openhubframework.openhub.test.data.ServiceTestEnum;
+
+
+/**
+ * Test suite for {@link AlertCounters} in cluster - events counted on all nodes are summed.
+ * Hazelcast replicated map is simulated by one map shared by all nodes.
+ *
+ * @since 2.4
+ */
+public class AlertCountersTest {
+
+    private static final AlertCounterQuery FAILED_CRM_QUERY = new AlertCounterQuery(MsgStateEnum.FAILED,
+            ExternalSystemTestEnum.CRM.getSystemName(), null, null, 60);
+
+    private static final AlertCounterQuery FAILED_QUERY = new AlertCounterQuery(MsgStateEnum.FAILED,
+            null, null, null, 300);
+
+    private final Map<Object, Object> replicatedMap = new ConcurrentHashMap<>();
+
+    private AlertCounters node1;
+
+    private AlertCounters node2;
+
+    private ReplicatedMap<Object, Object> node1Map;
+
+    @Before
+    public void prepareNodes() {
+        node1Map = createMap();
+        node1 = createNode("node1", node1Map);
+        node2 = createNode("node2", createMap());
+    }
+
+    @Test
+    public void testCountInCluster() {
+        node1.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node2.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node2.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node2.increment(createMessage(ExternalSystemTestEnum.BILLING, MsgStateEnum.FAILED));
+        node2.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.OK));
+
+        // events of other node aren't published yet
+        assertThat(node1.count(FAILED_CRM_QUERY), is(1L));
+
+        node1.publish();
+        node2.publish();
+
+        // alerts are checked by one node only, events of all nodes are counted
+        assertThat(node1.count(FAILED_CRM_QUERY), is(3L));
+        assertThat(node2.count(FAILED_CRM_QUERY), is(3L));
+
+        // local events are counted immediately, published events are replaced by the next publishing
+        node1.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node1.publish();
+        assertThat(node1.count(FAILED_CRM_QUERY), is(4L));
+        assertThat(node2.count(FAILED_CRM_QUERY), is(4L));
+
+        // counts for all alert intervals are published
+        assertThat(node1.count(FAILED_QUERY), is(5L));
+        assertThat(node2.count(FAILED_QUERY), is(5L));
+    }
+
+    @Test
+    public void testPublishChangedCountsOnly() {
+        node1.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node1.increment(createMessage(ExternalSystemTestEnum.BILLING, MsgStateEnum.FAILED));
+
+        node1.publish();
+        verify(node1Map, times(2)).put(any(), any(), anyLong(), any(TimeUnit.class));
+
+        // nothing changed
+        node1.publish();
+        verify(node1Map, times(2)).put(any(), any(), anyLong(), any(TimeUnit.class));
+
+        // counts of one window changed
+        node1.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node1.publish();
+        verify(node1Map, times(3)).put(any(), any(), anyLong(), any(TimeUnit.class));
+        assertThat(node2.count(FAILED_CRM_QUERY), is(2L));
+        assertThat(node2.count(FAILED_QUERY), is(3L));
+    }
+
+    @Test
+    public void testCountWithoutCluster() {
+        AlertCounters standalone = new AlertCounters();
+        setPrivateField(standalone, "alertsConfig", createAlertsConfig());
+        standalone.initWindowSize();
+
+        node2.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        node2.publish();
+        standalone.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+
+        // only local events are counted
+        assertThat(standalone.count(FAILED_CRM_QUERY), is(1L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReplicatedMap<Object, Object> createMap() {
+        ReplicatedMap<Object, Object> map = mock(ReplicatedMap.class);
+        when(map.put(any(), any(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation ->
+                replicatedMap.put(invocation.getArgument(0), invocation.getArgument(1)));
+        when(map.remove(any())).thenAnswer(invocation -> replicatedMap.remove(invocation.getArgument(0)));
+        when(map.entrySet()).thenAnswer(invocation -> replicatedMap.entrySet());
+        return map;
+    }
+
+    private AlertCounters createNode(String memberUuid, ReplicatedMap<Object, Object> map) {
+        Member member = mock(Member.class);
+        when(member.getUuid()).thenReturn(memberUuid);
+        Cluster cluster = mock(Cluster.class);
+        when(cluster.getLocalMember()).thenReturn(member);
+
+        HazelcastInstance hazelcast = mock(HazelcastInstance.class);
+        when(hazelcast.getCluster()).thenReturn(cluster);
+        when(hazelcast.getReplicatedMap(CacheNames.ALERT_COUNTERS)).thenReturn(map);
+
+        AlertCounters alertCounters = new AlertCounters();
+        setPrivateField(alertCounters, "alertsConfig", createAlertsConfig());
+        alertCounters.initWindowSize();
+        // publishing is called explicitly by tests instead of scheduled executor
+        setPrivateField(alertCounters, "hazelcast", hazelcast);
+        return alertCounters;
+    }
+
+    private static AlertsConfiguration createAlertsConfig() {
+        AlertInfo crmAlert = new AlertInfo("ID", 1, null, FAILED_CRM_QUERY, true, null, null);
+        AlertInfo failedAlert = new AlertInfo("ID2", 10, null, FAILED_QUERY, true, null, null);
+
+        AlertsConfiguration alertsConfig = mock(AlertsConfiguration.class);
+        when(alertsConfig.getAlerts(false)).thenReturn(Arrays.asList(crmAlert, failedAlert));
+        return alertsConfig;
+    }
+
+    private static Message createMessage(ExternalSystemTestEnum sourceSystem, MsgStateEnum state) {
+        Message msg = new Message(sourceSystem, "123");
+        msg.setService(ServiceTestEnum.CUSTOMER);
+        msg.setState(state);
+        return msg;
+    }
+}
@@ -18,6 +18,7 @@ package org.openhubframework.openhub.core.alerts;
 
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,10 +26,15 @@ import java.util.Arrays;
 
 import org.junit.Test;
 
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.core.AbstractCoreTest;
+import org.openhubframework.openhub.spi.alerts.AlertCounterQuery;
 import org.openhubframework.openhub.spi.alerts.AlertInfo;
 import org.openhubframework.openhub.spi.alerts.AlertListener;
 import org.openhubframework.openhub.spi.alerts.AlertsConfiguration;
+import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
+import org.openhubframework.openhub.test.data.ServiceTestEnum;
 
 
 /**
@@ -66,4 +72,51 @@ public class AlertsCheckingServiceDbImplTest extends AbstractCoreTest {
         verify(alertsDao).runQuery(alert.getSql());
         verify(listener).onAlert(alert, 2L);
     }
+
+    @Test
+    public void testCheckAlerts_counter() {
+        // prepare data
+        AlertsCheckingServiceDbImpl checkingService = new AlertsCheckingServiceDbImpl();
+
+        AlertInfo alert = new AlertInfo("ID", 1, null,
+                new AlertCounterQuery(MsgStateEnum.FAILED, ExternalSystemTestEnum.CRM.getSystemName(), null, null, 60),
+                true, null, null);
+
+        AlertsConfiguration alertsConfig = mock(AlertsConfiguration.class);
+        when(alertsConfig.getAlerts(false)).thenReturn(Arrays.asList(alert));
+        when(alertsConfig.getAlerts(true)).thenReturn(Arrays.asList(alert));
+
+        AlertListener listener = mock(AlertListener.class);
+        when(listener.supports(alert)).thenReturn(true);
+
+        AlertsDao alertsDao = mock(AlertsDao.class);
+
+        AlertCounters alertCounters = new AlertCounters();
+        setPrivateField(alertCounters, "alertsConfig", alertsConfig);
+        alertCounters.initWindowSize();
+
+        alertCounters.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        alertCounters.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.FAILED));
+        alertCounters.increment(createMessage(ExternalSystemTestEnum.CRM, MsgStateEnum.OK));
+        alertCounters.increment(createMessage(ExternalSystemTestEnum.BILLING, MsgStateEnum.FAILED));
+
+        setPrivateField(checkingService, "alertsConfig", alertsConfig);
+        setPrivateField(checkingService, "listeners", Arrays.asList(listener));
+        setPrivateField(checkingService, "alertsDao", alertsDao);
+        setPrivateField(checkingService, "alertCounters", alertCounters);
+
+        // action
+        checkingService.checkAlerts();
+
+        // verify
+        verify(alertsDao, never()).runQuery(anyString());
+        verify(listener).onAlert(alert, 2L);
+    }
+
+    private static Message createMessage(ExternalSystemTestEnum sourceSystem, MsgStateEnum state) {
+        Message msg = new Message(sourceSystem, "123");
+        msg.setService(ServiceTestEnum.CUSTOMER);
+        msg.setState(state);
+        return msg;
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.circuitbreaker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.EntryProcessor;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhubframework.openhub.core.circuitbreaker.hazelcast.CircuitStatusEntryProcessor;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
+
+/**
+ * Test suite for local cache of circuit status in {@link CircuitBreakerHazelcastImpl}.
+ * Hazelcast map is simulated, entry processors are applied on local map.
+ *
+ * @since 2.4
+ */
+public class CircuitBreakerHazelcastImplCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final String CIRCUIT_NAME = "CIRCUIT";
+
+    private final Map<String, CircuitState> states = new HashMap<>();
+
+    private IMap<String, CircuitState> map;
+
+    private CircuitConfiguration configuration;
+
+    private TestCircuitBreaker circuitBreaker;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void prepareCircuitBreaker() {
+        configuration = new CircuitConfiguration();
+        configuration.setCircuitName(CIRCUIT_NAME);
+        configuration.setWindowSizeInMillis(10_000);
+        configuration.setThresholdPercentage(50);
+        configuration.setMinimalCountInWindow(1);
+        configuration.setSleepInMillis(5_000);
+        configuration.setHalfOpenMaxCalls(1);
+
+        map = mock(IMap.class);
+        when(map.executeOnKey(anyString(), any(EntryProcessor.class))).thenAnswer(invocation ->
+                execute(invocation.getArgument(0), invocation.getArgument(1)));
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, CircuitState>getMap("circuitbreaker")).thenReturn(map);
+
+        circuitBreaker = new TestCircuitBreaker();
+        circuitBreaker.setStatusCacheTtl(Duration.ofMillis(1_000));
+        setPrivateField(circuitBreaker, "hazelcastInstance", hazelcastInstance);
+    }
+
+    @Test
+    public void testCacheHit() {
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+
+        circuitBreaker.now = NOW + 999;
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+
+        // the second check is local
+        verifyStatusLoaded(1);
+    }
+
+    @Test
+    public void testCacheExpiration() {
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+
+        // another node switches circuit down
+        CircuitState state = new CircuitState();
+        state.onFailedCall(configuration, NOW);
+        states.put(CIRCUIT_NAME, state);
+
+        // cached status is still valid
+        circuitBreaker.now = NOW + 999;
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+        verifyStatusLoaded(1);
+
+        // cached status expired
+        circuitBreaker.now = NOW + 1_000;
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(false));
+        verifyStatusLoaded(2);
+
+        // open status is cached too
+        circuitBreaker.now = NOW + 1_500;
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(false));
+        verifyStatusLoaded(2);
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        circuitBreaker.setStatusCacheTtl(Duration.ZERO);
+
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+
+        verifyStatusLoaded(2);
+    }
+
+    @Test
+    public void testCacheUpdatedByLocalCalls() {
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+
+        // circuit switched down by this node is visible immediately
+        assertThat(circuitBreaker.onFailedCall(configuration), is(true));
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(false));
+        verifyStatusLoaded(1);
+
+        // after sleep the probe call is decided in the map
+        circuitBreaker.now = NOW + 5_000;
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+        assertThat(states.get(CIRCUIT_NAME).getStatus(), is(CircuitState.Status.HALF_OPEN));
+
+        // successful probe call closes circuit, closed status is cached
+        circuitBreaker.onSuccessCall(configuration);
+        assertThat(circuitBreaker.isCallPermitted(configuration), is(true));
+        verifyStatusLoaded(2);
+    }
+
+    private void verifyStatusLoaded(int count) {
+        verify(map, times(count)).executeOnKey(eq(CIRCUIT_NAME), isA(CircuitStatusEntryProcessor.class));
+    }
+
+    private Object execute(String key, EntryProcessor<String, CircuitState> processor) {
+        return processor.process(new AbstractMap.SimpleEntry<String, CircuitState>(key, states.get(key)) {
+            @Override
+            public CircuitState setValue(CircuitState value) {
+                states.put(key, value);
+                return super.setValue(value);
+            }
+        });
+    }
+
+    /**
+     * Circuit breaker with fixed time.
+     */
+    private static class TestCircuitBreaker extends CircuitBreakerHazelcastImpl {
+
+        private long now = NOW;
+
+        @Override
+        protected long now() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.openhubframework.openhub.core.circuitbreaker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
+
+/**
+ * Test suite for {@link CircuitState}.
+ */
+public class CircuitStateTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private CircuitConfiguration configuration;
+
+    private CircuitState circuitState;
+
+    @Before
+    public void prepareState() {
+        configuration = new CircuitConfiguration();
+        configuration.setCircuitName("CIRCUIT");
+        configuration.setWindowSizeInMillis(1_000);
+        configuration.setThresholdPercentage(50);
+        configuration.setMinimalCountInWindow(4);
+        configuration.setSleepInMillis(5_000);
+        configuration.setHalfOpenMaxCalls(2);
+
+        circuitState = new CircuitState();
+    }
+
+    @Test
+    public void testRollingWindow() {
+        circuitState.onSuccessCall(configuration, NOW);
+        circuitState.onSuccessCall(configuration, NOW + 100);
+        assertThat(circuitState.onFailedCall(configuration, NOW + 500), is(false));
+
+        assertThat(circuitState.getSuccessCount(configuration, NOW + 500), is(2L));
+        assertThat(circuitState.getFailedCount(configuration, NOW + 500), is(1L));
+
+        // calls from the first bucket are out of window
+        assertThat(circuitState.getSuccessCount(configuration, NOW + 1_000), is(1L));
+        assertThat(circuitState.getFailedCount(configuration, NOW + 1_000), is(1L));
+
+        // whole window is out
+        assertThat(circuitState.getSuccessCount(configuration, NOW + 10_000), is(0L));
+        assertThat(circuitState.getFailedCount(configuration, NOW + 10_000), is(0L));
+    }
+
+    @Test
+    public void testSwitchDown() {
+        circuitState.onSuccessCall(configuration, NOW);
+        circuitState.onSuccessCall(configuration, NOW);
+        assertThat(circuitState.onFailedCall(configuration, NOW), is(false));
+        assertThat(circuitState.getStatus(), is(CircuitState.Status.CLOSED));
+
+        // 2 of 4 calls failed => threshold 50%
+        assertThat(circuitState.onFailedCall(configuration, NOW), is(true));
+        assertThat(circuitState.getStatus(), is(CircuitState.Status.OPEN));
+        assertThat(circuitState.getLastShortcutTimestamp(), is(NOW));
+
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 4_999), is(false));
+    }
+
+    @Test
+    public void testHalfOpenClose() {
+        switchDown();
+
+        // after sleep only two probe calls are permitted
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_000), is(true));
+        assertThat(circuitState.getStatus(), is(CircuitState.Status.HALF_OPEN));
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_000), is(true));
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_000), is(false));
+
+        circuitState.onSuccessCall(configuration, NOW + 5_100);
+        assertThat(circuitState.getStatus(), is(CircuitState.Status.HALF_OPEN));
+        circuitState.onSuccessCall(configuration, NOW + 5_100);
+        assertThat(circuitState.getStatus(), is(CircuitState.Status.CLOSED));
+
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_100), is(true));
+        assertThat(circuitState.getSuccessCount(configuration, NOW + 5_100), is(0L));
+    }
+
+    @Test
+    public void testHalfOpenFailure() {
+        switchDown();
+
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_000), is(true));
+        assertThat(circuitState.onFailedCall(configuration, NOW + 5_100), is(true));
+
+        assertThat(circuitState.getStatus(), is(CircuitState.Status.OPEN));
+        assertThat(circuitState.getLastShortcutTimestamp(), is(NOW + 5_100));
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_200), is(false));
+    }
+
+    @Test
+    public void testHalfOpenWithoutResult() {
+        switchDown();
+
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_000), is(true));
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 5_000), is(true));
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 9_999), is(false));
+
+        // results of probe calls didn't come within sleep interval => new probes
+        assertThat(circuitState.tryAcquirePermission(configuration, NOW + 10_000), is(true));
+    }
+
+    private void switchDown() {
+        configuration.setMinimalCountInWindow(1);
+        assertThat(circuitState.onFailedCall(configuration, NOW), is(true));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.circuitbreaker.hazelcast;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.hazelcast.map.EntryProcessor;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhubframework.openhub.core.circuitbreaker.CircuitState;
+import org.openhubframework.openhub.core.circuitbreaker.CircuitStatus;
+import org.openhubframework.openhub.spi.circuitbreaker.CircuitConfiguration;
+
+/**
+ * Test suite for entry processors which read and update {@link CircuitState} in Hazelcast map.
+ *
+ * @since 2.4
+ */
+public class CircuitStateEntryProcessorTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private CircuitConfiguration configuration;
+
+    private Map.Entry<String, CircuitState> entry;
+
+    @Before
+    public void prepareEntry() {
+        configuration = new CircuitConfiguration();
+        configuration.setCircuitName("CIRCUIT");
+        configuration.setWindowSizeInMillis(1_000);
+        configuration.setThresholdPercentage(50);
+        configuration.setMinimalCountInWindow(2);
+        configuration.setSleepInMillis(5_000);
+        configuration.setHalfOpenMaxCalls(1);
+
+        entry = new AbstractMap.SimpleEntry<>("CIRCUIT", null);
+    }
+
+    @Test
+    public void testStatusOfNewCircuit() {
+        CircuitStatus status = (CircuitStatus) process(new CircuitStatusEntryProcessor());
+
+        assertThat(status.getStatus(), is(CircuitState.Status.CLOSED));
+        assertThat(status.getLastShortcutTimestamp(), is(0L));
+        // read-only processor doesn't create the entry
+        assertThat(entry.getValue(), nullValue());
+
+        // new circuit is closed, entry isn't created by check of permission
+        assertThat(process(new CallPermissionEntryProcessor(configuration, NOW)), is(Boolean.TRUE));
+        assertThat(entry.getValue(), nullValue());
+    }
+
+    @Test
+    public void testSwitchDown() {
+        assertThat(statusOf(process(new SuccessCallEntryProcessor(configuration, NOW))),
+                is(CircuitState.Status.CLOSED));
+        assertThat(statusOf(process(new SuccessCallEntryProcessor(configuration, NOW))),
+                is(CircuitState.Status.CLOSED));
+        assertThat(process(new FailedCallEntryProcessor(configuration, NOW + 10)), is(Boolean.FALSE));
+        assertThat(entry.getValue().getStatus(), is(CircuitState.Status.CLOSED));
+
+        // 2 of 4 calls failed => threshold 50%
+        assertThat(process(new FailedCallEntryProcessor(configuration, NOW + 20)), is(Boolean.TRUE));
+        assertThat(entry.getValue().getStatus(), is(CircuitState.Status.OPEN));
+
+        CircuitStatus status = (CircuitStatus) process(new CircuitStatusEntryProcessor());
+        assertThat(status.getStatus(), is(CircuitState.Status.OPEN));
+        assertThat(status.getLastShortcutTimestamp(), is(NOW + 20));
+
+        // circuit is down for sleep interval
+        assertThat(process(new CallPermissionEntryProcessor(configuration, NOW + 5_019)), is(Boolean.FALSE));
+        assertThat(entry.getValue().getStatus(), is(CircuitState.Status.OPEN));
+    }
+
+    @Test
+    public void testHalfOpenClose() {
+        switchDown();
+
+        // after sleep only one probe call is permitted
+        assertThat(process(new CallPermissionEntryProcessor(configuration, NOW + 5_000)), is(Boolean.TRUE));
+        assertThat(entry.getValue().getStatus(), is(CircuitState.Status.HALF_OPEN));
+        assertThat(process(new CallPermissionEntryProcessor(configuration, NOW + 5_000)), is(Boolean.FALSE));
+
+        // successful probe call closes circuit
+        assertThat(statusOf(process(new SuccessCallEntryProcessor(configuration, NOW + 5_100))),
+                is(CircuitState.Status.CLOSED));
+        assertThat(process(new CallPermissionEntryProcessor(configuration, NOW + 5_100)), is(Boolean.TRUE));
+    }
+
+    @Test
+    public void testHalfOpenSwitchDown() {
+        switchDown();
+
+        assertThat(process(new CallPermissionEntryProcessor(configuration, NOW + 5_000)), is(Boolean.TRUE));
+
+        // failed probe call opens circuit again
+        assertThat(process(new FailedCallEntryProcessor(configuration, NOW + 5_100)), is(Boolean.TRUE));
+
+        CircuitStatus status = (CircuitStatus) process(new CircuitStatusEntryProcessor());
+        assertThat(status.getStatus(), is(CircuitState.Status.OPEN));
+        assertThat(status.getLastShortcutTimestamp(), is(NOW + 5_100));
+    }
+
+    @Test
+    public void testFailedCallOnOpenCircuit() {
+        switchDown();
+
+        // call started before circuit was switched down doesn't prolong the sleep
+        assertThat(process(new FailedCallEntryProcessor(configuration, NOW + 100)), is(Boolean.FALSE));
+        assertThat(entry.getValue().getLastShortcutTimestamp(), is(NOW));
+    }
+
+    @Test
+    public void testBackupHasSameState() {
+        Map.Entry<String, CircuitState> backup = new AbstractMap.SimpleEntry<>("CIRCUIT", null);
+
+        // timestamp is resolved by the caller, so backup is updated in the same way
+        List<EntryProcessor<String, CircuitState>> processors = Arrays.asList(
+                new FailedCallEntryProcessor(configuration, NOW),
+                new FailedCallEntryProcessor(configuration, NOW + 10),
+                new CallPermissionEntryProcessor(configuration, NOW + 5_010));
+        for (EntryProcessor<String, CircuitState> processor : processors) {
+            processor.process(entry);
+            processor.getBackupProcessor().processBackup(backup);
+        }
+
+        assertThat(backup.getValue().getStatus(), is(entry.getValue().getStatus()));
+        assertThat(backup.getValue().getLastShortcutTimestamp(), is(entry.getValue().getLastShortcutTimestamp()));
+        assertThat(backup.getValue().getStatus(), is(CircuitState.Status.HALF_OPEN));
+    }
+
+    private void switchDown() {
+        process(new FailedCallEntryProcessor(configuration, NOW));
+        assertThat(process(new FailedCallEntryProcessor(configuration, NOW)), is(Boolean.TRUE));
+    }
+
+    private Object process(EntryProcessor<String, CircuitState> processor) {
+        return processor.process(entry);
+    }
+
+    private static CircuitState.Status statusOf(Object circuitStatus) {
+        return ((CircuitStatus) circuitStatus).getStatus();
+    }
+}
@@ -638,26 +638,39 @@ public class AsynchMessageRouteTest extends AbstractCoreDbTest {
     }
 
     /**
-     * Test SEDA with PriorityBlockingQueue and comparator.
+     * Test SEDA with multi-level priority queue - messages with lower priority number
+     * (e.g. re-processed messages) are taken before new messages.
      */
     @Test
     public void testSeda() throws Exception {
+        // messages wait in the queue until consumer starts
+        for (int priority : new int[] {10, 1, 10, 0}) {
+            Message msg = new Message();
+            msg.setProcessingPriority(priority);
+
+            producerSeda.sendBody(msg);
+        }
+
         RouteBuilder route = new AbstractBasicRoute() {
             @Override
             public void doConfigure() throws Exception {
                 from(SEDA_URI)
-                    .log(LoggingLevel.DEBUG, "SEDA priority: ${body.processingPriority}");
+                    .log(LoggingLevel.DEBUG, "SEDA priority: ${body.processingPriority}")
+                    .to("mock:test");
             }
         };
 
+        mock.expectedMessageCount(4);
+
         getCamelContext().addRoutes(route);
 
-        for (int i = 0; i < 5; i++) {
-            Message msg = new Message();
-            msg.setProcessingPriority(i);
+        mock.assertIsSatisfied();
 
-            producerSeda.sendBody(msg);
+        List<Integer> priorities = new ArrayList<>();
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            priorities.add(exchange.getIn().getBody(Message.class).getProcessingPriority());
         }
+        assertThat(priorities.toString(), is("[0, 1, 10, 10]"));
     }
 
     /**
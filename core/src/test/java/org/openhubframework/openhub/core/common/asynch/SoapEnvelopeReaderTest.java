@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringReader;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMSource;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import org.openhubframework.openhub.api.asynch.model.TraceHeader;
+
+
+/**
+ * Test suite for {@link SoapEnvelopeReader}.
+ */
+public class SoapEnvelopeReaderTest {
+
+    private static final QName TRACE_HEADER_NAME = new QName("http://openhubframework.org/ws/Common-v1", "traceHeader");
+
+    private static final String ENVELOPE_START =
+            "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\""
+            + " xmlns:com=\"http://openhubframework.org/ws/Common-v1\">";
+
+    private static final String BODY = "<soapenv:Body>"
+            + "<cus:setCustomerRequest xmlns:cus=\"http://openhubframework.org/ws/CustomerService-v1\">"
+            + "<cus:customerNo>2065</cus:customerNo>"
+            + "</cus:setCustomerRequest>"
+            + "</soapenv:Body>";
+
+    @Test
+    public void testRead() throws Exception {
+        String envelope = ENVELOPE_START
+                + "<soapenv:Header>"
+                + "<com:traceHeader>"
+                + "<com:traceIdentifier>"
+                + "<com:applicationID>ERP</com:applicationID>"
+                + "<com:timestamp>2013-09-27T10:23:34.6987744+02:00</com:timestamp>"
+                + "<com:correlationID>da793349-b486-489a-9180-200789b7007f</com:correlationID>"
+                + "<com:processID>process123</com:processID>"
+                + "</com:traceIdentifier>"
+                + "</com:traceHeader>"
+                + "</soapenv:Header>"
+                + BODY
+                + "</soapenv:Envelope>";
+
+        SoapEnvelopeReader.Result result = SoapEnvelopeReader.read(toSource(envelope), TRACE_HEADER_NAME,
+                event -> false);
+
+        TraceHeader traceHeader = result.getTraceHeader();
+        assertThat(traceHeader, notNullValue());
+        assertThat(traceHeader.getTraceIdentifier().getApplicationID(), is("ERP"));
+        assertThat(traceHeader.getTraceIdentifier().getCorrelationID(), is("da793349-b486-489a-9180-200789b7007f"));
+        assertThat(traceHeader.getTraceIdentifier().getProcessID(), is("process123"));
+
+        assertThat(result.getEnvelope(), containsString("<com:applicationID>ERP</com:applicationID>"));
+        assertThat(result.getEnvelope(), containsString("<cus:customerNo>2065</cus:customerNo>"));
+    }
+
+    @Test
+    public void testReadWithoutTraceHeader() throws Exception {
+        String envelope = ENVELOPE_START + "<soapenv:Header/>" + BODY + "</soapenv:Envelope>";
+
+        SoapEnvelopeReader.Result result = SoapEnvelopeReader.read(toSource(envelope), TRACE_HEADER_NAME,
+                event -> false);
+
+        assertThat(result.getTraceHeader(), nullValue());
+        assertThat(result.getEnvelope(), containsString("<cus:customerNo>2065</cus:customerNo>"));
+    }
+
+    private static DOMSource toSource(String xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+
+        Document doc = factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        return new DOMSource(doc);
+    }
+}
@@ -23,8 +23,13 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import javax.xml.bind.JAXBException;
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.MimeHeaders;
 
 import org.apache.camel.EndpointInject;
 import org.apache.camel.Exchange;
@@ -32,13 +37,19 @@ import org.apache.camel.Produce;
 import org.apache.camel.ProducerTemplate;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.component.spring.ws.SpringWebserviceMessage;
+import org.apache.camel.impl.DefaultExchange;
 import org.junit.Test;
+import org.springframework.ws.soap.SoapHeaderElement;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
 
 import org.openhubframework.openhub.api.asynch.model.TraceHeader;
 import org.openhubframework.openhub.api.asynch.model.TraceIdentifier;
 import org.openhubframework.openhub.api.exception.InternalErrorEnum;
 import org.openhubframework.openhub.api.exception.validation.ValidationException;
 import org.openhubframework.openhub.core.AbstractCoreTest;
+import org.openhubframework.openhub.core.common.asynch.msg.MessageTransformer;
+import org.openhubframework.openhub.core.common.ws.HeaderAndPayloadValidatingInterceptor;
 import org.openhubframework.openhub.core.common.validator.TraceIdentifierValidator;
 
 
@@ -49,6 +60,13 @@ import org.openhubframework.openhub.core.common.validator.TraceIdentifierValidat
  */
 public class TraceHeaderProcessorTest extends AbstractCoreTest {
 
+    private static final String TRACE_IDENTIFIER = "<com:traceIdentifier>"
+            + "<com:applicationID>ERP</com:applicationID>"
+            + "<com:timestamp>2013-09-27T10:23:34.6987744+02:00</com:timestamp>"
+            + "<com:correlationID>da793349-b486-489a-9180-200789b7007f</com:correlationID>"
+            + "<com:processID>process123</com:processID>"
+            + "</com:traceIdentifier>";
+
     @Produce(uri = "direct:testRoute")
     private ProducerTemplate producer;
 
@@ -211,4 +229,109 @@ public class TraceHeaderProcessorTest extends AbstractCoreTest {
         Exchange exchange = mock.getExchanges().get(0);
         assertThat(exchange.getIn().getHeader(TraceHeaderProcessor.TRACE_HEADER), nullValue());
     }
+
+    @Test
+    public void testCaptureEnvelope() throws Exception {
+        TraceHeaderProcessor processor = new TraceHeaderProcessor(true, null, true);
+
+        String traceHeader = "<com:traceHeader>" + TRACE_IDENTIFIER + "</com:traceHeader>";
+        Exchange exchange = createSoapExchange(traceHeader);
+        processor.process(exchange);
+
+        TraceHeader header = exchange.getIn().getHeader(TraceHeaderProcessor.TRACE_HEADER, TraceHeader.class);
+        assertThat(header.getTraceIdentifier().getCorrelationID(), is("da793349-b486-489a-9180-200789b7007f"));
+        assertThat(header.getTraceIdentifier().getApplicationID(), is("ERP"));
+        assertThat(header.getTraceIdentifier().getProcessID(), is("process123"));
+
+        // captured envelope is the same as envelope serialized separately (original implementation)
+        String envelope = exchange.getProperty(TraceHeaderProcessor.SOAP_ENVELOPE_PROP, String.class);
+        assertThat(envelope, notNullValue());
+        assertThat(envelope, is(MessageTransformer.getSOAPEnvelope(createSoapExchange(traceHeader))));
+        assertThat(MessageTransformer.getSOAPEnvelope(exchange), is(envelope));
+    }
+
+    @Test
+    public void testCaptureEnvelope_malformedHeader() throws Exception {
+        String traceHeader = "<com:traceHeader>"
+                + "<com:traceIdentifier>"
+                + "<com:applicationID>ERP</com:applicationID>"
+                + "<com:unknownElement>value</com:unknownElement>"
+                + "</com:traceIdentifier>"
+                + "</com:traceHeader>";
+
+        // the same exception with and without capturing of envelope
+        for (boolean captureEnvelope : new boolean[] {true, false}) {
+            Exchange exchange = createSoapExchange(traceHeader);
+            try {
+                new TraceHeaderProcessor(true, null, captureEnvelope).process(exchange);
+                fail("trace header is malformed");
+            } catch (JAXBException ex) {
+                // OK
+            }
+
+            assertThat(exchange.getIn().getHeader(TraceHeaderProcessor.TRACE_HEADER), nullValue());
+        }
+    }
+
+    @Test
+    public void testCaptureEnvelope_noTraceIdentifier() throws Exception {
+        Exchange exchange = createSoapExchange("<com:traceHeader/>");
+        try {
+            new TraceHeaderProcessor(true, null, true).process(exchange);
+            fail("there is no trace identifier");
+        } catch (ValidationException ex) {
+            assertThat(ex.getError().getErrorCode(), is(InternalErrorEnum.E105.getErrorCode()));
+        }
+
+        // trace identifier is optional
+        exchange = createSoapExchange("<com:traceHeader/>");
+        new TraceHeaderProcessor(false, null, true).process(exchange);
+        assertThat(exchange.getIn().getHeader(TraceHeaderProcessor.TRACE_HEADER), nullValue());
+        assertThat(exchange.getProperty(TraceHeaderProcessor.SOAP_ENVELOPE_PROP), notNullValue());
+    }
+
+    @Test
+    public void testCaptureEnvelope_traceIdNotAllowed() throws Exception {
+        TraceHeaderProcessor processor = new TraceHeaderProcessor(true,
+                Collections.<TraceIdentifierValidator>singletonList(traceIdentifier -> false), true);
+
+        Exchange exchange = createSoapExchange("<com:traceHeader>" + TRACE_IDENTIFIER + "</com:traceHeader>");
+        try {
+            processor.process(exchange);
+            fail("request must be rejected since traceId does not have the valid value");
+        } catch (ValidationException ex) {
+            assertThat(ex.getError().getErrorCode(), is(InternalErrorEnum.E120.getErrorCode()));
+        }
+
+        assertThat(exchange.getIn().getHeader(TraceHeaderProcessor.TRACE_HEADER), nullValue());
+    }
+
+    /**
+     * Creates exchange with SOAP message as incoming web service message, trace header element is set
+     * as {@link TraceHeaderProcessor#TRACE_HEADER_ELM} header.
+     */
+    private Exchange createSoapExchange(String traceHeader) throws Exception {
+        String envelope = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\""
+                + " xmlns:com=\"http://openhubframework.org/ws/Common-v1\">"
+                + "<soapenv:Header>" + traceHeader + "</soapenv:Header>"
+                + "<soapenv:Body>"
+                + "<cus:setCustomerRequest xmlns:cus=\"http://openhubframework.org/ws/CustomerService-v1\">"
+                + "<cus:customerNo>2065</cus:customerNo>"
+                + "</cus:setCustomerRequest>"
+                + "</soapenv:Body>"
+                + "</soapenv:Envelope>";
+
+        MimeHeaders mimeHeaders = new MimeHeaders();
+        mimeHeaders.addHeader("Content-Type", "text/xml; charset=UTF-8");
+        SaajSoapMessage message = new SaajSoapMessage(MessageFactory.newInstance().createMessage(mimeHeaders,
+                new ByteArrayInputStream(envelope.getBytes(StandardCharsets.UTF_8))));
+
+        SoapHeaderElement traceHeaderElm = message.getSoapHeader()
+                .examineHeaderElements(HeaderAndPayloadValidatingInterceptor.TRACE_HEADER_ELM).next();
+
+        Exchange exchange = new DefaultExchange(getCamelContext());
+        exchange.setIn(new SpringWebserviceMessage(message));
+        exchange.getIn().setHeader(TraceHeaderProcessor.TRACE_HEADER_ELM, traceHeaderElm);
+        return exchange;
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.openhubframework.openhub.api.asynch.model.TraceHeader;
+import org.openhubframework.openhub.common.xml.PoolStatistics;
+import org.openhubframework.openhub.common.xml.XmlPools;
+
+
+/**
+ * Benchmark of unmarshalling of {@link TraceHeader} in {@link TraceHeaderProcessor} - pooled unmarshallers
+ * from {@link XmlPools} versus new unmarshaller for each message (original implementation).
+ * <p>
+ * Count of unmarshalled headers is {@value #DEFAULT_HEADERS} per thread by default to keep the build fast,
+ * use system property {@value #HEADERS_PROPERTY} for longer run (e.g. {@code 100000}).
+ * Average time per header is logged for both variants, count of created unmarshallers is checked.
+ *
+ * @since 2.4
+ */
+public class TraceHeaderUnmarshallingBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TraceHeaderUnmarshallingBenchmarkTest.class);
+
+    private static final String HEADERS_PROPERTY = "ohf.benchmark.traceHeaders";
+
+    private static final int DEFAULT_HEADERS = 2000;
+
+    private static final int THREADS = 4;
+
+    private static final String HEADER = "<traceHeader xmlns=\"http://openhubframework.org/ws/Common-v1\">"
+            + "    <traceIdentifier>"
+            + "        <applicationID>ERP</applicationID>"
+            + "        <timestamp>2013-09-27T10:23:34.6987744+02:00</timestamp>"
+            + "        <correlationID>%d</correlationID>"
+            + "    </traceIdentifier>"
+            + "</traceHeader>";
+
+    private int headers;
+
+    private ExecutorService executor;
+
+    @Before
+    public void prepareExecutor() {
+        headers = Integer.getInteger(HEADERS_PROPERTY, DEFAULT_HEADERS);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPooledUnmarshallers() throws Exception {
+        Callable<Integer> task = () -> {
+            int count = 0;
+            for (int i = 0; i < headers; i++) {
+                StreamSource source = createSource(i);
+                TraceHeader header = XmlPools.withUnmarshaller(TraceHeader.class,
+                        unmarshaller -> unmarshaller.unmarshal(source, TraceHeader.class).getValue());
+                count += checkHeader(header, i);
+            }
+            return count;
+        };
+
+        // warm up
+        runConcurrently(task);
+
+        PoolStatistics before = XmlPools.getUnmarshallerStatistics();
+        long start = System.nanoTime();
+
+        assertThat(runConcurrently(task), is(THREADS * headers));
+
+        long duration = System.nanoTime() - start;
+        logResult("pooled unmarshallers", duration);
+
+        // no new unmarshaller is needed after warm up, one unmarshaller per thread at most
+        PoolStatistics after = XmlPools.getUnmarshallerStatistics();
+        long borrowCount = after.getBorrowCount() - before.getBorrowCount();
+        long hitCount = after.getHitCount() - before.getHitCount();
+        assertThat(borrowCount, is((long) THREADS * headers));
+        assertThat(borrowCount - hitCount, lessThanOrEqualTo((long) THREADS));
+        assertThat(hitCount, greaterThanOrEqualTo((long) THREADS * (headers - 1)));
+    }
+
+    @Test
+    public void testUnmarshallerPerCall() throws Exception {
+        // shared context, new unmarshaller for each header
+        JAXBContext jaxbContext = JAXBContext.newInstance(TraceHeader.class);
+
+        Callable<Integer> task = () -> {
+            int count = 0;
+            for (int i = 0; i < headers; i++) {
+                TraceHeader header = jaxbContext.createUnmarshaller()
+                        .unmarshal(createSource(i), TraceHeader.class).getValue();
+                count += checkHeader(header, i);
+            }
+            return count;
+        };
+
+        // warm up
+        runConcurrently(task);
+
+        long start = System.nanoTime();
+
+        assertThat(runConcurrently(task), is(THREADS * headers));
+
+        long duration = System.nanoTime() - start;
+        logResult("unmarshaller per call", duration);
+    }
+
+    private int runConcurrently(Callable<Integer> task) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(task));
+        }
+
+        int count = 0;
+        for (Future<Integer> future : futures) {
+            count += future.get(60, TimeUnit.SECONDS);
+        }
+        return count;
+    }
+
+    private static StreamSource createSource(int order) {
+        return new StreamSource(new StringReader(String.format(HEADER, order)));
+    }
+
+    private static int checkHeader(TraceHeader header, int order) throws JAXBException {
+        if (header == null || !String.valueOf(order).equals(header.getTraceIdentifier().getCorrelationID())) {
+            throw new JAXBException("unexpected trace header for order " + order);
+        }
+        return 1;
+    }
+
+    private void logResult(String name, long durationNanos) {
+        LOG.info("Trace headers with {}: {} threads, {} headers per thread, total time = {} ms, "
+                        + "avg time per header = {} us",
+                name, THREADS, headers, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                TimeUnit.NANOSECONDS.toMicros(durationNanos) / ((long) THREADS * headers));
+    }
+}
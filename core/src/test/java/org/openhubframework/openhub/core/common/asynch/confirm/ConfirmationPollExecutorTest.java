@@ -22,17 +22,27 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.Query;
 
 import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.component.mock.MockEndpoint;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
@@ -42,6 +52,7 @@ import org.openhubframework.openhub.api.entity.ExternalCallStateEnum;
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.core.AbstractCoreDbTest;
+import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
 import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
 import org.openhubframework.openhub.test.data.ServiceTestEnum;
 
@@ -62,6 +73,9 @@ public class ConfirmationPollExecutorTest extends AbstractCoreDbTest {
     @Autowired
     private ConfirmationService confirmationService;
 
+    @Autowired
+    private ConfirmationPool confirmationPool;
+
     /**
      * Interval (in seconds) between two tries of failed confirmations.
      */
@@ -139,12 +153,149 @@ public class ConfirmationPollExecutorTest extends AbstractCoreDbTest {
         confirmationService.confirmationFailed(extCall1);
         extCall1 = findConfirmation("1234_4567");
         assertThat(extCall1.getState(), is(ExternalCallStateEnum.FAILED));
+        assertThat(extCall1.getNextAttemptTimestamp(), notNullValue());
 
         confirmationService.confirmationComplete(extCall2);
         extCall2 = findConfirmation("1234_4567_8");
         assertThat(extCall2.getState(), is(ExternalCallStateEnum.OK));
     }
 
+    @Test
+    public void testGetNextConfirmations() throws InterruptedException {
+        final TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        txTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                insertFailedConfirmation("crm_1", ExternalSystemTestEnum.CRM, 1);
+                insertFailedConfirmation("crm_2", ExternalSystemTestEnum.CRM, 2);
+                insertFailedConfirmation("billing_1", ExternalSystemTestEnum.BILLING, 3);
+                insertFailedConfirmation("crm_3", ExternalSystemTestEnum.CRM, 4);
+                insertFailedConfirmation("billing_2", ExternalSystemTestEnum.BILLING, 5);
+            }
+        });
+
+        final ExternalCall staleCall = findConfirmation("crm_1");
+        Thread.sleep(10);
+
+        // the oldest confirmations are locked
+        List<ExternalCall> extCalls = getNextConfirmations(txTemplate, 2, Collections.emptySet());
+        assertThat(getEntityIds(extCalls), is("[crm_1, crm_2]"));
+        for (ExternalCall extCall : extCalls) {
+            assertThat(extCall.getState(), is(ExternalCallStateEnum.PROCESSING));
+            assertThat(extCall.getMessage(), notNullValue());
+        }
+        assertThat(extCalls.get(0).getLastUpdateTimestamp().isAfter(staleCall.getLastUpdateTimestamp()), is(true));
+
+        // bulk update increments version => the confirmation can't be overwritten by stale data
+        try {
+            txTemplate.execute(status -> em.merge(staleCall));
+            fail("Stale confirmation must not be saved");
+        } catch (OptimisticLockException | OptimisticLockingFailureException ex) {
+            // OK, confirmation was changed by another transaction
+        }
+
+        // locked confirmations and confirmations of excluded systems are skipped
+        extCalls = getNextConfirmations(txTemplate, 10, Collections.singleton(ExternalSystemTestEnum.CRM.name()));
+        assertThat(getEntityIds(extCalls), is("[billing_1, billing_2]"));
+
+        extCalls = getNextConfirmations(txTemplate, 10, Collections.emptySet());
+        assertThat(getEntityIds(extCalls), is("[crm_3]"));
+
+        extCalls = getNextConfirmations(txTemplate, 10, Collections.emptySet());
+        assertThat(extCalls.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testParallelismPerSystem() throws Exception {
+        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+        txTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                for (int i = 1; i <= 6; i++) {
+                    insertFailedConfirmation("crm_" + i, ExternalSystemTestEnum.CRM, i);
+                }
+                insertFailedConfirmation("billing_1", ExternalSystemTestEnum.BILLING, 7);
+                insertFailedConfirmation("billing_2", ExternalSystemTestEnum.BILLING, 8);
+            }
+        });
+
+        final int parallelism = 2;
+        setPrivateField(pollExecutor, "parallelism", new FixedConfigurationItem<>(parallelism));
+        setPrivateField(pollExecutor, "batchSize", new FixedConfigurationItem<>(2));
+        setPrivateField(pollExecutor, "targetURI", "direct:testConfirm");
+
+        // CRM doesn't respond until it's released
+        final CountDownLatch crmStarted = new CountDownLatch(parallelism);
+        final CountDownLatch crmReleased = new CountDownLatch(1);
+        final CountDownLatch billingSent = new CountDownLatch(2);
+        final Map<String, AtomicInteger> concurrentCalls = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> maxConcurrentCalls = new ConcurrentHashMap<>();
+        final AtomicInteger crmSent = new AtomicInteger();
+
+        getCamelContext().addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:testConfirm")
+                        .process(exchange -> {
+                            ExternalCall extCall = exchange.getIn().getBody(ExternalCall.class);
+                            String system = extCall.getMessage().getSourceSystem().getSystemName();
+
+                            int calls = concurrentCalls.computeIfAbsent(system, key -> new AtomicInteger())
+                                    .incrementAndGet();
+                            maxConcurrentCalls.computeIfAbsent(system, key -> new AtomicInteger())
+                                    .accumulateAndGet(calls, Math::max);
+                            try {
+                                if (ExternalSystemTestEnum.CRM.name().equals(system)) {
+                                    crmStarted.countDown();
+                                    crmReleased.await(10, TimeUnit.SECONDS);
+                                    crmSent.incrementAndGet();
+                                } else {
+                                    billingSent.countDown();
+                                }
+                            } finally {
+                                concurrentCalls.get(system).decrementAndGet();
+                            }
+                        });
+            }
+        });
+
+        Thread pollThread = new Thread(pollExecutor);
+        pollThread.start();
+
+        // CRM is blocked, but confirmations for BILLING are sent
+        assertThat(crmStarted.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(billingSent.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(crmSent.get(), is(0));
+        assertThat(maxConcurrentCalls.get(ExternalSystemTestEnum.CRM.name()).get(), is(parallelism));
+
+        crmReleased.countDown();
+        pollThread.join(10000);
+
+        assertThat(pollThread.isAlive(), is(false));
+        assertThat(crmSent.get(), is(6));
+        assertThat(maxConcurrentCalls.get(ExternalSystemTestEnum.CRM.name()).get(), is(parallelism));
+    }
+
+    private List<ExternalCall> getNextConfirmations(TransactionTemplate txTemplate, final int limit,
+            final Set<String> excludedSystems) {
+        return txTemplate.execute(status -> confirmationPool.getNextConfirmations(limit, excludedSystems));
+    }
+
+    private static String getEntityIds(List<ExternalCall> extCalls) {
+        return extCalls.stream()
+                .map(ExternalCall::getEntityId)
+                .collect(Collectors.toList())
+                .toString();
+    }
+
+    private void insertFailedConfirmation(String correlationId, ExternalSystemTestEnum sourceSystem, int order) {
+        Message msg = insertNewMessage(correlationId, sourceSystem);
+        ExternalCall extCall = confirmationService.insertFailedConfirmation(msg);
+
+        // confirmations are locked in order of creation
+        extCall.setCreationTimestamp(Instant.now().minusSeconds(100 - order));
+    }
+
     @SuppressWarnings("unchecked")
     @Nullable
     private ExternalCall findConfirmation(String correlationId) {
@@ -165,6 +316,10 @@ public class ConfirmationPollExecutorTest extends AbstractCoreDbTest {
     }
 
     private Message insertNewMessage(String correlationId) {
+        return insertNewMessage(correlationId, ExternalSystemTestEnum.CRM);
+    }
+
+    private Message insertNewMessage(String correlationId, ExternalSystemTestEnum sourceSystem) {
         Instant currDate = Instant.now();
 
         Message msg = new Message();
@@ -173,7 +328,7 @@ public class ConfirmationPollExecutorTest extends AbstractCoreDbTest {
         msg.setMsgTimestamp(currDate);
         msg.setReceiveTimestamp(currDate);
         msg.setLastUpdateTimestamp(currDate);
-        msg.setSourceSystem(ExternalSystemTestEnum.CRM);
+        msg.setSourceSystem(sourceSystem);
         msg.setCorrelationId(correlationId);
 
         msg.setService(ServiceTestEnum.CUSTOMER);
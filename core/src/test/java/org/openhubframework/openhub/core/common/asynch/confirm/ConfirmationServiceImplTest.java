@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openhubframework.openhub.core.common.asynch.confirm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openhubframework.openhub.common.time.Seconds;
+import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
+
+
+/**
+ * Test suite for {@link ConfirmationServiceImpl} - time of next attempt of failed confirmation.
+ *
+ * @since 2.4
+ */
+public class ConfirmationServiceImplTest {
+
+    private static final int INTERVAL_SEC = 60;
+
+    private static final int MAX_INTERVAL_SEC = 3600;
+
+    private ConfirmationServiceImpl confirmationService = new ConfirmationServiceImpl();
+
+    @Before
+    public void prepareService() {
+        setPrivateField(confirmationService, "interval", new FixedConfigurationItem<>(Seconds.of(INTERVAL_SEC)));
+        setPrivateField(confirmationService, "maxInterval",
+                new FixedConfigurationItem<>(Seconds.of(MAX_INTERVAL_SEC)));
+    }
+
+    @Test
+    public void testIntervalDoubledWithEachFailure() {
+        assertNextAttempt(1, INTERVAL_SEC);
+        assertNextAttempt(2, 2 * INTERVAL_SEC);
+        assertNextAttempt(3, 4 * INTERVAL_SEC);
+        assertNextAttempt(6, 32 * INTERVAL_SEC);
+    }
+
+    @Test
+    public void testMaxInterval() {
+        assertNextAttempt(7, MAX_INTERVAL_SEC);
+        assertNextAttempt(100, MAX_INTERVAL_SEC);
+        assertNextAttempt(Integer.MAX_VALUE, MAX_INTERVAL_SEC);
+    }
+
+    @Test
+    public void testNoFailure() {
+        assertNextAttempt(0, INTERVAL_SEC);
+    }
+
+    @Test
+    public void testMaxIntervalLowerThanInterval() {
+        setPrivateField(confirmationService, "maxInterval", new FixedConfigurationItem<>(Seconds.of(10)));
+
+        assertNextAttempt(1, INTERVAL_SEC);
+        assertNextAttempt(5, INTERVAL_SEC);
+    }
+
+    /**
+     * Asserts that next attempt is between half of delay and full delay from now.
+     */
+    private void assertNextAttempt(int failedCount, int delaySec) {
+        Instant before = Instant.now();
+        Instant nextAttempt = confirmationService.getNextAttemptTimestamp(failedCount);
+        Instant after = Instant.now();
+
+        Duration delay = Duration.ofSeconds(delaySec);
+        assertThat("next attempt after " + failedCount + " failure(s) is too early: " + nextAttempt,
+                nextAttempt.isBefore(before.plus(delay.dividedBy(2))), is(false));
+        assertThat("next attempt after " + failedCount + " failure(s) is too late: " + nextAttempt,
+                nextAttempt.isAfter(after.plus(delay)), is(false));
+    }
+}
@@ -22,6 +22,7 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.time.Instant;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -29,7 +30,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.api.entity.MutableNode;
 import org.openhubframework.openhub.common.time.Seconds;
 import org.openhubframework.openhub.core.AbstractCoreDbTest;
 import org.openhubframework.openhub.core.common.asynch.queue.MessagesPool;
@@ -127,6 +130,68 @@ public class MessagesPoolDbTest extends AbstractCoreDbTest {
         assertThat(nextMsg, nullValue());
     }
 
+    @Test
+    public void testGetNextMessages() {
+        insertNewMessage("id1", MsgStateEnum.PARTLY_FAILED, Instant.now());
+        insertNewMessage("id2", MsgStateEnum.FAILED, Instant.now());
+        insertNewMessage("id3", MsgStateEnum.POSTPONED, Instant.now());
+        insertNewMessage("id4", MsgStateEnum.PARTLY_FAILED, Instant.now());
+
+        List<Message> messages = messagesPool.getNextMessages(2);
+        assertThat(messages.size(), is(2));
+        assertThat(messages.get(0).getCorrelationId(), is("id1"));
+        assertThat(messages.get(1).getCorrelationId(), is("id3"));
+        for (Message msg : messages) {
+            assertThat(msg.getState(), is(MsgStateEnum.IN_QUEUE));
+            assertThat(msg.getNodeId(), is(nodeService.getActualNode().getNodeId()));
+            assertThat(msg.getStartInQueueTimestamp(), notNullValue());
+
+            Message dbMsg = em.find(Message.class, msg.getMsgId());
+            assertThat(dbMsg.getState(), is(MsgStateEnum.IN_QUEUE));
+            assertThat(dbMsg.getNodeId(), is(nodeService.getActualNode().getNodeId()));
+        }
+
+        // try again
+        messages = messagesPool.getNextMessages(2);
+        assertThat(messages.size(), is(1));
+        assertThat(messages.get(0).getCorrelationId(), is("id4"));
+
+        messages = messagesPool.getNextMessages(2);
+        assertThat(messages.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testGetNextMessages_partitioned() {
+        setPrivateField(messagesPool, "partitionedPolling", new FixedConfigurationItem<>(Boolean.TRUE));
+
+        // two running nodes => two partitions
+        nodeService.getActualNode();
+        nodeService.insert(new MutableNode("codeSecond", "nameSecond"));
+        MessagePartition partition = nodeService.getActualNodePartition();
+        assertThat(partition.getCount(), is(2));
+
+        for (int i = 0; i < 4; i++) {
+            insertNewMessage("id" + i, MsgStateEnum.PARTLY_FAILED, Instant.now());
+        }
+
+        // firstly messages from own partition only
+        List<Message> messages = messagesPool.getNextMessages(10);
+        assertThat(messages.size(), is(2));
+        for (Message msg : messages) {
+            assertThat(partition.contains(msg.getMsgId()), is(true));
+        }
+
+        // own partition is empty => messages from partition of the second node
+        messages = messagesPool.getNextMessages(10);
+        assertThat(messages.size(), is(2));
+        for (Message msg : messages) {
+            assertThat(partition.contains(msg.getMsgId()), is(false));
+        }
+
+        messages = messagesPool.getNextMessages(10);
+        assertThat(messages.isEmpty(), is(true));
+    }
+
     private void insertNewMessage(String correlationId, MsgStateEnum state, Instant lastUpdateTimestamp) {
         Instant currDate = Instant.now();
 
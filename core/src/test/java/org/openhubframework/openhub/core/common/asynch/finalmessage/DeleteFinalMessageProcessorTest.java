@@ -21,6 +21,8 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.time.Instant;
+import java.util.Arrays;
 import javax.persistence.TypedQuery;
 
 import org.junit.Before;
@@ -28,6 +30,7 @@ import org.junit.Test;
 import org.openhubframework.openhub.api.asynch.finalmessage.FinalMessageProcessor;
 import org.openhubframework.openhub.api.entity.ExternalCall;
 import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.api.entity.Request;
 import org.openhubframework.openhub.api.entity.Response;
 import org.openhubframework.openhub.core.AbstractCoreDbTest;
@@ -170,6 +173,53 @@ public class DeleteFinalMessageProcessorTest extends AbstractCoreDbTest {
         assertThat(countInTable(Request.class), is(0L));
     }
 
+    @Test
+    public void test_bulkDelete_withAllEntities() {
+        final Instant lastChangeTo = Instant.now().minusSeconds(3600);
+        final Message[] messages = createAndSaveMessages(3, (message, order) -> {
+            switch (order) {
+                case 1:
+                    message.setState(MsgStateEnum.OK);
+                    message.setLastUpdateTimestamp(lastChangeTo.minusSeconds(1));
+                    break;
+                case 2:
+                    // updated too recently, should not be deleted
+                    message.setState(MsgStateEnum.OK);
+                    message.setLastUpdateTimestamp(Instant.now());
+                    break;
+                case 3:
+                    // another state, should not be deleted
+                    message.setState(MsgStateEnum.FAILED);
+                    message.setLastUpdateTimestamp(lastChangeTo.minusSeconds(1));
+                    break;
+            }
+        });
+
+        for (Message message : Arrays.asList(messages[0], messages[2])) {
+            Request request = Request.createRequest("http://test.url", "join id", "request payload", message);
+            requestResponseService.insertRequest(request);
+            requestResponseService.insertResponse(Response.createResponse(request, "response payload", null, message));
+
+            externalCallService.prepare("operationUri", "operationKey" + message.getId(), message);
+        }
+
+        assertThat(countInTable(Message.class), is(3L));
+        assertThat(countInTable(ExternalCall.class), is(2L));
+        assertThat(countInTable(Request.class), is(2L));
+        assertThat(countInTable(Response.class), is(2L));
+
+        // invoke tested
+        int count = ((DeleteFinalMessageProcessor) deleteFinalMessageProcessor).deleteMessages(MsgStateEnum.OK,
+                lastChangeTo, messages[0].getId(), messages[2].getId());
+
+        assertThat(count, is(1));
+        assertThat(messageService.findMessageById(messages[0].getId()), nullValue());
+        assertThat(countInTable(Message.class), is(2L));
+        assertThat(countInTable(ExternalCall.class), is(1L));
+        assertThat(countInTable(Request.class), is(1L));
+        assertThat(countInTable(Response.class), is(1L));
+    }
+
     private long countInTable(Class clazz) {
         TypedQuery<Long> query = em.createQuery(
                 "SELECT COUNT(t) FROM " + clazz.getName() + " t ", Long.class);
@@ -21,6 +21,11 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -30,12 +35,17 @@ import java.util.List;
 import org.junit.Test;
 import org.openhubframework.openhub.api.entity.MessageFilter;
 import org.openhubframework.openhub.test.data.ServiceTestEnum;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.openhubframework.openhub.api.entity.Message;
 import org.openhubframework.openhub.api.entity.MsgStateEnum;
 import org.openhubframework.openhub.common.time.Seconds;
 import org.openhubframework.openhub.core.AbstractCoreDbTest;
+import org.openhubframework.openhub.core.common.asynch.queue.RepeatableMessagesDispatcher;
 import org.openhubframework.openhub.spi.msg.MessageService;
 import org.openhubframework.openhub.test.data.ErrorTestEnum;
 import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
@@ -125,6 +135,43 @@ public class MessageServiceTest extends AbstractCoreDbTest {
         assertSetState(MsgStateEnum.PROCESSING, processor, MsgStateEnum.PARTLY_FAILED);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScheduleForReprocessingAfterCommit() throws Exception {
+        final Message[] messages = createAndSaveMessages(2, (message, order) -> message.setState(MsgStateEnum.NEW));
+
+        RepeatableMessagesDispatcher dispatcher = mock(RepeatableMessagesDispatcher.class);
+        ObjectProvider<RepeatableMessagesDispatcher> dispatcherProvider = mock(ObjectProvider.class);
+        when(dispatcherProvider.getIfAvailable()).thenReturn(dispatcher);
+
+        Object messageServiceImpl = AopTestUtils.getTargetObject(messageService);
+        Object origProvider = ReflectionTestUtils.getField(messageServiceImpl, "repeatableMessagesDispatcher");
+        setPrivateField(messageServiceImpl, "repeatableMessagesDispatcher", dispatcherProvider);
+        try {
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+            // committed change => message is scheduled after commit
+            tx.execute(status -> {
+                messageService.setStatePartlyFailedWithoutError(messages[0]);
+
+                verify(dispatcher, never()).schedule(any(Message.class));
+                return null;
+            });
+            verify(dispatcher).schedule(messages[0]);
+
+            // rolled back change => message isn't scheduled
+            tx.execute(status -> {
+                messageService.setStatePartlyFailedWithoutError(messages[1]);
+                status.setRollbackOnly();
+                return null;
+            });
+            verify(dispatcher, never()).schedule(messages[1]);
+
+        } finally {
+            setPrivateField(messageServiceImpl, "repeatableMessagesDispatcher", origProvider);
+        }
+    }
+
     @Test
     public void testSetStateFailed() throws Exception {
         MessageCallback processor = new MessageCallback() {
@@ -429,6 +476,40 @@ public class MessageServiceTest extends AbstractCoreDbTest {
         assertThat(messageService.findMessagesByFilter(filter, 100L).size(), is(3));
     }
 
+    @Test
+    public void testFindMessageListItemsByFilter_cursor() throws Exception {
+        // prepare messages - three of them with the same receive timestamp
+        final Instant received = LocalDateTime.of(2017,5,27,19,17,10).toInstant(ZoneOffset.UTC);
+        createAndSaveMessages(5, (message, order) -> {
+            message.setPayload("message-payload");
+            message.setReceiveTimestamp(received.plusSeconds(order < 3 ? order : 3));
+        });
+
+        final MessageFilter filter = new MessageFilter();
+        filter.setReceivedFrom(received);
+
+        List<Message> firstPage = messageService.findMessageListItemsByFilter(filter, 2L);
+        assertThat(firstPage.size(), is(2));
+        assertThat(firstPage.get(0).getPayload(), nullValue());
+        assertThat(firstPage.get(0).getSourceSystem(), notNullValue());
+        assertThat(firstPage.get(0).getService(), notNullValue());
+        assertThat(firstPage.get(0).getMsgId() > firstPage.get(1).getMsgId(), is(true));
+
+        Message last = firstPage.get(1);
+        filter.setCursorReceived(last.getReceiveTimestamp());
+        filter.setCursorId(last.getMsgId());
+        List<Message> secondPage = messageService.findMessageListItemsByFilter(filter, 2L);
+        assertThat(secondPage.size(), is(2));
+        assertThat(secondPage.get(0).getMsgId() < last.getMsgId(), is(true));
+
+        last = secondPage.get(1);
+        filter.setCursorReceived(last.getReceiveTimestamp());
+        filter.setCursorId(last.getMsgId());
+        List<Message> thirdPage = messageService.findMessageListItemsByFilter(filter, 2L);
+        assertThat(thirdPage.size(), is(1));
+        assertThat(thirdPage.get(0).getReceiveTimestamp(), is(received.plusSeconds(1)));
+    }
+
     @Test
     public void findPostponedMessage_ok() {
         // prepare messages
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.msg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Produce;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.concurrent.SynchronousExecutorService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.openhubframework.openhub.api.asynch.AsynchConstants;
+import org.openhubframework.openhub.api.asynch.msg.ChildMessage;
+import org.openhubframework.openhub.api.entity.BindingTypeEnum;
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.api.exception.IntegrationException;
+import org.openhubframework.openhub.api.route.AbstractBasicRoute;
+import org.openhubframework.openhub.core.AbstractCoreDbTest;
+import org.openhubframework.openhub.core.common.asynch.AsynchMessageRoute;
+import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
+import org.openhubframework.openhub.spi.msg.MessageService;
+import org.openhubframework.openhub.test.TestCamelUtils;
+import org.openhubframework.openhub.test.data.ErrorTestEnum;
+import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
+import org.openhubframework.openhub.test.data.ServiceTestEnum;
+import org.openhubframework.openhub.test.route.ActiveRoutes;
+
+
+/**
+ * Test suite for {@link MessageSplitterImpl} with child messages processed in parallel by {@link AsynchMessageRoute}.
+ * <p>
+ * Test isn't transactional - child messages are processed in own threads and transactions, each child message
+ * locks the parent message when it's finished.
+ *
+ * @since 2.4
+ */
+@ActiveRoutes(classes = AsynchMessageRoute.class)
+public class MessageSplitterImplDbTest extends AbstractCoreDbTest {
+
+    private static final int PARALLELISM = 4;
+
+    private static final int CHILD_COUNT = 8;
+
+    private static final String FAIL_BODY = "fail";
+
+    private static final String CHILD_OPERATION = "setChild";
+
+    @Produce(uri = AsynchMessageRoute.URI_SYNC_MSG)
+    private ProducerTemplate producerSyncMsg;
+
+    @Autowired
+    private AsynchMessageRoute asynchMessageRoute;
+
+    @Autowired
+    private MessageService messageService;
+
+    private TransactionTemplate txTemplate;
+
+    private Message parentMsg;
+
+    @Before
+    public void prepareData() throws Exception {
+        // child message fails at first attempt
+        setPrivateField(asynchMessageRoute, "countPartlyFailsBeforeFailed", new FixedConfigurationItem<>(0));
+
+        txTemplate = new TransactionTemplate(transactionManager);
+
+        Instant currDate = Instant.now();
+
+        parentMsg = new Message();
+        parentMsg.setState(MsgStateEnum.IN_QUEUE);
+        parentMsg.setMsgTimestamp(currDate);
+        parentMsg.setReceiveTimestamp(currDate);
+        parentMsg.setLastUpdateTimestamp(currDate);
+        parentMsg.setSourceSystem(ExternalSystemTestEnum.CRM);
+        parentMsg.setCorrelationId("123-456");
+        parentMsg.setService(ServiceTestEnum.CUSTOMER);
+        parentMsg.setOperationName("setCustomer");
+        parentMsg.setPayload("parent");
+
+        txTemplate.execute(status -> {
+            em.persist(parentMsg);
+            return null;
+        });
+
+        getCamelContext().addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:" + ServiceTestEnum.ACCOUNT.getServiceName() + "_" + CHILD_OPERATION
+                        + AbstractBasicRoute.OUT_ROUTE_SUFFIX)
+                    .errorHandler(noErrorHandler())
+                    .choice()
+                        .when(body().isEqualTo(FAIL_BODY))
+                            .process(TestCamelUtils.throwException(new IntegrationException(ErrorTestEnum.E300)))
+                    .end();
+            }
+        });
+    }
+
+    @Test
+    public void testParallelChildMessages_ok() throws Exception {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < CHILD_COUNT; i++) {
+            bodies.add("body" + i);
+        }
+
+        split(bodies);
+
+        assertThat(getMessageState(parentMsg.getMsgId()), is(MsgStateEnum.OK));
+        for (Message childMsg : findChildMessages()) {
+            assertThat(childMsg.getState(), is(MsgStateEnum.OK));
+        }
+    }
+
+    @Test
+    public void testParallelChildMessages_partlyFailed() throws Exception {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < CHILD_COUNT; i++) {
+            bodies.add(i % 3 == 1 ? FAIL_BODY : "body" + i);
+        }
+
+        split(bodies);
+
+        // any failed child message with HARD binding => failed parent message
+        assertThat(getMessageState(parentMsg.getMsgId()), is(MsgStateEnum.FAILED));
+
+        List<Message> childMessages = findChildMessages();
+        assertThat(childMessages.size(), is(CHILD_COUNT));
+
+        int failedCount = 0;
+        for (Message childMsg : childMessages) {
+            if (FAIL_BODY.equals(childMsg.getPayload())) {
+                assertThat(childMsg.getState(), is(MsgStateEnum.FAILED));
+                failedCount++;
+            } else {
+                // other child messages are processed further
+                assertThat(childMsg.getState(), is(MsgStateEnum.OK));
+            }
+        }
+        assertThat(failedCount, is(3));
+    }
+
+    /**
+     * Sends parent message which is split to child messages with HARD binding, child messages are processed
+     * in parallel and the method waits for all of them.
+     */
+    private void split(final List<String> bodies) throws Exception {
+        final MessageSplitterImpl splitter = new MessageSplitterImpl(messageService, getCamelContext(),
+                (parent, body) -> {
+                    List<ChildMessage> childMessages = new ArrayList<>();
+                    for (String childBody : bodies) {
+                        childMessages.add(new ChildMessage(parent, BindingTypeEnum.HARD, ServiceTestEnum.ACCOUNT,
+                                CHILD_OPERATION, childBody, null, null, null));
+                    }
+                    return childMessages;
+                }, PARALLELISM, true);
+        // waits for processing of child messages
+        setPrivateField(splitter, "executor", new SynchronousExecutorService());
+
+        getCamelContext().addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:" + ServiceTestEnum.CUSTOMER.getServiceName() + "_setCustomer"
+                        + AbstractBasicRoute.OUT_ROUTE_SUFFIX)
+                    .bean(splitter);
+            }
+        });
+
+        producerSyncMsg.sendBodyAndHeader(parentMsg, AsynchConstants.MSG_HEADER, parentMsg);
+    }
+
+    private MsgStateEnum getMessageState(Long msgId) {
+        return txTemplate.execute(status -> em.find(Message.class, msgId).getState());
+    }
+
+    private List<Message> findChildMessages() {
+        return txTemplate.execute(status -> em.createQuery("SELECT m FROM " + Message.class.getName()
+                + " m WHERE m.parentMsgId = :parentMsgId", Message.class)
+                .setParameter("parentMsgId", parentMsg.getMsgId())
+                .getResultList());
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.msg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.util.concurrent.SynchronousExecutorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openhubframework.openhub.api.asynch.msg.ChildMessage;
+import org.openhubframework.openhub.api.entity.BindingTypeEnum;
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.core.common.asynch.AsynchMessageRoute;
+import org.openhubframework.openhub.spi.msg.MessageService;
+import org.openhubframework.openhub.test.data.ExternalSystemTestEnum;
+import org.openhubframework.openhub.test.data.ServiceTestEnum;
+
+
+/**
+ * Test suite for {@link MessageSplitterImpl}.
+ * <p>
+ * Child messages don't sleep - each child message waits until expected count of child messages is in progress
+ * at the same time (or timeout expires), so checks of parallelism don't depend on timing.
+ */
+public class MessageSplitterImplTest {
+
+    private static final long AWAIT_SECONDS = 10;
+
+    private static final String FAIL_BODY = "fail";
+
+    private final DefaultCamelContext camelContext = new DefaultCamelContext();
+
+    private final MessageService messageService = mock(MessageService.class);
+
+    private final AtomicInteger processedCount = new AtomicInteger();
+
+    private final AtomicInteger inProgressCount = new AtomicInteger();
+
+    private final AtomicInteger maxInProgressCount = new AtomicInteger();
+
+    private final Map<String, List<String>> funnelOrder = new ConcurrentHashMap<>();
+
+    /**
+     * Latch which child messages wait for, count is expected count of child messages in progress at the same time.
+     */
+    private volatile CountDownLatch inProgressLatch = new CountDownLatch(0);
+
+    private Message parentMsg;
+
+    @Before
+    public void prepareContext() throws Exception {
+        when(messageService.setStateInQueueForLock(any(Message.class))).thenReturn(true);
+
+        camelContext.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(AsynchMessageRoute.URI_SYNC_MSG)
+                    .process(exchange -> {
+                        Message msg = exchange.getIn().getBody(Message.class);
+
+                        maxInProgressCount.accumulateAndGet(inProgressCount.incrementAndGet(), Math::max);
+                        try {
+                            if (msg.getFunnelValue() != null) {
+                                funnelOrder.computeIfAbsent(msg.getFunnelValue(),
+                                        key -> Collections.synchronizedList(new ArrayList<>()))
+                                        .add(msg.getPayload());
+                            }
+
+                            CountDownLatch latch = inProgressLatch;
+                            latch.countDown();
+                            latch.await(AWAIT_SECONDS, TimeUnit.SECONDS);
+
+                            processedCount.incrementAndGet();
+                        } finally {
+                            inProgressCount.decrementAndGet();
+                        }
+
+                        if (FAIL_BODY.equals(msg.getPayload())) {
+                            throw new IllegalStateException("child message failed");
+                        }
+                    });
+            }
+        });
+        camelContext.start();
+
+        parentMsg = new Message();
+        parentMsg.setMsgId(1L);
+        parentMsg.setState(MsgStateEnum.PROCESSING);
+        parentMsg.setCorrelationId("123-456");
+        parentMsg.setSourceSystem(ExternalSystemTestEnum.CRM);
+        parentMsg.setMsgTimestamp(Instant.now());
+        parentMsg.setReceiveTimestamp(Instant.now());
+    }
+
+    @After
+    public void stopContext() throws Exception {
+        camelContext.stop();
+    }
+
+    @Test
+    public void testMixedResults() throws Exception {
+        List<ChildMessage> childMessages = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            childMessages.add(createChildMessage(i % 2 == 0 ? "body" + i : FAIL_BODY, null));
+        }
+
+        split(childMessages, 4, true, 4);
+
+        // failed child messages don't stop processing of other child messages
+        assertThat(processedCount.get(), is(8));
+        assertThat(maxInProgressCount.get(), is(4));
+        verify(messageService).setStateWaiting(parentMsg);
+        verify(messageService, times(8)).setStateInQueueForLock(any(Message.class));
+    }
+
+    @Test
+    public void testParallelism() throws Exception {
+        List<ChildMessage> childMessages = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            childMessages.add(createChildMessage("body" + i, null));
+        }
+
+        split(childMessages, 1, true, 1);
+        assertThat(maxInProgressCount.get(), is(1));
+
+        maxInProgressCount.set(0);
+        split(childMessages, 4, true, 4);
+        assertThat(maxInProgressCount.get(), is(4));
+
+        // window is bounded even if child messages don't wait for each other
+        maxInProgressCount.set(0);
+        split(childMessages, 3, true, 0);
+        assertThat(maxInProgressCount.get(), lessThanOrEqualTo(3));
+
+        assertThat(processedCount.get(), is(24));
+    }
+
+    @Test
+    public void testPreserveFunnelOrder() throws Exception {
+        List<ChildMessage> childMessages = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            childMessages.add(createChildMessage("body" + i, i % 2 == 0 ? "funnelA" : "funnelB"));
+        }
+
+        split(childMessages, 4, true, 2);
+
+        // two funnels => two sequences in parallel
+        assertThat(processedCount.get(), is(6));
+        assertThat(maxInProgressCount.get(), is(2));
+        assertThat(funnelOrder.get("funnelA").toString(), is("[body0, body2, body4]"));
+        assertThat(funnelOrder.get("funnelB").toString(), is("[body1, body3, body5]"));
+    }
+
+    private ChildMessage createChildMessage(String body, String funnelValue) {
+        return new ChildMessage(parentMsg, BindingTypeEnum.HARD, ServiceTestEnum.CUSTOMER, "setCustomer", body,
+                null, null, funnelValue);
+    }
+
+    /**
+     * Splits parent message and waits for processing of all child messages.
+     *
+     * @param expectedInProgress the count of child messages which wait for each other
+     */
+    private void split(List<ChildMessage> childMessages, int parallelism, boolean preserveFunnelOrder,
+            int expectedInProgress) {
+        MessageSplitterImpl splitter = new MessageSplitterImpl(messageService, camelContext,
+                (parent, body) -> childMessages, parallelism, preserveFunnelOrder);
+        setPrivateField(splitter, "executor", new SynchronousExecutorService());
+
+        inProgressLatch = new CountDownLatch(expectedInProgress);
+        splitter.splitMessage(parentMsg, null);
+    }
+}
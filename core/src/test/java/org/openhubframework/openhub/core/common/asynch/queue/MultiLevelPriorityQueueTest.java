@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+
+import org.openhubframework.openhub.api.entity.Message;
+
+
+/**
+ * Test suite for {@link MultiLevelPriorityQueue}.
+ */
+public class MultiLevelPriorityQueueTest {
+
+    private final CamelContext camelContext = new DefaultCamelContext();
+
+    @Test
+    public void testWeightedRoundRobin() {
+        MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(new int[] {1, 2}, 100);
+
+        for (int i = 0; i < 3; i++) {
+            queue.offer(createExchange(0));
+            queue.offer(createExchange(10));
+        }
+
+        assertThat(queue.size(), is(6));
+
+        // two exchanges of higher level (lower priority number), then one of lower level,
+        // the rest after higher level is empty
+        List<Integer> priorities = new ArrayList<>();
+        Exchange exchange;
+        while ((exchange = queue.poll()) != null) {
+            priorities.add(exchange.getIn().getBody(Message.class).getProcessingPriority());
+        }
+
+        assertThat(priorities.toString(), is("[0, 0, 10, 0, 10, 10]"));
+        assertThat(queue.size(), is(0));
+    }
+
+    @Test
+    public void testLevels() {
+        MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(new int[] {1, 2, 4}, 100);
+
+        // the lower priority number the higher level
+        assertThat(queue.getLevel(createExchange(-5)), is(2));
+        assertThat(queue.getLevel(createExchange(0)), is(2));
+        assertThat(queue.getLevel(createExchange(1)), is(1));
+        assertThat(queue.getLevel(createExchange(2)), is(0));
+        assertThat(queue.getLevel(createExchange(10)), is(0));
+        assertThat(queue.getLevel(new DefaultExchange(camelContext)), is(0));
+    }
+
+    @Test
+    public void testCapacity() throws Exception {
+        MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(new int[] {1, 2}, 2);
+
+        assertThat(queue.offer(createExchange(0)), is(true));
+        assertThat(queue.offer(createExchange(0)), is(true));
+        assertThat(queue.offer(createExchange(0)), is(false));
+        assertThat(queue.offer(createExchange(0), 10, TimeUnit.MILLISECONDS), is(false));
+
+        // another level has own capacity
+        assertThat(queue.offer(createExchange(10)), is(true));
+        assertThat(queue.remainingCapacity(), is(1));
+
+        queue.poll();
+        assertThat(queue.remainingCapacity(), is(2));
+    }
+
+    @Test
+    public void testPollTimeout() throws Exception {
+        MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(new int[] {1}, 10);
+
+        assertThat(queue.poll(10, TimeUnit.MILLISECONDS), nullValue());
+    }
+
+    @Test
+    public void testStatistics() {
+        MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(new int[] {1, 2}, 10);
+
+        queue.offer(createExchange(1));
+        queue.offer(createExchange(1));
+        queue.offer(createExchange(0));
+        queue.poll();
+
+        List<MultiLevelPriorityQueue.LevelStatistics> stats = queue.getStatistics();
+        assertThat(stats.size(), is(2));
+        assertThat(stats.get(0).getEnqueuedCount(), is(2L));
+        assertThat(stats.get(0).getDepth(), is(2));
+        assertThat(stats.get(1).getEnqueuedCount(), is(1L));
+        assertThat(stats.get(1).getDequeuedCount(), is(1L));
+        assertThat(stats.get(1).getDepth(), is(0));
+    }
+
+    @Test
+    public void testMultiThreads() throws Exception {
+        final MultiLevelPriorityQueue queue = new MultiLevelPriorityQueue(new int[] {1, 2, 4}, 50);
+        final int threads = 4;
+        final int exchangesPerThread = 1000;
+        final AtomicInteger taken = new AtomicInteger();
+        final CountDownLatch doneLatch = new CountDownLatch(threads * 2);
+
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < exchangesPerThread; j++) {
+                        queue.put(createExchange(j % 3));
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            }).start();
+
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < exchangesPerThread; j++) {
+                        queue.take();
+                        taken.incrementAndGet();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            }).start();
+        }
+
+        assertThat(doneLatch.await(30, TimeUnit.SECONDS), is(true));
+        assertThat(taken.get(), is(threads * exchangesPerThread));
+        assertThat(queue.size(), is(0));
+        assertThat(queue.remainingCapacity(), is(150));
+    }
+
+    private Exchange createExchange(int priority) {
+        Message msg = new Message();
+        msg.setProcessingPriority(priority);
+
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setBody(msg);
+        return exchange;
+    }
+}
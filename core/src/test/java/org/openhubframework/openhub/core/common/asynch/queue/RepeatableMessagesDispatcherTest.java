@@ -0,0 +1,191 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.api.entity.Node;
+import org.openhubframework.openhub.common.time.Seconds;
+import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
+import org.openhubframework.openhub.spi.msg.MessageService;
+import org.openhubframework.openhub.spi.node.NodeService;
+
+
+/**
+ * Test suite for {@link RepeatableMessagesDispatcher}.
+ */
+public class RepeatableMessagesDispatcherTest {
+
+    private final MessageService messageService = mock(MessageService.class);
+
+    private final NodeService nodeService = mock(NodeService.class);
+
+    private final MessagePollExecutor messagePollExecutor = mock(MessagePollExecutor.class);
+
+    private final RepeatableMessagesDispatcher dispatcher = new RepeatableMessagesDispatcher();
+
+    @Before
+    public void prepareDispatcher() {
+        Node node = mock(Node.class);
+        when(node.isAbleToHandleExistingMessages()).thenReturn(true);
+        when(nodeService.getActualNode()).thenReturn(node);
+        when(messageService.setStateInQueueForLock(any(Message.class))).thenReturn(true);
+
+        setPrivateField(dispatcher, "messageService", messageService);
+        setPrivateField(dispatcher, "nodeService", nodeService);
+        setPrivateField(dispatcher, "messagePollExecutor", messagePollExecutor);
+        setPrivateField(dispatcher, "partlyFailedInterval", new FixedConfigurationItem<>(Seconds.of(60)));
+        setPrivateField(dispatcher, "postponedInterval", new FixedConfigurationItem<>(Seconds.of(5)));
+        setPrivateField(dispatcher, "enabled", new FixedConfigurationItem<>(Boolean.TRUE));
+        setPrivateField(dispatcher, "recoveryInterval", new FixedConfigurationItem<>(Seconds.of(300)));
+        setPrivateField(dispatcher, "wheel", createWheel(1000));
+    }
+
+    @After
+    public void stopDispatcher() {
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testDispatchEligibleMessages() throws Exception {
+        start();
+
+        // eligible already
+        Message eligibleMsg = createMessage(1L, MsgStateEnum.POSTPONED, Instant.now().minusSeconds(10));
+        // eligible after 60 seconds
+        Message waitingMsg = createMessage(2L, MsgStateEnum.PARTLY_FAILED, Instant.now());
+
+        dispatcher.schedule(eligibleMsg);
+        dispatcher.schedule(waitingMsg);
+
+        when(messageService.findMessageById(1L)).thenReturn(eligibleMsg);
+        when(messageService.findMessageById(2L)).thenReturn(waitingMsg);
+
+        waitForNextTick();
+        dispatcher.dispatchEligibleMessages();
+
+        verify(messageService).setStateInQueueForLock(eligibleMsg);
+        verify(messagePollExecutor).startMessageProcessingSafely(eligibleMsg);
+        verify(messageService, never()).setStateInQueueForLock(waitingMsg);
+        verify(messagePollExecutor, never()).startMessageProcessingSafely(waitingMsg);
+    }
+
+    @Test
+    public void testDispatchEligibleMessages_stateChanged() throws Exception {
+        start();
+
+        Message msg = createMessage(1L, MsgStateEnum.POSTPONED, Instant.now().minusSeconds(10));
+        dispatcher.schedule(msg);
+
+        // message was processed in the meantime by another node
+        when(messageService.findMessageById(1L))
+                .thenReturn(createMessage(1L, MsgStateEnum.OK, Instant.now()));
+
+        waitForNextTick();
+        dispatcher.dispatchEligibleMessages();
+
+        verify(messageService, never()).setStateInQueueForLock(any(Message.class));
+        verify(messagePollExecutor, never()).startMessageProcessingSafely(any(Message.class));
+    }
+
+    @Test
+    public void testSchedule_wheelFull() throws Exception {
+        start();
+        setPrivateField(dispatcher, "wheel", createWheel(1));
+
+        Message firstMsg = createMessage(1L, MsgStateEnum.POSTPONED, Instant.now().minusSeconds(10));
+        Message secondMsg = createMessage(2L, MsgStateEnum.POSTPONED, Instant.now().minusSeconds(10));
+        dispatcher.schedule(firstMsg);
+        // the wheel is full => message is left for polling of the database
+        dispatcher.schedule(secondMsg);
+
+        when(messageService.findMessageById(1L)).thenReturn(firstMsg);
+        when(messageService.findMessageById(2L)).thenReturn(secondMsg);
+
+        waitForNextTick();
+        dispatcher.dispatchEligibleMessages();
+
+        verify(messagePollExecutor).startMessageProcessingSafely(firstMsg);
+        verify(messagePollExecutor, never()).startMessageProcessingSafely(secondMsg);
+
+        // polling of the database isn't only recovery sweep
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+    }
+
+    @Test
+    public void testIsRecoverySweepDue() {
+        // dispatcher isn't running => polling is run always
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+
+        start();
+
+        // the first sweep is run, next one after recovery interval
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+        assertThat(dispatcher.isRecoverySweepDue(), is(false));
+
+        setPrivateField(dispatcher, "recoveryInterval", new FixedConfigurationItem<>(Seconds.ZERO));
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+
+        // disabled dispatcher => polling is run always
+        setPrivateField(dispatcher, "recoveryInterval", new FixedConfigurationItem<>(Seconds.of(300)));
+        setPrivateField(dispatcher, "enabled", new FixedConfigurationItem<>(Boolean.FALSE));
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+        assertThat(dispatcher.isRecoverySweepDue(), is(true));
+    }
+
+    /**
+     * Marks the dispatcher as running without starting its internal thread, the wheel is advanced by the test.
+     */
+    private void start() {
+        setPrivateField(dispatcher, "executor", mock(ScheduledExecutorService.class));
+    }
+
+    private static TimingWheel<Long> createWheel(int maxSize) {
+        return new TimingWheel<>(Duration.ofMillis(1), 64, maxSize, Instant.now());
+    }
+
+    private static void waitForNextTick() throws InterruptedException {
+        Thread.sleep(5);
+    }
+
+    private static Message createMessage(Long msgId, MsgStateEnum state, Instant lastUpdateTimestamp) {
+        Message msg = new Message();
+        msg.setMsgId(msgId);
+        msg.setState(state);
+        msg.setCorrelationId("corr" + msgId);
+        msg.setLastUpdateTimestamp(lastUpdateTimestamp);
+        return msg;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.asynch.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+
+/**
+ * Test suite for {@link TimingWheel}.
+ */
+public class TimingWheelTest {
+
+    private static final Instant START = Instant.parse("2020-01-01T10:00:00Z");
+
+    @Test
+    public void testAdvance() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, 100, START);
+
+        wheel.add(1L, START.plusSeconds(2));
+        wheel.add(2L, START.plusSeconds(5));
+        // longer than one revolution of the wheel
+        wheel.add(3L, START.plusSeconds(10));
+        // in the past
+        wheel.add(4L, START.minusSeconds(10));
+
+        assertThat(wheel.size(), is(4));
+
+        assertThat(wheel.advance(START.plusSeconds(1)), is(Collections.singletonList(4L)));
+        assertThat(wheel.advance(START.plusSeconds(2)), is(Collections.singletonList(1L)));
+        assertThat(wheel.advance(START.plusSeconds(4)).isEmpty(), is(true));
+        assertThat(wheel.advance(START.plusSeconds(9)), is(Collections.singletonList(2L)));
+        assertThat(wheel.advance(START.plusSeconds(10)), is(Collections.singletonList(3L)));
+
+        assertThat(wheel.size(), is(0));
+    }
+
+    @Test
+    public void testAdvanceMoreRevolutions() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, 100, START);
+
+        wheel.add(1L, START.plusSeconds(3));
+        wheel.add(2L, START.plusSeconds(30));
+        wheel.add(3L, START.plusSeconds(100));
+
+        assertThat(wheel.advance(START.plusSeconds(50)), is(Arrays.asList(1L, 2L)));
+        assertThat(wheel.size(), is(1));
+    }
+
+    @Test
+    public void testReschedule() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, 100, START);
+
+        wheel.add(1L, START.plusSeconds(2));
+        wheel.add(1L, START.plusSeconds(5));
+
+        assertThat(wheel.size(), is(1));
+        assertThat(wheel.advance(START.plusSeconds(3)).isEmpty(), is(true));
+        assertThat(wheel.advance(START.plusSeconds(5)), is(Collections.singletonList(1L)));
+
+        wheel.add(2L, START.plusSeconds(7));
+        assertThat(wheel.remove(2L), is(true));
+        assertThat(wheel.remove(2L), is(false));
+        assertThat(wheel.advance(START.plusSeconds(10)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testMaxSize() {
+        TimingWheel<Long> wheel = new TimingWheel<>(Duration.ofSeconds(1), 8, 2, START);
+
+        assertThat(wheel.add(1L, START.plusSeconds(1)), is(true));
+        assertThat(wheel.add(2L, START.plusSeconds(1)), is(true));
+        assertThat(wheel.add(3L, START.plusSeconds(1)), is(false));
+        // rescheduling is possible
+        assertThat(wheel.add(2L, START.plusSeconds(2)), is(true));
+    }
+}
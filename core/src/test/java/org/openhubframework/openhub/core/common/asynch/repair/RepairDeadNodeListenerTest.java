@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openhubframework.openhub.core.common.asynch.repair;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.hazelcast.core.Cluster;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.LifecycleService;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.MembershipEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.openhubframework.openhub.common.time.Seconds;
+import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
+import org.openhubframework.openhub.spi.node.NodeService;
+
+
+/**
+ * Test suite for {@link RepairDeadNodeListener}.
+ */
+public class RepairDeadNodeListenerTest {
+
+    private static final Long NODE_ID = 42L;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private Cluster cluster;
+
+    private Member localMember;
+
+    private RepairMessageService repairMessageService;
+
+    private RepairDeadNodeListener listener;
+
+    @Before
+    public void prepareListener() {
+        localMember = mock(Member.class);
+        when(localMember.localMember()).thenReturn(true);
+
+        cluster = mock(Cluster.class);
+        when(cluster.getLocalMember()).thenReturn(localMember);
+
+        LifecycleService lifecycleService = mock(LifecycleService.class);
+        when(lifecycleService.isRunning()).thenReturn(true);
+
+        hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+        when(hazelcastInstance.getLifecycleService()).thenReturn(lifecycleService);
+
+        repairMessageService = mock(RepairMessageService.class);
+
+        listener = new RepairDeadNodeListener(hazelcastInstance, mock(NodeService.class), repairMessageService);
+        ReflectionTestUtils.setField(listener, "repeatInterval", new FixedConfigurationItem<>(Seconds.of(1)));
+    }
+
+    @After
+    public void destroyListener() {
+        listener.destroy();
+    }
+
+    @Test
+    public void testRepairAfterInterval() {
+        listener.memberRemoved(createEvent(createRemovedMember(null)));
+
+        // node can still finish its messages => messages are repaired after repair interval
+        verify(repairMessageService, after(200).never()).repairProcessingMessages(anyLong());
+        verify(repairMessageService, timeout(5000)).repairProcessingMessages(NODE_ID);
+    }
+
+    @Test
+    public void testNodeStoppedCleanly() {
+        ReflectionTestUtils.setField(listener, "repeatInterval", new FixedConfigurationItem<>(Seconds.ZERO));
+
+        listener.memberRemoved(createEvent(createRemovedMember(Boolean.TRUE)));
+
+        verify(repairMessageService, after(500).never()).repairProcessingMessages(anyLong());
+    }
+
+    @Test
+    public void testNotOldestMember() {
+        ReflectionTestUtils.setField(listener, "repeatInterval", new FixedConfigurationItem<>(Seconds.ZERO));
+        when(localMember.localMember()).thenReturn(false);
+
+        listener.memberRemoved(createEvent(createRemovedMember(null)));
+
+        verify(repairMessageService, after(500).never()).repairProcessingMessages(anyLong());
+    }
+
+    @Test
+    public void testDestroy() {
+        listener.destroy();
+
+        // other members know that the node was stopped cleanly
+        verify(localMember).setBooleanAttribute(RepairDeadNodeListener.NODE_STOPPED_ATTRIBUTE, true);
+    }
+
+    private Member createRemovedMember(Boolean stopped) {
+        Member member = mock(Member.class);
+        when(member.getStringAttribute(RepairDeadNodeListener.NODE_ID_ATTRIBUTE)).thenReturn(String.valueOf(NODE_ID));
+        when(member.getBooleanAttribute(RepairDeadNodeListener.NODE_STOPPED_ATTRIBUTE)).thenReturn(stopped);
+        return member;
+    }
+
+    private MembershipEvent createEvent(Member removedMember) {
+        // the oldest member is the first
+        Set<Member> members = new LinkedHashSet<>();
+        members.add(localMember);
+
+        return new MembershipEvent(cluster, removedMember, MembershipEvent.MEMBER_REMOVED, members);
+    }
+}
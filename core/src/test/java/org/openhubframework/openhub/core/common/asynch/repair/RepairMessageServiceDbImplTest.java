@@ -44,6 +44,7 @@ import org.openhubframework.openhub.api.exception.IntegrationException;
 import org.openhubframework.openhub.core.AbstractCoreDbTest;
 import org.openhubframework.openhub.core.common.dao.MessageDao;
 import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
+import org.openhubframework.openhub.spi.node.NodeService;
 
 /**
  * Tests {@link RepairMessageServiceDbImpl}
@@ -59,6 +60,9 @@ public class RepairMessageServiceDbImplTest extends AbstractCoreDbTest {
     @Autowired
     private RepairMessageServiceDbImpl messageService;
 
+    @Autowired
+    private NodeService nodeService;
+
     @Test
     public void testRepairProcessingMessagesMany() throws Exception {
         List<Message> messages = new LinkedList<>();
@@ -133,6 +137,43 @@ public class RepairMessageServiceDbImplTest extends AbstractCoreDbTest {
         assertThat(found.getState(), is(MsgStateEnum.PARTLY_FAILED));
     }
 
+    @Test
+    public void testRepairProcessingMessagesOfNode() throws Exception {
+        final Long nodeId = nodeService.getActualNode().getNodeId();
+
+        Message[] messages = createAndSaveMessages(3, new MessageCallback() {
+            @Override
+            public void beforeInsert(Message message, int order) {
+                message.setState(MsgStateEnum.PROCESSING);
+                message.setStartProcessTimestamp(Instant.now().minus(1, ChronoUnit.HOURS));
+                if (order == 1) {
+                    message.setNodeId(nodeId);
+                } else if (order == 2) {
+                    // processing has just started, node can still finish it
+                    message.setNodeId(nodeId);
+                    message.setStartProcessTimestamp(Instant.now().minus(1, ChronoUnit.SECONDS));
+                }
+            }
+        });
+
+        messageService.repairProcessingMessages(nodeId);
+
+        Message found = messageDao.findMessage(messages[0].getMsgId());
+        assertThat(found, notNullValue());
+        assertThat(found.getState(), is(MsgStateEnum.PARTLY_FAILED));
+        assertThat(found.getFailedCount(), is(1));
+
+        // message is repaired after repair interval only, the same as messages of all nodes
+        found = messageDao.findMessage(messages[1].getMsgId());
+        assertThat(found, notNullValue());
+        assertThat(found.getState(), is(MsgStateEnum.PROCESSING));
+
+        // message of another node is not repaired
+        found = messageDao.findMessage(messages[2].getMsgId());
+        assertThat(found, notNullValue());
+        assertThat(found.getState(), is(MsgStateEnum.PROCESSING));
+    }
+
     private Message[] createAndSaveMessages(int messageCount, final MsgStateEnum state) {
         return createAndSaveMessages(messageCount, new MessageCallback() {
             @Override
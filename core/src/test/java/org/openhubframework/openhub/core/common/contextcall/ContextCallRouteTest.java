@@ -58,6 +58,9 @@ public class ContextCallRouteTest extends AbstractCoreTest {
     @Autowired
     private ContextCallRegistry callRegistry;
 
+    @Autowired
+    private ContextCall contextCall;
+
     @Configuration
     public static class TestContextConfig {
 
@@ -122,4 +125,32 @@ public class ContextCallRouteTest extends AbstractCoreTest {
             assertThat(ex.getCause().getCause(), instanceOf(NoDataFoundException.class));
         }
     }
+
+    @Test
+    public void testInProcessCall() throws Exception {
+        // no HTTP server is running, the call is made in-process
+        assertThat(contextCall, instanceOf(ContextCallInProcessImpl.class));
+
+        mock.expectedMessageCount(0);
+
+        assertThat(contextCall.makeCall(TestService.class, "getGreeting", String.class, "OpenHub"),
+                is("Hello OpenHub"));
+
+        // route isn't used at all
+        mock.assertIsSatisfied();
+    }
+
+    @Test
+    public void testInProcessCallFailed() throws Exception {
+        assertThat(contextCall, instanceOf(ContextCallInProcessImpl.class));
+
+        try {
+            contextCall.makeCall(TestService.class, "getFailedGreeting", String.class, "OpenHub");
+            fail("Target method fails");
+        } catch (IllegalStateException ex) {
+            // the same contract as call via HTTP
+            assertThat(ex.getCause(), instanceOf(IllegalArgumentException.class));
+            assertThat(ex.getCause().getMessage(), is("no greeting for OpenHub"));
+        }
+    }
 }
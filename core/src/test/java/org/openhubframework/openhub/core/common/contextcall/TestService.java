@@ -32,4 +32,8 @@ public class TestService {
 
         return "Hello " + name;
     }
+
+    public String getFailedGreeting(String name) {
+        throw new IllegalArgumentException("no greeting for " + name);
+    }
 }
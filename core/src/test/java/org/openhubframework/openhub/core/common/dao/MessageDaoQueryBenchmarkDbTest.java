@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.dao;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.core.AbstractCoreDbTest;
+
+
+/**
+ * Benchmark of funnel queries in {@link MessageDaoJpaImpl} with many distinct funnel values.
+ * <p>
+ * Count of distinct funnel values is {@value #DEFAULT_FUNNEL_VALUES} by default to keep the build fast,
+ * use system property {@value #FUNNEL_VALUES_PROPERTY} for longer run (e.g. {@code 100000}).
+ * Query plan cache hit rate and average time per call are logged for parameterized queries
+ * and for queries with inlined literals (original implementation).
+ */
+@Transactional
+public class MessageDaoQueryBenchmarkDbTest extends AbstractCoreDbTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MessageDaoQueryBenchmarkDbTest.class);
+
+    private static final String FUNNEL_VALUES_PROPERTY = "ohf.benchmark.funnelValues";
+
+    private static final int DEFAULT_FUNNEL_VALUES = 2000;
+
+    /**
+     * Count of distinct query strings used by one iteration of the benchmark.
+     */
+    private static final int QUERIES_PER_ITERATION = 3;
+
+    @Autowired
+    private MessageDao messageDao;
+
+    private Statistics statistics;
+
+    private int funnelValues;
+
+    @Before
+    public void prepareData() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        funnelValues = Integer.getInteger(FUNNEL_VALUES_PROPERTY, DEFAULT_FUNNEL_VALUES);
+
+        // few messages so that queries have something to search through
+        createAndSaveMessages(100, (msg, order) -> {
+            msg.setState(order % 2 == 0 ? MsgStateEnum.POSTPONED : MsgStateEnum.PROCESSING);
+            msg.setFunnelValue("funnel_" + order);
+            msg.setGuaranteedOrder(true);
+            msg.setStartProcessTimestamp(Instant.now());
+        });
+    }
+
+    @Test
+    public void testParameterizedQueries() {
+        // warm up
+        runParameterizedQueries("warmUp_", Math.min(funnelValues, 100));
+
+        statistics.clear();
+        long start = System.nanoTime();
+
+        runParameterizedQueries("funnel_", funnelValues);
+
+        long duration = System.nanoTime() - start;
+
+        logResult("parameterized", duration);
+
+        // only plans of the queries themselves can be missing, no plan per funnel value
+        assertThat(statistics.getQueryPlanCacheMissCount(), lessThanOrEqualTo((long) QUERIES_PER_ITERATION));
+        assertThat(statistics.getQueryPlanCacheHitCount(),
+                greaterThan((long) (funnelValues - 1) * QUERIES_PER_ITERATION));
+    }
+
+    @Test
+    public void testInlinedLiteralQueries() {
+        statistics.clear();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < funnelValues; i++) {
+            String funnelValue = "funnel_" + i;
+
+            em.createQuery("SELECT COUNT(m) FROM " + Message.class.getName() + " m "
+                    + "WHERE m.state = '" + MsgStateEnum.PROCESSING + "'"
+                    + "      AND m.funnelValue = '" + funnelValue + "'"
+                    + "      AND m.startProcessTimestamp >= :startTime", Number.class)
+                    .setParameter("startTime", Instant.now().minus(Duration.ofMinutes(1)))
+                    .getSingleResult();
+
+            em.createQuery("SELECT m FROM " + Message.class.getName() + " m "
+                    + "WHERE m.state = '" + MsgStateEnum.POSTPONED + "'"
+                    + "      AND m.funnelValue = '" + funnelValue + "'"
+                    + "      AND m.guaranteedOrder is true"
+                    + " ORDER BY m.msgTimestamp", Message.class)
+                    .setMaxResults(1)
+                    .getResultList();
+        }
+
+        long duration = System.nanoTime() - start;
+
+        logResult("inlined literals", duration);
+
+        // each funnel value has own plan
+        assertThat(statistics.getQueryPlanCacheMissCount(), greaterThanOrEqualTo((long) funnelValues * 2));
+    }
+
+    private void runParameterizedQueries(String funnelPrefix, int count) {
+        for (int i = 0; i < count; i++) {
+            String funnelValue = funnelPrefix + i;
+
+            messageDao.getCountProcessingMessagesForFunnel(funnelValue, Duration.ofMinutes(1), "funnelId");
+            messageDao.getMessagesForGuaranteedOrderForRoute(funnelValue, true, 2);
+            messageDao.findPostponedMessage(funnelValue);
+        }
+    }
+
+    private void logResult(String name, long durationNanos) {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        LOG.info("Queries with {}: {} funnel values, plan cache hits = {}, misses = {}, hit rate = {}%, "
+                        + "total time = {} ms, avg time per funnel value = {} us",
+                name, funnelValues, hits, misses, hits + misses == 0 ? 0 : hits * 100 / (hits + misses),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                TimeUnit.NANOSECONDS.toMicros(durationNanos) / funnelValues);
+    }
+}
@@ -21,6 +21,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+
 import org.apache.camel.*;
 import org.apache.camel.builder.AdviceWithRouteBuilder;
 import org.apache.camel.component.mock.MockEndpoint;
@@ -51,6 +53,9 @@ public class DirectCallWsRouteTest extends AbstractCoreTest {
     @Autowired
     private DirectCallRegistry callRegistry;
 
+    @Autowired
+    private DirectCall directCall;
+
     @Before
     public void prepareRoutes() throws Exception {
         getCamelContext().getRouteDefinition(DirectCallWsRoute.ROUTE_ID_DIRECT_CALL)
@@ -62,6 +67,14 @@ public class DirectCallWsRouteTest extends AbstractCoreTest {
                         weaveById(DirectCallWsRoute.ROUTING_SLIP_ID).replace().to("mock:test");
                     }
                 });
+
+        getCamelContext().getRouteDefinition(DirectCallWsRoute.ROUTE_ID_DIRECT_CALL_IN_PROCESS)
+                .adviceWith(getCamelContext(), new AdviceWithRouteBuilder() {
+                    @Override
+                    public void configure() throws Exception {
+                        weaveById(DirectCallWsRoute.ROUTING_SLIP_IN_PROCESS_ID).replace().to("mock:test");
+                    }
+                });
     }
 
     @Before
@@ -96,4 +109,34 @@ public class DirectCallWsRouteTest extends AbstractCoreTest {
             assertThat(ex.getCause().getCause(), instanceOf(IllegalStateException.class));
         }
     }
+
+    @Test
+    public void testInProcessCall() throws Exception {
+        // no HTTP server is running, the call is made in-process
+        assertThat(directCall, instanceOf(DirectCallInProcessImpl.class));
+
+        mock.expectedMessageCount(1);
+
+        String response = directCall.makeCall(CALL_ID);
+
+        mock.assertIsSatisfied();
+
+        // verify response
+        assertThat(response, is("body"));
+
+        try {
+            callRegistry.getParams(CALL_ID);
+            fail("There should not be params anymore.");
+        } catch (IllegalStateException ex) {}
+    }
+
+    @Test
+    public void testInProcessCallWithWrongCallId() throws Exception {
+        try {
+            directCall.makeCall("23");
+            fail("Call ID is wrong");
+        } catch (IOException ex) {
+            assertThat(ex.getCause(), instanceOf(IllegalStateException.class));
+        }
+    }
 }
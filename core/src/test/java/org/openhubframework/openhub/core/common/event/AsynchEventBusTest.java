@@ -0,0 +1,442 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.common.event;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.spi.EventNotifier;
+import org.apache.camel.support.EventNotifierSupport;
+import org.junit.After;
+import org.junit.Test;
+
+import org.openhubframework.openhub.api.asynch.AsynchConstants;
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.event.CompletedMsgAsynchEvent;
+import org.openhubframework.openhub.api.event.EventOverflowPolicy;
+import org.openhubframework.openhub.core.alerts.AlertCountersEventNotifier;
+import org.openhubframework.openhub.core.guaranteedorder.GuaranteedOrderMsgEventNotifier;
+
+
+/**
+ * Test suite for {@link AsynchEventBus}.
+ */
+public class AsynchEventBusTest {
+
+    private final DefaultCamelContext camelContext = new DefaultCamelContext();
+
+    private AsynchEventBus bus;
+
+    @After
+    public void stopBus() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    public void testIsAsynch() throws Exception {
+        bus = new AsynchEventBus(10);
+
+        assertThat(bus.isAsynch(new GuaranteedOrderMsgEventNotifier()), is(true));
+        assertThat(bus.isAsynch(new AlertCountersEventNotifier()), is(false));
+        assertThat(bus.isAsynch(new RecordingNotifier(null)), is(false));
+    }
+
+    @Test
+    public void testOverflowPolicy() throws Exception {
+        bus = new AsynchEventBus(10);
+
+        assertThat(bus.getOverflowPolicy(new GuaranteedOrderMsgEventNotifier()), is(EventOverflowPolicy.BLOCK));
+        assertThat(bus.getOverflowPolicy(new AlertCountersEventNotifier()), is(EventOverflowPolicy.DROP));
+        assertThat(bus.getOverflowPolicy(new RecordingNotifier(null)), is(EventOverflowPolicy.DROP));
+    }
+
+    @Test
+    public void testLanes() throws Exception {
+        bus = new AsynchEventBus(10);
+
+        assertThat(bus.getLanes(new GuaranteedOrderMsgEventNotifier()), is(4));
+        assertThat(bus.getLanes(new AlertCountersEventNotifier()), is(1));
+        assertThat(bus.getLanes(new RecordingNotifier(null)), is(1));
+    }
+
+    @Test
+    public void testDeliveryOrder() throws Exception {
+        bus = new AsynchEventBus(100);
+        bus.start();
+
+        RecordingNotifier notifier = new RecordingNotifier(null);
+        notifier.start();
+
+        List<String> published = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            published.add("corr" + i);
+            bus.publish(notifier, createEvent("corr" + i));
+        }
+        assertThat(bus.getDroppedCounts().get(RecordingNotifier.class.getName()), is(0L));
+
+        // waiting events are delivered before stop
+        bus.stop();
+
+        assertThat(notifier.correlationIds, is(published));
+    }
+
+    @Test
+    public void testDroppedEvents() throws Exception {
+        bus = new AsynchEventBus(2);
+        bus.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingNotifier notifier = new RecordingNotifier(release);
+        notifier.start();
+
+        // the first event blocks the delivery thread
+        bus.publish(notifier, createEvent("corr0"));
+        assertThat(notifier.entered.await(5, TimeUnit.SECONDS), is(true));
+
+        // two events fit into the queue, the third one is dropped
+        bus.publish(notifier, createEvent("corr1"));
+        bus.publish(notifier, createEvent("corr2"));
+        bus.publish(notifier, createEvent("corr3"));
+
+        String name = RecordingNotifier.class.getName();
+        assertThat(bus.getLags().get(name), is(2));
+        assertThat(bus.getDroppedCounts().get(name), is(1L));
+
+        release.countDown();
+        bus.stop();
+
+        assertThat(notifier.correlationIds.toString(), is("[corr0, corr1, corr2]"));
+    }
+
+    @Test
+    public void testBlockedEvents() throws Exception {
+        bus = new AsynchEventBus(2) {
+            @Override
+            EventOverflowPolicy getOverflowPolicy(EventNotifier notifier) {
+                return EventOverflowPolicy.BLOCK;
+            }
+        };
+        bus.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingNotifier notifier = new RecordingNotifier(release);
+        notifier.start();
+
+        // the first event blocks the delivery thread, two events fit into the queue
+        bus.publish(notifier, createEvent("corr0"));
+        assertThat(notifier.entered.await(5, TimeUnit.SECONDS), is(true));
+        bus.publish(notifier, createEvent("corr1"));
+        bus.publish(notifier, createEvent("corr2"));
+
+        // the fourth event waits for free space in the queue
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> published = publisher.submit(() -> bus.publish(notifier, createEvent("corr3")));
+            Thread.sleep(200);
+            assertThat(published.isDone(), is(false));
+
+            release.countDown();
+            published.get(5, TimeUnit.SECONDS);
+        } finally {
+            publisher.shutdownNow();
+        }
+
+        assertThat(bus.getDroppedCounts().get(RecordingNotifier.class.getName()), is(0L));
+        bus.stop();
+
+        // no event is lost, the order is preserved
+        assertThat(notifier.correlationIds.toString(), is("[corr0, corr1, corr2, corr3]"));
+    }
+
+    @Test
+    public void testPublishDuringStop() throws Exception {
+        bus = new AsynchEventBus(1000);
+        bus.start();
+
+        RecordingNotifier notifier = new RecordingNotifier(null);
+        notifier.start();
+
+        int threads = 4;
+        int eventsPerThread = 200;
+        AtomicInteger publishedCount = new AtomicInteger();
+        CountDownLatch startLatch = new CountDownLatch(1);
+
+        ExecutorService publishers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(publishers.submit(() -> {
+                    startLatch.await();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        bus.publish(notifier, createEvent(thread + "_" + i));
+                        publishedCount.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            // bus is stopped while events are published
+            startLatch.countDown();
+            while (publishedCount.get() < threads * eventsPerThread / 2) {
+                Thread.yield();
+            }
+            bus.stop();
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            publishers.shutdownNow();
+        }
+
+        // events published after stop are delivered synchronously, no queue is created after stop
+        assertThat(notifier.correlationIds.size(), is(threads * eventsPerThread));
+        assertThat(bus.getLags().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testFunnelOrderFromMoreThreads() throws Exception {
+        final RecordingNotifier notifier = new RecordingNotifier(null);
+        notifier.start();
+
+        bus = new AsynchEventBus(10000) {
+            @Override
+            public boolean isAsynch(EventNotifier eventNotifier) {
+                return eventNotifier == notifier;
+            }
+        };
+        bus.start();
+
+        camelContext.getManagementStrategy().addEventNotifier(notifier);
+
+        // each thread publishes events of own funnel
+        int threads = 4;
+        int eventsPerThread = 500;
+        ExecutorService publishers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final String funnelValue = "funnel" + t;
+                futures.add(publishers.submit(() -> {
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        AsynchEventHelper.notifyMsgCompleted(createExchange(funnelValue, funnelValue + "_" + i));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            publishers.shutdownNow();
+        }
+
+        // waiting events are delivered before stop
+        bus.stop();
+
+        assertThat(notifier.funnelEvents.size(), is(threads));
+        for (int t = 0; t < threads; t++) {
+            String funnelValue = "funnel" + t;
+
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < eventsPerThread; i++) {
+                expected.add(funnelValue + "_" + i);
+            }
+            assertThat(notifier.funnelEvents.get(funnelValue), is(expected));
+        }
+    }
+
+    @Test
+    public void testSlowFunnelInLanes() throws Exception {
+        final int lanes = 4;
+        bus = new AsynchEventBus(100) {
+            @Override
+            EventOverflowPolicy getOverflowPolicy(EventNotifier notifier) {
+                return EventOverflowPolicy.BLOCK;
+            }
+
+            @Override
+            int getLanes(EventNotifier notifier) {
+                return lanes;
+            }
+        };
+        bus.start();
+
+        // funnels of other lanes than the slow funnel
+        String slowFunnel = "slowFunnel";
+        List<String> otherFunnels = new ArrayList<>();
+        for (int i = 0; otherFunnels.size() < lanes - 1; i++) {
+            String funnelValue = "funnel" + i;
+            int lane = Math.floorMod(funnelValue.hashCode(), lanes);
+            if (lane != Math.floorMod(slowFunnel.hashCode(), lanes) && otherFunnels.stream()
+                    .noneMatch(other -> Math.floorMod(other.hashCode(), lanes) == lane)) {
+                otherFunnels.add(funnelValue);
+            }
+        }
+
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingNotifier notifier = new RecordingNotifier(release, slowFunnel);
+        notifier.start();
+
+        // the slow funnel blocks its lane
+        bus.publish(notifier, createEvent(slowFunnel, slowFunnel + "_0"));
+        assertThat(notifier.entered.await(5, TimeUnit.SECONDS), is(true));
+        bus.publish(notifier, createEvent(slowFunnel, slowFunnel + "_1"));
+
+        // events of other funnels are delivered by other lanes in the meantime
+        int eventsPerFunnel = 20;
+        for (int i = 0; i < eventsPerFunnel; i++) {
+            for (String funnelValue : otherFunnels) {
+                bus.publish(notifier, createEvent(funnelValue, funnelValue + "_" + i));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (notifier.correlationIds.size() < 1 + otherFunnels.size() * eventsPerFunnel
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(notifier.correlationIds.size(), is(1 + otherFunnels.size() * eventsPerFunnel));
+        assertThat(notifier.funnelEvents.get(slowFunnel).toString(), is("[slowFunnel_0]"));
+
+        release.countDown();
+        bus.stop();
+
+        // order of events is kept per funnel
+        assertThat(notifier.funnelEvents.get(slowFunnel).toString(), is("[slowFunnel_0, slowFunnel_1]"));
+        for (String funnelValue : otherFunnels) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < eventsPerFunnel; i++) {
+                expected.add(funnelValue + "_" + i);
+            }
+            assertThat(notifier.funnelEvents.get(funnelValue), is(expected));
+        }
+    }
+
+    @Test
+    public void testSynchronousDeliveryWhenStopped() throws Exception {
+        bus = new AsynchEventBus(10);
+
+        RecordingNotifier notifier = new RecordingNotifier(null);
+        notifier.start();
+
+        bus.publish(notifier, createEvent("corr0"));
+
+        assertThat(notifier.correlationIds.toString(), is("[corr0]"));
+        assertThat(bus.getLags().isEmpty(), is(true));
+    }
+
+    private CompletedMsgAsynchEvent createEvent(String correlationId) {
+        return createEvent(null, correlationId);
+    }
+
+    private CompletedMsgAsynchEvent createEvent(@Nullable String funnelValue, String correlationId) {
+        Message msg = new Message();
+        msg.setCorrelationId(correlationId);
+        msg.setFunnelValue(funnelValue);
+
+        return new CompletedMsgAsynchEvent(new DefaultExchange(camelContext), msg);
+    }
+
+    private Exchange createExchange(String funnelValue, String correlationId) {
+        Message msg = new Message();
+        msg.setCorrelationId(correlationId);
+        msg.setFunnelValue(funnelValue);
+
+        Exchange exchange = new DefaultExchange(camelContext);
+        exchange.getIn().setHeader(AsynchConstants.MSG_HEADER, msg);
+        return exchange;
+    }
+
+    /**
+     * Notifier which records correlation IDs of messages (also per funnel), delivery (of all events or events
+     * of one funnel only) can be blocked until latch is released.
+     */
+    private static class RecordingNotifier extends EventNotifierSupport {
+
+        private final List<String> correlationIds = Collections.synchronizedList(new ArrayList<>());
+
+        private final Map<String, List<String>> funnelEvents = new ConcurrentHashMap<>();
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private final CountDownLatch release;
+
+        private final String blockedFunnel;
+
+        private RecordingNotifier(CountDownLatch release) {
+            this(release, null);
+        }
+
+        private RecordingNotifier(CountDownLatch release, String blockedFunnel) {
+            this.release = release;
+            this.blockedFunnel = blockedFunnel;
+        }
+
+        @Override
+        public void notify(EventObject event) throws Exception {
+            Message msg = ((CompletedMsgAsynchEvent) event).getMessage();
+            correlationIds.add(msg.getCorrelationId());
+            if (msg.getFunnelValue() != null) {
+                funnelEvents.computeIfAbsent(msg.getFunnelValue(),
+                        key -> Collections.synchronizedList(new ArrayList<>())).add(msg.getCorrelationId());
+            }
+
+            if (blockedFunnel == null || blockedFunnel.equals(msg.getFunnelValue())) {
+                entered.countDown();
+                if (release != null) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+            }
+        }
+
+        @Override
+        public boolean isEnabled(EventObject event) {
+            return true;
+        }
+
+        @Override
+        protected void doStart() throws Exception {
+            // nothing to do
+        }
+
+        @Override
+        protected void doStop() throws Exception {
+            // nothing to do
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.configuration;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import org.openhubframework.openhub.api.configuration.DataTypeEnum;
+import org.openhubframework.openhub.api.configuration.DbConfigurationParam;
+import org.openhubframework.openhub.api.configuration.DbConfigurationParamService;
+
+
+/**
+ * Test suite for {@link CachedConfigurationService}.
+ *
+ * @since 2.4
+ */
+public class CachedConfigurationServiceTest {
+
+    private MockEnvironment environment;
+
+    private CachedConfigurationService configurationService;
+
+    @Before
+    public void prepareService() {
+        environment = new MockEnvironment();
+        environment.setProperty("ohf.test.key", "5");
+
+        configurationService = new CachedConfigurationService(environment, null, Duration.ZERO);
+    }
+
+    @Test
+    public void testGetValue() {
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(5L));
+        assertThat(configurationService.getValue(String.class, "ohf.test.key"), is("5"));
+        assertThat(configurationService.getValue(Long.class, "ohf.test.unknown"), nullValue());
+    }
+
+    @Test
+    public void testRefresh() {
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(5L));
+        assertThat(configurationService.getValue(Long.class, "ohf.test.unknown"), nullValue());
+
+        // values are cached until refresh
+        environment.setProperty("ohf.test.key", "10");
+        environment.setProperty("ohf.test.unknown", "1");
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(5L));
+        assertThat(configurationService.getValue(Long.class, "ohf.test.unknown"), nullValue());
+
+        configurationService.refresh();
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(10L));
+        assertThat(configurationService.getValue(Long.class, "ohf.test.unknown"), is(1L));
+    }
+
+    @Test
+    public void testVersion() {
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(5L));
+        long version = configurationService.getVersion();
+
+        // nothing changed => the same version
+        configurationService.refresh();
+        assertThat(configurationService.getVersion(), is(version));
+
+        environment.setProperty("ohf.test.key", "10");
+        configurationService.refresh();
+        assertThat(configurationService.getVersion(), not(version));
+    }
+
+    @Test
+    public void testConfigurationItem_onChange() {
+        ConfigurationItemImpl<Long> item = new ConfigurationItemImpl<>(Long.class, "ohf.test.key",
+                configurationService);
+        ConfigurationItemImpl<Long> otherItem = new ConfigurationItemImpl<>(Long.class, "ohf.test.other",
+                configurationService);
+
+        List<Long> changes = new ArrayList<>();
+        item.onChange(changes::add);
+        otherItem.onChange(value -> changes.add(-1L));
+
+        assertThat(item.getValue(), is(5L));
+        assertThat(otherItem.getValue(0L), is(0L));
+
+        environment.setProperty("ohf.test.key", "10");
+        configurationService.refresh();
+
+        // only listener of changed item is invoked
+        assertThat(item.getValue(), is(10L));
+        assertThat(changes.size(), is(1));
+        assertThat(changes.get(0), is(10L));
+    }
+
+    @Test
+    public void testGetValue_concurrentRefresh() {
+        AtomicBoolean refreshed = new AtomicBoolean();
+        MockEnvironment environment = new MockEnvironment() {
+            @Override
+            public <T> T getProperty(String key, Class<T> targetType) {
+                T value = super.getProperty(key, targetType);
+                if (key.equals("ohf.test.key") && refreshed.compareAndSet(false, true)) {
+                    // value is changed and the snapshot is refreshed while the old value is being loaded
+                    setProperty(key, "10");
+                    configurationService.refresh();
+                }
+                return value;
+            }
+        };
+        environment.setProperty("ohf.test.key", "5");
+        configurationService = new CachedConfigurationService(environment, null, Duration.ZERO);
+
+        // stale value isn't added to the refreshed snapshot
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(10L));
+        assertThat(configurationService.getValue(Long.class, "ohf.test.key"), is(10L));
+    }
+
+    @Test
+    public void testSetValue() {
+        DbConfigurationParam param = new DbConfigurationParam("ohf.test.key", "desc", "test", "5",
+                null, DataTypeEnum.INT, true, null);
+        DbConfigurationParamService paramService = mock(DbConfigurationParamService.class);
+        when(paramService.getParameter("ohf.test.key")).thenReturn(param);
+
+        configurationService = new CachedConfigurationService(environment, paramService, Duration.ZERO);
+        configurationService.setValue(Integer.class, "ohf.test.key", 10);
+
+        ArgumentCaptor<DbConfigurationParam> captor = ArgumentCaptor.forClass(DbConfigurationParam.class);
+        verify(paramService).update(captor.capture());
+        assertThat(captor.getValue().getCode(), is("ohf.test.key"));
+        assertThat(captor.getValue().getCurrentValue(), is("10"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetValue_withoutDbConfiguration() {
+        configurationService.setValue(Integer.class, "ohf.test.key", 10);
+    }
+}
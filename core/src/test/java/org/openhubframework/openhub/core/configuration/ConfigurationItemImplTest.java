@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.configuration;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.openhubframework.openhub.api.configuration.CoreProps.ASYNCH_EXTERNAL_CALL_SKIP_URI_PATTERN;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.core.common.asynch.ExternalCallServiceImpl;
+
+
+/**
+ * Test suite for {@link ConfigurationItemImpl} with custom {@link ConfigurationService} which doesn't track
+ * changes of configuration.
+ *
+ * @since 2.4
+ */
+public class ConfigurationItemImplTest {
+
+    private SimpleConfigurationService configurationService;
+
+    @Before
+    public void prepareService() {
+        configurationService = new SimpleConfigurationService();
+        configurationService.setValue(String.class, "ohf.test.key", "value");
+    }
+
+    @Test
+    public void testGetValue_changesNotTracked() {
+        ConfigurationItemImpl<String> item = new ConfigurationItemImpl<>(String.class, "ohf.test.key",
+                configurationService);
+
+        assertThat(item.getValue(), is("value"));
+
+        // value isn't memoized
+        item.setValue("newValue");
+        assertThat(item.getValue(), is("newValue"));
+    }
+
+    @Test
+    public void testOnChange_changesNotTracked() {
+        ConfigurationItemImpl<String> item = new ConfigurationItemImpl<>(String.class, "ohf.test.key",
+                configurationService);
+
+        List<String> notifiedValues = new ArrayList<>();
+        item.onChange(notifiedValues::add);
+
+        // listener is registered but never invoked
+        item.setValue("newValue");
+        assertThat(notifiedValues.isEmpty(), is(true));
+        assertThat(item.getValue(), is("newValue"));
+    }
+
+    @Test
+    public void testInitServiceWithChangeListener() {
+        configurationService.setValue(String.class, ASYNCH_EXTERNAL_CALL_SKIP_URI_PATTERN, "spring-ws:.*");
+
+        ExternalCallServiceImpl externalCallService = new ExternalCallServiceImpl();
+        setPrivateField(externalCallService, "skipOperationUriList", new ConfigurationItemImpl<>(String.class,
+                ASYNCH_EXTERNAL_CALL_SKIP_URI_PATTERN, configurationService));
+
+        // initialization doesn't fail with custom configuration service
+        externalCallService.initPattern();
+
+        assertThat(externalCallService.prepare("spring-ws:http://localhost:8080/ws", "key", new Message()),
+                nullValue());
+    }
+
+    /**
+     * Minimal configuration service, changes of configuration aren't tracked.
+     */
+    private static class SimpleConfigurationService implements ConfigurationService {
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public <T> T getValue(Class<T> clazz, String key) {
+            return clazz.cast(values.get(key));
+        }
+
+        @Override
+        public <T> void setValue(Class<T> clazz, String key, Object newValue) {
+            values.put(key, newValue);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.openhubframework.openhub.core.funnel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+
+/**
+ * Test suite for {@link FunnelEntries}.
+ */
+public class FunnelEntriesTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final long START_TIME = NOW - 600_000L;
+
+    @Test
+    public void testTryEnter() {
+        FunnelEntries entries = new FunnelEntries(Collections.emptyList(), NOW);
+
+        assertThat(entries.tryEnter(processing(1, 100), START_TIME, false, false), is(true));
+        // the first message is still processing
+        assertThat(entries.tryEnter(processing(2, 200), START_TIME, false, false), is(false));
+
+        entries.update(message(2, 200, MsgStateEnum.POSTPONED));
+        entries.update(message(1, 100, MsgStateEnum.OK));
+        assertThat(entries.tryEnter(processing(2, 200), START_TIME, false, false), is(true));
+
+        entries.update(message(2, 200, MsgStateEnum.OK));
+        assertThat(entries.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTryEnter_idleMessages() {
+        FunnelEntries entries = new FunnelEntries(Collections.singletonList(
+                new FunnelMessage(1, 100, MsgStateEnum.PROCESSING, START_TIME - 1)), NOW);
+
+        // processing of the first message takes too long
+        assertThat(entries.tryEnter(processing(2, 200), START_TIME, false, false), is(true));
+        assertThat(entries.getMessages().size(), is(1));
+    }
+
+    @Test
+    public void testTryEnter_guaranteedOrder() {
+        FunnelEntries entries = new FunnelEntries(Arrays.asList(
+                message(1, 100, MsgStateEnum.FAILED),
+                message(3, 300, MsgStateEnum.POSTPONED)), NOW);
+
+        // FAILED message is the first one
+        assertThat(entries.tryEnter(processing(2, 200), START_TIME, true, false), is(false));
+        assertThat(entries.tryEnter(processing(2, 200), START_TIME, true, true), is(true));
+
+        // older message is processing
+        assertThat(entries.tryEnter(processing(4, 400), START_TIME, true, true), is(false));
+    }
+
+    @Test
+    public void testReconciledBefore() {
+        FunnelEntries entries = new FunnelEntries(Collections.emptyList(), NOW);
+
+        assertThat(entries.isReconciledBefore(NOW), is(false));
+        assertThat(entries.isReconciledBefore(NOW + 1), is(true));
+    }
+
+    private static FunnelMessage processing(long msgId, long msgTimestamp) {
+        return message(msgId, msgTimestamp, MsgStateEnum.PROCESSING);
+    }
+
+    private static FunnelMessage message(long msgId, long msgTimestamp, MsgStateEnum state) {
+        return new FunnelMessage(msgId, msgTimestamp, state, NOW);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.funnel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openhubframework.openhub.test.AbstractTest.setPrivateField;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.EntryProcessor;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhubframework.openhub.api.entity.Message;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.api.event.CompletedMsgAsynchEvent;
+import org.openhubframework.openhub.spi.msg.MessageService;
+
+/**
+ * Test suite for {@link FunnelRegistryHazelcastImpl} and its update by {@link FunnelRegistryEventNotifier}.
+ * Hazelcast map is simulated, entry processors are applied on local map.
+ *
+ * @since 2.4
+ */
+public class FunnelRegistryHazelcastImplTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final String FUNNEL_COMP_ID = "funnel_route";
+
+    private static final String FUNNEL_VALUE = "774724557";
+
+    private static final Duration IDLE_INTERVAL = Duration.ofMinutes(10);
+
+    private final Map<String, FunnelEntries> funnels = new HashMap<>();
+
+    private MessageService messageService;
+
+    private TestFunnelRegistry funnelRegistry;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void prepareRegistry() {
+        IMap<String, FunnelEntries> map = mock(IMap.class);
+        when(map.executeOnKey(anyString(), any(EntryProcessor.class))).thenAnswer(invocation ->
+                execute(invocation.getArgument(0), invocation.getArgument(1)));
+
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, FunnelEntries>getMap(anyString())).thenReturn(map);
+
+        messageService = mock(MessageService.class);
+
+        funnelRegistry = new TestFunnelRegistry();
+        funnelRegistry.setReconcileInterval(Duration.ofMinutes(1));
+        setPrivateField(funnelRegistry, "hazelcastInstance", hazelcastInstance);
+        setPrivateField(funnelRegistry, "messageService", messageService);
+    }
+
+    @Test
+    public void testEnterRejectRelease() throws Exception {
+        Message first = message(1, 100, MsgStateEnum.PROCESSING);
+        Message second = message(2, 200, MsgStateEnum.PROCESSING);
+        databaseContains(first);
+
+        // unknown funnel is loaded from the database
+        assertThat(tryEnter(first, false), is(true));
+        verifyDatabaseLoaded(1);
+
+        // the first message is still processing
+        assertThat(tryEnter(second, false), is(false));
+        second.setState(MsgStateEnum.POSTPONED);
+        funnelRegistry.update(second);
+
+        // the first message is finished
+        first.setState(MsgStateEnum.OK);
+        new FunnelRegistryEventNotifier(funnelRegistry).notify(
+                new CompletedMsgAsynchEvent(new DefaultExchange(new DefaultCamelContext()), first));
+
+        second.setState(MsgStateEnum.PROCESSING);
+        assertThat(tryEnter(second, false), is(true));
+
+        // decisions about known funnel are made in the map only
+        verifyDatabaseLoaded(1);
+
+        // empty funnel is removed
+        second.setState(MsgStateEnum.OK);
+        funnelRegistry.update(second);
+        assertThat(funnels.get(funnelKey()), nullValue());
+    }
+
+    @Test
+    public void testGuaranteedOrder() {
+        Message first = message(1, 100, MsgStateEnum.PARTLY_FAILED);
+        Message second = message(2, 200, MsgStateEnum.PROCESSING);
+        databaseContains(first, second);
+
+        // older PARTLY_FAILED message goes first
+        assertThat(tryEnter(second, true), is(false));
+
+        first.setState(MsgStateEnum.PROCESSING);
+        assertThat(tryEnter(first, true), is(true));
+        verifyDatabaseLoaded(1);
+    }
+
+    @Test
+    public void testReconcileInterval() {
+        Message first = message(1, 100, MsgStateEnum.PROCESSING);
+        Message second = message(2, 200, MsgStateEnum.PROCESSING);
+        databaseContains(first);
+
+        assertThat(tryEnter(first, false), is(true));
+
+        // update of the first message was lost, the database knows that it's finished
+        first.setState(MsgStateEnum.OK);
+        databaseContains(second);
+
+        funnelRegistry.now = NOW + 59_999;
+        assertThat(tryEnter(second, false), is(false));
+        verifyDatabaseLoaded(1);
+
+        // funnel is reconciled with the database
+        funnelRegistry.now = NOW + 60_001;
+        assertThat(tryEnter(second, false), is(true));
+        verifyDatabaseLoaded(2);
+    }
+
+    @Test
+    public void testReconcileAfterNodeLoss() {
+        Message first = message(1, 100, MsgStateEnum.PROCESSING);
+        Message second = message(2, 200, MsgStateEnum.PROCESSING);
+        databaseContains(first);
+
+        assertThat(tryEnter(first, true), is(true));
+
+        // node which owned the entry left the cluster, the entry was lost
+        funnels.clear();
+        databaseContains(first, second);
+
+        // funnel is loaded from the database again, the first message is still processing
+        assertThat(tryEnter(second, true), is(false));
+        verifyDatabaseLoaded(2);
+
+        // update of the first message is applied to reconciled funnel
+        first.setState(MsgStateEnum.OK);
+        funnelRegistry.update(first);
+        assertThat(tryEnter(second, true), is(true));
+        verifyDatabaseLoaded(2);
+    }
+
+    @Test
+    public void testUpdateWithoutFunnel() {
+        // message which didn't go through the funnel is ignored
+        Message msg = message(1, 100, MsgStateEnum.OK);
+        msg.setFunnelComponentId(null);
+        funnelRegistry.update(msg);
+
+        // update of unknown funnel doesn't create it
+        msg = message(1, 100, MsgStateEnum.OK);
+        funnelRegistry.update(msg);
+
+        assertThat(funnels.isEmpty(), is(true));
+    }
+
+    private boolean tryEnter(Message msg, boolean guaranteedOrder) {
+        return funnelRegistry.tryEnter(msg, FUNNEL_COMP_ID, IDLE_INTERVAL, guaranteedOrder, false);
+    }
+
+    private void databaseContains(Message... messages) {
+        when(messageService.getMessagesForGuaranteedOrderForFunnel(FUNNEL_VALUE, IDLE_INTERVAL, false,
+                FUNNEL_COMP_ID)).thenReturn(Arrays.asList(messages));
+    }
+
+    private void verifyDatabaseLoaded(int count) {
+        verify(messageService, times(count)).getMessagesForGuaranteedOrderForFunnel(eq(FUNNEL_VALUE),
+                eq(IDLE_INTERVAL), eq(false), eq(FUNNEL_COMP_ID));
+    }
+
+    private Object execute(String key, EntryProcessor<String, FunnelEntries> processor) {
+        return processor.process(new AbstractMap.SimpleEntry<String, FunnelEntries>(key, funnels.get(key)) {
+            @Override
+            public FunnelEntries setValue(FunnelEntries value) {
+                if (value == null) {
+                    funnels.remove(key);
+                } else {
+                    funnels.put(key, value);
+                }
+                return super.setValue(value);
+            }
+        });
+    }
+
+    private static String funnelKey() {
+        return FUNNEL_COMP_ID + ":" + FUNNEL_VALUE;
+    }
+
+    private static Message message(long msgId, long msgTimestamp, MsgStateEnum state) {
+        Message msg = new Message();
+        msg.setMsgId(msgId);
+        msg.setMsgTimestamp(Instant.ofEpochMilli(msgTimestamp));
+        msg.setState(state);
+        msg.setStartProcessTimestamp(Instant.ofEpochMilli(NOW));
+        msg.setFunnelValue(FUNNEL_VALUE);
+        msg.setFunnelComponentId(FUNNEL_COMP_ID);
+        return msg;
+    }
+
+    /**
+     * Funnel registry with fixed time.
+     */
+    private static class TestFunnelRegistry extends FunnelRegistryHazelcastImpl {
+
+        private long now = NOW;
+
+        @Override
+        protected long now() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.funnel.hazelcast;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import com.hazelcast.map.EntryProcessor;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhubframework.openhub.api.entity.MsgStateEnum;
+import org.openhubframework.openhub.core.funnel.FunnelEntries;
+import org.openhubframework.openhub.core.funnel.FunnelMessage;
+
+/**
+ * Test suite for entry processors which register and update messages in {@link FunnelEntries funnel}
+ * in Hazelcast map.
+ *
+ * @since 2.4
+ */
+public class FunnelEntryProcessorTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final long START_TIME = NOW - 600_000L;
+
+    private Map.Entry<String, FunnelEntries> entry;
+
+    @Before
+    public void prepareEntry() {
+        entry = new AbstractMap.SimpleEntry<>("funnel:value", null);
+    }
+
+    @Test
+    public void testTryEnter_unknownFunnel() {
+        assertThat(process(new TryEnterEntryProcessor(processing(1, 100), START_TIME, false, false, NOW)),
+                nullValue());
+        // entry isn't created, funnel must be loaded from the database
+        assertThat(entry.getValue(), nullValue());
+    }
+
+    @Test
+    public void testTryEnter_reconcileInterval() {
+        entry.setValue(new FunnelEntries(Collections.emptyList(), NOW));
+
+        assertThat(process(new TryEnterEntryProcessor(processing(1, 100), START_TIME, false, false, NOW)),
+                is(Boolean.TRUE));
+        // funnel was loaded before reconcile time
+        assertThat(process(new TryEnterEntryProcessor(processing(2, 200), START_TIME, false, false, NOW + 1)),
+                nullValue());
+        assertThat(entry.getValue().getMessages().size(), is(1));
+    }
+
+    @Test
+    public void testTryEnterAndUpdate() {
+        entry.setValue(new FunnelEntries(Collections.emptyList(), NOW));
+
+        assertThat(process(new TryEnterEntryProcessor(processing(1, 100), START_TIME, false, false, NOW)),
+                is(Boolean.TRUE));
+        // the first message is still processing
+        assertThat(process(new TryEnterEntryProcessor(processing(2, 200), START_TIME, false, false, NOW)),
+                is(Boolean.FALSE));
+
+        process(new UpdateEntryProcessor(message(2, 200, MsgStateEnum.POSTPONED)));
+        process(new UpdateEntryProcessor(message(1, 100, MsgStateEnum.OK)));
+        assertThat(process(new TryEnterEntryProcessor(processing(2, 200), START_TIME, false, false, NOW)),
+                is(Boolean.TRUE));
+
+        // empty funnel is removed
+        process(new UpdateEntryProcessor(message(2, 200, MsgStateEnum.OK)));
+        assertThat(entry.getValue(), nullValue());
+
+        // update of unknown funnel doesn't create it
+        process(new UpdateEntryProcessor(message(3, 300, MsgStateEnum.PROCESSING)));
+        assertThat(entry.getValue(), nullValue());
+    }
+
+    @Test
+    public void testReconcile() {
+        entry.setValue(new FunnelEntries(Collections.singletonList(processing(1, 100)), NOW - 60_000));
+
+        // message 1 finished, but its update was lost, the database knows that
+        FunnelEntries loaded = new FunnelEntries(Arrays.asList(
+                message(3, 300, MsgStateEnum.POSTPONED)), NOW);
+
+        assertThat(process(new ReconcileEntryProcessor(loaded, processing(2, 200), START_TIME, true, false)),
+                is(Boolean.TRUE));
+        assertThat(entry.getValue(), sameInstance(loaded));
+        assertThat(entry.getValue().getMessages().size(), is(2));
+        assertThat(entry.getValue().isReconciledBefore(NOW), is(false));
+    }
+
+    @Test
+    public void testReconcile_afterNodeLoss() {
+        // entry was lost together with the node (no backup), next message doesn't know the funnel
+        assertThat(process(new TryEnterEntryProcessor(processing(2, 200), START_TIME, true, false, NOW)),
+                nullValue());
+
+        // funnel is loaded from the database again, older message keeps its priority
+        FunnelEntries loaded = new FunnelEntries(Collections.singletonList(
+                message(1, 100, MsgStateEnum.PARTLY_FAILED)), NOW);
+        assertThat(process(new ReconcileEntryProcessor(loaded, processing(2, 200), START_TIME, true, false)),
+                is(Boolean.FALSE));
+
+        // funnel is known again
+        assertThat(process(new TryEnterEntryProcessor(processing(1, 100), START_TIME, true, false, NOW)),
+                is(Boolean.TRUE));
+    }
+
+    @Test
+    public void testBackupHasSameEntries() {
+        FunnelMessage idleMsg = new FunnelMessage(1, 100, MsgStateEnum.PROCESSING, NOW - 1);
+        entry.setValue(new FunnelEntries(Collections.singletonList(idleMsg), NOW));
+        Map.Entry<String, FunnelEntries> backup = new AbstractMap.SimpleEntry<>("funnel:value",
+                new FunnelEntries(Collections.singletonList(idleMsg), NOW));
+
+        // start time is resolved by the caller, so backup is updated in the same way
+        TryEnterEntryProcessor processor = new TryEnterEntryProcessor(
+                new FunnelMessage(2, 200, MsgStateEnum.PROCESSING, NOW), NOW, false, false, NOW);
+        assertThat(processor.process(entry), is(Boolean.TRUE));
+        processor.getBackupProcessor().processBackup(backup);
+
+        assertThat(backup.getValue().getMessages(), is(entry.getValue().getMessages()));
+        assertThat(backup.getValue().getMessages().size(), is(1));
+    }
+
+    private Object process(EntryProcessor<String, FunnelEntries> processor) {
+        return processor.process(entry);
+    }
+
+    private static FunnelMessage processing(long msgId, long msgTimestamp) {
+        return message(msgId, msgTimestamp, MsgStateEnum.PROCESSING);
+    }
+
+    private static FunnelMessage message(long msgId, long msgTimestamp, MsgStateEnum state) {
+        return new FunnelMessage(msgId, msgTimestamp, state, NOW);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.openhubframework.openhub.api.configuration.CoreProps;
+import org.openhubframework.openhub.api.entity.MessagePartition;
 import org.openhubframework.openhub.api.entity.MutableNode;
 import org.openhubframework.openhub.api.entity.Node;
 import org.openhubframework.openhub.api.entity.NodeState;
@@ -179,4 +180,21 @@ public class NodeServiceTest extends AbstractCoreDbTest {
         assertThat(testNode.getDescription(), nullValue());
         assertThat(testNode.getState(), is(NodeState.RUN));
     }
+
+    /**
+     * Test method {@link NodeService#getActualNodePartition()}.
+     */
+    @Test
+    public void testGetActualNodePartition() {
+        // actual node only
+        assertThat(nodeService.getActualNodePartition(), is(MessagePartition.ALL));
+
+        // stopped node doesn't own any partition
+        nodeService.insert(new MutableNode("codeStopped", "nameStopped", NodeState.STOPPED));
+        assertThat(nodeService.getActualNodePartition(), is(MessagePartition.ALL));
+
+        // partitions are rebalanced when new node is added (nodes are ordered by ID, actual node is the first one)
+        nodeService.insert(new MutableNode("codeSecond", "nameSecond"));
+        assertThat(nodeService.getActualNodePartition(), is(new MessagePartition(0, 2)));
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openhubframework.openhub.core.reqres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import org.openhubframework.openhub.api.configuration.CoreProps;
+import org.openhubframework.openhub.api.entity.Request;
+import org.openhubframework.openhub.api.entity.Response;
+import org.openhubframework.openhub.core.common.dao.RequestResponseDao;
+
+
+/**
+ * Test suite for {@link RequestResponseServiceWriteBehindImpl}.
+ */
+public class RequestResponseServiceWriteBehindImplTest {
+
+    private RequestResponseDao requestResponseDao;
+
+    private PlatformTransactionManager transactionManager;
+
+    private RequestResponseServiceWriteBehindImpl service;
+
+    @Before
+    public void prepareService() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty(CoreProps.REQUEST_SAVING_WRITE_BEHIND_CAPACITY, "100")
+                .withProperty(CoreProps.REQUEST_SAVING_WRITE_BEHIND_BATCH_SIZE, "10");
+
+        service = createService(env);
+    }
+
+    private RequestResponseServiceWriteBehindImpl createService(MockEnvironment env) {
+        requestResponseDao = mock(RequestResponseDao.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+
+        RequestResponseServiceWriteBehindImpl writeBehindService =
+                new RequestResponseServiceWriteBehindImpl(transactionManager, env);
+        ReflectionTestUtils.setField(writeBehindService, "requestResponseDao", requestResponseDao);
+        return writeBehindService;
+    }
+
+    @Test
+    public void testWriteBehind() {
+        Request req = Request.createRequest("mock:uri", "joinId", "request", null);
+        Response res = Response.createResponse(req, "response", null, null);
+
+        service.start();
+        service.insertRequest(req);
+        service.insertResponse(res);
+        // the rest of the queue is saved when writer stops
+        service.stop();
+
+        InOrder order = inOrder(requestResponseDao);
+        order.verify(requestResponseDao).insertRequest(req);
+        order.verify(requestResponseDao).insertResponse(res);
+        assertThat(service.getWrittenCount(), is(2L));
+        assertThat(service.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void testResponseWithoutSavedRequest() {
+        Request req = Request.createRequest("mock:uri", "joinId", "request", null);
+        Response res = Response.createResponse(req, "response", null, null);
+
+        doAnswer(invocation -> {
+            throw new IllegalStateException("request can't be saved");
+        }).when(requestResponseDao).insertRequest(any(Request.class));
+
+        // writer isn't running => records are saved directly
+        service.insertRequest(req);
+        service.insertResponse(res);
+
+        assertThat(service.getFailedCount(), is(1L));
+        assertThat(service.getWrittenCount(), is(1L));
+        assertThat(res.getRequest(), is(nullValue()));
+    }
+
+    @Test
+    public void testDirectWriteInNewTransaction() {
+        Request req = Request.createRequest("mock:uri", "joinId", "request", null);
+
+        // writer isn't running => record is saved directly, not in transaction of the caller
+        service.insertRequest(req);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior(),
+                is(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(requestResponseDao).insertRequest(req);
+    }
+
+    @Test
+    public void testInsertAfterStop() throws Exception {
+        service = createService(new MockEnvironment()
+                .withProperty(CoreProps.REQUEST_SAVING_WRITE_BEHIND_CAPACITY, "1")
+                .withProperty(CoreProps.REQUEST_SAVING_WRITE_BEHIND_OVERFLOW_POLICY, "BLOCK"));
+
+        Request queuedReq = Request.createRequest("mock:uri", "joinId1", "request", null);
+        Request req = Request.createRequest("mock:uri", "joinId2", "request", null);
+
+        // writer is running, but it doesn't take records from the queue
+        ReflectionTestUtils.setField(service, "running", true);
+        service.insertRequest(queuedReq);
+
+        // the queue is full => caller waits for free space
+        Thread caller = new Thread(() -> service.insertRequest(req));
+        caller.start();
+        caller.join(200);
+        assertThat(caller.isAlive(), is(true));
+
+        // writer is stopped => waiting record is saved directly, it isn't lost
+        ReflectionTestUtils.setField(service, "running", false);
+        caller.join(5000);
+
+        assertThat(caller.isAlive(), is(false));
+        verify(requestResponseDao).insertRequest(req);
+        verify(requestResponseDao, never()).insertRequest(queuedReq);
+        assertThat(service.getQueueDepth(), is(1));
+    }
+
+    @Test
+    public void testFindQueuedRequest() {
+        Request savedReq = Request.createRequest("mock:uri", "joinId", "request", null);
+        Request oldReq = Request.createRequest("mock:uri", "joinId", "request", null);
+        Request req = Request.createRequest("mock:uri", "joinId", "request", null);
+        when(requestResponseDao.findLastRequest("mock:uri", "joinId")).thenReturn(savedReq);
+
+        // writer is running, but it doesn't take records from the queue
+        ReflectionTestUtils.setField(service, "running", true);
+        service.insertRequest(oldReq);
+        service.insertRequest(Request.createRequest("mock:uri", "otherJoinId", "request", null));
+        service.insertRequest(req);
+        service.insertRequest(Request.createRequest("mock:otherUri", "joinId", "request", null));
+        assertThat(service.getQueueDepth(), is(4));
+
+        // the newest request is waiting in the queue
+        assertThat(service.findLastRequest("mock:uri", "joinId"), sameInstance(req));
+        verify(requestResponseDao, never()).findLastRequest(anyString(), anyString());
+
+        // there is no such request in the queue
+        assertThat(service.findLastRequest("mock:uri", "unknownJoinId"), nullValue());
+        verify(requestResponseDao).findLastRequest("mock:uri", "unknownJoinId");
+    }
+
+    @Test
+    public void testFindRequestBeingSaved() {
+        Request req = Request.createRequest("mock:uri", "joinId", "request", null);
+
+        // request is searched when the writer saves it
+        AtomicReference<Request> foundReq = new AtomicReference<>();
+        doAnswer(invocation -> {
+            foundReq.set(service.findLastRequest("mock:uri", "joinId"));
+            return null;
+        }).when(requestResponseDao).insertRequest(req);
+
+        service.start();
+        service.insertRequest(req);
+        service.stop();
+
+        assertThat(foundReq.get(), sameInstance(req));
+        verify(requestResponseDao, never()).findLastRequest(anyString(), anyString());
+    }
+
+    @Test
+    public void testFindSavedRequest() {
+        Request req = Request.createRequest("mock:uri", "joinId", "request", null);
+        when(requestResponseDao.findLastRequest("mock:uri", "joinId")).thenReturn(req);
+
+        service.start();
+        service.insertRequest(Request.createRequest("mock:uri", "otherJoinId", "request", null));
+        service.stop();
+
+        assertThat(service.findLastRequest("mock:uri", "joinId"), sameInstance(req));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.reqres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.persistence.TypedQuery;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.Produce;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import org.openhubframework.openhub.api.entity.Request;
+import org.openhubframework.openhub.api.entity.Response;
+import org.openhubframework.openhub.core.AbstractCoreDbTest;
+import org.openhubframework.openhub.core.configuration.FixedConfigurationItem;
+
+
+/**
+ * Test suite for pairing of requests and responses by {@link RequestSendingEventNotifier}
+ * and {@link ResponseReceiveEventNotifier} when requests/responses are saved by
+ * {@link RequestResponseServiceWriteBehindImpl write-behind}, i.e. request can be still waiting in the queue
+ * when response arrives.
+ *
+ * @since 2.4
+ */
+@TestPropertySource(properties = {
+        "ohf.requestSaving.writeBehind.enabled=true"
+})
+public class RequestResponseWriteBehindTest extends AbstractCoreDbTest {
+
+    private static final String REQUEST = "request";
+
+    private static final String RESPONSE = "response";
+
+    private static final long WRITE_TIMEOUT_MILLIS = 10_000;
+
+    @Produce(uri = "direct:start")
+    private ProducerTemplate producer;
+
+    @EndpointInject(uri = "mock:test")
+    private MockEndpoint mock;
+
+    @Autowired
+    private RequestSendingEventNotifier reqSendingEventNotifier;
+
+    @Autowired
+    private ResponseReceiveEventNotifier resReceiveEventNotifier;
+
+    @Autowired
+    private RequestResponseServiceWriteBehindImpl writeBehindService;
+
+    @Before
+    public void prepareConfiguration() {
+        setPrivateField(reqSendingEventNotifier, "enable", new FixedConfigurationItem<>(Boolean.TRUE));
+        setPrivateField(reqSendingEventNotifier, "endpointFilterPattern", Pattern.compile("^(direct.*target).*$"));
+
+        setPrivateField(resReceiveEventNotifier, "enable", new FixedConfigurationItem<>(Boolean.TRUE));
+        setPrivateField(resReceiveEventNotifier, "endpointFilterPattern", Pattern.compile("^(direct.*target).*$"));
+    }
+
+    @Before
+    public void prepareRoutes() throws Exception {
+        getCamelContext().addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                        .to("direct:target")
+                        .to("direct:otherTarget")
+                        .to("mock:test");
+
+                from("direct:target")
+                        // simulates changes in exchange - request is carried in exchange property
+                        .removeHeader(RequestSendingEventNotifier.SAVE_REQ_HEADER)
+                        .process(exchange -> exchange.getOut().setBody(RESPONSE));
+
+                from("direct:otherTarget")
+                        // simulates new exchange - request is searched by exchange ID
+                        .removeHeader(RequestSendingEventNotifier.SAVE_REQ_HEADER)
+                        .removeProperty(RequestSendingEventNotifier.SAVE_REQ_PROPERTY)
+                        .process(exchange -> exchange.getOut().setBody(RESPONSE));
+            }
+        });
+    }
+
+    @Test
+    public void testPairingWithWriteBehind() throws Exception {
+        assertThat(writeBehindService.isRunning(), is(true));
+        long writtenCount = writeBehindService.getWrittenCount();
+
+        mock.expectedMessageCount(1);
+        producer.sendBody(REQUEST);
+        mock.assertIsSatisfied();
+
+        // two requests and two responses are saved in background
+        waitForWrittenCount(writtenCount + 4);
+
+        TypedQuery<Response> queryRes = em.createQuery("FROM " + Response.class.getName(), Response.class);
+        List<Response> responses = queryRes.getResultList();
+        assertThat(responses.size(), is(2));
+
+        Map<String, Request> requests = new HashMap<>();
+        for (Response response : responses) {
+            assertThat(response.getResponse(), is(RESPONSE));
+            assertThat("request of the response must be saved", response.getRequest() != null, is(true));
+            requests.put(response.getRequest().getUri(), response.getRequest());
+        }
+
+        assertThat(requests.get("direct://target").getRequest(), is(REQUEST));
+        // body of the second call is response of the first call
+        assertThat(requests.get("direct://otherTarget").getRequest(), is(RESPONSE));
+    }
+
+    private void waitForWrittenCount(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WRITE_TIMEOUT_MILLIS;
+        while (writeBehindService.getWrittenCount() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Requests/responses weren't saved in " + WRITE_TIMEOUT_MILLIS + " ms, written count is "
+                        + writeBehindService.getWrittenCount());
+            }
+            Thread.sleep(10);
+        }
+    }
+}
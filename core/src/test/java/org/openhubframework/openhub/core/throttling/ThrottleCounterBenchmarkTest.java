@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.openhubframework.openhub.core.throttling;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.openhubframework.openhub.spi.throttling.ThrottleScope;
+
+
+/**
+ * Benchmark of counting of requests - {@link ThrottleCounterSlidingWindowImpl} versus
+ * {@link ThrottleCounterMemoryImpl}. All threads count requests of the same throttle scope at once.
+ * <p>
+ * Count of requests is {@value #DEFAULT_REQUESTS} per thread by default to keep the build fast,
+ * use system property {@value #REQUESTS_PROPERTY} for longer run (e.g. {@code 100000}).
+ * Average time per request is logged for both implementations, count of requests is checked.
+ *
+ * @since 2.4
+ */
+public class ThrottleCounterBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThrottleCounterBenchmarkTest.class);
+
+    private static final String REQUESTS_PROPERTY = "ohf.benchmark.throttleRequests";
+
+    private static final int DEFAULT_REQUESTS = 5000;
+
+    private static final int THREADS = 4;
+
+    /**
+     * Interval of throttling in seconds, all requests of one run fall into this interval.
+     */
+    private static final int INTERVAL_SEC = 600;
+
+    private int requests;
+
+    private ExecutorService executor;
+
+    @Before
+    public void prepareExecutor() {
+        requests = Integer.getInteger(REQUESTS_PROPERTY, DEFAULT_REQUESTS);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMemoryCounter() throws Exception {
+        benchmark("memory counter", new ThrottleCounterMemoryImpl());
+    }
+
+    @Test
+    public void testSlidingWindowCounter() throws Exception {
+        benchmark("sliding window counter", new ThrottleCounterSlidingWindowImpl());
+    }
+
+    private void benchmark(String name, AbstractThrottleCounter counter) throws Exception {
+        // warm up
+        runConcurrently(counter, new ThrottleScope("crm", "warmUp"));
+
+        ThrottleScope scope = new ThrottleScope("crm", "benchmark");
+        long start = System.nanoTime();
+
+        runConcurrently(counter, scope);
+
+        long duration = System.nanoTime() - start;
+        logResult(name, duration);
+
+        // no request is lost
+        assertThat(counter.count(scope, INTERVAL_SEC), is(THREADS * requests + 1));
+    }
+
+    private void runConcurrently(AbstractThrottleCounter counter, ThrottleScope scope) throws Exception {
+        Callable<Void> task = () -> {
+            for (int i = 0; i < requests; i++) {
+                counter.count(scope, INTERVAL_SEC);
+            }
+            return null;
+        };
+
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(task));
+        }
+
+        for (Future<Void> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+    }
+
+    private void logResult(String name, long durationNanos) {
+        LOG.info("Throttling with {}: {} threads, {} requests per thread, total time = {} ms, "
+                        + "avg time per request = {} ns",
+                name, THREADS, requests, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                durationNanos / ((long) THREADS * requests));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.throttling;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import org.openhubframework.openhub.spi.throttling.ThrottleScope;
+
+
+/**
+ * Test suite for {@link ThrottleCounterHazelcastLocalImpl}.
+ */
+public class ThrottleCounterHazelcastLocalImplTest extends AbstractThrottleCounterTest {
+
+    private static final Duration SYNC_PERIOD = Duration.ofMillis(100);
+
+    private Config config;
+
+    @Before
+    public void prepareConfig() throws IOException {
+        Resource conf = new ClassPathResource("config/ohf_hazelcast.xml");
+        config = new Config();
+        config.setConfigurationFile(conf.getFile());
+    }
+
+    @After
+    public void shutdownHazelcast() {
+        // gracefully shutdowns HazelcastInstance => necessary for running another tests
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void testSingleNodeCounting() throws Exception {
+        HazelcastInstance hazelcast = Hazelcast.newHazelcastInstance(config);
+
+        try (ThrottleCounterHazelcastLocalImpl counter = new ThrottleCounterHazelcastLocalImpl(hazelcast, SYNC_PERIOD)) {
+            assertCounting(counter);
+        }
+    }
+
+    @Test
+    public void testMultiThreadCountingWithSingleNode() throws Exception {
+        HazelcastInstance hazelcast = Hazelcast.newHazelcastInstance(config);
+
+        try (ThrottleCounterHazelcastLocalImpl counter = new ThrottleCounterHazelcastLocalImpl(hazelcast, SYNC_PERIOD)) {
+            assertMultiThreadCounting(counter);
+        }
+    }
+
+    @Test
+    public void testTwoNodesCounting() throws Exception {
+        HazelcastInstance hazelcast1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hazelcast2 = Hazelcast.newHazelcastInstance(config);
+
+        try (ThrottleCounterHazelcastLocalImpl counter1 = new ThrottleCounterHazelcastLocalImpl(hazelcast1,
+                SYNC_PERIOD);
+                ThrottleCounterHazelcastLocalImpl counter2 = new ThrottleCounterHazelcastLocalImpl(hazelcast2,
+                        SYNC_PERIOD)) {
+
+            ThrottleScope scope = new ThrottleScope("crm", "op1");
+            assertThat(counter1.count(scope, 10), is(1));
+            assertThat(counter1.count(scope, 10), is(2));
+            assertThat(counter2.count(scope, 10), is(1));
+
+            // wait for synchronization
+            Thread.sleep(SYNC_PERIOD.toMillis() * 10);
+
+            assertThat(counter2.count(scope, 10), is(4));
+            assertThat(counter1.count(scope, 10), is(4));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openhubframework.openhub.core.throttling;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.openhubframework.openhub.spi.throttling.ThrottleScope;
+
+
+/**
+ * Test suite for {@link ThrottleCounterSlidingWindowImpl}.
+ */
+public class ThrottleCounterSlidingWindowImplTest extends AbstractThrottleCounterTest {
+
+    private ThrottleCounterSlidingWindowImpl counter = new ThrottleCounterSlidingWindowImpl();
+
+    @Test
+    public void testSingleThreadCounting() throws Exception {
+        assertCounting(counter);
+    }
+
+    @Test
+    public void testMultiThreadCounting() throws Exception {
+        assertMultiThreadCounting(counter);
+    }
+
+    @Test
+    public void testLongerInterval() {
+        ThrottleScope scope = new ThrottleScope("crm", "op1");
+
+        assertThat(counter.count(scope, 5), is(1));
+        assertThat(counter.count(scope, 5), is(2));
+
+        // window is extended, history is not preserved
+        assertThat(counter.count(scope, 10), is(1));
+        assertThat(counter.count(scope, 5), is(2));
+    }
+
+    /**
+     * Checks that no request is lost when many threads count requests of the same scope at the same time,
+     * the result must be the same as the result of {@link ThrottleCounterMemoryImpl}.
+     */
+    @Test
+    public void testCountingUnderContention() throws Exception {
+        int threads = 4;
+        int requestsPerThread = 2000;
+
+        assertThat(countConcurrently(new ThrottleCounterMemoryImpl(), threads, requestsPerThread),
+                is(threads * requestsPerThread + 1));
+        assertThat(countConcurrently(counter, threads, requestsPerThread), is(threads * requestsPerThread + 1));
+    }
+
+    /**
+     * Counts requests from more threads at once.
+     *
+     * @return count of requests in the window after all threads finished (including one more request)
+     */
+    private static int countConcurrently(final AbstractThrottleCounter counter, int threads,
+            final int requestsPerThread) throws InterruptedException {
+        final ThrottleScope scope = new ThrottleScope("crm", "contention");
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    startLatch.await();
+                    for (int j = 0; j < requestsPerThread; j++) {
+                        counter.count(scope, 60);
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            }).start();
+        }
+
+        startLatch.countDown();
+        assertThat(endLatch.await(30, TimeUnit.SECONDS), is(true));
+
+        return counter.count(scope, 60);
+    }
+}
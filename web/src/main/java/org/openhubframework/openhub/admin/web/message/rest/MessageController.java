@@ -22,7 +22,9 @@ import java.util.Optional;
 
 import javax.validation.Valid;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.openhubframework.openhub.admin.web.common.AbstractOhfController;
 import org.openhubframework.openhub.admin.web.message.rpc.ActionRequestRpc;
 import org.openhubframework.openhub.admin.web.message.rpc.ActionResultRpc;
@@ -42,6 +44,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -51,6 +54,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Controller for managing operations with messages.
@@ -79,8 +83,13 @@ public class MessageController extends AbstractOhfController {
     @Autowired
     private MessageOperationService messageOperationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * List messages, by given filter.
+     * Only basic attributes of messages are loaded, next page of messages can be requested by cursor
+     * (received timestamp and ID of the last message of the previous page).
      *
      * @param messageFilter the filter to filter messages.
      * @return custom collection wrapper with message list elements.
@@ -97,7 +106,8 @@ public class MessageController extends AbstractOhfController {
         LOG.trace("List messages by filter [{}].", filter);
 
         // fetch messages from messageService
-        final List<Message> messageList = messageService.findMessagesByFilter(filter, messagesLimit.getValue());
+        final List<Message> messageList =
+                messageService.findMessageListItemsByFilter(filter, messagesLimit.getValue());
 
         return new MessageCollectionWrapper(
                 MessageListItemRpc.fromMessage(),
@@ -107,6 +117,52 @@ public class MessageController extends AbstractOhfController {
         );
     }
 
+    /**
+     * Streams all messages by given filter as JSON array. Messages are fetched page by page
+     * (page size is defined by {@value WebProps#MESSAGES_LIMIT}) and written to the response immediately,
+     * so whole result is never held in memory.
+     *
+     * @param messageFilter the filter to filter messages.
+     * @return streamed JSON array of message list elements.
+     * @since 2.4
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(final MessageFilterRpc messageFilter) {
+        Constraints.notNull(messageFilter.getReceivedFrom(), "The receivedFrom is mandatory.");
+        Constraints.notNull(messagesLimit.getValue(), "the messagesLimit must be configured.");
+
+        final MessageFilter filter =
+                MessageFilterRpc.toMessageFilter().convert(messageFilter);
+        final long pageSize = messagesLimit.getValue();
+        LOG.trace("Stream messages by filter [{}].", filter);
+
+        final StreamingResponseBody body = outputStream -> {
+            final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.writeStartArray();
+
+            List<Message> messageList;
+            do {
+                messageList = messageService.findMessageListItemsByFilter(filter, pageSize);
+                for (Message message : messageList) {
+                    generator.writeObject(MessageListItemRpc.fromMessage().convert(message));
+                }
+                generator.flush();
+
+                // next page starts after the last message (keyset pagination)
+                if (!messageList.isEmpty()) {
+                    final Message last = messageList.get(messageList.size() - 1);
+                    filter.setCursorReceived(last.getReceiveTimestamp());
+                    filter.setCursorId(last.getMsgId());
+                }
+            } while (messageList.size() == pageSize);
+
+            generator.writeEndArray();
+            generator.flush();
+        };
+
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
     /**
      * Get detail of message identified by its id.
      *
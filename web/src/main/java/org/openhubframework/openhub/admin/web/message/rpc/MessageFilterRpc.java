@@ -44,6 +44,8 @@ public class MessageFilterRpc {
     private String serviceName;
     private String operationName;
     private String fulltext;
+    private OffsetDateTime cursorReceived;
+    private Long cursorId;
 
     public OffsetDateTime getReceivedFrom() {
         return receivedFrom;
@@ -141,6 +143,22 @@ public class MessageFilterRpc {
         this.fulltext = fulltext;
     }
 
+    public OffsetDateTime getCursorReceived() {
+        return cursorReceived;
+    }
+
+    public void setCursorReceived(OffsetDateTime cursorReceived) {
+        this.cursorReceived = cursorReceived;
+    }
+
+    public Long getCursorId() {
+        return cursorId;
+    }
+
+    public void setCursorId(Long cursorId) {
+        this.cursorId = cursorId;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
@@ -156,6 +174,8 @@ public class MessageFilterRpc {
                 .append("serviceName", serviceName)
                 .append("operationName", operationName)
                 .append("fulltext", fulltext)
+                .append("cursorReceived", cursorReceived)
+                .append("cursorId", cursorId)
                 .toString();
     }
 
@@ -182,6 +202,10 @@ public class MessageFilterRpc {
             ret.setServiceName(source.getServiceName());
             ret.setOperationName(source.getOperationName());
             ret.setFulltext(source.getFulltext());
+            if(source.getCursorReceived() != null) {
+                ret.setCursorReceived(source.getCursorReceived().toInstant());
+            }
+            ret.setCursorId(source.getCursorId());
             return ret;
         };
     }
@@ -25,10 +25,12 @@ import static org.mockito.Mockito.times;
 import static org.openhubframework.openhub.test.rest.TestRestUtils.createGetUrl;
 import static org.openhubframework.openhub.test.rest.TestRestUtils.createJson;
 import static org.openhubframework.openhub.test.rest.TestRestUtils.toUrl;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.lang.reflect.Field;
@@ -50,6 +52,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.util.ReflectionUtils;
 
 import org.openhubframework.openhub.admin.AbstractAdminModuleRestTest;
@@ -93,7 +96,7 @@ public class MessageControllerTest extends AbstractAdminModuleRestTest {
                 ;
 
         final ArgumentCaptor<MessageFilter> argumentCaptor = ArgumentCaptor.forClass(MessageFilter.class);
-        Mockito.when(messageService.findMessagesByFilter(argumentCaptor.capture(), eq(42L)))
+        Mockito.when(messageService.findMessageListItemsByFilter(argumentCaptor.capture(), eq(42L)))
                 .thenReturn(Collections.emptyList());
 
         // GET /api/messages
@@ -125,6 +128,8 @@ public class MessageControllerTest extends AbstractAdminModuleRestTest {
                 .addParameter("serviceName", "HELLO")
                 .addParameter("operationName", "check")
                 .addParameter("fulltext", "fulltext-message")
+                .addParameter("cursorReceived", "2017-05-29T11:47:28+02:00")
+                .addParameter("cursorId", "85")
                 ;
 
         final ZonedDateTime dateTime =
@@ -169,7 +174,7 @@ public class MessageControllerTest extends AbstractAdminModuleRestTest {
         msg.setFailedDesc("Something went terribly wrong");
 
         final ArgumentCaptor<MessageFilter> argumentCaptor = ArgumentCaptor.forClass(MessageFilter.class);
-        Mockito.when(messageService.findMessagesByFilter(argumentCaptor.capture(), eq(42L)))
+        Mockito.when(messageService.findMessageListItemsByFilter(argumentCaptor.capture(), eq(42L)))
                 .thenReturn(Collections.singletonList(msg));
 
         // GET /api/messages
@@ -204,6 +209,41 @@ public class MessageControllerTest extends AbstractAdminModuleRestTest {
         assertThat(filter.getServiceName(), is("HELLO"));
         assertThat(filter.getOperationName(), is("check"));
         assertThat(filter.getFulltext(), is("fulltext-message"));
+        assertThat(filter.getCursorReceived(), is(Instant.parse("2017-05-29T09:47:28Z")));
+        assertThat(filter.getCursorId(), is(85L));
+    }
+
+    @Test
+    public void stream_Ok() throws Exception {
+        final URIBuilder uriBuilder = createGetUrl(ROOT_URI + "/stream")
+                .addParameter("receivedFrom", "2017-05-28T11:47:28+02:00")
+                ;
+
+        final Message msg = new Message(84L, "20301-2332-1321", "CRM", Instant.parse("2017-05-28T10:00:00Z"),
+                null, MsgStateEnum.OK, null, "CUSTOMER", "setCustomer");
+
+        final ArgumentCaptor<MessageFilter> argumentCaptor = ArgumentCaptor.forClass(MessageFilter.class);
+        Mockito.when(messageService.findMessageListItemsByFilter(argumentCaptor.capture(), eq(42L)))
+                .thenReturn(Collections.singletonList(msg));
+
+        // GET /api/messages/stream
+        final MvcResult result = mockMvc.perform(get(toUrl(uriBuilder))
+                .accept(MediaType.APPLICATION_JSON)
+                .with(SecurityMockMvcRequestPostProcessors.authentication(mockAuthentication("ADMIN"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(84)))
+                .andExpect(jsonPath("$[0].correlationId", is("20301-2332-1321")))
+                .andExpect(jsonPath("$[0].sourceSystem", is("CRM")))
+                .andExpect(jsonPath("$[0].serviceName", is("CUSTOMER")))
+        ;
+
+        final MessageFilter filter = argumentCaptor.getValue();
+        assertThat(filter.getReceivedFrom(), is(Instant.parse("2017-05-28T09:47:28Z")));
     }
 
     @Test